@@ -31,6 +31,8 @@
 package application;
 
 import java.awt.EventQueue;
+import java.io.File;
+import java.nio.file.Paths;
 import java.util.Locale;
 import javax.swing.JPanel;
 
@@ -39,6 +41,8 @@ import org.apache.logging.log4j.Logger;
 import org.kohsuke.args4j.CmdLineException;
 import org.kohsuke.args4j.CmdLineParser;
 
+import control.BatchCompiler;
+import control.CompiledAudioStore;
 import control.WorkflowEngine;
 import control.gui.CompileAndUploadAction;
 import control.gui.InputFileController;
@@ -56,7 +60,8 @@ import view.gui.MainWindow;
 /**
  * Responsibilities:<br>
  * Create the application window, the data model and all controllers 
- * needed for the GUI and workflow management. 
+ * needed for the GUI and workflow management.<br>
+ * Or run the headless batch mode if an output directory is given by -o.
  * 
  * <p>
  * Collaborators:<br>
@@ -122,8 +127,10 @@ public class Application {
 		workflowEngine.setTargetSystem(null);
 
 		OutputDeviceController outputDeviceController = new OutputDeviceController(workflowEngine, (OutputDeviceControllerModel) model);	
+		Runtime.getRuntime().addShutdownHook(new Thread(outputDeviceController::release, "OutputDeviceController-release"));
 		InputFileController inputFileController = new InputFileController(workflowEngine, (InputFileControllerModel) model, mainPanel);
 		CompileAndUploadAction compileAndUploadAction = new CompileAndUploadAction(workflowEngine);
+		compileAndUploadAction.setCompiledAudioStore(new CompiledAudioStore(Paths.get(ApplicationResources.COMPILED_AUDIO_STORE())));
 		TargetSystemSelection targetSystemSelection = new TargetSystemSelection(workflowEngine, (TargetSystemSelectionModel) model);
 		
 		mainWindowController.setTitle();
@@ -174,6 +181,16 @@ public class Application {
 			
 		} // yrt
 
+		if(CliParameter.outputDirectory != null) {
+			System.exit(runBatch());	// NOSONAR
+		}
+		
+		if(! CliParameter.inputFiles.isEmpty()) {
+			
+			System.err.println("Input files are compiled in batch mode only, set the output directory by -o <directory>!");	// NOSONAR
+			System.exit(ExitCodes.EINVAL);
+			
+		} // fi
 		
 //		logger.trace("Current class_path: -> {}",
 //				new ClassGraph().scan()
@@ -212,4 +229,42 @@ public class Application {
 	} // main(...)
 	
 	
+	/**
+	 * 
+	 * Runs the headless batch mode.
+	 * <br>
+	 * No window and no sound card is needed, all input files given on the command line are compiled 
+	 * to WAV files in the output directory, see BatchCompiler.
+	 * 
+	 * @return
+	 * The exit code of the application.
+	 * 
+	 */
+	protected static int runBatch() {
+		logger.trace("runBatch()");
+		
+		System.setProperty("java.awt.headless", "true");
+		
+		FskUploaderModel model = new FskUploaderModel();
+		WorkflowEngine workflowEngine = new WorkflowEngine(model);
+		
+		String targetSystemName = CliParameter.targetSystem != null ? CliParameter.targetSystem : model.getTargetSystemName();
+		
+		try {
+			
+			BatchCompiler batchCompiler = new BatchCompiler(workflowEngine, targetSystemName, new File(CliParameter.outputDirectory))
+				.withNbrOfWorkers(CliParameter.nbrOfWorkers);
+			
+			return batchCompiler.compile(CliParameter.inputFiles);
+			
+		} catch (IllegalArgumentException e) {
+			
+			System.err.println(e.getMessage());	// NOSONAR
+			return ExitCodes.EINVAL;
+			
+		} // yrt
+		
+	} // runBatch()
+	
+	
 } // ssalc
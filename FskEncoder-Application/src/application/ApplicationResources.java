@@ -79,6 +79,10 @@ public class ApplicationResources {
 		return path + "/Plugin.properties";  }
 
 	
+	public static final String COMPILED_AUDIO_STORE() { logger.info("COMPILED_AUDIO_STORE()");
+		return path + "/compiled-audio";  }
+
+	
 	
 	public static String asString() {
 		
@@ -30,6 +30,10 @@
 
 package application;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.kohsuke.args4j.Argument;
 import org.kohsuke.args4j.Option;
 
 @SuppressWarnings("java:S1118")
@@ -49,4 +53,29 @@ public final class CliParameter {
 	@Option(name="-c", usage="path to property file", required = true)
 	public static String cfgPath = null;
 
+	/*
+	 * Headless batch mode, see control.BatchCompiler.
+	 * 
+	 * If an output directory is given, the application compiles all input files to WAV files 
+	 * without creating any window.
+	 */
+	@SuppressWarnings("java:S1444")
+	@Option(name="-o", usage="output directory of the WAV files, enables the batch mode")
+	public static String outputDirectory = null;
+
+	@SuppressWarnings("java:S1444")
+	@Option(name="-t", usage="name of the target system, default is the one of the property file")
+	public static String targetSystem = null;
+
+	@SuppressWarnings("java:S1444")
+	@Option(name="-j", usage="number of concurrent compilations, default is the number of processors")
+	public static int nbrOfWorkers = Runtime.getRuntime().availableProcessors();
+
+	/*
+	 * Batch mode only, the GUI loads it's file by the file chooser. Input files without -o are rejected.
+	 */
+	@SuppressWarnings("java:S1444")
+	@Argument(metaVar="files", usage="input files to be compiled in batch mode")
+	public static List<String> inputFiles = new ArrayList<>();
+
 }
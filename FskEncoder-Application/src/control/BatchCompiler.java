@@ -0,0 +1,439 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : BatchCompiler.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+
+package control;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import application.ExitCodes;
+import extension.model.InputReaderExtensionDao;
+import extension.model.MemoryBlockDescription;
+import extension.model.MemoryRegion;
+import extension.protocol.BackgroundTaskProtokol;
+import extension.protocol.Protocol;
+import extension.sound.FskAudioFormat;
+import extension.sound.SoundFileExporter;
+import extension.sound.SymbolStream;
+
+/**
+ * Responsibilities:<br>
+ * Compiles the memory regions of a number of input files to WAV files without any GUI or sound card.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * WorkflowEngine for the creation of the plug-ins,<br>
+ * Reader and MemoryMap of the input reader extension,<br>
+ * Protocol of the target system extension,<br>
+ * SoundFileExporter.
+ * 
+ * <p>
+ * Description:<br>
+ * All input files are loaded concurrently on a pool of worker threads. As soon as a file is loaded,
+ * each of it's memory regions is compiled by a job of it's own on the same pool. Because a protocol 
+ * instance isn't thread safe, every job gets a new set of target system components from the 
+ * WorkflowEngine, the same applies to the reader of every file.
+ * <p>
+ * Without a GUI there is no selection, so all memory regions of a file are compiled. The sound samples
+ * of a region are written to the output directory as &lt;file name&gt;_&lt;start address&gt;.wav,
+ * e.g. monitor_8000.wav. Input files with the same name but different directories or extensions, 
+ * e.g. a/rom.hex and b/rom.bin, would overwrite each others WAV files, so they are rejected before 
+ * anything is compiled.
+ * <p>
+ * A failing file or region doesn't stop the others, it's logged and reflected by the exit code of compile(...).
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class BatchCompiler {
+
+	private Logger logger = LogManager.getLogger(BatchCompiler.class.getName());
+	
+	public static final String FILE_EXTENSION = ".wav";
+	
+	protected final WorkflowEngine workflowEngine;
+	protected final String targetSystemName;
+	protected final File outputDirectory;
+	
+	protected int nbrOfWorkers = Runtime.getRuntime().availableProcessors();
+	
+	protected final AtomicInteger compiledRegionCount = new AtomicInteger();
+	protected final AtomicInteger failureCount = new AtomicInteger();
+	
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param aWorkflowEngine
+	 * The WorkflowEngine to create the plug-ins.
+	 * 
+	 * @param aTargetSystemName
+	 * The name of the target system as defined in the plug-in property file.
+	 * 
+	 * @param aOutputDirectory
+	 * The directory to receive the WAV files. It's created if it doesn't exist.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if one of the parameters is null.
+	 */
+	public BatchCompiler(final WorkflowEngine aWorkflowEngine, final String aTargetSystemName, final File aOutputDirectory) {
+		
+		logger.trace("BatchCompiler(): aTargetSystemName = {}, aOutputDirectory = {}", aTargetSystemName, aOutputDirectory);
+		
+		if(aWorkflowEngine == null) throw new IllegalArgumentException("aWorkflowEngine can't be null!");
+		if(aTargetSystemName == null) throw new IllegalArgumentException("aTargetSystemName can't be null!");
+		if(aOutputDirectory == null) throw new IllegalArgumentException("aOutputDirectory can't be null!");
+		
+		workflowEngine = aWorkflowEngine;
+		targetSystemName = aTargetSystemName;
+		outputDirectory = aOutputDirectory;
+		
+	} // BatchCompiler(...)
+	
+	
+	/**
+	 * Sets the number of files and regions which are processed at the same time.
+	 * <br>
+	 * Default is the number of available processors.
+	 * 
+	 * @param aNbrOfWorkers
+	 * The number of worker threads.
+	 * 
+	 * @return
+	 * This instance.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aNbrOfWorkers is less or equal 0.
+	 */
+	public BatchCompiler withNbrOfWorkers(final int aNbrOfWorkers) {
+		
+		logger.trace("withNbrOfWorkers(): aNbrOfWorkers = {}", aNbrOfWorkers);
+		
+		if(aNbrOfWorkers <= 0) throw new IllegalArgumentException("aNbrOfWorkers must be greater than 0!");
+		
+		nbrOfWorkers = aNbrOfWorkers;
+		
+		return this;
+		
+	} // withNbrOfWorkers()
+	
+	
+	/**
+	 * Compiles all memory regions of the given input files to WAV files.
+	 * 
+	 * @param aInputFiles
+	 * The relative or absolute paths of the input files.
+	 * 
+	 * @return
+	 * ExitCodes.EOK if all regions were compiled,<br>
+	 * ExitCodes.EINVAL if the target system is unknown or no input file is given,<br>
+	 * ExitCodes.EACCES if the output directory can't be created,<br>
+	 * ExitCodes.EIO if at least one file or region failed.
+	 */
+	public int compile(final List<String> aInputFiles) {
+		
+		logger.trace("compile(): aInputFiles = {}", aInputFiles);
+		
+		if(aInputFiles == null || aInputFiles.isEmpty()) {
+			logger.error("No input files given!");
+			return ExitCodes.EINVAL;
+		}
+		
+		if(hasNameCollisions(aInputFiles)) return ExitCodes.EINVAL;
+		
+		if(! workflowEngine.isTargetSystemDefined(targetSystemName)) {
+			logger.error("Target system '{}' is unknown in the current configuration!", targetSystemName);
+			return ExitCodes.EINVAL;
+		}
+		
+		if(! outputDirectory.isDirectory() && ! outputDirectory.mkdirs()) {
+			logger.error("Can't create output directory '{}'!", outputDirectory);
+			return ExitCodes.EACCES;
+		}
+		
+		ExecutorService workers = Executors.newFixedThreadPool(nbrOfWorkers);
+		
+		try {
+			
+			List<Future<List<MemoryRegion>>> loadJobs = new ArrayList<>();
+			
+			for(String inputFile : aInputFiles) {
+				loadJobs.add(workers.submit(() -> loadFile(inputFile)));
+			}
+			
+			List<Future<File>> compileJobs = new ArrayList<>();
+			
+			for(int n = 0; n < aInputFiles.size(); n++) {
+				
+				String inputFile = aInputFiles.get(n);
+				List<MemoryRegion> regions = await(loadJobs.get(n), inputFile);
+				
+				if(regions == null) continue;
+				
+				for(MemoryRegion region : regions) {
+					compileJobs.add(workers.submit(() -> compileRegion(inputFile, region)));
+				}
+				
+			} // rof
+			
+			for(Future<File> compileJob : compileJobs) {
+				
+				File waveFile = await(compileJob, "region");
+				
+				if(waveFile != null) logger.info("Written {}", waveFile);
+				
+			} // rof
+			
+		} // yrt
+		catch (InterruptedException e) {
+			
+			logger.error("Batch compilation interrupted!");
+			Thread.currentThread().interrupt();
+			failureCount.incrementAndGet();
+			
+		}
+		finally {
+			workers.shutdownNow();
+		}
+		
+		logger.info("{} regions compiled, {} failures", compiledRegionCount.get(), failureCount.get());
+		
+		return failureCount.get() == 0 ? ExitCodes.EOK : ExitCodes.EIO;
+		
+	} // compile()
+	
+	
+	/**
+	 * Returns the number of regions written to WAV files so far.
+	 * 
+	 * @return
+	 * The number of compiled regions.
+	 */
+	public int getCompiledRegionCount() { return compiledRegionCount.get(); }
+	
+	
+	/**
+	 * Returns the number of failed files and regions so far.
+	 * 
+	 * @return
+	 * The number of failures.
+	 */
+	public int getFailureCount() { return failureCount.get(); }
+	
+	
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object. 
+	 */
+	@Override
+	public String toString() {
+		return "BatchCompiler [targetSystemName=" + targetSystemName + ", outputDirectory=" + outputDirectory
+				+ ", nbrOfWorkers=" + nbrOfWorkers + ", compiledRegionCount=" + compiledRegionCount 
+				+ ", failureCount=" + failureCount + "]";
+	}
+	
+	
+	/**
+	 * Waits for the result of a job, a failed job is logged and counted.
+	 * 
+	 * @return
+	 * The result of the job or null if it failed.
+	 */
+	protected <T> T await(final Future<T> aJob, final String aSubject) throws InterruptedException {
+		
+		try {
+			return aJob.get();
+		}
+		catch (ExecutionException e) {
+			
+			logger.error("Can't compile {}, reason: {}", aSubject, e.getCause().toString());
+			failureCount.incrementAndGet();
+			
+			return null;
+			
+		}
+		
+	} // await()
+	
+	
+	/**
+	 * Loads the input file by a reader of it's own.
+	 * 
+	 * @return
+	 * All memory regions of the file, ordered by their start address.
+	 */
+	protected List<MemoryRegion> loadFile(final String aFileName) throws Exception {	// NOSONAR
+		
+		logger.trace("loadFile(): aFileName = {}", aFileName);
+		
+		if(! new File(aFileName).isFile()) throw new FileNotFoundException(aFileName);
+		
+		InputReaderExtensionDao readerExtension = workflowEngine.createReaderExtension(targetSystemName);
+		
+		readerExtension.READER.setFilename(aFileName);
+		
+		if(! readerExtension.READER.loadFile()) {
+			throw new IOException(aFileName + ": " + readerExtension.READER.getOperationStatus());
+		}
+		
+		List<MemoryRegion> regions = new ArrayList<>();
+		
+		for(MemoryBlockDescription block : readerExtension.MEMORY_MAP.getMemoryLayout()) {
+			regions.add(readerExtension.MEMORY_MAP.getMemoryRegion(block.START_ADDRESS));
+		}
+		
+		logger.debug("loadFile(): {} regions in {}", regions.size(), aFileName);
+		
+		return regions;
+		
+	} // loadFile()
+	
+	
+	/**
+	 * Compiles a single region by a protocol of it's own and writes the sound samples to a WAV file.
+	 * 
+	 * @return
+	 * The WAV file.
+	 */
+	protected File compileRegion(final String aFileName, final MemoryRegion aRegion) throws Exception {	// NOSONAR
+		
+		logger.trace("compileRegion(): aFileName = {}, aRegion = {}", aFileName, aRegion);
+		
+		Protocol protocol = workflowEngine.createTargetExtension(targetSystemName).PROTOCOL;
+		
+		ByteBuffer dataBuffer = aRegion.getContent();
+		dataBuffer.rewind();
+		
+		if(protocol instanceof BackgroundTaskProtokol) {
+			
+			BackgroundTaskProtokol backgroundTaskProtokol = (BackgroundTaskProtokol) protocol;
+			
+			backgroundTaskProtokol.setStartAddress(aRegion.getStartAddress());
+			backgroundTaskProtokol.setEndAddress(aRegion.getEndAddress());
+			backgroundTaskProtokol.setDataBuffer(dataBuffer);
+			
+		} // fi
+		
+		SymbolStream soundSamples = protocol.compileSymbols(dataBuffer);
+		
+		File waveFile = getWaveFile(aFileName, aRegion);
+		
+		writeWaveFile(soundSamples, protocol.getAudioFormat(), waveFile);
+		
+		compiledRegionCount.incrementAndGet();
+		
+		return waveFile;
+		
+	} // compileRegion()
+	
+	
+	/**
+	 * Checks that no two input files share the base name of their WAV files. The names are compared 
+	 * ignoring the case, because the output directory may be on a case insensitive file system.
+	 * 
+	 * @return
+	 * true if at least two input files would write to the same WAV files.
+	 */
+	protected boolean hasNameCollisions(final List<String> aInputFiles) {
+		
+		Map<String, String> inputFiles = new HashMap<>();
+		boolean hasCollisions = false;
+		
+		for(String inputFile : aInputFiles) {
+			
+			String other = inputFiles.putIfAbsent(getBaseName(inputFile).toLowerCase(Locale.ROOT), inputFile);
+			
+			if(other != null) {
+				logger.error("'{}' and '{}' would write the same WAV files, rename one of them!", other, inputFile);
+				hasCollisions = true;
+			}
+			
+		} // rof
+		
+		return hasCollisions;
+		
+	} // hasNameCollisions()
+	
+	
+	/**
+	 * Returns the file name without directory and extension.
+	 */
+	protected String getBaseName(final String aFileName) {
+		
+		String baseName = new File(aFileName).getName();
+		int extension = baseName.lastIndexOf('.');
+		
+		if(extension > 0) baseName = baseName.substring(0, extension);
+		
+		return baseName;
+		
+	} // getBaseName()
+	
+	
+	/**
+	 * Returns the WAV file of a region: &lt;file name without extension&gt;_&lt;start address&gt;.wav
+	 */
+	protected File getWaveFile(final String aFileName, final MemoryRegion aRegion) {
+		
+		return new File(outputDirectory, String.format("%s_%04X%s", getBaseName(aFileName), aRegion.getStartAddress(), FILE_EXTENSION));
+		
+	} // getWaveFile()
+	
+	
+	/**
+	 * Writes the sound samples as WAV file, they are expanded while writing.
+	 */
+	protected void writeWaveFile(final SymbolStream aSoundSamples, final FskAudioFormat aAudioFormat, final File aWaveFile) throws IOException {
+		
+		new SoundFileExporter(aAudioFormat).export(aSoundSamples, aWaveFile.toPath());
+		
+	} // writeWaveFile()
+	
+	
+} // ssalc
@@ -0,0 +1,205 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : CandidateFileLoader.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package control;
+
+import java.util.concurrent.CancellationException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import extension.control.ReaderExtensionControl;
+import extension.execution.BackgroundTask;
+import extension.execution.TaskExecutors;
+import extension.model.MemoryMap;
+import extension.source.LoadMonitor;
+
+/**
+ * Responsibilities:<br>
+ * 	Loads the candidate file by the input reader plug-in in background.
+ *
+ * <p>
+ * Collaborators:<br>
+ * 	ReaderExtensionControl of the input reader plug-in,<br>
+ * 	LoadMonitor,<br>
+ * 	MemoryMap,<br>
+ * 	WorkflowEngine.
+ *
+ * <p>
+ * Description:<br>
+ * 	ReaderExtensionControl.load() parses the whole file, for large images this takes a while. So 
+ * 	it runs as BackgroundTask on the compile pool of TaskExecutors instead of the event dispatch 
+ * 	thread.
+ * 	<p>
+ * 	While the plug-in loads, a LoadMonitor is attached to the loading thread. The Lexer of the 
+ * 	plug-in reports the bytes read to it, which drive the progress of the task, and it terminates 
+ * 	the load if the task is stopped.
+ * 	<p>
+ * 	The reader GUI isn't touched by the task, the WorkflowEngine publishes the loaded memory map 
+ * 	once when the task is done. If the memory map of the reader is given by withMemoryMap(), the 
+ * 	plug-in fills a new layout of it while the GUI still reads the previous one, see 
+ * 	MemoryMap.beginUpdate().
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class CandidateFileLoader extends BackgroundTask<Void, Void> {
+
+	private Logger logger = LogManager.getLogger(CandidateFileLoader.class.getName());
+
+	protected final ReaderExtensionControl readerController;
+	protected final String fileName;
+	protected MemoryMap memoryMap;
+	
+	protected boolean isComplete;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aReaderController
+	 * The controller of the input reader plug-in, the candidate file must be set already.
+	 *
+	 * @param aFileName
+	 * The name of the candidate file, used for messages.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aReaderController or aFileName is null.
+	 */
+	public CandidateFileLoader(final ReaderExtensionControl aReaderController, final String aFileName) {
+
+		super(TaskExecutors.getCompileExecutor());
+		
+		logger.trace("CandidateFileLoader(): aReaderController = {}, aFileName = {}", aReaderController, aFileName);
+
+		if(aReaderController == null) throw new IllegalArgumentException("aReaderController can't be null!");
+		if(aFileName == null) throw new IllegalArgumentException("aFileName can't be null!");
+
+		readerController = aReaderController;
+		fileName = aFileName;
+
+	} // CandidateFileLoader(...)
+
+
+	/**
+	 * Loads into a new layout of the memory map, which is published by MemoryMap.commitUpdate() 
+	 * or dropped by MemoryMap.discardUpdate() when the task is done.
+	 *
+	 * @param aMemoryMap
+	 * The memory map filled by the input reader plug-in.
+	 *
+	 * @return
+	 * This loader.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aMemoryMap is null.
+	 */
+	public CandidateFileLoader withMemoryMap(final MemoryMap aMemoryMap) {
+		logger.trace("withMemoryMap(): aMemoryMap = {}", aMemoryMap);
+
+		if(aMemoryMap == null) throw new IllegalArgumentException("aMemoryMap can't be null!");
+
+		memoryMap = aMemoryMap;
+		
+		return this;
+
+	} // withMemoryMap()
+
+
+	/**
+	 * Loads the candidate file, see isComplete().
+	 */
+	@Override
+	public Void runBackgroundTask() {
+		logger.trace("runBackgroundTask()");
+		
+		isRunning = true;
+		isComplete = false;
+		
+		LoadMonitor loadMonitor = new LoadMonitor(cancellationToken, this::stepOn);
+		loadMonitor.attach();
+		
+		if(memoryMap != null) memoryMap.beginUpdate();
+		
+		try {
+			
+			stepOn(0);
+			readerController.load();
+			
+			// a plug-in may catch the CancellationException on it's own
+			isComplete = !cancellationToken.isCancelled();
+			
+		}
+		catch (CancellationException e) {
+			logger.info("runBackgroundTask(): load of {} aborted", fileName);
+		}
+		finally {
+			if(memoryMap != null) memoryMap.endUpdate();
+			loadMonitor.detach();
+			isRunning = false;
+		}
+		
+		logger.debug("runBackgroundTask(): {}, {}", loadMonitor, this);
+		
+		return null;
+		
+	} // runBackgroundTask()
+
+
+	/**
+	 * Returns whether the file has been loaded completely, i.e. the load wasn't stopped.
+	 *
+	 * @return
+	 * true if the load has been completed.
+	 */
+	public boolean isComplete() { return isComplete; }
+
+
+	/**
+	 * @return
+	 * The name of the candidate file.
+	 */
+	public String getFileName() { return fileName; }
+
+
+    /**
+     * Returns a string summarizing the state of this object.
+     *
+     * @return  A summary string
+     */
+	@Override
+	public String toString() {
+		return "CandidateFileLoader [fileName=" + fileName + ", isComplete=" + isComplete 
+				+ ", " + super.toString() + "]";
+	}
+
+
+} // class
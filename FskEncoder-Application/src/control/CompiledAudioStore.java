@@ -0,0 +1,605 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : CompiledAudioStore.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package control;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import control.CompiledRegionCache.RegionKey;
+import extension.execution.TaskExecutors;
+import extension.sound.FskAudioFormat;
+import extension.sound.SoundFileExporter;
+import extension.sound.SoundFileImporter;
+import extension.sound.SoundFileType;
+
+/**
+ * Responsibilities:<br>
+ * 	Keeps the sound samples of compiled memory regions on disk, so they survive the end of the 
+ * 	application and a region uploaded in an earlier session doesn't need to be compiled again.
+ *
+ * <p>
+ * Collaborators:<br>
+ * 	CompiledRegionCache.RegionKey for the identification of a region,<br>
+ * 	SoundFileExporter and SoundFileImporter to write and map the entries,<br>
+ * 	CompileAndUploadAction.
+ *
+ * <p>
+ * Description:<br>
+ * 	Each entry is a RAW sound file named by the digest of the RegionKey, i.e. of the protocol 
+ * 	configuration, the addresses and the data bytes. An entry is memory-mapped read-only on 
+ * 	get(), so it can be played back without reading it into the heap. Only the regions of protocols 
+ * 	which declare themselves cacheable are stored, see Protocol.isCacheable(), as the RegionKey can't 
+ * 	cover settings the configuration key of a protocol doesn't report.
+ * 	<p>
+ * 	The index file holds the entries with their sizes, ordered from the least to the most recently 
+ * 	used one. It's read on first access and written after each change. Entries whose file is missing 
+ * 	or has a wrong size are dropped. The index update of a get() is written by the store executor of 
+ * 	TaskExecutors, so a lookup doesn't wait for the disk.
+ * 	<p>
+ * 	putAsync() writes an entry on the store executor as well, so the event dispatch thread isn't 
+ * 	blocked by the export of the sound samples. flush() waits until all pending writes are done.
+ * 	<p>
+ * 	The store is bounded by the sum of the entry sizes. If the bound is exceeded, the least recently 
+ * 	used entries are deleted.
+ * 	<p>
+ * 	New entries are written to a temporary file which is moved to it's final name afterwards, so an
+ * 	interrupted write never leaves an incomplete entry.
+ * 	<p>
+ * 	The store is an optimization only: I/O errors are logged and reported as miss, resp. as not
+ * 	stored, but never thrown.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class CompiledAudioStore {
+
+	private Logger logger = LogManager.getLogger(CompiledAudioStore.class.getName());
+
+	public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+	
+	public static final String INDEX_FILE = "index";
+	
+	protected static final String ENTRY_SUFFIX = ".raw";
+	protected static final String TEMP_SUFFIX = ".tmp";
+	protected static final String INDEX_HEADER = "# FskEncoder compiled audio store: <digest> <size>, least recently used first";
+
+	protected final Path directory;
+	protected long maxSize = DEFAULT_MAX_SIZE;
+	protected long currentSize;
+	
+	protected long hitCount;
+	protected long missCount;
+
+	protected final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+	protected boolean isIndexLoaded;
+	protected boolean isIndexSavePending;
+
+
+	/**
+	 * Constructor.
+	 * <br>
+	 * The directory is created on the first put().
+	 *
+	 * @param aDirectory
+	 * The directory holding the entries and the index.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aDirectory is null.
+	 */
+	public CompiledAudioStore(final Path aDirectory) {
+
+		logger.trace("CompiledAudioStore(): aDirectory = {}", aDirectory);
+
+		if(aDirectory == null) throw new IllegalArgumentException("aDirectory can't be null!");
+
+		directory = aDirectory;
+
+	} // CompiledAudioStore(...)
+
+
+	/**
+	 * Sets the maximum number of bytes held by the store.
+	 *
+	 * @param aMaxSize
+	 * The bound, DEFAULT_MAX_SIZE if not set.
+	 *
+	 * @return
+	 * The instance of the store itself (this).
+	 *
+	 * @throws IllegalArgumentException
+	 * if aMaxSize is less than 0.
+	 */
+	public synchronized CompiledAudioStore withMaxSize(final long aMaxSize) {
+		logger.trace("withMaxSize(): aMaxSize = {}", aMaxSize);
+
+		if(aMaxSize < 0) throw new IllegalArgumentException("aMaxSize can't be less than 0!");
+
+		maxSize = aMaxSize;
+		
+		return this;
+
+	} // withMaxSize(...)
+
+
+	/**
+	 * Returns the sound samples of a compiled region.
+	 *
+	 * @param aKey
+	 * The key of the region.
+	 * 
+	 * @param aAudioFormat
+	 * The audio format of the sound samples, i.e. of the protocol which compiled them.
+	 *
+	 * @return
+	 * A read-only mapped buffer holding the sound samples or null if the region isn't in the store.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aKey or aAudioFormat is null.
+	 */
+	public synchronized ByteBuffer get(final RegionKey aKey, final FskAudioFormat aAudioFormat) {
+
+		if(aKey == null) throw new IllegalArgumentException("aKey can't be null!");
+		if(aAudioFormat == null) throw new IllegalArgumentException("aAudioFormat can't be null!");
+		
+		loadIndex();
+
+		String digest = aKey.getDigest();
+		Long size = entries.get(digest);
+		
+		if(size != null) {
+			
+			try {
+				
+				ByteBuffer soundSamples = new SoundFileImporter(getEntryFile(digest))
+					.withRawFormat(aAudioFormat)
+					.load()
+					.getSoundSamples();
+				
+				if(soundSamples.remaining() == size) {
+					
+					hitCount++;
+					logger.debug("get(): hit {}", aKey);
+					
+					saveIndexLater();
+					
+					return soundSamples;
+					
+				} // fi
+				
+				logger.warn("get(): wrong size of {}, dropped", digest);
+				
+			} catch (IOException e) {
+				logger.warn("get(): can't map {}, dropped: {}", digest, e.getMessage());
+			}
+			
+			remove(digest);
+			saveIndexLater();
+			
+		} // fi
+		
+		missCount++;
+		logger.debug("get(): miss {}", aKey);
+		
+		return null;
+
+	} // get(...)
+
+
+	/**
+	 * Writes the sound samples of a compiled region into the store and deletes the least recently used 
+	 * entries if the bound is exceeded.
+	 *
+	 * @param aKey
+	 * The key of the region.
+	 *
+	 * @param aSoundSamples
+	 * The sound samples from position to limit. Position and mark are untouched.
+	 * 
+	 * @param aAudioFormat
+	 * The audio format of the sound samples.
+	 * 
+	 * @return
+	 * true if the region was stored.
+	 *
+	 * @throws IllegalArgumentException
+	 * if any of the parameters is null.
+	 */
+	public synchronized boolean put(final RegionKey aKey, final ByteBuffer aSoundSamples, final FskAudioFormat aAudioFormat) {
+
+		if(aKey == null) throw new IllegalArgumentException("aKey can't be null!");
+		if(aSoundSamples == null) throw new IllegalArgumentException("aSoundSamples can't be null!");
+		if(aAudioFormat == null) throw new IllegalArgumentException("aAudioFormat can't be null!");
+		
+		long size = aSoundSamples.remaining();
+		
+		if(size > maxSize) {
+			logger.debug("put(): too large {}", aKey);
+			return false;
+		}
+		
+		loadIndex();
+		
+		String digest = aKey.getDigest();
+		Path tempFile = directory.resolve(digest + TEMP_SUFFIX);
+		
+		try {
+			
+			Files.createDirectories(directory);
+			
+			new SoundFileExporter(aAudioFormat)
+				.withFileType(SoundFileType.RAW)
+				.export(aSoundSamples, tempFile);
+			
+			Files.move(tempFile, getEntryFile(digest), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			
+		} catch (IOException e) {
+			
+			logger.warn("put(): can't write {}: {}", digest, e.getMessage());
+			
+			deleteFile(tempFile);
+			
+			return false;
+			
+		} // yrt
+		
+		Long previous = entries.put(digest, size);
+		
+		if(previous != null) currentSize -= previous;
+		currentSize += size;
+		
+		logger.debug("put(): stored {} as {}", aKey, digest);
+		
+		evict(digest);
+		saveIndex();
+		
+		return true;
+
+	} // put(...)
+
+
+	/**
+	 * Writes the sound samples of a compiled region into the store on the store executor, see put().
+	 * <p>
+	 * The sound samples must not be changed until the returned future is completed.
+	 *
+	 * @param aKey
+	 * The key of the region.
+	 *
+	 * @param aSoundSamples
+	 * The sound samples from position to limit. Position and mark are untouched.
+	 * 
+	 * @param aAudioFormat
+	 * The audio format of the sound samples.
+	 * 
+	 * @return
+	 * A future completed with true if the region was stored.
+	 *
+	 * @throws IllegalArgumentException
+	 * if any of the parameters is null.
+	 */
+	public CompletableFuture<Boolean> putAsync(final RegionKey aKey, final ByteBuffer aSoundSamples, final FskAudioFormat aAudioFormat) {
+
+		if(aKey == null) throw new IllegalArgumentException("aKey can't be null!");
+		if(aSoundSamples == null) throw new IllegalArgumentException("aSoundSamples can't be null!");
+		if(aAudioFormat == null) throw new IllegalArgumentException("aAudioFormat can't be null!");
+		
+		return CompletableFuture.supplyAsync(() -> put(aKey, aSoundSamples, aAudioFormat), TaskExecutors.getStoreExecutor());
+		
+	} // putAsync(...)
+
+
+	/**
+	 * Waits until all writes requested so far by putAsync() and get() are done.
+	 */
+	public void flush() {
+		logger.trace("flush()");
+		
+		// the store executor runs the tasks in order
+		CompletableFuture.runAsync(() -> {}, TaskExecutors.getStoreExecutor()).join();
+		
+	} // flush()
+
+
+	/**
+	 * Deletes all entries and the index.
+	 */
+	public synchronized void clear() {
+		logger.trace("clear()");
+		
+		loadIndex();
+		
+		for(String digest : new ArrayList<>(entries.keySet())) {
+			remove(digest);
+		}
+		
+		deleteFile(directory.resolve(INDEX_FILE));
+
+	} // clear()
+
+
+	/**
+	 * Returns the directory of the store.
+	 *
+	 * @return
+	 * The directory given at construction time.
+	 */
+	public Path getDirectory() { return directory; }
+
+
+	/**
+	 * Returns the number of successful calls of get().
+	 *
+	 * @return
+	 * The number of hits.
+	 */
+	public synchronized long getHitCount() { return hitCount; }
+
+
+	/**
+	 * Returns the number of calls of get() which didn't find the region.
+	 *
+	 * @return
+	 * The number of misses.
+	 */
+	public synchronized long getMissCount() { return missCount; }
+
+
+	/**
+	 * Returns the number of entries in the store.
+	 *
+	 * @return
+	 * The number of entries.
+	 */
+	public synchronized int getEntryCount() { 
+		
+		loadIndex();
+		return entries.size(); 
+		
+	} // getEntryCount()
+
+
+	/**
+	 * Returns the number of bytes currently held by the store.
+	 *
+	 * @return
+	 * The sum of all entry sizes.
+	 */
+	public synchronized long getCurrentSize() { 
+		
+		loadIndex();
+		return currentSize; 
+		
+	} // getCurrentSize()
+
+
+	/**
+	 * Returns the maximum number of bytes held by the store.
+	 *
+	 * @return
+	 * The bound.
+	 */
+	public synchronized long getMaxSize() { return maxSize; }
+
+
+    /**
+     * Returns a string summarizing the state of this object.
+     *
+     * @return  A summary string
+     */
+	@Override
+	public synchronized String toString() {
+		return "CompiledAudioStore [directory=" + directory + ", maxSize=" + maxSize + ", currentSize=" + currentSize
+				+ ", entryCount=" + entries.size() + ", hitCount=" + hitCount + ", missCount=" + missCount + "]";
+	}
+
+
+	/**
+	 * Returns the file of an entry.
+	 */
+	protected Path getEntryFile(final String aDigest) {
+		
+		return directory.resolve(aDigest + ENTRY_SUFFIX);
+		
+	} // getEntryFile(...)
+	
+	
+	/**
+	 * Reads the index once. Entries without a matching file are dropped.
+	 */
+	protected void loadIndex() {
+		
+		if(isIndexLoaded) return;
+		
+		isIndexLoaded = true;
+		
+		Path indexFile = directory.resolve(INDEX_FILE);
+		
+		if(!Files.isRegularFile(indexFile)) return;
+		
+		try {
+			
+			for(String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8)) {
+				
+				String[] fields = line.trim().split("\\s+");
+				
+				if(fields.length != 2 || fields[0].startsWith("#")) continue;
+				
+				String digest = fields[0];
+				long size = Long.parseLong(fields[1]);
+				Path entryFile = getEntryFile(digest);
+				
+				if(Files.isRegularFile(entryFile) && Files.size(entryFile) == size) {
+					
+					entries.put(digest, size);
+					currentSize += size;
+					
+				}
+				else {
+					logger.warn("loadIndex(): entry {} is missing or damaged, dropped", digest);
+				}
+				
+			} // rof
+			
+		} catch (IOException | NumberFormatException e) {
+			logger.warn("loadIndex(): can't read {}: {}", indexFile, e.getMessage());
+		}
+		
+		logger.debug("loadIndex(): {}", this);
+		
+		// the bound may have been lowered since the last session
+		evict(null);
+		
+	} // loadIndex()
+	
+	
+	/**
+	 * Writes the index, the least recently used entry first.
+	 */
+	protected void saveIndex() {
+		
+		if(!Files.isDirectory(directory)) return;
+		
+		List<String> lines = new ArrayList<>(entries.size() + 1);
+		
+		lines.add(INDEX_HEADER);
+		
+		for(Map.Entry<String, Long> entry : entries.entrySet()) {
+			lines.add(entry.getKey() + " " + entry.getValue());
+		}
+		
+		Path indexFile = directory.resolve(INDEX_FILE);
+		Path tempFile = directory.resolve(INDEX_FILE + TEMP_SUFFIX);
+		
+		try {
+			
+			Files.write(tempFile, lines, StandardCharsets.UTF_8);
+			Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			
+		} catch (IOException e) {
+			logger.warn("saveIndex(): can't write {}: {}", indexFile, e.getMessage());
+		}
+		
+	} // saveIndex()
+	
+	
+	/**
+	 * Writes the index on the store executor. Several requests are written once.
+	 */
+	protected void saveIndexLater() {
+		
+		if(isIndexSavePending) return;
+		
+		isIndexSavePending = true;
+		
+		TaskExecutors.getStoreExecutor().execute(() -> {
+			
+			synchronized(this) {
+				
+				isIndexSavePending = false;
+				saveIndex();
+				
+			} // synchronized
+			
+		});
+		
+	} // saveIndexLater()
+	
+	
+	/**
+	 * Deletes the least recently used entries until the bound is kept, aKeep is never deleted.
+	 */
+	protected void evict(final String aKeep) {
+		
+		Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+		
+		while(currentSize > maxSize && iterator.hasNext()) {
+			
+			Map.Entry<String, Long> eldest = iterator.next();
+			
+			if(eldest.getKey().equals(aKeep)) continue;
+			
+			logger.debug("evict(): {}", eldest.getKey());
+			
+			currentSize -= eldest.getValue();
+			iterator.remove();
+			
+			deleteFile(getEntryFile(eldest.getKey()));
+			
+		} // elihw
+		
+	} // evict(...)
+	
+	
+	/**
+	 * Removes an entry from the index and deletes it's file.
+	 */
+	protected void remove(final String aDigest) {
+		
+		Long size = entries.remove(aDigest);
+		
+		if(size != null) currentSize -= size;
+		
+		deleteFile(getEntryFile(aDigest));
+		
+	} // remove(...)
+	
+	
+	/**
+	 * Deletes a file, a failure is logged only.
+	 * <br>
+	 * On some platforms a file can't be deleted as long as it's mapped.
+	 */
+	protected void deleteFile(final Path aFile) {
+		
+		try {
+			Files.deleteIfExists(aFile);
+		} catch (IOException e) {
+			logger.warn("deleteFile(): can't delete {}: {}", aFile, e.getMessage());
+		}
+		
+	} // deleteFile(...)
+
+
+} // class
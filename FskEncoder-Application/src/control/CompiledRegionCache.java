@@ -0,0 +1,426 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : CompiledRegionCache.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package control;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * 	Holds the sound samples of compiled memory regions, so a region which is uploaded again 
+ * 	without changes doesn't need to be compiled again.
+ *
+ * <p>
+ * Collaborators:<br>
+ * 	CompileAndUploadAction.
+ *
+ * <p>
+ * Description:<br>
+ * 	The sound samples are addressed by their content: A RegionKey consists of the configuration key 
+ * 	of the protocol, the start and end address and the data bytes of the region. For a fast lookup
+ * 	the data bytes are hashed by CRC32C, on a hash match they are compared byte by byte. So a 
+ * 	collision of the hashes never leads to wrong sound samples. CompileAndUploadAction creates 
+ * 	RegionKeys only for protocols which declare themselves cacheable, see Protocol.isCacheable().
+ * 	<p>
+ * 	The sound samples are copied on put(), because protocols usually reuse their sample buffer.
+ * 	They are handed out as read-only views with their own position and limit.
+ * 	<p>
+ * 	The cache is bounded by the sum of the sound sample and data sizes. If the bound is exceeded, 
+ * 	the least recently used regions are evicted. A region which is larger than the bound on it's 
+ * 	own isn't stored at all.
+ * 	<p>
+ * 	Hits and misses of get() are counted.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class CompiledRegionCache {
+
+	private Logger logger = LogManager.getLogger(CompiledRegionCache.class.getName());
+
+	public static final long DEFAULT_MAX_SIZE = 64L * 1024 * 1024;
+
+	protected final long maxSize;
+	protected long currentSize;
+	
+	protected long hitCount;
+	protected long missCount;
+
+	protected final LinkedHashMap<RegionKey, ByteBuffer> regions = new LinkedHashMap<>(16, 0.75f, true);
+
+
+	/**
+	 * Key of a compiled region.
+	 */
+	public static final class RegionKey {
+
+		private final String configurationKey;
+		private final long startAddress;
+		private final long endAddress;
+		private final byte[] content;
+		private final int contentHash;
+		private final int hashCode;
+
+		/**
+		 * Constructor.
+		 * 
+		 * @param aConfigurationKey
+		 * The configuration key of the protocol, see Protocol.getConfigurationKey().
+		 * 
+		 * @param aStartAddress
+		 * The start address of the region.
+		 * 
+		 * @param aEndAddress
+		 * The end address of the region.
+		 * 
+		 * @param aContent
+		 * The data bytes of the region from 0 to the limit. They are copied, position and mark are untouched.
+		 * 
+		 * @throws IllegalArgumentException
+		 * if aConfigurationKey or aContent is null.
+		 */
+		public RegionKey(final String aConfigurationKey, final long aStartAddress, final long aEndAddress, 
+				final ByteBuffer aContent) {
+
+			if(aConfigurationKey == null) throw new IllegalArgumentException("aConfigurationKey can't be null!");
+			if(aContent == null) throw new IllegalArgumentException("aContent can't be null!");
+			
+			ByteBuffer source = aContent.duplicate();
+			source.rewind();
+			
+			configurationKey = aConfigurationKey;
+			startAddress = aStartAddress;
+			endAddress = aEndAddress;
+			content = new byte[source.limit()];
+			source.get(content);
+			
+			CRC32C crc = new CRC32C();
+			crc.update(content);
+			contentHash = (int) crc.getValue();
+			
+			hashCode = Objects.hash(configurationKey, startAddress, endAddress, contentHash);
+			
+		} // RegionKey(...)
+
+		/**
+		 * @return the CRC32C of the data bytes.
+		 */
+		public int getContentHash() { return contentHash; }
+		
+		/**
+		 * @return the number of data bytes.
+		 */
+		public int getContentSize() { return content.length; }
+		
+		/**
+		 * Returns a SHA-256 digest of the whole key.<br>
+		 * Unlike the hash code it's unique for all practical purposes, so it can identify a region
+		 * without comparing the data bytes, e.g. across sessions.
+		 * 
+		 * @return
+		 * The digest as 64 hexadecimal digits.
+		 */
+		public String getDigest() {
+			
+			try {
+				
+				MessageDigest digest = MessageDigest.getInstance("SHA-256");
+				
+				digest.update(configurationKey.getBytes(StandardCharsets.UTF_8));
+				digest.update(ByteBuffer.allocate(2 * Long.BYTES).putLong(startAddress).putLong(endAddress).array());
+				digest.update(content);
+				
+				StringBuilder sb = new StringBuilder();
+				
+				for(byte b : digest.digest()) {
+					sb.append(String.format("%02x", b));
+				}
+				
+				return sb.toString();
+				
+			} catch (NoSuchAlgorithmException e) {
+				// SHA-256 is mandatory for every Java platform
+				throw new IllegalStateException(e);
+			}
+			
+		} // getDigest()
+		
+		@Override
+		public int hashCode() { return hashCode; }
+
+		@Override
+		public boolean equals(final Object aObject) {
+
+			if(this == aObject) return true;
+			if(!(aObject instanceof RegionKey)) return false;
+
+			RegionKey other = (RegionKey) aObject;
+
+			return hashCode == other.hashCode
+				&& contentHash == other.contentHash
+				&& startAddress == other.startAddress
+				&& endAddress == other.endAddress
+				&& configurationKey.equals(other.configurationKey)
+				&& Arrays.equals(content, other.content);
+
+		} // equals()
+
+		@Override
+		public String toString() {
+			return String.format("RegionKey [startAddress=0x%04X, endAddress=0x%04X, contentSize=%d, contentHash=%08X]", 
+					startAddress, endAddress, content.length, contentHash);
+		}
+
+	} // RegionKey
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aMaxSize
+	 * The maximum number of bytes held by the cache.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aMaxSize is less than 0.
+	 */
+	public CompiledRegionCache(final long aMaxSize) {
+
+		logger.trace("CompiledRegionCache(): aMaxSize = {}", aMaxSize);
+
+		if(aMaxSize < 0) throw new IllegalArgumentException("aMaxSize can't be less than 0!");
+
+		maxSize = aMaxSize;
+
+	} // CompiledRegionCache(...)
+
+
+	/**
+	 * Returns the sound samples of a compiled region.
+	 *
+	 * @param aKey
+	 * The key of the region.
+	 *
+	 * @return
+	 * A read-only view of the sound samples with position 0 or null if the region isn't in the cache.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aKey is null.
+	 */
+	public synchronized ByteBuffer get(final RegionKey aKey) {
+
+		if(aKey == null) throw new IllegalArgumentException("aKey can't be null!");
+		
+		ByteBuffer soundSamples = regions.get(aKey);
+		
+		if(soundSamples == null) {
+			
+			missCount++;
+			logger.debug("get(): miss {}", aKey);
+			
+			return null;
+			
+		} // fi
+		
+		hitCount++;
+		logger.debug("get(): hit {}", aKey);
+
+		ByteBuffer view = soundSamples.asReadOnlyBuffer();
+		view.rewind();
+
+		return view;
+
+	} // get(...)
+
+
+	/**
+	 * Puts the sound samples of a compiled region into the cache and evicts the least recently used 
+	 * regions if the bound is exceeded.
+	 *
+	 * @param aKey
+	 * The key of the region.
+	 *
+	 * @param aSoundSamples
+	 * The sound samples from 0 to the limit. They are copied, position and mark are untouched.
+	 * 
+	 * @return
+	 * A read-only view of the stored copy with position 0 or null if the region is too large to be stored.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aKey or aSoundSamples is null.
+	 */
+	public ByteBuffer put(final RegionKey aKey, final ByteBuffer aSoundSamples) {
+
+		if(aKey == null) throw new IllegalArgumentException("aKey can't be null!");
+		if(aSoundSamples == null) throw new IllegalArgumentException("aSoundSamples can't be null!");
+		
+		ByteBuffer source = aSoundSamples.duplicate();
+		source.rewind();
+		
+		if(getEntrySize(aKey, source.limit()) > maxSize) {
+			logger.debug("put(): too large {}", aKey);
+			return null;
+		}
+		
+		// copied outside of the lock
+		ByteBuffer soundSamples = ByteBuffer.allocate(source.limit());
+		soundSamples.put(source);
+		soundSamples.flip();
+		
+		store(aKey, soundSamples);
+		
+		ByteBuffer view = soundSamples.asReadOnlyBuffer();
+		view.rewind();
+
+		return view;
+
+	} // put(...)
+
+
+	/**
+	 * Removes all regions, the counters are kept.
+	 */
+	public synchronized void clear() {
+		logger.trace("clear()");
+
+		regions.clear();
+		currentSize = 0;
+
+	} // clear()
+
+
+	/**
+	 * Returns the number of successful calls of get().
+	 *
+	 * @return
+	 * The number of hits.
+	 */
+	public synchronized long getHitCount() { return hitCount; }
+
+
+	/**
+	 * Returns the number of calls of get() which didn't find the region.
+	 *
+	 * @return
+	 * The number of misses.
+	 */
+	public synchronized long getMissCount() { return missCount; }
+
+
+	/**
+	 * Returns the number of regions in the cache.
+	 *
+	 * @return
+	 * The number of regions.
+	 */
+	public synchronized int getRegionCount() { return regions.size(); }
+
+
+	/**
+	 * Returns the number of bytes currently held by the cache.
+	 *
+	 * @return
+	 * The sum of all sound sample and data sizes.
+	 */
+	public synchronized long getCurrentSize() { return currentSize; }
+
+
+	/**
+	 * Returns the maximum number of bytes held by the cache.
+	 *
+	 * @return
+	 * The bound given at construction time.
+	 */
+	public long getMaxSize() { return maxSize; }
+
+
+    /**
+     * Returns a string summarizing the state of this object.
+     *
+     * @return  A summary string
+     */
+	@Override
+	public synchronized String toString() {
+		return "CompiledRegionCache [maxSize=" + maxSize + ", currentSize=" + currentSize
+				+ ", regionCount=" + regions.size() + ", hitCount=" + hitCount + ", missCount=" + missCount + "]";
+	}
+
+
+	/**
+	 * Returns the number of bytes a region occupies in the cache.
+	 */
+	protected static long getEntrySize(final RegionKey aKey, final int aSoundSampleSize) {
+		
+		return (long) aSoundSampleSize + aKey.getContentSize();
+		
+	} // getEntrySize(...)
+	
+	
+	/**
+	 * Puts a region into the cache and evicts the least recently used ones if the bound is exceeded.
+	 */
+	protected synchronized void store(final RegionKey aKey, final ByteBuffer aSoundSamples) {
+
+		ByteBuffer previous = regions.put(aKey, aSoundSamples);
+		
+		if(previous != null) currentSize -= getEntrySize(aKey, previous.capacity());
+		currentSize += getEntrySize(aKey, aSoundSamples.capacity());
+
+		Iterator<Map.Entry<RegionKey, ByteBuffer>> iterator = regions.entrySet().iterator();
+
+		while(currentSize > maxSize && iterator.hasNext()) {
+
+			Map.Entry<RegionKey, ByteBuffer> eldest = iterator.next();
+
+			if(eldest.getKey().equals(aKey)) continue;
+
+			logger.debug("store(): evict {}", eldest.getKey());
+
+			currentSize -= getEntrySize(eldest.getKey(), eldest.getValue().capacity());
+			iterator.remove();
+
+		} // elihw
+
+	} // store(...)
+
+
+} // class
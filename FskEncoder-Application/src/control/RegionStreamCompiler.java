@@ -0,0 +1,226 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : RegionStreamCompiler.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package control;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import extension.encoder.SilenceEncoder;
+import extension.execution.BackgroundTask;
+import extension.execution.TaskExecutors;
+import extension.model.MemoryRegion;
+import extension.protocol.BackgroundTaskProtokol;
+import extension.sound.SymbolStream;
+
+/**
+ * Responsibilities:<br>
+ * 	Compiles a list of memory regions into one continuous SymbolStream, so they can be uploaded
+ * 	by a single play back.
+ *
+ * <p>
+ * Collaborators:<br>
+ * 	BackgroundTaskProtokol to compile the regions,<br>
+ * 	SilenceEncoder for the silence between the regions,<br>
+ * 	CompileAndUploadAction.
+ *
+ * <p>
+ * Description:<br>
+ * 	Each region is compiled by compileSymbols() of the protocol and appended to the stream. Between 
+ * 	two regions the inter block silence of the protocol is inserted. The SymbolStream holds the 
+ * 	templates only, so even a large memory image needs little memory.
+ * 	<p>
+ * 	The compilation runs as BackgroundTask on the compile pool of TaskExecutors, the progress is 
+ * 	driven region by region. The CancellationToken of the compiler is shared with the protocol, 
+ * 	so stop() aborts the region being compiled, too. The stream holds the regions compiled completely so far then.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class RegionStreamCompiler extends BackgroundTask<Void, Void> {
+
+	private Logger logger = LogManager.getLogger(RegionStreamCompiler.class.getName());
+
+	protected final BackgroundTaskProtokol protocol;
+	protected final List<MemoryRegion> regions;
+	
+	protected SymbolStream symbolStream;
+	protected int compiledRegionCount;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aProtocol
+	 * The protocol to compile the regions.
+	 *
+	 * @param aRegions
+	 * The regions to be compiled, in the order of upload.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aProtocol or aRegions is null or if aRegions is empty.
+	 */
+	public RegionStreamCompiler(final BackgroundTaskProtokol aProtocol, final List<MemoryRegion> aRegions) {
+
+		super(TaskExecutors.getCompileExecutor());
+		
+		logger.trace("RegionStreamCompiler(): aProtocol = {}, aRegions = {}", aProtocol, aRegions);
+
+		if(aProtocol == null) throw new IllegalArgumentException("aProtocol can't be null!");
+		if(aRegions == null || aRegions.isEmpty()) throw new IllegalArgumentException("aRegions can't be null or empty!");
+
+		protocol = aProtocol;
+		regions = new ArrayList<>(aRegions);
+
+	} // RegionStreamCompiler(...)
+
+
+	/**
+	 * Compiles all regions into a new SymbolStream, see getSymbolStream().
+	 */
+	@Override
+	public Void runBackgroundTask() {
+		logger.trace("runBackgroundTask()");
+		
+		isRunning = true;
+		protocol.setCancellationToken(cancellationToken);
+		
+		SymbolStream result = new SymbolStream();
+		compiledRegionCount = 0;
+		
+		int interBlockSilence = protocol.getInterBlockSilence();
+		ByteBuffer silence = interBlockSilence > 0
+			? new SilenceEncoder((int) protocol.getAudioFormat().getSampleRate()).getTemplate(interBlockSilence)
+			: null;
+		
+		for(int n = 0; isRunning && !cancellationToken.isCancelled() && n < regions.size(); n++) {
+			
+			MemoryRegion region = regions.get(n);
+			
+			logger.debug("runBackgroundTask(): compiling region {}, {}", n + 1, region);
+			
+			ByteBuffer dataBuffer = region.getContent();
+			dataBuffer.rewind();
+			
+			protocol.setStartAddress(region.getStartAddress());
+			protocol.setEndAddress(region.getEndAddress());
+			
+			SymbolStream regionStream;
+			
+			try {
+				regionStream = protocol.compileSymbols(dataBuffer);
+			}
+			catch (CancellationException e) {
+				logger.info("runBackgroundTask(): compilation aborted in region {}", n + 1);
+				break;
+			}
+			
+			if(n > 0 && silence != null) result.append(silence, 1);
+			result.append(regionStream);
+			
+			compiledRegionCount = n + 1;
+			stepOn(compiledRegionCount * 100 / regions.size());
+			
+		} // rof
+		
+		logger.debug("runBackgroundTask(): {}", result);
+		
+		symbolStream = result;
+		isRunning = false;
+		
+		return null;
+		
+	} // runBackgroundTask()
+
+
+	/**
+	 * Returns the compiled stream.
+	 *
+	 * @return
+	 * The SymbolStream holding all regions.
+	 * 
+	 * @throws IllegalAccessError
+	 * if nothing has been compiled so far.
+	 */
+	public SymbolStream getSymbolStream() {
+		
+		if(symbolStream == null) throw new IllegalAccessError("Nothing has been compiled so far.");
+		return symbolStream;
+		
+	} // getSymbolStream()
+
+
+	/**
+	 * Returns whether all regions have been compiled, i.e. the compilation wasn't stopped.
+	 *
+	 * @return
+	 * true if the SymbolStream holds all regions.
+	 */
+	public boolean isComplete() { return symbolStream != null && compiledRegionCount == regions.size(); }
+
+
+	/**
+	 * Returns the number of regions which have been compiled.
+	 *
+	 * @return
+	 * The number of regions in the SymbolStream.
+	 */
+	public int getCompiledRegionCount() { return compiledRegionCount; }
+
+
+	/**
+	 * Returns the number of regions to be compiled.
+	 *
+	 * @return
+	 * The number of regions.
+	 */
+	public int getRegionCount() { return regions.size(); }
+
+
+    /**
+     * Returns a string summarizing the state of this object.
+     *
+     * @return  A summary string
+     */
+	@Override
+	public String toString() {
+		return "RegionStreamCompiler [regionCount=" + regions.size() + ", compiledRegionCount=" + compiledRegionCount 
+				+ ", symbolStream=" + symbolStream 
+				+ ", " + super.toString() + "]";
+	}
+
+
+} // class
@@ -30,11 +30,13 @@
 
 package control;
 
+import java.beans.PropertyChangeEvent;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 
 import javax.sound.sampled.Mixer.Info;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 import org.apache.logging.log4j.LogManager;
@@ -45,12 +47,14 @@ import control.gui.MainWindowController;
 import control.gui.OutputDeviceController;
 import control.gui.StatusBarUpdate;
 import extension.control.ReaderExtensionControl;
+import extension.control.StatusListener;
 import extension.control.StatusMessenger;
 import extension.control.TargetSystemExtensionControl;
 import extension.factory.InputReaderExtensionFactory;
 import extension.factory.PlugInFactory;
 import extension.factory.TargetSystemExtensionFactory;
 import extension.model.InputReaderExtensionDao;
+import extension.model.MemoryMap;
 import extension.model.MemoryRegion;
 import extension.model.TargetSystemExtensionDao;
 import extension.protocol.Protocol;
@@ -74,12 +78,20 @@ import view.gui.EmptyExtensionGui;
  * InputFileController,<br>
  * ReaderExtensionControl,<br>
  * TargetSystemExtensionControl,<br>
+ * CandidateFileLoader,<br>
  * StatusBarUpdate.
  * 
  * <p>
  * Description:<br>
  * WorkflowEngine is the common controller for all tasks which are distributed over more than one controller or 
  * which needs more effort to get done.
+ * <p>
+ * The candidate file is loaded in background by a CandidateFileLoader, the status bar shows the 
+ * progress meanwhile. The plug-in fills a new layout of the memory map, which replaces the previous 
+ * one and updates the reader GUI when the load is done. A cancelled load keeps the previous one.
+ * <p>
+ * Status messages from other threads, e.g. of the plug-in while it loads, are passed to the 
+ * status bar on the event dispatch thread.
  * 
  * <p>
  * @author Stefan
@@ -106,6 +118,10 @@ public class WorkflowEngine implements StatusMessenger {
 	protected ReaderExtensionControl readerController;
 	protected TargetSystemExtensionControl targetController;
 	protected StatusBarUpdate statusBarCallback;
+	
+	protected CandidateFileLoader candidateFileLoader;
+	protected boolean isLoading;
+	protected volatile String lastStatusMessage;
 		
 	
 	/**
@@ -211,21 +227,116 @@ public class WorkflowEngine implements StatusMessenger {
 	/**
 	 * 
 	 * Triggers the ReaderExtensionControl to load the selected input file.
+	 * <br>
+	 * The file is loaded in background, the reader GUI is updated when the load is done. 
+	 * A request while a file is loaded is ignored.
 	 * 
 	 */
 	public void loadCandidateFile() {
 		logger.trace("loadCandidateFile()");
 		
-		readerController.load();
+		if(isLoading) {
+			setStatusMessage("Loading in progress, please wait");
+			return;
+		}
+		
+		final CandidateFileLoader loader = new CandidateFileLoader(readerController, String.valueOf(selectedFileName))
+				.withMemoryMap(inputReaderExtensionDao.MEMORY_MAP);
+		
+		loader.addPropertyChangeListener(this::loadProgressChange);
+		loader.registerStatusListener(new StatusListener() {
+			
+			@Override public void done() { loadDone(loader); }
+			@Override public void notification(Object aNotification) { /* not used */ }
+			
+		});
 		
-		// Note: This code is necessary for a GUI update after loading a file.
-		// Otherwise the input reader extension panel is left empty or incorrect
-		JPanel panel = readerController.createLayout();
-		mainWindowCallback.setReaderExtensionPanel(panel);
+		candidateFileLoader = loader;
+		isLoading = true;
+		lastStatusMessage = null;
+		
+		loader.execute();
 		
 	} // loadCandidateFile()
 	
 	
+	/**
+	 * 
+	 * Query if the candidate file is being loaded.
+	 * 
+	 * @return
+	 * : true from loadCandidateFile() till the load is done.
+	 * 
+	 */
+	public boolean isLoading() { return isLoading; }
+	
+	
+	/**
+	 * 
+	 * Stops the load of the candidate file. The reader GUI is updated when the loader has terminated.
+	 * 
+	 */
+	public void cancelLoad() {
+		logger.trace("cancelLoad()");
+		
+		if(isLoading) candidateFileLoader.stop();
+		
+	} // cancelLoad()
+	
+	
+	/**
+	 * 
+	 * Shows the progress of the CandidateFileLoader in the status bar.
+	 * 
+	 * @param aEvent
+	 * : the PropertyChangeEvent of the loader.
+	 * 
+	 */
+	protected void loadProgressChange(PropertyChangeEvent aEvent) {
+		
+		if(! "progress".equals(aEvent.getPropertyName()) || statusBarCallback == null) return;
+		
+		statusBarCallback.setStatusMessage("Loading " + candidateFileLoader.getFileName() + " ... " + aEvent.getNewValue() + "%");
+		
+	} // loadProgressChange()
+	
+	
+	/**
+	 * 
+	 * Publishes the loaded memory map to the reader GUI, called on the event dispatch thread 
+	 * when the CandidateFileLoader is done.
+	 * 
+	 * @param aLoader
+	 * : the loader which is done.
+	 * 
+	 */
+	protected void loadDone(CandidateFileLoader aLoader) {
+		logger.trace("loadDone(): aLoader = {}", aLoader);
+		
+		isLoading = false;
+		
+		MemoryMap memoryMap = inputReaderExtensionDao.MEMORY_MAP;
+		
+		if(aLoader.isComplete()) {
+			memoryMap.commitUpdate();
+			
+			// Note: This code is necessary for a GUI update after loading a file.
+			// Otherwise the input reader extension panel is left empty or incorrect
+			JPanel panel = readerController.createLayout();
+			mainWindowCallback.setReaderExtensionPanel(panel);
+			
+			setStatusMessage(lastStatusMessage == null ? EMPTY_STATUS_BAR : lastStatusMessage);
+		}
+		else {
+			// the partially loaded map is dropped, the GUI keeps showing the previous one
+			memoryMap.discardUpdate();
+			
+			setStatusMessage("Loading of " + aLoader.getFileName() + " cancelled");
+		}
+		
+	} // loadDone()
+	
+	
 	/**
 	 * 
 	 * Register the given controller as call back.
@@ -318,15 +429,9 @@ public class WorkflowEngine implements StatusMessenger {
 	public void setReaderPlugin(String aTargetSystemName) {
 		logger.trace("setReaderPlugin(): aTargetSystemName = {}", aTargetSystemName);
 		
-		String inputReaderProviderClassNeme = model.getInputReaderProviderClassName(aTargetSystemName);
-		
-		logger.trace("inputReaderProviderClassNeme = {}", inputReaderProviderClassNeme);
-		
 		try {
 			
-			InputReaderExtensionFactory factory = PlugInFactory.getInputReaderExtensionFactory(inputReaderProviderClassNeme); // NOSONAR
-			
-			inputReaderExtensionDao = factory.getInputReaderExtensions((StatusMessenger)this);	// NOSONAR			
+			inputReaderExtensionDao = createReaderExtension(aTargetSystemName);	// NOSONAR			
 			
 			readerController = inputReaderExtensionDao.CONTROL;	
 			readerController.initialize(inputReaderExtensionDao, (StatusMessenger)this);
@@ -353,6 +458,93 @@ public class WorkflowEngine implements StatusMessenger {
 	} // setReaderPlugin()
 
 
+	/**
+	 * 
+	 * Creates a new set of input reader extension components for the given target system.
+	 * <br>
+	 * In contrast to setReaderPlugin(...) the components are neither kept nor shown, so it can be 
+	 * used without a GUI and once per input file, e.g. by the BatchCompiler.
+	 * 
+	 * @param aTargetSystemName
+	 * : the name of the target system.
+	 * 
+	 * @return
+	 * : a new InputReaderExtensionDao.
+	 * 
+	 * @throws Exception
+	 * if the plug-in can't be created, see PlugInFactory and InputReaderExtensionFactory.
+	 * 
+	 */
+	public InputReaderExtensionDao createReaderExtension(String aTargetSystemName) throws Exception {	// NOSONAR
+		logger.trace("createReaderExtension(): aTargetSystemName = {}", aTargetSystemName);
+		
+		String inputReaderProviderClassName = model.getInputReaderProviderClassName(aTargetSystemName);
+		logger.trace("inputReaderProviderClassName = {}", inputReaderProviderClassName);
+		
+		InputReaderExtensionFactory factory = PlugInFactory.getInputReaderExtensionFactory(inputReaderProviderClassName); // NOSONAR
+		
+		return factory.getInputReaderExtensions((StatusMessenger)this);
+		
+	} // createReaderExtension()
+
+
+	/**
+	 * 
+	 * Creates a new set of target system extension components for the given target system.
+	 * <br>
+	 * In contrast to setTargetPlugin(...) the components are neither kept nor shown. So each caller
+	 * gets a protocol instance of it's own, which can be used concurrently to the other ones.
+	 * 
+	 * @param aTargetSystemName
+	 * : the name of the target system.
+	 * 
+	 * @return
+	 * : a new TargetSystemExtensionDao.
+	 * 
+	 * @throws ClassNotFoundException
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @throws IllegalArgumentException
+	 * @throws InvocationTargetException
+	 * @throws NoSuchMethodException
+	 * @throws SecurityException
+	 * if Java Reflection can't instantiate the plug-in.
+	 * 
+	 */
+	public TargetSystemExtensionDao createTargetExtension(String aTargetSystemName) throws ClassNotFoundException, 
+			InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, 
+			NoSuchMethodException, SecurityException {
+		logger.trace("createTargetExtension(): aTargetSystemName = {}", aTargetSystemName);
+		
+		String targetSystemProviderClassName = model.getTargetSystemProviderClassName(aTargetSystemName);
+		logger.trace("targetSystemProviderClassName = {}", targetSystemProviderClassName);
+		
+		TargetSystemExtensionFactory factory = PlugInFactory.getTargetSystemExtensionFactory(targetSystemProviderClassName); // NOSONAR
+		
+		return factory.getTargetSystemExtension((StatusMessenger)this);
+		
+	} // createTargetExtension()
+
+
+	/**
+	 * 
+	 * Query if a target system of the given name is defined in the current configuration.
+	 * 
+	 * @param aTargetSystemName
+	 * : the name of the target system.
+	 * 
+	 * @return
+	 * : true if a provider is defined for the target system.
+	 * 
+	 */
+	public boolean isTargetSystemDefined(String aTargetSystemName) {
+		logger.trace("isTargetSystemDefined(): aTargetSystemName = {}", aTargetSystemName);
+		
+		return ! NOT_DEFINED.equals(model.getTargetSystemProviderClassName(aTargetSystemName));
+		
+	} // isTargetSystemDefined()
+
+
 	/**
 	 * 
 	 * Set the selected input file path to internal data model.
@@ -383,7 +575,23 @@ public class WorkflowEngine implements StatusMessenger {
 	public void setStatusMessage(String aStatusMessage) {
 		logger.trace("setStatusMessage(): aStatusMessage = {}", aStatusMessage);
 		
-		statusBarCallback.setStatusMessage(aStatusMessage);
+		// the message of the reader plug-in is shown again when the load is done
+		lastStatusMessage = aStatusMessage;
+		
+		// no status bar in headless mode
+		if(statusBarCallback == null) {
+			if(! aStatusMessage.isEmpty()) logger.info(aStatusMessage);
+			return;
+		}
+		
+		if(SwingUtilities.isEventDispatchThread()) {
+			statusBarCallback.setStatusMessage(aStatusMessage);
+		}
+		else {
+			// e.g. the reader plug-in while it loads in background
+			final StatusBarUpdate statusBar = statusBarCallback;
+			SwingUtilities.invokeLater(() -> statusBar.setStatusMessage(aStatusMessage));
+		}
 		
 		// TODO Display status message for a while than erase it.
 		
@@ -403,13 +611,9 @@ public class WorkflowEngine implements StatusMessenger {
 	public void setTargetPlugin(String aTargetSystemName) {
 		logger.trace("setTargetPlugin(): aTargetSystemName = {}", aTargetSystemName);
 		
-		String targetSystemProviderClassName = model.getTargetSystemProviderClassName(aTargetSystemName);
-		logger.trace("targetSystemProviderClassName = {}", targetSystemProviderClassName);
-		
 		try {
 			
-			TargetSystemExtensionFactory factory = PlugInFactory.getTargetSystemExtensionFactory(targetSystemProviderClassName); // NOSONAR
-			targetSystemExtensionDao = factory.getTargetSystemExtension((StatusMessenger)this); // NOSONAR
+			targetSystemExtensionDao = createTargetExtension(aTargetSystemName); // NOSONAR
 			
 			targetController = targetSystemExtensionDao.CONTROL;
 			
@@ -37,20 +37,27 @@ import java.beans.PropertyChangeListener;
 import java.nio.ByteBuffer;
 import java.text.SimpleDateFormat;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+import javax.swing.AbstractButton;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.SwingWorker;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import control.CompiledAudioStore;
+import control.CompiledRegionCache;
+import control.RegionStreamCompiler;
 import control.WorkflowEngine;
 import extension.control.StatusListener;
 import extension.execution.BackgroundTask;
 import extension.model.MemoryRegion;
 import extension.protocol.BackgroundTaskProtokol;
 import extension.protocol.Protocol;
+import extension.sound.SampleRingBuffer;
 import sound.SoundPlayer;
 import view.gui.CompileAndUploadGui;
 
@@ -84,6 +91,7 @@ public class CompileAndUploadAction implements StatusListener, ActionListener, P
 
 	private BackgroundTaskProtokol protocol;
 	private BackgroundTask<Void, Void> bgCompiler;
+	private RegionStreamCompiler regionStreamCompiler;
 
 	private SoundPlayer soundPlayer;
 	private BackgroundTask<Void, Void> bgPlayer;
@@ -93,6 +101,31 @@ public class CompileAndUploadAction implements StatusListener, ActionListener, P
 	private List<MemoryRegion> selectedRegions;
 
 	private int currentRegion;
+	private boolean isPlaying;
+	private boolean isAborted;
+	
+	/*
+	 * Compile stage of the pipeline: the region being compiled and the compiled one waiting for it's upload.
+	 */
+	private int compileRegion = -1;
+	private boolean isCompiling;
+	private int compiledRegion = -1;
+	private ByteBuffer compiledSamples;
+	
+	private CompiledRegionCache compiledRegionCache = new CompiledRegionCache(CompiledRegionCache.DEFAULT_MAX_SIZE);
+	private CompiledAudioStore compiledAudioStore;
+	private CompiledRegionCache.RegionKey compilingKey;
+	
+	/*
+	 * Capacity of the ring buffer between compiler and player in seconds of sound.
+	 */
+	protected static final int STREAM_BUFFER_SECONDS = 2;
+	
+	/*
+	 * Streaming upload is selected by the user, the default is the pipeline which uses the CompiledRegionCache.
+	 */
+	private boolean isStreamingUpload = false;
+	private boolean isStreamCompiling;
 
 	
 	/**
@@ -121,9 +154,15 @@ public class CompileAndUploadAction implements StatusListener, ActionListener, P
 		if(actionCommand.equals("Do Upload")) {
 			handleButtonDoUpload();
 		}
+		else if(actionCommand.equals("Upload All")) {
+			handleButtonUploadAll();
+		}
 		else if(actionCommand.equals("Abort")) {
 			handleButtonABORT();
 		}
+		else if(actionCommand.equals("Streaming")) {
+			setStreamingUpload(((AbstractButton) e.getSource()).isSelected());
+		}
 		else {
 			throw new IllegalAccessError("Unknown Action Command!");
 		}
@@ -132,20 +171,92 @@ public class CompileAndUploadAction implements StatusListener, ActionListener, P
 
 
 	/**
-	 * 
+	 * Continues with the region following the current one.
+	 * <p>
+	 * Without streaming upload, compilation and upload form a two stage pipeline: While a region is
+	 * played back, the next one is compiled already. So the next region is either uploaded at once, 
+	 * or it's compilation is running and the upload starts when it's done, or it's compiled now.
+	 * <p>
+	 * After an abort no further region is uploaded.
 	 */
 	protected void compileNextRegion() {
-		logger.trace("compileNextRegion(): currentRegion = {}, selectedRegions.size() = {}", currentRegion, selectedRegions.size());
+		logger.trace("compileNextRegion(): currentRegion = {}, selectedRegions.size() = {}, compileRegion = {}, compiledRegion = {}", 
+				currentRegion, selectedRegions.size(), compileRegion, compiledRegion);
 		
-		currentRegion++;
+		int nextRegion = currentRegion + 1;
 		
-		if(currentRegion < selectedRegions.size()) {
-			runCompile(selectedRegions.get(currentRegion));
+		if(isAborted) {
+			
+			currentRegion = selectedRegions.size();
+			workflowEngine.setStatusMessage("Upload aborted");
+			
+		}
+		else if(nextRegion >= selectedRegions.size()) {
+			
+			currentRegion = nextRegion;
+			
+		}
+		else if(isStreamingUpload) {
+			
+			currentRegion = nextRegion;
+			runStreamingUpload(selectedRegions.get(currentRegion));
+			
+		}
+		else if(compiledRegion == nextRegion) {
+			
+			currentRegion = nextRegion;
+			runUpload();
+			
+		}
+		else if(isCompiling && compileRegion == nextRegion) {
+			
+			// compileDone() continues
+			logger.info("compileNextRegion(): waiting for the compilation of region {}", nextRegion + 1);
+			
+		}
+		else {
+			
+			compileRegion = nextRegion;
+			runCompile(selectedRegions.get(nextRegion));
+			
 		}
 
 	} // compileNextRegion()
 
 
+	/**
+	 * Called when the compile stage has finished a region.<br>
+	 * If the upload stage is waiting for this region, the upload is started. Otherwise the sound 
+	 * samples are kept until the player is done with the current region. After an abort the 
+	 * samples are dropped and the work flow ends.
+	 * 
+	 * @param aSoundSamples
+	 * The compiled sound samples or null if the compilation failed.
+	 */
+	protected void compileDone(final ByteBuffer aSoundSamples) {
+		logger.trace("compileDone(): compileRegion = {}, currentRegion = {}, isPlaying = {}", compileRegion, currentRegion, isPlaying);
+		
+		isCompiling = false;
+		
+		if(isAborted) {
+			
+			compiledRegion = -1;
+			compiledSamples = null;
+			
+			if(!isPlaying) compileNextRegion();
+			
+			return;
+			
+		} // fi
+		
+		compiledRegion = compileRegion;
+		compiledSamples = aSoundSamples;
+		
+		if(!isPlaying && compiledRegion == currentRegion + 1) compileNextRegion();
+		
+	} // compileDone()
+
+
 	@Override
 	public void done() {
 		logger.trace("done()");
@@ -167,13 +278,19 @@ public class CompileAndUploadAction implements StatusListener, ActionListener, P
 
 
 	/**
-	 * 
+	 * Stops the running compilation and play back. The remaining regions aren't uploaded.
 	 */
 	private void handleButtonABORT() {
 		logger.trace("handleButtonABORT()");
 				
 		logger.trace("currentTask = {}",  currentTask);
-		currentTask.stop();
+		
+		isAborted = true;
+		
+		if(currentTask != null) currentTask.stop();
+		
+		// stop() is ignored by idle tasks, so it can't terminate their next run
+		if((isStreamCompiling || isCompiling) && currentTask != bgCompiler) protocol.stop();
 
 	} // handleButtonABORT()
 
@@ -189,8 +306,15 @@ public class CompileAndUploadAction implements StatusListener, ActionListener, P
 		
 		if(selectedRegions != null) {
 			
-			// runCompile() does a pre increment!
+			// compileNextRegion() does a pre increment!
 			currentRegion = -1;
+			isPlaying = false;
+			isAborted = false;
+			
+			compileRegion = -1;
+			isCompiling = false;
+			compiledRegion = -1;
+			compiledSamples = null;
 			
 			if(selectedRegions.size() == 0) {
 				
@@ -208,6 +332,41 @@ public class CompileAndUploadAction implements StatusListener, ActionListener, P
 	} // handleButtonDoUpload()
 
 
+	/**
+	 * Compiles all selected regions into a single stream, see runUploadAll().
+	 */
+	private void handleButtonUploadAll() {
+		logger.trace("handleButtonUploadAll()");
+		
+		selectedRegions = workflowEngine.getSelectedMemoryRegions();
+		
+		if(selectedRegions == null || selectedRegions.isEmpty()) {
+			
+			workflowEngine.setStatusMessage("Please select one or more memory regions for upload");
+			return;
+			
+		} // fi
+		
+		compileAndUploadPanel.setProgress(0);
+
+		String regionInfo = String.format("Compiling %d region(s) for a single upload", selectedRegions.size()); 
+		logger.info(regionInfo);
+		workflowEngine.setStatusMessage(regionInfo);
+		
+		isPlaying = false;
+		isAborted = false;
+		
+		regionStreamCompiler = new RegionStreamCompiler(protocol, selectedRegions);
+		regionStreamCompiler.addPropertyChangeListener(this::uploadAllPropertyChange);
+		regionStreamCompiler.registerStatusListener(this);
+		
+		currentTask = regionStreamCompiler;
+		
+		regionStreamCompiler.execute();
+		
+	} // handleButtonUploadAll()
+
+
 	@Override
 	public void notification(Object aNotification) {
 		logger.trace("notification(): aNotification = {}", aNotification);
@@ -236,22 +395,6 @@ public class CompileAndUploadAction implements StatusListener, ActionListener, P
 			logger.trace("progress = {}", progress);
 			compileAndUploadPanel.setProgress(progress);
 
-		}
-		// from ???
-		else if(bgCompiler == currentTask
-				&& STATE == propertyName
-				&&  "STARTED"  == (String) propertyValue.toString()) {
-			
-			logger.trace("propertyChange(): compiler = STARTED ...");
-						
-		}
-		else if(bgCompiler == currentTask
-			&& STATE == propertyName
-			&&  "DONE"  == (String) propertyValue.toString()) {
-				
-			logger.trace("propertyChange(): compiler = DONE!");
-			runUpload();
-						
 		}
 		else if(bgPlayer == currentTask
 			&& STATE == propertyName
@@ -265,6 +408,9 @@ public class CompileAndUploadAction implements StatusListener, ActionListener, P
 			&&  "DONE"  == (String) propertyValue.toString()) {
 			
 			logger.trace("propertyChange(): player = DONE!");
+			
+			isPlaying = false;
+			isStreamCompiling = false;
 
 			String timeStamp = new SimpleDateFormat("HH:mm:ss").format(new java.util.Date());
 			
@@ -281,32 +427,57 @@ public class CompileAndUploadAction implements StatusListener, ActionListener, P
 	
 
 	/**
+	 * Starts the compilation of aCandidate, the compile stage of the pipeline.<br>
+	 * If the region is found in the CompiledRegionCache or the CompiledAudioStore, it isn't compiled 
+	 * again and compileDone() is called at once.
+	 * 
 	 * @param aCandidate
+	 * The region to be compiled, compileRegion must be set to it's index.
 	 */
 	protected void runCompile(MemoryRegion aCandidate) {
-		logger.trace("runCompile(): currentRegion = {}, aCandidate = {}", currentRegion, aCandidate);
+		logger.trace("runCompile(): compileRegion = {}, aCandidate = {}", compileRegion, aCandidate);
 
 		String regionInfo = String.format("Compiling region %d: Start: 0x%04X, End: 0x%04X, Size. 0x%04X", 
-			currentRegion + 1,
+			compileRegion + 1,
 			aCandidate.getStartAddress(),
 			aCandidate.getEndAddress(),
 			aCandidate.getSize()
 		); 
 			
 		logger.info(regionInfo);
-		workflowEngine.setStatusMessage(regionInfo);
+		
+		// the upload of the current region keeps the status bar
+		if(!isPlaying) workflowEngine.setStatusMessage(regionInfo);
 
 		ByteBuffer dataBuffer = aCandidate.getContent();
 		dataBuffer.rewind();
+		
+		compilingKey = createRegionKey(aCandidate, dataBuffer);
+		ByteBuffer soundSamples = findCompiledSamples(compilingKey);
+		
+		if(soundSamples != null) {
+			
+			// unchanged since the last compilation, no need to compile it again
+			logger.info("runCompile(): region {} unchanged, {}, {}", compileRegion + 1, compiledRegionCache, compiledAudioStore);
+			
+			compilingKey = null;
+			compileDone(soundSamples);
+			
+			return;
+			
+		} // fi
+		
 		protocol.setStartAddress(aCandidate.getStartAddress());
 		protocol.setEndAddress(aCandidate.getEndAddress());
 		protocol.setDataBuffer(dataBuffer);
 		
+		isCompiling = true;
+		
 		bgCompiler = protocol;	
-		bgCompiler.addPropertyChangeListener(this);
-		bgCompiler.registerStatusListener(this);
+		bgCompiler.addPropertyChangeListener(this::compilerPropertyChange);
+		bgCompiler.registerStatusListener(isPlaying ? null : this);
 
-		currentTask = bgCompiler;			
+		if(!isPlaying) currentTask = bgCompiler;			
 		
 		logger.trace("dataBuffer = {}, currentTask = {}",  dataBuffer, currentTask);
 		
@@ -318,7 +489,143 @@ public class CompileAndUploadAction implements StatusListener, ActionListener, P
 
 
 	/**
+	 * Listener for the protocol while compiling.<br>
+	 * The progress is shown only if no region is played back at the same time.
+	 * 
+	 * @param evt
+	 * The event fired by the background execution of the protocol.
+	 */
+	protected void compilerPropertyChange(PropertyChangeEvent evt) {
+		logger.trace("compilerPropertyChange(): evt = {}", evt);
+		
+		if("progress".equals(evt.getPropertyName())) {
+			
+			if(!isPlaying) compileAndUploadPanel.setProgress((Integer) evt.getNewValue());
+			
+		}
+		else if("state".equals(evt.getPropertyName()) && SwingWorker.StateValue.DONE == evt.getNewValue()) {
+			
+			logger.trace("compilerPropertyChange(): compiler = DONE!");
+			compileDone(takeCompiledSamples());
+			
+		}
+		
+	} // compilerPropertyChange()
+
+
+	/**
+	 * Creates the key of aCandidate for the CompiledRegionCache.
+	 * 
 	 * @param aCandidate
+	 * The memory region to be compiled.
+	 * 
+	 * @param aDataBuffer
+	 * The content of aCandidate.
+	 * 
+	 * @return
+	 * The key or null if the protocol isn't cacheable or doesn't deliver a configuration key, so the 
+	 * region can't be cached.
+	 */
+	protected CompiledRegionCache.RegionKey createRegionKey(final MemoryRegion aCandidate, final ByteBuffer aDataBuffer) {
+		
+		// settings not covered by the configuration key would deliver stale sound samples
+		if(! protocol.isCacheable()) return null;
+		
+		String configurationKey = protocol.getConfigurationKey();
+		
+		if(configurationKey == null) return null;
+		
+		return new CompiledRegionCache.RegionKey(
+			configurationKey, 
+			aCandidate.getStartAddress(), 
+			aCandidate.getEndAddress(), 
+			aDataBuffer
+		);
+		
+	} // createRegionKey(...)
+	
+	
+	/**
+	 * Looks up the sound samples of a region compiled before in the CompiledRegionCache and then in the
+	 * CompiledAudioStore, if the protocol is cacheable.
+	 * 
+	 * @param aRegionKey
+	 * The key of the region, see createRegionKey().
+	 * 
+	 * @return
+	 * The compiled sound samples or null if the region has to be compiled.
+	 */
+	protected ByteBuffer findCompiledSamples(final CompiledRegionCache.RegionKey aRegionKey) {
+		
+		if(aRegionKey == null) return null;
+		
+		ByteBuffer soundSamples = compiledRegionCache.get(aRegionKey);
+		
+		if(soundSamples == null && compiledAudioStore != null) {
+			
+			// compiled in an earlier session, the samples are mapped from disk
+			soundSamples = compiledAudioStore.get(aRegionKey, protocol.getAudioFormat());
+			
+		} // fi
+		
+		return soundSamples;
+		
+	} // findCompiledSamples()
+	
+	
+	/**
+	 * Takes the sound samples from the protocol after the compilation is done and puts them into the 
+	 * CompiledRegionCache and the CompiledAudioStore, if the protocol is cacheable.
+	 * <p>
+	 * The protocol reuses it's buffer for the next compilation, which may run while these samples are
+	 * played back. So the samples are copied, the cache holds a copy already. The copy is written into 
+	 * the CompiledAudioStore in the background, so the event dispatch thread doesn't wait for the disk.
+	 * 
+	 * @return
+	 * The compiled sound samples or null if the protocol doesn't deliver any.
+	 */
+	protected ByteBuffer takeCompiledSamples() {
+		logger.trace("takeCompiledSamples(): compilingKey = {}", compilingKey);
+		
+		ByteBuffer soundSamples = null;
+		
+		try {
+			
+			ByteBuffer soundSampleBuffer = protocol.getSoundSampleBuffer();
+			
+			if(compilingKey != null) soundSamples = compiledRegionCache.put(compilingKey, soundSampleBuffer);
+			
+			if(soundSamples == null) {
+				
+				ByteBuffer source = soundSampleBuffer.duplicate();
+				source.rewind();
+				
+				soundSamples = ByteBuffer.allocate(source.limit());
+				soundSamples.put(source);
+				soundSamples.flip();
+				
+			} // fi
+				
+			if(compilingKey != null && compiledAudioStore != null) {
+				compiledAudioStore.putAsync(compilingKey, soundSamples.duplicate(), protocol.getAudioFormat());
+			}
+			
+		} catch (IllegalAccessException | IllegalAccessError e) {
+			logger.error("Unexpected exception while taking the sound samples: {}", e);
+		}
+		finally {
+			compilingKey = null;
+		}
+		
+		return soundSamples;
+		
+	} // takeCompiledSamples()
+
+
+	/**
+	 * Starts the upload of the current region, the upload stage of the pipeline.<br>
+	 * After confirmation by the user the compiled sound samples are played back and the compilation 
+	 * of the next region is started.
 	 */
 	protected void runUpload() {
 		logger.trace("runUpload()");
@@ -329,58 +636,317 @@ public class CompileAndUploadAction implements StatusListener, ActionListener, P
 		logger.info(regionInfo);
 		workflowEngine.setStatusMessage(regionInfo);
 				
-		try {
+//		int shallPlay = JOptionPane.showConfirmDialog(
+		OptionPane optionPane = new OptionPane();
+		int shallPlay = optionPane.showConfirmDialog(
+			new JFrame(),
+			"Start Upload of region " + (currentRegion + 1) + "?", 
+			"Upload to target system",
+			JOptionPane.YES_NO_OPTION,
+			JOptionPane.QUESTION_MESSAGE
+		);
+		
+		ByteBuffer soundSampleBuffer = compiledSamples;
+		
+		compiledRegion = -1;
+		compiledSamples = null;
+		
+		if(shallPlay == 0 && soundSampleBuffer != null) {
 
-//			int shallPlay = JOptionPane.showConfirmDialog(
-			OptionPane optionPane = new OptionPane();
-			int shallPlay = optionPane.showConfirmDialog(
-				new JFrame(),
-				"Start Upload of region " + (currentRegion + 1) + "?", 
-				"Upload to target system",
-				JOptionPane.YES_NO_OPTION,
-				JOptionPane.QUESTION_MESSAGE
-			);
-			
-			if(shallPlay == 0) {
-
-				regionInfo = String.format("Upload of region %d", currentRegion + 1 ); 
-				logger.info(regionInfo);
-				workflowEngine.setStatusMessage(regionInfo);
-
-				ByteBuffer soundSampleBuffer = protocol.getSoundSampleBuffer();	
-				soundSampleBuffer.rewind();
-				soundPlayer.setSoundBuffer(soundSampleBuffer);
-		
-				bgPlayer = soundPlayer;
-				bgPlayer.addPropertyChangeListener(this);
-				bgPlayer.registerStatusListener(this);
-	
-				currentTask = bgPlayer;
-	
-				logger.trace("soundSampleBuffer = {}, currentTask = {}",  soundSampleBuffer, currentTask);
+			regionInfo = String.format("Upload of region %d", currentRegion + 1 ); 
+			logger.info(regionInfo);
+			workflowEngine.setStatusMessage(regionInfo);
+
+			soundSampleBuffer.rewind();
+			soundPlayer.setSoundBuffer(soundSampleBuffer);
 	
-				bgPlayer.execute();
+			bgPlayer = soundPlayer;
+			bgPlayer.addPropertyChangeListener(this);
+			bgPlayer.registerStatusListener(this);
+
+			currentTask = bgPlayer;
+
+			logger.trace("soundSampleBuffer = {}, currentTask = {}",  soundSampleBuffer, currentTask);
+
+			isPlaying = true;
+			bgPlayer.execute();
+			
+			// compile stage: the next region is compiled while this one is played back
+			if(currentRegion + 1 < selectedRegions.size()) {
 				
-			}
-			else {
-				compileNextRegion();
-			}
-	
-		} catch (IllegalAccessException e) {
-			logger.error("Unexpected exception while executing DoUpload: {}", e);
+				compileRegion = currentRegion + 1;
+				runCompile(selectedRegions.get(compileRegion));
+				
+			} // fi
+			
+		}
+		else {
+			compileNextRegion();
 		}
 		
 	} // runUpload()
 
 
+	/**
+	 * Listener for the RegionStreamCompiler.<br>
+	 * Drives the progress bar and starts the upload when the compilation is done.
+	 * 
+	 * @param evt
+	 * The event fired by the background execution of the RegionStreamCompiler.
+	 */
+	protected void uploadAllPropertyChange(PropertyChangeEvent evt) {
+		logger.trace("uploadAllPropertyChange(): evt = {}", evt);
+		
+		if("progress".equals(evt.getPropertyName())) {
+			
+			compileAndUploadPanel.setProgress((Integer) evt.getNewValue());
+			
+		}
+		else if("state".equals(evt.getPropertyName()) && SwingWorker.StateValue.DONE == evt.getNewValue()) {
+			
+			logger.trace("uploadAllPropertyChange(): compiler = DONE!");
+			runUploadAll();
+			
+		}
+		
+	} // uploadAllPropertyChange()
+	
+	
+	/**
+	 * Plays back all selected regions, compiled into a single stream, after confirmation by the user.
+	 * <p>
+	 * The output line is opened and closed once and the regions follow each other with the inter block 
+	 * silence of the protocol, so neither the set up of the line nor the user delay the upload.
+	 */
+	protected void runUploadAll() {
+		logger.trace("runUploadAll()");
+
+		compileAndUploadPanel.setProgress(0);
+		
+		// no further region when the player is done
+		currentRegion = selectedRegions.size() - 1;
+		
+		if(!regionStreamCompiler.isComplete()) {
+			workflowEngine.setStatusMessage("Compilation aborted");
+			return;
+		}
+
+		OptionPane optionPane = new OptionPane();
+		int shallPlay = optionPane.showConfirmDialog(
+			new JFrame(),
+			"Start Upload of all " + regionStreamCompiler.getRegionCount() + " region(s)?", 
+			"Upload to target system",
+			JOptionPane.YES_NO_OPTION,
+			JOptionPane.QUESTION_MESSAGE
+		);
+		
+		if(shallPlay != 0) {
+			workflowEngine.setStatusMessage("");
+			return;
+		}
+
+		String regionInfo = String.format("Upload of %d region(s)", regionStreamCompiler.getRegionCount()); 
+		logger.info(regionInfo);
+		workflowEngine.setStatusMessage(regionInfo);
+
+		soundPlayer.setSymbolStream(regionStreamCompiler.getSymbolStream());
+		
+		bgPlayer = soundPlayer;
+		bgPlayer.addPropertyChangeListener(this);
+		bgPlayer.registerStatusListener(this);
+
+		currentTask = bgPlayer;
+		
+		isPlaying = true;
+		bgPlayer.execute();
+		
+	} // runUploadAll()
+
+
+	/**
+	 * Compiles and plays back the given region at the same time.
+	 * <p>
+	 * After confirmation by the user, the protocol is started to stream it's sound samples into a 
+	 * SampleRingBuffer and the SoundPlayer is started to play them back from there. The protocol drives
+	 * the progress bar, the state of the SoundPlayer controls the work flow.
+	 * <p>
+	 * A region which has been compiled before is played back from the CompiledRegionCache or the 
+	 * CompiledAudioStore without compiling it again.
+	 * 
+	 * @param aCandidate
+	 * The memory region to be uploaded.
+	 */
+	protected void runStreamingUpload(MemoryRegion aCandidate) {
+		logger.trace("runStreamingUpload(): currentRegion = {}, aCandidate = {}", currentRegion, aCandidate);
+
+		compileAndUploadPanel.setProgress(0);
+
+		OptionPane optionPane = new OptionPane();
+		int shallPlay = optionPane.showConfirmDialog(
+			new JFrame(),
+			"Start Upload of region " + (currentRegion + 1) + "?", 
+			"Upload to target system",
+			JOptionPane.YES_NO_OPTION,
+			JOptionPane.QUESTION_MESSAGE
+		);
+		
+		if(shallPlay != 0) {
+			compileNextRegion();
+			return;
+		}
+
+		String regionInfo = String.format("Upload of region %d: Start: 0x%04X, End: 0x%04X, Size. 0x%04X", 
+			currentRegion + 1,
+			aCandidate.getStartAddress(),
+			aCandidate.getEndAddress(),
+			aCandidate.getSize()
+		); 
+			
+		logger.info(regionInfo);
+		workflowEngine.setStatusMessage(regionInfo);
+
+		ByteBuffer dataBuffer = aCandidate.getContent();
+		dataBuffer.rewind();
+		
+		ByteBuffer soundSamples = findCompiledSamples(createRegionKey(aCandidate, dataBuffer));
+		
+		bgPlayer = soundPlayer;
+		bgPlayer.addPropertyChangeListener(this);
+		bgPlayer.registerStatusListener(this);
+
+		currentTask = bgPlayer;
+		isPlaying = true;
+		
+		if(soundSamples != null) {
+			
+			// unchanged since the last compilation, no need to compile it again
+			logger.info("runStreamingUpload(): region {} unchanged, {}, {}", currentRegion + 1, compiledRegionCache, compiledAudioStore);
+			
+			soundSamples.rewind();
+			soundPlayer.setSoundBuffer(soundSamples);
+			
+			bgPlayer.execute();
+			
+			return;
+			
+		} // fi
+
+		SampleRingBuffer sampleStream = new SampleRingBuffer(
+			(int) protocol.getAudioFormat().getSampleRate() * STREAM_BUFFER_SECONDS
+		);
+		
+		protocol.setStartAddress(aCandidate.getStartAddress());
+		protocol.setEndAddress(aCandidate.getEndAddress());
+		protocol.setDataBuffer(dataBuffer);
+		protocol.setSampleStream(sampleStream);
+		
+		soundPlayer.setSampleStream(sampleStream);
+
+		bgCompiler = protocol;	
+		bgCompiler.addPropertyChangeListener(this::streamingProgressChange);
+		bgCompiler.registerStatusListener(null);
+
+		logger.trace("dataBuffer = {}, sampleStream = {}",  dataBuffer, sampleStream);
+		
+		isStreamCompiling = true;
+		
+		bgCompiler.execute();
+		bgPlayer.execute();
+
+	} // runStreamingUpload()
+
+
+	/**
+	 * Listener for the protocol while streaming.<br>
+	 * Only the progress is of interest, the work flow is controlled by the SoundPlayer.
+	 * 
+	 * @param evt
+	 * The event fired by the background execution of the protocol.
+	 */
+	protected void streamingProgressChange(PropertyChangeEvent evt) {
+		logger.trace("streamingProgressChange(): evt = {}", evt);
+		
+		if("progress".equals(evt.getPropertyName())) {
+			compileAndUploadPanel.setProgress((Integer) evt.getNewValue());
+		}
+		
+	} // streamingProgressChange()
+
+
+	/**
+	 * Switches between streaming upload, where play back starts while the region is compiled, and
+	 * the classic mode, where a region is compiled completely before it is played back. The classic 
+	 * mode is the default, it uses the CompiledRegionCache and compiles the next region while the 
+	 * current one is played back.
+	 * 
+	 * @param aStreamingUpload
+	 * true to enable streaming upload.
+	 */
+	public void setStreamingUpload(final boolean aStreamingUpload) {
+		logger.trace("setStreamingUpload(): aStreamingUpload = {}", aStreamingUpload);
+		
+		isStreamingUpload = aStreamingUpload;
+		
+	} // setStreamingUpload()
+
+
+	/**
+	 * @return
+	 * true if streaming upload is enabled, see setStreamingUpload().
+	 */
+	public boolean isStreamingUpload() { return isStreamingUpload; }
+
+
+	/**
+	 * Returns the cache of compiled regions used by runCompile().
+	 * 
+	 * @return
+	 * The CompiledRegionCache.
+	 */
+	public CompiledRegionCache getCompiledRegionCache() { return compiledRegionCache; }
+	
+	
+	/**
+	 * Replaces the cache of compiled regions, e.g. to share one cache between several actions.
+	 * 
+	 * @param aCompiledRegionCache
+	 * The cache to be used by runCompile().
+	 */
+	public void setCompiledRegionCache(final CompiledRegionCache aCompiledRegionCache) {
+		logger.trace("setCompiledRegionCache(): aCompiledRegionCache = {}", aCompiledRegionCache);
+		
+		if(aCompiledRegionCache == null) throw new IllegalArgumentException("aCompiledRegionCache can't be null!");
+		compiledRegionCache = aCompiledRegionCache;
+		
+	} // setCompiledRegionCache()
+
+
+	/**
+	 * Sets the store which keeps compiled regions across sessions.
+	 * 
+	 * @param aCompiledAudioStore
+	 * The store to be used by runCompile() or null to use the CompiledRegionCache only.
+	 */
+	public void setCompiledAudioStore(final CompiledAudioStore aCompiledAudioStore) {
+		logger.trace("setCompiledAudioStore(): aCompiledAudioStore = {}", aCompiledAudioStore);
+		
+		compiledAudioStore = aCompiledAudioStore;
+		
+	} // setCompiledAudioStore()
+
+
 	/**
 	 * @param aProtocol
+	 * The protocol of the target system. It compiles one region at a time, so the bytes of a 
+	 * large region are encoded in parallel.
 	 */
 	public void setProtocol(Protocol aProtocol) {
 		logger.trace("setGui(): setProtocol = {}", aProtocol);
 		
 		protocol = (BackgroundTaskProtokol)aProtocol;
 		
+		if(protocol != null) protocol.setParallelEncoding(ForkJoinPool.commonPool());
+		
 	} // setProtocol()
 
 
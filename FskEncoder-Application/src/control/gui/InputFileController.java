@@ -125,7 +125,7 @@ public class InputFileController implements ActionListener {
 	
 
 	/**
-	 * 
+	 * Loads the selected file in background, or cancels the load if a file is being loaded.
 	 */
 	protected void doLoadFile() {
 		logger.trace("doLoadFile()");
@@ -133,7 +133,12 @@ public class InputFileController implements ActionListener {
         String filePath = workflowEngine.getSelectedFileName();
         logger.debug("Selected file:" + filePath);
         
-        if(filePath != null) {
+        if(workflowEngine.isLoading()) {
+        	
+        	workflowEngine.cancelLoad();
+        	
+        }
+        else if(filePath != null) {
         
 	        workflowEngine.loadCandidateFile();
 	        setFileStamp(filePath);
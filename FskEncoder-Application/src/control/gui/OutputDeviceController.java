@@ -56,6 +56,7 @@ import control.WorkflowEngine;
 import extension.sound.FskAudioFormat;
 import model.OutputDeviceControllerModel;
 import sound.SoundPlayer;
+import sound.SourceDataLinePool;
 import view.gui.DlgOutputDeviceSelection;
 import view.gui.OutputDeviceGui;
 
@@ -91,6 +92,9 @@ public class OutputDeviceController implements ActionListener, ChangeListener, F
 	
 	protected OutputDeviceGui outDevPanel;
 	protected SoundPlayer soundPlayer;
+	
+	protected SourceDataLinePool linePool = new SourceDataLinePool();
+	protected Mixer.Info currentOutputDevice;
 
 	
 	/**
@@ -333,12 +337,15 @@ public class OutputDeviceController implements ActionListener, ChangeListener, F
 			}
 
 //		https://docs.oracle.com/javase%2F8%2Fdocs%2Fapi%2F%2F/javax/sound/sampled/SourceDataLine.html
-		
-			Mixer mixer = AudioSystem.getMixer(outputDevice);
 			
-			SourceDataLine sourceDataLine = (SourceDataLine) mixer.getLine(dataLineInfo); 				
+			// the lines of the previous device are kept open by the pool till now
+			linePool.release(currentOutputDevice);
+			currentOutputDevice = outputDevice;
+		
+			SourceDataLine sourceDataLine = linePool.getLine(outputDevice, fskAudioFormat); 				
 			
 			soundPlayer = new SoundPlayer(sourceDataLine, fskAudioFormat);
+			soundPlayer.withLinePool(linePool, outputDevice);
 			
 		}
 		catch(LineUnavailableException e) {logger.fatal("Unexpected exception caught: {}", e); }
@@ -398,6 +405,19 @@ public class OutputDeviceController implements ActionListener, ChangeListener, F
 	} // getOutputVolume
 	
 	
+	/**
+	 * Closes all output lines which are kept open for the play back.
+	 * <br>
+	 * To be called when the application terminates.
+	 */
+	public void release() {
+		logger.trace("release()");
+		
+		linePool.releaseAll();
+		
+	} // release()
+	
+	
 	/**
 	 * @return
 	 */
@@ -61,6 +61,9 @@ import org.apache.logging.log4j.Logger;
  * 	  <li>ByteBuffer encodeLowBit(final int aCount)</li>
  * 	  <li>ByteBuffer encodeHighBit(final int aCount)</li>
  * 	</ul>
+ * 	The methods encodeLowBitInto() and encodeHighBitInto() write the sound samples directly into a buffer 
+ * 	given by the caller. By default they copy the result of encodeLowBit() / encodeHighBit(), a derived 
+ * 	class should override them if it's able to do this without allocation of an intermediate buffer.
  * 	Examples how this is to be done can be found in class FskBitEncoder (simple style) or in the extension microprofessor1.Mpf1BitEncoder (a more complex one).
  * <p>
  * @author Stefan
@@ -132,7 +135,131 @@ public abstract class BitEncoder {
 	} // encode(...)
 	
 	
+	/**
+	 * Encodes aCount bits with the value given in aBitValue and writes the sound samples into aTarget,
+	 * starting at it's current position.
+	 * 
+	 * @param aTarget<br>
+	 * The buffer to receive the sound samples. It's position is advanced by the number of samples written.
+	 * 
+	 * @param aBitValue<br>
+	 * The value of the bit to be encoded into sound samples.  It can be either 0 or 1.<br>
+	 * Any other values are rejected.
+	 * 
+	 * @param aCount<br>
+	 * Number if bits (with the same value) to be encoded.  It must be greater than 0.<br>
+	 * Any other values are rejected.
+	 * 
+	 * @throws IllegalArgumentException<br>
+	 * If aCount is less or equal 0 or if aBitValue is not in the range between 0 and 1.
+	 * 
+	 */
+	public void encodeInto(final ByteBuffer aTarget, final int aBitValue, final int aCount) {
+		logger.trace("encodeInto(): aBitValue = {}, aCount = {}", aBitValue, aCount);
+		
+		if(aCount <= 0) throw new IllegalArgumentException("aCount must be greater than 0!");
+		
+		switch(aBitValue) {
+		
+		case 0:	encodeLowBitInto(aTarget, aCount);  break;
+		case 1: encodeHighBitInto(aTarget, aCount); break;
+		
+		default: throw new IllegalArgumentException("aBitValue must be in range 0 ... 1!");
+		
+		} // hctiws
+		
+	} // encodeInto(...)
+	
+	
 	public abstract int getSampleBufferSize();
+	
+	
+	/**
+	 * Returns the number of sound samples needed to encode aCount bits of value aBitValue.
+	 * <br>
+	 * The default implementation assumes getSampleBufferSize() samples per bit, a derived class
+	 * should override it if the size of a bit depends on it's value.
+	 * 
+	 * @param aBitValue<br>
+	 * The value of the bit, 0 or 1.
+	 * 
+	 * @param aCount<br>
+	 * Number of bits.
+	 * 
+	 * @return
+	 * The number of sound samples.
+	 */
+	public int getSampleCount(final int aBitValue, final int aCount) {
+		
+		return aCount * getSampleBufferSize();
+		
+	} // getSampleCount(...)
+
+	
+	/**
+	 * Returns the sound samples of a single bit if aCount bits of this value are always encoded
+	 * as aCount copies of them.
+	 * <br>
+	 * The default implementation returns null, which means the bits have to be encoded each time.
+	 * 
+	 * @param aBitValue<br>
+	 * The value of the bit, 0 or 1.
+	 * 
+	 * @return
+	 * The sound samples of one bit with position set to 0 or null.
+	 * 
+	 * @throws IllegalArgumentException<br>
+	 * If aBitValue is not in the range between 0 and 1.
+	 */
+	public ByteBuffer getBitTemplate(final int aBitValue) {
+		
+		if(aBitValue < 0 || aBitValue > 1) throw new IllegalArgumentException("aBitValue must be in range 0 ... 1!");
+		
+		return null;
+		
+	} // getBitTemplate(...)
+
+	
+	/**
+	 * Returns a key describing everything that influences the sound samples created by this encoder.
+	 * <br>
+	 * Two encoders with equal keys create identical sound samples for the same bits. The key consists of the
+	 * classes, the sampling rate and a hash of the bit templates, so it covers the frequencies as well.
+	 * 
+	 * @return
+	 * The configuration key.
+	 */
+	public String getConfigurationKey() {
+		
+		return getClass().getName() 
+			+ " [waveCycleEncoder=" + waveCycleEncoder.getClass().getName()
+			+ ", samplingRate=" + waveCycleEncoder.getSamplingRate()
+			+ ", lowBit=" + getSampleKey(getBitTemplate(0))
+			+ ", highBit=" + getSampleKey(getBitTemplate(1))
+			+ "]";
+		
+	} // getConfigurationKey()
+	
+	
+	/**
+	 * Returns a short key for the content of a sample buffer, consisting of it's size and the hash of the samples.
+	 * 
+	 * @param aSamples
+	 * The samples from 0 to the limit are taken, position and mark are untouched. Can be null.
+	 * 
+	 * @return
+	 * The key of the samples or "-" if aSamples is null.
+	 */
+	protected static String getSampleKey(final ByteBuffer aSamples) {
+		
+		if(aSamples == null) return "-";
+		
+		ByteBuffer samples = aSamples.duplicate();
+		samples.rewind();
+		
+		return samples.limit() + ":" + Integer.toHexString(samples.hashCode());
+		
+	} // getSampleKey(...)
 
 	
     /**
@@ -150,5 +277,43 @@ public abstract class BitEncoder {
 	protected abstract ByteBuffer encodeHighBit(final int aCount);
 
 	
+	/**
+	 * Writes the sound samples of aCount low bits into aTarget.<br>
+	 * The default implementation copies the buffer returned by encodeLowBit().
+	 * 
+	 * @param aTarget
+	 * The buffer to receive the sound samples.
+	 * 
+	 * @param aCount
+	 * Number of bits to encode
+	 */
+	protected void encodeLowBitInto(final ByteBuffer aTarget, final int aCount) {
+		
+		ByteBuffer buffer = encodeLowBit(aCount);
+		buffer.rewind();
+		aTarget.put(buffer);
+		
+	} // encodeLowBitInto()
+
+	
+	/**
+	 * Writes the sound samples of aCount high bits into aTarget.<br>
+	 * The default implementation copies the buffer returned by encodeHighBit().
+	 * 
+	 * @param aTarget
+	 * The buffer to receive the sound samples.
+	 * 
+	 * @param aCount
+	 * Number of bits to encode
+	 */
+	protected void encodeHighBitInto(final ByteBuffer aTarget, final int aCount) {
+		
+		ByteBuffer buffer = encodeHighBit(aCount);
+		buffer.rewind();
+		aTarget.put(buffer);
+		
+	} // encodeHighBitInto()
+
+	
 } // class
 
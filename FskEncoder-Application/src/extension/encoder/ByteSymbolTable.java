@@ -0,0 +1,234 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : ByteSymbolTable.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.encoder;
+
+import java.nio.ByteBuffer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * 	Holds the complete sound samples of every possible byte value (0x00 ... 0xFF),
+ * 	optionally framed by start and stop bits.
+ *
+ * <p>
+ * Collaborators:<br>
+ * 	BitEncoder or derived class,<br>
+ * 	Encoder.
+ *
+ * <p>
+ * Description:<br>
+ * 	At construction time each of the 256 byte values is encoded once, bit by bit, with the given
+ * 	BitEncoder and BitOrder. The start bit samples (if any), the eight data bits and the stop bit
+ * 	samples (if any) are concatenated into one symbol per byte value.
+ * 	<p>
+ * 	Afterwards encoding a byte is reduced to a single bulk copy of the prepared symbol into the
+ * 	target buffer. No further calls to the BitEncoder are made.
+ * 	<p>
+ * 	Because the encoding of a low and a high bit may differ in length (e.g. FSK with two frequencies),
+ * 	the size of a symbol depends on the byte value. It can be obtained by getSymbolSize().
+ * 	<p>
+ * 	NOTE:<br>
+ * 	A table is only valid for the configuration it was built with. If the BitEncoder, the BitOrder or the
+ * 	framing changes, a new table must be created.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class ByteSymbolTable {
+
+	private static Logger logger = LogManager.getLogger(ByteSymbolTable.class.getName());
+
+	public static final int NBR_OF_SYMBOLS = 256;
+
+	protected final byte[][] symbols;
+	protected int maxSymbolSize;
+
+
+	/**
+	 * Constructor.
+	 * <br>
+	 * Builds the sound samples for all 256 byte values.
+	 *
+	 * @param aBitEncoder
+	 * Specific encoder to encode single bits.
+	 *
+	 * @param aBitOrder
+	 * The bit order to be applied, one of LSB_MSB or MSB_LSB.
+	 *
+	 * @param aStartBitSamples
+	 * The sound samples of the start bit(s) to be put in front of each byte.<br>
+	 * May be null if no start bits are required.
+	 *
+	 * @param aStopBitSamples
+	 * The sound samples of the stop bit(s) to be appended to each byte.<br>
+	 * May be null if no stop bits are required.
+	 *
+	 * @throws IllegalArgumentException
+	 * If aBitEncoder or aBitOrder is null.
+	 */
+	public ByteSymbolTable(final BitEncoder aBitEncoder, final BitOrder aBitOrder,
+			final ByteBuffer aStartBitSamples, final ByteBuffer aStopBitSamples) {
+
+		logger.trace("ByteSymbolTable(): aBitEncoder = {}, aBitOrder = {}, aStartBitSamples = {}, aStopBitSamples = {}",
+				aBitEncoder, aBitOrder, aStartBitSamples, aStopBitSamples);
+
+		if(aBitEncoder == null) throw new IllegalArgumentException("aBitEncoder can't be null!");
+		if(aBitOrder   == null) throw new IllegalArgumentException("aBitOrder can't be null!");
+
+		byte[] startBits = toArray(aStartBitSamples);
+		byte[] stopBits  = toArray(aStopBitSamples);
+
+		// the two bit samples are requested once and reused for all symbols
+		byte[][] bitSamples = new byte[][] {
+			toArray(aBitEncoder.encode(0, 1)),
+			toArray(aBitEncoder.encode(1, 1))
+		};
+
+		symbols = new byte[NBR_OF_SYMBOLS][];
+
+		for(int value = 0; value < NBR_OF_SYMBOLS; value++) {
+
+			symbols[value] = buildSymbol(value, aBitOrder, bitSamples, startBits, stopBits);
+			maxSymbolSize = Math.max(maxSymbolSize, symbols[value].length);
+
+		} // rof
+
+		logger.debug("ByteSymbolTable(): maxSymbolSize = {}", maxSymbolSize);
+
+	} // ByteSymbolTable(...)
+
+
+	/**
+	 * Returns the size of the largest symbol in the table.
+	 *
+	 * @return
+	 * The number of sound samples of the largest symbol.
+	 */
+	public int getMaxSymbolSize() { return maxSymbolSize; }
+
+
+	/**
+	 * Returns the size of the symbol for the given byte value.
+	 *
+	 * @param aDataByte
+	 * The byte value of interest.
+	 *
+	 * @return
+	 * The number of sound samples needed to encode aDataByte.
+	 */
+	public int getSymbolSize(final byte aDataByte) { return symbols[aDataByte & 0x0FF].length; }
+
+
+	/**
+	 * Copies the sound samples of the given byte value into the target buffer
+	 * at it's current position.
+	 *
+	 * @param aTarget
+	 * The buffer to receive the sound samples.
+	 *
+	 * @param aDataByte
+	 * The byte to be encoded.
+	 */
+	public void put(final ByteBuffer aTarget, final byte aDataByte) {
+
+		aTarget.put(symbols[aDataByte & 0x0FF]);
+
+	} // put(...)
+
+
+    /**
+     * Returns a string summarizing the state of this object.
+     *
+     * @return  A summary string
+     */
+	@Override
+	public String toString() {
+		return "ByteSymbolTable [maxSymbolSize=" + maxSymbolSize + "]";
+	}
+
+
+	/**
+	 * Assembles the symbol of a single byte value.
+	 */
+	protected byte[] buildSymbol(final int aValue, final BitOrder aBitOrder, final byte[][] aBitSamples,
+			final byte[] aStartBits, final byte[] aStopBits) {
+
+		int size = aStartBits.length + aStopBits.length;
+		int[] bits = new int[8];
+
+		for(int n = 0; n < 8; n++) {
+
+			switch(aBitOrder) { // NOSONAR
+			case LSB_MSB: bits[n] = (aValue >> n) & 0x01;       break;
+			case MSB_LSB: bits[n] = (aValue >> (7 - n)) & 0x01; break;
+			} // hctiws
+
+			size += aBitSamples[bits[n]].length;
+
+		} // rof
+
+		ByteBuffer symbol = ByteBuffer.allocate(size);
+		symbol.put(aStartBits);
+
+		for(int n = 0; n < 8; n++) {
+			symbol.put(aBitSamples[bits[n]]);
+		}
+
+		symbol.put(aStopBits);
+
+		return symbol.array();
+
+	} // buildSymbol(...)
+
+
+	/**
+	 * Copies the content of a sample buffer - from 0 up to it's limit - into an array
+	 * without touching the position of the source buffer.
+	 */
+	protected byte[] toArray(final ByteBuffer aSamples) {
+
+		if(aSamples == null) return new byte[0];
+
+		ByteBuffer source = aSamples.duplicate();
+		source.rewind();
+
+		byte[] result = new byte[source.remaining()];
+		source.get(result);
+
+		return result;
+
+	} // toArray(...)
+
+
+} // class
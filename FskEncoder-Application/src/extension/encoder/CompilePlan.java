@@ -0,0 +1,301 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : CompilePlan.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.encoder;
+
+import java.nio.ByteBuffer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * 	Calculates the exact number of sound samples a compilation will produce, before
+ * 	anything is encoded.
+ *
+ * <p>
+ * Collaborators:<br>
+ * 	Encoder, which provides the size of each encoding step.
+ *
+ * <p>
+ * Description:<br>
+ * 	A protocol describes the steps of it's compilation by a sequence of addXxx() calls, 
+ * 	one for each encodeXxx() call on the Encoder it will do later on, e.g.
+ * 	<pre>
+ * 	CompilePlan plan = new CompilePlan(encoder)
+ * 		.addSilence(500)
+ * 		.addWaveCycles(1200, 800)
+ * 		.addByteBuffer(dataBuffer, true)
+ * 		.addByte(checksum, true);
+ * 	</pre>
+ * 	The sizes are taken from the prepared samples of the encoders (e.g. the per bit templates of 
+ * 	a FullCycleBitEncoder and the configured start and stop bits), so the sample buffer can be 
+ * 	allocated once with the right size. 
+ * 	<p>
+ * 	The cycles of a NcoWaveCycleEncoder vary in length with the phase, which is carried from one 
+ * 	encodeWaveCycle() call to the next. So the plan follows the phase over the addWaveCycles() steps, 
+ * 	starting at the current phase of the encoder. The plan must be built right before the 
+ * 	compilation, like prepareCompile() of the BackgroundTaskProtokol does. Bits are taken from 
+ * 	templates starting at the zero-crossing, they don't move the phase.
+ * 	<p>
+ * 	Besides the sample count the plan counts the data bytes, which is the base for the progress 
+ * 	of the compilation, and provides the duration of the upload.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class CompilePlan {
+
+	private Logger logger = LogManager.getLogger(CompilePlan.class.getName());
+
+	protected final Encoder encoder;
+
+	protected long sampleCount;
+	protected int dataByteCount;
+	
+	/*
+	 * Phase of a NcoWaveCycleEncoder after the steps added so far, -1 until the first wave cycle step.
+	 */
+	protected long wavePhase = -1;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aEncoder
+	 * The encoder which will do the compilation.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aEncoder is null.
+	 */
+	public CompilePlan(final Encoder aEncoder) {
+
+		logger.trace("CompilePlan(): aEncoder = {}", aEncoder);
+
+		if(aEncoder == null) throw new IllegalArgumentException("aEncoder can't be null!");
+
+		encoder = aEncoder;
+
+	} // CompilePlan(...)
+
+
+	/**
+	 * Adds a step Encoder.encodeSilence(aDuration).
+	 *
+	 * @param aDuration
+	 * The duration of silence in milliseconds.
+	 *
+	 * @return
+	 * The plan itself (this).
+	 */
+	public CompilePlan addSilence(final int aDuration) {
+
+		sampleCount += encoder.getSilenceSampleCount(aDuration);
+
+		return this;
+
+	} // addSilence(...)
+
+
+	/**
+	 * Adds a step Encoder.encodeWaveCycle(aFrequency, aCycleCount), e.g. a leader.
+	 *
+	 * @param aFrequency
+	 * The frequency to be used.
+	 *
+	 * @param aCycleCount
+	 * The number of wave cycles to encode.
+	 *
+	 * @return
+	 * The plan itself (this).
+	 */
+	public CompilePlan addWaveCycles(final int aFrequency, final int aCycleCount) {
+
+		if(encoder.waveCycleEncoder instanceof NcoWaveCycleEncoder) {
+			
+			NcoWaveCycleEncoder ncoEncoder = (NcoWaveCycleEncoder) encoder.waveCycleEncoder;
+			
+			if(wavePhase < 0) wavePhase = ncoEncoder.getPhase();
+			
+			sampleCount += ncoEncoder.getSampleCount(aFrequency, aCycleCount, wavePhase);
+			wavePhase = ncoEncoder.getPhaseAfter(aFrequency, aCycleCount, wavePhase);
+			
+		}
+		else {
+			sampleCount += encoder.getWaveCycleSampleCount(aFrequency, aCycleCount);
+		}
+
+		return this;
+
+	} // addWaveCycles(...)
+
+
+	/**
+	 * Adds a step Encoder.encodeBit(aBitValue, aCount).
+	 *
+	 * @param aBitValue
+	 * The value to be encoded.
+	 *
+	 * @param aCount
+	 * The number of bits to be encoded.
+	 *
+	 * @return
+	 * The plan itself (this).
+	 */
+	public CompilePlan addBits(final byte aBitValue, final int aCount) {
+
+		sampleCount += encoder.getBitSampleCount(aBitValue, aCount);
+
+		return this;
+
+	} // addBits(...)
+
+
+	/**
+	 * Adds a step Encoder.encodeByte(aDataByte, withTxFrame).
+	 *
+	 * @param aDataByte
+	 * The byte to be encoded.
+	 *
+	 * @param withTxFrame
+	 * Set to true if the byte is put in a envelope.
+	 *
+	 * @return
+	 * The plan itself (this).
+	 */
+	public CompilePlan addByte(final byte aDataByte, final boolean withTxFrame) {
+
+		sampleCount += encoder.getByteSampleCount(aDataByte, withTxFrame);
+		dataByteCount++;
+
+		return this;
+
+	} // addByte(...)
+
+
+	/**
+	 * Adds a step Encoder.encodeByteBuffer(aDataByteBuffer, withTxFrame).
+	 *
+	 * @param aDataByteBuffer
+	 * Buffer holding the bytes to encode.
+	 *
+	 * @param withTxFrame
+	 * Set to true if each byte is put in an envelope.
+	 *
+	 * @return
+	 * The plan itself (this).
+	 */
+	public CompilePlan addByteBuffer(final ByteBuffer aDataByteBuffer, final boolean withTxFrame) {
+
+		sampleCount += encoder.getByteBufferSampleCount(aDataByteBuffer, withTxFrame);
+		dataByteCount += aDataByteBuffer.limit();
+
+		return this;
+
+	} // addByteBuffer(...)
+
+
+	/**
+	 * Adds a step Encoder.encodeWord(aDataWord, withTxFrame).
+	 *
+	 * @param aDataWord
+	 * The word to be encoded.
+	 *
+	 * @param withTxFrame
+	 * Set to true if each byte is put in an envelope.
+	 *
+	 * @return
+	 * The plan itself (this).
+	 */
+	public CompilePlan addWord(final int aDataWord, final boolean withTxFrame) {
+
+		sampleCount += encoder.getWordSampleCount(aDataWord, withTxFrame);
+		dataByteCount += 2;
+
+		return this;
+
+	} // addWord(...)
+
+
+	/**
+	 * Returns the number of sound samples of all steps added so far.
+	 *
+	 * @return
+	 * The exact size of the sample buffer.
+	 *
+	 * @throws IllegalStateException
+	 * if the sound samples don't fit into a single buffer.
+	 */
+	public int getSampleCount() {
+
+		if(sampleCount > Integer.MAX_VALUE) throw new IllegalStateException("Too many sound samples for a single buffer!");
+
+		return (int) sampleCount;
+
+	} // getSampleCount()
+
+
+	/**
+	 * Returns the number of data bytes of all steps added so far.
+	 *
+	 * @return
+	 * The number of bytes added by addByte(), addByteBuffer() and addWord().
+	 */
+	public int getDataByteCount() { return dataByteCount; }
+
+
+	/**
+	 * Returns the time needed to play back the sound samples.
+	 *
+	 * @return
+	 * The duration in milliseconds, rounded up.
+	 */
+	public long getDuration() {
+
+		int samplingRate = encoder.getSamplingRate();
+
+		return (sampleCount * 1000 + samplingRate - 1) / samplingRate;
+
+	} // getDuration()
+
+
+    /**
+     * Returns a string summarizing the state of this object.
+     *
+     * @return  A summary string
+     */
+	@Override
+	public String toString() {
+		return "CompilePlan [sampleCount=" + sampleCount + ", dataByteCount=" + dataByteCount + "]";
+	}
+
+
+} // class
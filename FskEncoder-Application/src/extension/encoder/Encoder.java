@@ -29,11 +29,21 @@
 
 package extension.encoder;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import extension.execution.CancellationToken;
+import extension.protocol.ChecksumCalculator;
+import extension.sound.SampleRingBuffer;
+import extension.sound.SymbolStream;
+
 /**
  * Responsibilities:<br>
  * 	Encoding of different data types like
@@ -61,6 +71,34 @@ import org.apache.logging.log4j.Logger;
  *  <p>
  *  The encoding of bytes can be configured to be done from LSB to MSB or vice versa
  *  and for the mode for encoding of a word can be set to LITTLE- or BIG ENDIAN  
+ *  <p>
+ *  By default the encoding of bytes is done by a ByteSymbolTable which holds the 
+ *  prepared sound samples of all 256 byte values, see withByteSymbolTable(boolean). The bytes are 
+ *  encoded bit by bit only if the BitEncoder doesn't provide bit templates or a derived class 
+ *  overrides encodeBit().
+ *  <p>
+ *  If a SampleRingBuffer is set by setSampleStream(), the encoder works in streaming mode.
+ *  The sample buffer is reduced to a chunk of STREAM_CHUNK_SIZE samples and each time it 
+ *  runs full, it's content is handed over to the stream. So the consumer can start to work
+ *  on the first chunk while the rest is still encoded. Long runs of silence, wave cycles or bits
+ *  are encoded piece by piece, see getUnitsPerChunk(), so the sample buffer stays that small.
+ *  <p>
+ *  If a SymbolStream is set by setSymbolStream(), the encoder records the templates it would copy
+ *  (bits, wave cycles, silence) and their repeat counts instead of the sound samples. Samples which 
+ *  are not made of templates are handed over to the symbol stream chunk by chunk like in streaming mode.
+ *  <p>
+ *  Large byte buffers can be encoded in parallel by the ByteSymbolTable, see withParallelEncoding().
+ *  A ChecksumCalculator given to encodeByteBuffer() sums up each chunk into a partial checksum, the 
+ *  partial checksums are combined in the order of the chunks.
+ *  <p>
+ *  If a CancellationToken is set, see setCancellationToken(), the bulk paths check it chunk by chunk:
+ *  encodeByteBuffer() every getCancellationCheckInterval() bytes, also within the parallel chunks, and 
+ *  the streaming and symbol mode on each flush. The interval is derived from the maximum abort latency 
+ *  of the token. A cancelled token terminates the encoding with a 
+ *  CancellationException.
+ *  <p>
+ *  For each encodeXxx() method a getXxxSampleCount() method returns the exact number of sound 
+ *  samples it will produce. A CompilePlan uses them to size the sample buffer before encoding.
  * 
  * <p>
  * @author Stefan
@@ -72,6 +110,16 @@ public class Encoder {
 	private Logger logger = LogManager.getLogger(Encoder.class.getName());
 	
 	protected static final String SAMPLE_BUFFER_SIZE_NOT_SET = "Sample buffer size not set!";
+	
+	public static final int STREAM_CHUNK_SIZE = 4096;
+	
+	public static final int PARALLEL_CHUNK_SIZE = 4096;
+	
+	/**
+	 * Lower bound of the sound samples copied per millisecond, the number of bytes between two checks 
+	 * of the CancellationToken is derived from it, see getCancellationCheckInterval().
+	 */
+	public static final int MIN_SAMPLES_PER_MILLISECOND = 10_000;
 
 	protected SilenceEncoder silenceEncoder;
 	protected WaveCycleEncoder waveCycleEncoder;
@@ -85,6 +133,52 @@ public class Encoder {
 	protected BitOrder bitOrder;
 	protected ByteOrder byteOrder;
 	
+	protected boolean useByteSymbolTable = true;
+	protected Boolean isByteSymbolTableValid;
+	protected ByteSymbolTable plainSymbolTable;
+	protected ByteSymbolTable framedSymbolTable;
+	
+	protected SampleRingBuffer sampleStream;
+	protected SymbolStream symbolStream;
+	
+	protected ForkJoinPool forkJoinPool;
+	protected Boolean isEncodeByteOverridden;
+	
+	protected CancellationToken cancellationToken;
+	
+	
+	/**
+	 * Runs an action for each chunk index of a range, splitting the range until single chunks are left.
+	 */
+	protected static class ChunkAction extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+		private final transient IntConsumer action;
+
+		ChunkAction(final int aFrom, final int aTo, final IntConsumer aAction) {
+			from = aFrom;
+			to = aTo;
+			action = aAction;
+		}
+
+		@Override
+		protected void compute() {
+
+			if(to - from == 1) {
+				action.accept(from);
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new ChunkAction(from, middle, action), new ChunkAction(middle, to, action));
+
+		} // compute()
+
+	} // ChunkAction
+	
 	
 	/**
 	 * Constructor.
@@ -180,6 +274,7 @@ public class Encoder {
 		logger.debug("withStartBits(): aNbrStartBits = {}, aStartBitValue = {}", aNbrStartBits, aStartBitValue);
 		
 		startBitSamples = bitEncoder.encode(aStartBitValue.ordinal(), aNbrStartBits);
+		framedSymbolTable = null;
 
 		logger.trace("bitValue = {}, aNbrStartBits = {}, startBitSamples = {}, bitEncoder = {}", 
 				aStartBitValue, aNbrStartBits, startBitSamples, bitEncoder);
@@ -205,6 +300,7 @@ public class Encoder {
 		logger.debug("withStopBits(): aNbrStopBits = {}, aStopBitValue = {}", aNbrStopBits, aStopBitValue);
 		
 		stopBitSamples = bitEncoder.encode(aStopBitValue.ordinal(), aNbrStopBits);
+		framedSymbolTable = null;
 
 		logger.trace("bitValue = {}, aStopBitValue = {}, stopBitSamples = {}, bitEncoder = {}", 
 				aStopBitValue, aStopBitValue, stopBitSamples, bitEncoder);
@@ -214,6 +310,118 @@ public class Encoder {
 	} // withStopBits(...)
 	
 	
+	/**
+	 * Enables the encoding of bytes by a ByteSymbolTable, which is the default.
+	 * 
+	 * @return
+	 * The instance of the encoder itself (this).
+	 * 
+	 * @see #withByteSymbolTable(boolean)
+	 */
+	public Encoder withByteSymbolTable() { return withByteSymbolTable(true); }
+	
+	
+	/**
+	 * Enables or disables the encoding of bytes by a ByteSymbolTable.<br>
+	 * The table holds the complete sound samples of all 256 byte values, including the 
+	 * start and stop bits if an envelope is requested. So encoding a byte is done by a single
+	 * bulk copy instead of encoding it bit by bit.
+	 * <p>
+	 * The tables are built on first use. Therefore the start and stop bits can be configured
+	 * before or after this call.
+	 * <p>
+	 * The table is only used if it delivers the same sound samples as the bit by bit encoding, 
+	 * see canUseByteSymbolTable().
+	 * 
+	 * @param aUseByteSymbolTable
+	 * false to encode the bytes bit by bit.
+	 * 
+	 * @return
+	 * The instance of the encoder itself (this).
+	 */
+	public Encoder withByteSymbolTable(final boolean aUseByteSymbolTable) {
+		logger.debug("withByteSymbolTable(): aUseByteSymbolTable = {}", aUseByteSymbolTable);
+		
+		useByteSymbolTable = aUseByteSymbolTable;
+		
+		return this;
+		
+	} // withByteSymbolTable(...)
+	
+	
+	/**
+	 * Enables the parallel encoding of byte buffers on the common ForkJoinPool.
+	 * 
+	 * @return
+	 * The instance of the encoder itself (this).
+	 * 
+	 * @see #withParallelEncoding(ForkJoinPool)
+	 */
+	public Encoder withParallelEncoding() { return withParallelEncoding(ForkJoinPool.commonPool()); }
+	
+	
+	/**
+	 * Enables the parallel encoding of byte buffers.<br>
+	 * A buffer with more than PARALLEL_CHUNK_SIZE bytes is split into chunks of that size. 
+	 * Because the sound samples of each byte are taken from a ByteSymbolTable, the position of
+	 * every chunk in the sample buffer is known in advance and all chunks are encoded concurrently
+	 * into disjoint parts of the sample buffer. The result is the same as the sequential encoding.
+	 * <p>
+	 * The chunks bypass encodeByte(), so a buffer is encoded in parallel only if the ByteSymbolTable 
+	 * is used, see canUseByteSymbolTable(), and encodeByte() isn't overridden by a derived class. 
+	 * Otherwise, and in streaming mode, the encoding is done sequentially.
+	 * 
+	 * @param aForkJoinPool
+	 * The pool which executes the chunks.
+	 * 
+	 * @return
+	 * The instance of the encoder itself (this).
+	 */
+	public Encoder withParallelEncoding(final ForkJoinPool aForkJoinPool) {
+		logger.debug("withParallelEncoding(): aForkJoinPool = {}", aForkJoinPool);
+		
+		if(aForkJoinPool == null) throw new IllegalArgumentException("aForkJoinPool can't be null!");
+		
+		forkJoinPool = aForkJoinPool;
+		
+		return this;
+		
+	} // withParallelEncoding(...)
+	
+	
+	/**
+	 * Returns the ByteSymbolTable for plain or framed bytes.<br>
+	 * The table is created on first request.
+	 * 
+	 * @param withTxFrame
+	 * true if the table for bytes in an envelope is requested.
+	 * 
+	 * @return
+	 * The ByteSymbolTable for the current configuration.
+	 */
+	protected ByteSymbolTable getByteSymbolTable(final boolean withTxFrame) {
+		
+		if(withTxFrame) {
+			
+			if(framedSymbolTable == null) {
+				framedSymbolTable = new ByteSymbolTable(bitEncoder, bitOrder, startBitSamples, stopBitSamples);
+				logger.debug("getByteSymbolTable(): framedSymbolTable = {}", framedSymbolTable);
+			}
+			
+			return framedSymbolTable;
+			
+		}
+		
+		if(plainSymbolTable == null) {
+			plainSymbolTable = new ByteSymbolTable(bitEncoder, bitOrder, null, null);
+			logger.debug("getByteSymbolTable(): plainSymbolTable = {}", plainSymbolTable);
+		}
+		
+		return plainSymbolTable;
+		
+	} // getByteSymbolTable()
+	
+	
 	/**
 	 * Get the size of size of the buffer to hold one sample.
 	 * 
@@ -223,17 +431,114 @@ public class Encoder {
 	public int getSampleSize() { return bitEncoder.getSampleBufferSize(); }
 	
 	
+	/**
+	 * Allocates the sample buffer.<br>
+	 * In streaming and symbol mode the size is limited to STREAM_CHUNK_SIZE.
+	 * 
+	 * @param aBufferSize
+	 * The number of sound samples the buffer must be able to hold.
+	 */
 	public void setBufferSize(final int aBufferSize) {
 		logger.debug("setBufferSize(): aBufferSize: {}", aBufferSize);
 
-		sampleBuffer = ByteBuffer.allocate(aBufferSize);
+		int size = isChunked() ? Math.min(aBufferSize, STREAM_CHUNK_SIZE) : aBufferSize;
+		
+		sampleBuffer = ByteBuffer.allocate(size);
 
 	} // setBufferSize()
 	
 	
+	/**
+	 * Switches the encoder into streaming mode or back.
+	 * <p>
+	 * NOTE:<br>
+	 * Must be set before setBufferSize() is called, otherwise the sample buffer keeps it's full size.
+	 * 
+	 * @param aSampleStream
+	 * The stream to receive the sound samples chunk by chunk or null to switch 
+	 * streaming off.
+	 */
+	public void setSampleStream(final SampleRingBuffer aSampleStream) {
+		logger.debug("setSampleStream(): aSampleStream = {}", aSampleStream);
+		
+		sampleStream = aSampleStream;
+		
+	} // setSampleStream()
+	
+	
+	/**
+	 * Switches the encoder into symbol mode or back.
+	 * <p>
+	 * NOTE:<br>
+	 * Must be set before setBufferSize() is called, otherwise the sample buffer keeps it's full size.
+	 * 
+	 * @param aSymbolStream
+	 * The stream to receive the templates and their repeat counts or null to switch the 
+	 * symbol mode off.
+	 */
+	public void setSymbolStream(final SymbolStream aSymbolStream) {
+		logger.debug("setSymbolStream(): aSymbolStream = {}", aSymbolStream);
+		
+		symbolStream = aSymbolStream;
+		
+	} // setSymbolStream()
+	
+	
+	/**
+	 * Sets the token to be checked by the bulk paths of the encoder.
+	 * 
+	 * @param aCancellationToken
+	 * The token of the task using the encoder or null to switch the checks off.
+	 */
+	public void setCancellationToken(final CancellationToken aCancellationToken) {
+		logger.debug("setCancellationToken(): aCancellationToken = {}", aCancellationToken);
+		
+		cancellationToken = aCancellationToken;
+		
+	} // setCancellationToken()
+	
+	
+	/**
+	 * Hands the content of the sample buffer over to the stream and clears the buffer.<br>
+	 * In symbol mode the content is appended to the symbol stream as a template of it's own.<br>
+	 * Has no effect if the encoder isn't in streaming or symbol mode.
+	 * 
+	 * @throws CancellationException
+	 * if the stream was aborted by the consumer, the thread was interrupted or the encoding was cancelled.
+	 */
+	public void flushSampleStream() {
+		logger.trace("flushSampleStream(): sampleBuffer = {}", sampleBuffer);
+		
+		if(! isChunked() || sampleBuffer == null) return;
+		
+		checkCancellation();
+		
+		sampleBuffer.flip();
+		
+		if(symbolStream != null) {
+			symbolStream.append(sampleBuffer, 1);
+			sampleBuffer.clear();
+			return;
+		}
+		
+		try { 
+			sampleStream.write(sampleBuffer); 
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while streaming!");
+		}
+		
+		sampleBuffer.clear();
+		
+	} // flushSampleStream()
+	
+	
 	/**
 	 * Returns the sample buffer.
 	 * The buffer position is set to 0 position.
+	 * <br>
+	 * In streaming and symbol mode the remaining samples are flushed to the stream and an empty buffer is returned.
 	 * 
 	 * @return
 	 * Buffer containing the encoded sound samples.
@@ -243,6 +548,16 @@ public class Encoder {
 		logger.trace("getSampleBuffer()");
 		
 		if(sampleBuffer == null) throw new IllegalAccessError(SAMPLE_BUFFER_SIZE_NOT_SET);
+		
+		if(isChunked()) {
+			
+			// everything is in the stream, an empty buffer is left
+			flushSampleStream();
+			sampleBuffer.flip();
+			
+			return sampleBuffer;
+			
+		}
 
 		logger.trace("getSampleBuffer(): " + sampleBuffer);
 		
@@ -281,7 +596,30 @@ public class Encoder {
 		if(sampleBuffer   == null) throw new IllegalAccessError(SAMPLE_BUFFER_SIZE_NOT_SET);
 		logger.trace("encodeSilence(): sampleBuffer = {}", sampleBuffer);
 		
-		sampleBuffer.put(silenceEncoder.encode(aDuration));
+		if(symbolStream != null) {
+			
+			if(aDuration <= 0) throw new IllegalArgumentException("aDuration must be greater than 0!");
+			
+			flushSampleStream();
+			symbolStream.append(silenceEncoder.getTemplate(1), aDuration);
+			return;
+			
+		} // fi
+		
+		final int durationPerChunk = getUnitsPerChunk(silenceEncoder.getSampleCount(1));
+		int durationLeft = aDuration;
+		
+		do {
+			
+			int duration = Math.min(durationLeft, durationPerChunk);
+			
+			reserve(silenceEncoder.getSampleCount(duration));
+			silenceEncoder.encodeInto(sampleBuffer, duration);
+			
+			durationLeft -= duration;
+			
+		} while(durationLeft > 0);
+		
 		logger.trace("encodeSilence(): sampleBuffer = {}", sampleBuffer);
 		
 	} // encodeSilence(...)
@@ -304,7 +642,30 @@ public class Encoder {
 		if(sampleBuffer     == null) throw new IllegalAccessError(SAMPLE_BUFFER_SIZE_NOT_SET);
 		logger.trace("encodeWaveCycle(): sampleBuffer = {}", sampleBuffer);
 
-		sampleBuffer.put(waveCycleEncoder.encode(aFrequency, aCycleCount));
+		if(symbolStream != null && waveCycleEncoder.hasRepeatableCycles()) {
+			
+			ByteBuffer template = waveCycleEncoder.getTemplate(aFrequency, 1);
+			
+			flushSampleStream();
+			symbolStream.append(template, aCycleCount);
+			return;
+			
+		} // fi
+		
+		final int cyclesPerChunk = getUnitsPerChunk(waveCycleEncoder.getSampleCount(aFrequency, 1));
+		int cyclesLeft = aCycleCount;
+		
+		do {
+			
+			int cycleCount = Math.min(cyclesLeft, cyclesPerChunk);
+			
+			reserve(waveCycleEncoder.getSampleCount(aFrequency, cycleCount));
+			waveCycleEncoder.encodeInto(sampleBuffer, aFrequency, cycleCount);
+			
+			cyclesLeft -= cycleCount;
+			
+		} while(cyclesLeft > 0);
+		
 		logger.trace("encodeWaveCycle(): sampleBuffer = {}", sampleBuffer);
 		
 	} // encodeWaveCycle(...)
@@ -326,11 +687,36 @@ public class Encoder {
 		if(sampleBuffer   == null) throw new IllegalAccessError(SAMPLE_BUFFER_SIZE_NOT_SET);
 		logger.trace("encodeBit(): sampleBuffer = {}", sampleBuffer);
 
-		ByteBuffer buffer = bitEncoder.encode(aBitValue, aCount);
-		buffer.rewind();
-		logger.trace("encodeBit(): buffer = {}, bitEncoder = {}", buffer, bitEncoder);
+		if(symbolStream != null) {
+			
+			ByteBuffer template = bitEncoder.getBitTemplate(aBitValue);
+			
+			if(template != null) {
+				
+				if(aCount <= 0) throw new IllegalArgumentException("aCount must be greater than 0!");
+				
+				flushSampleStream();
+				symbolStream.append(template, aCount);
+				return;
+				
+			} // fi
+			
+		} // fi
+		
+		final int bitsPerChunk = getUnitsPerChunk(bitEncoder.getSampleBufferSize());
+		int bitsLeft = aCount;
+		
+		do {
+			
+			int count = Math.min(bitsLeft, bitsPerChunk);
+			
+			reserve(count * bitEncoder.getSampleBufferSize());
+			bitEncoder.encodeInto(sampleBuffer, aBitValue, count);
+			
+			bitsLeft -= count;
+			
+		} while(bitsLeft > 0);
 		
-		sampleBuffer.put(buffer);
 		logger.trace("encodeBit(): sampleBuffer = {}", sampleBuffer);
 		
 	} // encodeBit(...)
@@ -358,6 +744,24 @@ public class Encoder {
 		if(sampleBuffer == null) throw new IllegalAccessError(SAMPLE_BUFFER_SIZE_NOT_SET);
 		logger.trace("encodeByte(): sampleBuffer = {}", sampleBuffer);  // NOSONAR
 
+		if(symbolStream != null && bitEncoder.getBitTemplate(0) != null) {
+			encodeByteSymbols(aDataByte, withTxFrame);
+			return;
+		}
+		
+		if(canUseByteSymbolTable()) {
+			ByteSymbolTable symbolTable = getByteSymbolTable(withTxFrame);
+			reserve(symbolTable.getSymbolSize(aDataByte));
+			symbolTable.put(sampleBuffer, aDataByte);
+			logger.trace("encodeByte(): sampleBuffer = {}", sampleBuffer);  // NOSONAR
+			return;
+		}
+		
+		if(isChunked()) {
+			reserve(8 * bitEncoder.getSampleBufferSize() 
+					+ (withTxFrame ? startBitSamples.limit() + stopBitSamples.limit() : 0));
+		}
+		
 		if(withTxFrame) {
 			logger.trace("encodeByte(): add start bits");
 			startBitSamples.rewind();
@@ -419,20 +823,222 @@ public class Encoder {
 	 * If an envelope is requested than the values for start and stop bits are applied.
 	 * So make sure that the correct parameters are set!. Otherwise this parameter is silently ignored.
 	 * 
+	 * @throws CancellationException
+	 * if the CancellationToken was cancelled.
 	 */
 	public void encodeByteBuffer(final ByteBuffer aDataByteBuffer, final boolean withTxFrame) {
-		logger.debug("encodeByte(): aDataByteBuffer = {}, withTxFrame = {}",
-			aDataByteBuffer, withTxFrame
+		
+		encodeByteBuffer(aDataByteBuffer, withTxFrame, null);
+		
+	} // encodeByteBuffer(...)
+	
+	
+	/**
+	 * Encodes the content of the given byte buffer and sums up it's bytes as unsigned values by the 
+	 * given ChecksumCalculator.
+	 * <br>
+	 * If the buffer is encoded in parallel, each chunk is summed up by a partial calculator, see 
+	 * ChecksumCalculator.createPartial(), and the partial checksums are combined in the order of the 
+	 * chunks. A calculator without partial calculators sums up the buffer after it's encoding.
+	 * 
+	 * @param aDataByteBuffer
+	 * Buffer holding the bytes to encode.
+	 * 
+	 * @param withTxFrame
+	 * Set to true if each byte should be put in an envelope.
+	 * 
+	 * @param aChecksumCalculator
+	 * The calculator to sum up the bytes, or null if no checksum is needed.
+	 * 
+	 * @throws CancellationException
+	 * if the CancellationToken was cancelled.
+	 */
+	public void encodeByteBuffer(final ByteBuffer aDataByteBuffer, final boolean withTxFrame, 
+			final ChecksumCalculator aChecksumCalculator) {
+		logger.debug("encodeByte(): aDataByteBuffer = {}, withTxFrame = {}, aChecksumCalculator = {}",
+			aDataByteBuffer, withTxFrame, aChecksumCalculator
 		);
 		logger.trace("encodeByteBuffer(): sampleBuffer = {}", sampleBuffer);
 		
-		for(int n = 0; n < aDataByteBuffer.limit(); n++) {
-			encodeByte(aDataByteBuffer.get(n), withTxFrame);
+		if(canEncodeInParallel() && ! isChunked() && aDataByteBuffer.limit() > PARALLEL_CHUNK_SIZE) {
+			
+			if(sampleBuffer == null) throw new IllegalAccessError(SAMPLE_BUFFER_SIZE_NOT_SET);
+			
+			encodeByteBufferParallel(aDataByteBuffer, withTxFrame, aChecksumCalculator);
+			
 		}
+		else {
+			
+			final int checkInterval = getCancellationCheckInterval(withTxFrame);
+			
+			for(int n = 0; n < aDataByteBuffer.limit(); n++) {
+				
+				if(n % checkInterval == 0) checkCancellation();
+				
+				encodeByte(aDataByteBuffer.get(n), withTxFrame);
+				
+				if(aChecksumCalculator != null) aChecksumCalculator.sumUp(aDataByteBuffer.get(n) & 0x0FF);
+				
+			}
+			
+		} // esle
+		
 		logger.trace("encodeByteBuffer(): sampleBuffer = {}", sampleBuffer);
 		
 	} // encodeByteBuffer(...)
 	
+	
+	/**
+	 * Returns whether encodeByteBufferParallel() delivers the same sound samples as encodeByte().
+	 * 
+	 * @return
+	 * true if parallel encoding is enabled, the ByteSymbolTable is used and encodeByte() isn't overridden.
+	 */
+	protected boolean canEncodeInParallel() {
+		
+		if(forkJoinPool == null || ! canUseByteSymbolTable()) return false;
+		
+		if(isEncodeByteOverridden == null) {
+			
+			isEncodeByteOverridden = isOverridden("encodeByte", byte.class, boolean.class);
+			logger.debug("canEncodeInParallel(): isEncodeByteOverridden = {}", isEncodeByteOverridden);
+			
+		} // fi
+		
+		return ! isEncodeByteOverridden;
+		
+	} // canEncodeInParallel()
+	
+	
+	/**
+	 * Returns whether encodeByte() takes the sound samples from a ByteSymbolTable.
+	 * <br>
+	 * The table is built from the bit templates of the BitEncoder, so it's only valid if the 
+	 * BitEncoder provides templates for both bit values, i.e. it encodes a bit the same way each time, 
+	 * and encodeBit() isn't overridden by a derived class. Otherwise the bytes are encoded bit by bit.
+	 * 
+	 * @return
+	 * true if the ByteSymbolTable is enabled and valid for this encoder.
+	 */
+	protected boolean canUseByteSymbolTable() {
+		
+		if(! useByteSymbolTable) return false;
+		
+		if(isByteSymbolTableValid == null) {
+			
+			isByteSymbolTableValid = bitEncoder.getBitTemplate(0) != null 
+								  && bitEncoder.getBitTemplate(1) != null
+								  && ! isOverridden("encodeBit", byte.class, int.class);
+			
+			logger.debug("canUseByteSymbolTable(): isByteSymbolTableValid = {}", isByteSymbolTableValid);
+			
+		} // fi
+		
+		return isByteSymbolTableValid;
+		
+	} // canUseByteSymbolTable()
+	
+	
+	/**
+	 * Returns whether the public method with the given signature is overridden by a derived class.
+	 */
+	protected boolean isOverridden(final String aMethodName, final Class<?>... aParameterTypes) {
+		
+		try {
+			return getClass().getMethod(aMethodName, aParameterTypes).getDeclaringClass() != Encoder.class;
+		}
+		catch (NoSuchMethodException e) {
+			return true;
+		}
+		
+	} // isOverridden(...)
+	
+	
+	/**
+	 * Encodes the content of the given byte buffer chunk by chunk on the ForkJoinPool.
+	 * <p>
+	 * First the number of sound samples of each chunk is summed up to get the offset of 
+	 * the chunk in the sample buffer. Then each chunk is encoded into it's own view of the
+	 * sample buffer and summed up by it's own partial checksum calculator.
+	 * 
+	 * @param aDataByteBuffer
+	 * Buffer holding the bytes to encode.
+	 * 
+	 * @param withTxFrame
+	 * Set to true if each byte should be put in an envelope.
+	 * 
+	 * @param aChecksumCalculator
+	 * The calculator to sum up the bytes, or null if no checksum is needed.
+	 * 
+	 * @throws BufferOverflowException
+	 * if the sound samples don't fit into the sample buffer. Nothing is encoded in this case.
+	 */
+	protected void encodeByteBufferParallel(final ByteBuffer aDataByteBuffer, final boolean withTxFrame, 
+			final ChecksumCalculator aChecksumCalculator) {
+		
+		final ByteSymbolTable symbolTable = getByteSymbolTable(withTxFrame);
+		final int length = aDataByteBuffer.limit();
+		final int nbrOfChunks = (length + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+		final int[] offsets = new int[nbrOfChunks + 1];
+		
+		logger.debug("encodeByteBufferParallel(): length = {}, nbrOfChunks = {}", length, nbrOfChunks);
+		
+		forkJoinPool.invoke(new ChunkAction(0, nbrOfChunks, chunk -> {
+			
+			int size = 0;
+			
+			for(int n = chunk * PARALLEL_CHUNK_SIZE; n < Math.min(length, (chunk + 1) * PARALLEL_CHUNK_SIZE); n++) {
+				size += symbolTable.getSymbolSize(aDataByteBuffer.get(n));
+			}
+			
+			offsets[chunk + 1] = size;
+			
+		}));
+		
+		for(int chunk = 0; chunk < nbrOfChunks; chunk++) {
+			offsets[chunk + 1] += offsets[chunk];
+		}
+		
+		if(offsets[nbrOfChunks] > sampleBuffer.remaining()) throw new BufferOverflowException();
+		
+		final int base = sampleBuffer.position();
+		final int checkInterval = getCancellationCheckInterval(withTxFrame);
+		
+		final boolean isPartial = aChecksumCalculator != null && aChecksumCalculator.createPartial() != null;
+		final ChecksumCalculator[] partials = new ChecksumCalculator[nbrOfChunks];
+		
+		forkJoinPool.invoke(new ChunkAction(0, nbrOfChunks, chunk -> {
+			
+			ByteBuffer target = sampleBuffer.duplicate();
+			target.position(base + offsets[chunk]);
+			
+			ChecksumCalculator partial = isPartial ? aChecksumCalculator.createPartial() : null;
+			
+			for(int n = chunk * PARALLEL_CHUNK_SIZE; n < Math.min(length, (chunk + 1) * PARALLEL_CHUNK_SIZE); n++) {
+				
+				if((n - chunk * PARALLEL_CHUNK_SIZE) % checkInterval == 0) checkCancellation();
+				
+				symbolTable.put(target, aDataByteBuffer.get(n));
+				
+				if(partial != null) partial.sumUp(aDataByteBuffer.get(n) & 0x0FF);
+				
+			}
+			
+			partials[chunk] = partial;
+			
+		}));
+		
+		sampleBuffer.position(base + offsets[nbrOfChunks]);
+		
+		if(isPartial) {
+			for(ChecksumCalculator partial : partials) aChecksumCalculator.combine(partial);
+		}
+		else if(aChecksumCalculator != null) {
+			for(int n = 0; n < length; n++) aChecksumCalculator.sumUp(aDataByteBuffer.get(n) & 0x0FF);
+		}
+		
+	} // encodeByteBufferParallel(...)
+	
 
 	/**
 	 * Encodes a WORD (16 bit value) using the endian mode which was set before in the constructor call.
@@ -477,6 +1083,173 @@ public class Encoder {
 	} // encodeWord(...)
 
 
+	/**
+	 * Returns a key describing everything that influences the sound samples created by this encoder.
+	 * <br>
+	 * It covers the bit encoder (classes, sampling rate, frequencies), the start and stop bits and the 
+	 * bit and byte order. Settings which only change the way of encoding, like parallel encoding or the 
+	 * ByteSymbolTable, are not part of the key.
+	 * 
+	 * @return
+	 * The configuration key.
+	 */
+	public String getConfigurationKey() {
+		
+		return "Encoder [bitEncoder=" + bitEncoder.getConfigurationKey()
+			+ ", silenceEncoder=" + (silenceEncoder == null ? "-" : silenceEncoder.getClass().getName())
+			+ ", startBits=" + BitEncoder.getSampleKey(startBitSamples)
+			+ ", stopBits=" + BitEncoder.getSampleKey(stopBitSamples)
+			+ ", bitOrder=" + bitOrder
+			+ ", byteOrder=" + byteOrder
+			+ "]";
+		
+	} // getConfigurationKey()
+
+
+	/**
+	 * Returns the sampling rate of the sound samples.
+	 * 
+	 * @return
+	 * The sampling rate of the WaveCycleEncoder used by the BitEncoder.
+	 */
+	public int getSamplingRate() { return bitEncoder.waveCycleEncoder.getSamplingRate(); }
+	
+	
+	/**
+	 * Returns the number of sound samples encodeSilence(aDuration) will produce.
+	 * 
+	 * @param aDuration
+	 * The duration of silence in milliseconds.
+	 * 
+	 * @return
+	 * The number of sound samples.
+	 */
+	public int getSilenceSampleCount(final int aDuration) {
+		
+		if(silenceEncoder == null) throw new IllegalAccessError("No SilenceEncoder configured!");
+		
+		return silenceEncoder.getSampleCount(aDuration);
+		
+	} // getSilenceSampleCount(...)
+	
+	
+	/**
+	 * Returns the number of sound samples encodeWaveCycle(aFrequency, aCycleCount) will produce.
+	 * <br>
+	 * For a NcoWaveCycleEncoder the count depends on it's current phase, so it's valid for the next 
+	 * call only. CompilePlan.addWaveCycles() follows the phase over several calls.
+	 * 
+	 * @param aFrequency
+	 * The frequency to be used.
+	 * 
+	 * @param aCycleCount
+	 * The number of wave cycles to encode.
+	 * 
+	 * @return
+	 * The number of sound samples.
+	 */
+	public int getWaveCycleSampleCount(final int aFrequency, final int aCycleCount) {
+		
+		if(waveCycleEncoder == null) throw new IllegalAccessError("No WaveCycleEncoder configured!");
+		
+		return waveCycleEncoder.getSampleCount(aFrequency, aCycleCount);
+		
+	} // getWaveCycleSampleCount(...)
+	
+	
+	/**
+	 * Returns the number of sound samples encodeBit(aBitValue, aCount) will produce.
+	 * 
+	 * @param aBitValue
+	 * The value to be encoded.
+	 * 
+	 * @param aCount
+	 * The number of bits to be encoded.
+	 * 
+	 * @return
+	 * The number of sound samples.
+	 */
+	public int getBitSampleCount(final byte aBitValue, final int aCount) {
+		
+		return bitEncoder.getSampleCount(aBitValue, aCount);
+		
+	} // getBitSampleCount(...)
+	
+	
+	/**
+	 * Returns the number of sound samples encodeByte(aDataByte, withTxFrame) will produce.
+	 * <br>
+	 * The bit order doesn't matter, only the number of 0- and 1-bits.
+	 * 
+	 * @param aDataByte
+	 * The byte to be encoded.
+	 * 
+	 * @param withTxFrame
+	 * Set to true if the byte is put in a envelope.
+	 * 
+	 * @return
+	 * The number of sound samples.
+	 */
+	public int getByteSampleCount(final byte aDataByte, final boolean withTxFrame) {
+		
+		int highBits = Integer.bitCount(aDataByte & 0x0FF);
+		int size = bitEncoder.getSampleCount(1, highBits) + bitEncoder.getSampleCount(0, 8 - highBits);
+		
+		if(withTxFrame) {
+			if(startBitSamples != null) size += startBitSamples.limit();
+			if(stopBitSamples  != null) size += stopBitSamples.limit();
+		}
+		
+		return size;
+		
+	} // getByteSampleCount(...)
+	
+	
+	/**
+	 * Returns the number of sound samples encodeByteBuffer(aDataByteBuffer, withTxFrame) will produce.
+	 * 
+	 * @param aDataByteBuffer
+	 * Buffer holding the bytes to encode.
+	 * 
+	 * @param withTxFrame
+	 * Set to true if each byte is put in an envelope.
+	 * 
+	 * @return
+	 * The number of sound samples.
+	 */
+	public long getByteBufferSampleCount(final ByteBuffer aDataByteBuffer, final boolean withTxFrame) {
+		
+		long size = 0;
+		
+		for(int n = 0; n < aDataByteBuffer.limit(); n++) {
+			size += getByteSampleCount(aDataByteBuffer.get(n), withTxFrame);
+		}
+		
+		return size;
+		
+	} // getByteBufferSampleCount(...)
+	
+	
+	/**
+	 * Returns the number of sound samples encodeWord(aDataWord, withTxFrame) will produce.
+	 * 
+	 * @param aDataWord
+	 * The word to be encoded.
+	 * 
+	 * @param withTxFrame
+	 * Set to true if each byte is put in an envelope.
+	 * 
+	 * @return
+	 * The number of sound samples.
+	 */
+	public int getWordSampleCount(final int aDataWord, final boolean withTxFrame) {
+		
+		return getByteSampleCount((byte) ((aDataWord & 0x0FF00) >> 8), withTxFrame)
+			 + getByteSampleCount((byte)  (aDataWord & 0x0FF), withTxFrame);
+		
+	} // getWordSampleCount(...)
+
+
     /**
      * Returns a string summarizing the state of this object.
      *
@@ -491,10 +1264,134 @@ public class Encoder {
 				+ ", stopBitSamples=" + stopBitSamples
 				+ ", sampleBuffer=" + sampleBuffer 
 				+ ", bitOrder=" + bitOrder 
-				+ ", byteOrder=" + byteOrder + "]";
+				+ ", byteOrder=" + byteOrder 
+				+ ", useByteSymbolTable=" + useByteSymbolTable 
+				+ ", sampleStream=" + sampleStream 
+				+ ", symbolStream=" + symbolStream 
+				+ ", parallelEncoding=" + (forkJoinPool != null) + "]";
 	}
 	
 
+	/**
+	 * Appends the templates of a byte to the symbol stream.<br>
+	 * Subsequent bits of the same value are merged into a single entry by the stream.
+	 * 
+	 * @param aDataByte
+	 * The byte to be encoded.
+	 * 
+	 * @param withTxFrame
+	 * Set to true if the byte should be put in a envelope.
+	 */
+	protected void encodeByteSymbols(final byte aDataByte, final boolean withTxFrame) {
+		
+		flushSampleStream();
+		
+		if(withTxFrame) symbolStream.append(startBitSamples.duplicate().rewind(), 1);
+		
+		for(int n = 0; n < 8; n++) {
+			
+			int shift = (bitOrder == BitOrder.LSB_MSB) ? n : 7 - n;
+			
+			symbolStream.append(bitEncoder.getBitTemplate((aDataByte >> shift) & 0x01), 1);
+			
+		} // rof
+		
+		if(withTxFrame) symbolStream.append(stopBitSamples.duplicate().rewind(), 1);
+		
+	} // encodeByteSymbols(...)
+	
+	
+	/**
+	 * Query if the sample buffer is used as a chunk only, i.e. streaming or symbol mode.
+	 * 
+	 * @return
+	 * true if a SampleRingBuffer or a SymbolStream is set.
+	 */
+	protected boolean isChunked() { return sampleStream != null || symbolStream != null; }
+	
+	
+	/**
+	 * Returns the number of bytes encodeByteBuffer() encodes between two checks of the CancellationToken.
+	 * <br>
+	 * Assuming that at least MIN_SAMPLES_PER_MILLISECOND sound samples are copied per millisecond, 
+	 * the bytes take at most half of the maximum abort latency of the token.
+	 * 
+	 * @param withTxFrame
+	 * Set to true if the bytes are put in a envelope.
+	 * 
+	 * @return
+	 * The number of bytes, at least 1. Integer.MAX_VALUE if no token is set.
+	 */
+	protected int getCancellationCheckInterval(final boolean withTxFrame) {
+		
+		if(cancellationToken == null) return Integer.MAX_VALUE;
+		
+		int samplesPerByte = Math.max(getByteSampleCount((byte) 0x00, withTxFrame), getByteSampleCount((byte) 0xFF, withTxFrame));
+		long interval = cancellationToken.getMaxAbortLatency() * MIN_SAMPLES_PER_MILLISECOND / 2 / Math.max(1, samplesPerByte);
+		
+		return (int) Math.max(1, Math.min(interval, Integer.MAX_VALUE));
+		
+	} // getCancellationCheckInterval()
+	
+	
+	/**
+	 * Terminates the encoding if the CancellationToken was cancelled.
+	 * 
+	 * @throws CancellationException
+	 * if the token is cancelled.
+	 */
+	protected void checkCancellation() {
+		
+		if(cancellationToken != null) cancellationToken.throwIfCancelled();
+		
+	} // checkCancellation()
+	
+
+	/**
+	 * Returns how many units of a run (bits, wave cycles or milliseconds of silence) are encoded at once.
+	 * <br>
+	 * In streaming and symbol mode a long run is split into pieces of at most STREAM_CHUNK_SIZE samples, 
+	 * so the sample buffer doesn't grow beyond this size or the size of a single unit. Otherwise the run
+	 * is encoded as a whole.
+	 * 
+	 * @param aUnitSize
+	 * The number of samples of a single unit.
+	 * 
+	 * @return
+	 * The number of units per piece, at least 1.
+	 */
+	protected int getUnitsPerChunk(final int aUnitSize) {
+		
+		if(! isChunked()) return Integer.MAX_VALUE;
+		
+		return Math.max(1, STREAM_CHUNK_SIZE / Math.max(1, aUnitSize));
+		
+	} // getUnitsPerChunk()
+	
+	
+	/**
+	 * Makes sure that aSize samples fit into the sample buffer in streaming mode.<br>
+	 * If there isn't enough space left, the buffer is flushed to the stream. A buffer which
+	 * is too small at all is replaced by a larger one.
+	 * 
+	 * @param aSize
+	 * The number of samples to be put into the sample buffer next.
+	 */
+	protected void reserve(final int aSize) {
+		
+		if(! isChunked() || sampleBuffer.remaining() >= aSize) return;
+		
+		logger.trace("reserve(): aSize = {}, sampleBuffer = {}", aSize, sampleBuffer);
+		
+		flushSampleStream();
+		
+		if(sampleBuffer.capacity() < aSize) {
+			sampleBuffer = ByteBuffer.allocate(aSize);
+		}
+		
+	} // reserve()
+	
+
 	/**
 	 * Set the limit to capacity if limit == position
 	 */
@@ -29,6 +29,8 @@
 
 package extension.encoder;
 
+import java.nio.ByteBuffer;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -49,6 +51,10 @@ import org.apache.logging.log4j.Logger;
  * 	with the necessary parameters for sampling rate and frequency.
  * <br>
  * 	The created sound samples are stored in two byte buffers, one for each bit value.
+ * 	<p>
+ * 	Each bit is a copy of the same wave cycle, so a frequency which doesn't divide the sampling rate
+ * 	is detuned to samplingRate / samples per cycle. This applies to a NcoWaveCycleEncoder as well,
+ * 	it is exact for Encoder.encodeWaveCycle() only. A warning is logged in this case.
  * 
  * <p>
  * @author Stefan
@@ -108,7 +114,9 @@ public class FskBitEncoder extends FullCycleBitEncoder {
 
 
 	/**
-	 * This method prepares the sound samples which are used later on to encode the bits.
+	 * This method prepares the sound samples which are used later on to encode the bits.<br>
+	 * The wave cycles are taken from the SampleTemplateCache and copied, so encoding a bit is a 
+	 * copy of an array without any intermediate objects.
 	 */
 	@Override
 	protected void prepareSampleBuffers() {
@@ -117,13 +125,31 @@ public class FskBitEncoder extends FullCycleBitEncoder {
 		logger.trace("prepareSampleBuffers(): lowBitFrequency = {}, highBitFrequency = {}, waveCycleEncoder = {}", 
 			lowBitFrequency, highBitFrequency, waveCycleEncoder);
 		
-		super.lowBitSamples  = super.waveCycleEncoder.encode(lowBitFrequency, 1);
+		super.lowBitSamples  = copyOf(super.waveCycleEncoder.getTemplate(lowBitFrequency, 1));
 		logger.trace("prepareSampleBuffers(): lowBitSamples = {}", lowBitSamples);
 
-		super.highBitSamples = super.waveCycleEncoder.encode(highBitFrequency, 1);
+		super.highBitSamples = copyOf(super.waveCycleEncoder.getTemplate(highBitFrequency, 1));
 		logger.trace("prepareSampleBuffers(): highBitSamples = {}", highBitSamples);
 		
+		warnIfDetuned(lowBitFrequency, lowBitSamples);
+		warnIfDetuned(highBitFrequency, highBitSamples);
+		
 	} // prepareSampleBuffers()
+	
+	
+	/**
+	 * Logs a warning if the samples of a bit don't have the requested frequency exactly.
+	 */
+	private void warnIfDetuned(final int aFrequency, final ByteBuffer aBitSamples) {
+		
+		int samplingRate = waveCycleEncoder.getSamplingRate();
+		
+		if(aBitSamples == null || aBitSamples.limit() == 0 || samplingRate % aFrequency == 0) return;
+		
+		logger.warn("prepareSampleBuffers(): {} Hz doesn't divide the sampling rate {}, bits are encoded with {} Hz", 
+			aFrequency, samplingRate, String.format("%.1f", (double) samplingRate / aBitSamples.limit()));
+		
+	} // warnIfDetuned(...)
 
 	
 } // class
@@ -69,6 +69,12 @@ public abstract class FullCycleBitEncoder extends BitEncoder {
 	protected ByteBuffer lowBitSamples;
 	protected ByteBuffer highBitSamples;
 	
+	/*
+	 * Read-only views of the prepared samples handed out by getBitTemplate(), created once.
+	 */
+	private ByteBuffer lowBitTemplate;
+	private ByteBuffer highBitTemplate;
+	
 	
 	/**
 	 * Constructor.
@@ -101,6 +107,43 @@ public abstract class FullCycleBitEncoder extends BitEncoder {
 	} // getSampleBufferSize()
 
 	
+	/**
+	 * Returns the exact number of sound samples needed to encode aCount bits of value aBitValue.
+	 * 
+	 * @return the size of the prepared samples of aBitValue times aCount.
+	 */
+	@Override
+	public int getSampleCount(final int aBitValue, final int aCount) {
+		
+		return aCount * (aBitValue == 0 ? lowBitSamples.limit() : highBitSamples.limit());
+		
+	} // getSampleCount(...)
+
+
+	/**
+	 * Returns the prepared samples of a single bit.
+	 * 
+	 * @return a read-only view of the samples of aBitValue. The view is created on the first call 
+	 * and rewound on each call.
+	 */
+	@Override
+	public ByteBuffer getBitTemplate(final int aBitValue) {
+		
+		super.getBitTemplate(aBitValue);
+		
+		if(aBitValue == 0) {
+			
+			if(lowBitTemplate == null) lowBitTemplate = lowBitSamples.asReadOnlyBuffer();
+			return lowBitTemplate.rewind();
+			
+		} // fi
+		
+		if(highBitTemplate == null) highBitTemplate = highBitSamples.asReadOnlyBuffer();
+		return highBitTemplate.rewind();
+		
+	} // getBitTemplate(...)
+
+	
 	/**
 	 * Does the encoding of a number of low bits (0) by copying the 
 	 * earlier prepared sample buffer n times to the output buffer.
@@ -139,6 +182,44 @@ public abstract class FullCycleBitEncoder extends BitEncoder {
 	} // encodeHighBit()
 	
 	
+	/**
+	 * Writes the samples of a number of low bits (0) directly into aTarget by copying the 
+	 * earlier prepared sample buffer n times.
+	 * 
+	 * @param aTarget
+	 * The buffer to receive the sound samples.
+	 *  
+	 * @param aCount
+	 * Number of bits to encode
+	 */
+	@Override
+	protected void encodeLowBitInto(final ByteBuffer aTarget, final int aCount) {
+		logger.trace("encodeLowBitInto(): aCount = {}", aCount);
+		
+		fillSampleBufferInto(aTarget, lowBitSamples, aCount);
+		
+	} // encodeLowBitInto()
+	
+	
+	/**
+	 * Writes the samples of a number of high bits (1) directly into aTarget by copying the 
+	 * earlier prepared sample buffer n times.
+	 * 
+	 * @param aTarget
+	 * The buffer to receive the sound samples.
+	 *  
+	 * @param aCount
+	 * Number of bits to encode
+	 */
+	@Override
+	protected void encodeHighBitInto(final ByteBuffer aTarget, final int aCount) {
+		logger.trace("encodeHighBitInto(): aCount = {}", aCount);
+		
+		fillSampleBufferInto(aTarget, highBitSamples, aCount);
+		
+	} // encodeHighBitInto()
+	
+	
 	/**
 	 * Helper method who does the hard work.
 	 * 
@@ -154,11 +235,7 @@ public abstract class FullCycleBitEncoder extends BitEncoder {
 		int size = aCount * aBuffer.capacity();
 		ByteBuffer buffer = ByteBuffer.allocate(size);
 		
-		for(int n = 0; n < aCount; n++) {
-			logger.debug("buffer = {}, aBuffer = {}", buffer, aBuffer);
-			aBuffer.rewind();
-			buffer.put(aBuffer);
-		}
+		fillSampleBufferInto(buffer, aBuffer, aCount);
 		
 		logger.debug("buffer = {}", buffer);
 				
@@ -167,6 +244,74 @@ public abstract class FullCycleBitEncoder extends BitEncoder {
 	} // fillSampleBuffer(...)
 	
 	
+	/**
+	 * Copies the prepared samples aCount times into aTarget.<br>
+	 * If the prepared samples are backed by an accessible array no intermediate objects are created.
+	 * 
+	 * @param aTarget
+	 * The buffer to receive the sound samples.
+	 * 
+	 * @param aBuffer
+	 * The prepared samples of a single bit.
+	 * 
+	 * @param aCount
+	 * Number of bits to encode
+	 */
+	protected void fillSampleBufferInto(final ByteBuffer aTarget, final ByteBuffer aBuffer, final int aCount) {
+		
+		if(aBuffer.hasArray()) {
+			
+			byte[] samples = aBuffer.array();
+			int offset = aBuffer.arrayOffset();
+			int length = aBuffer.capacity();
+			
+			for(int n = 0; n < aCount; n++) {
+				aTarget.put(samples, offset, length);
+			}
+			
+		}
+		else {
+			
+			// e.g. a read-only template, the duplicate keeps the prepared samples untouched
+			ByteBuffer samples = aBuffer.duplicate();
+			
+			for(int n = 0; n < aCount; n++) {
+				samples.rewind();
+				aTarget.put(samples);
+			}
+			
+		} // esle
+		
+	} // fillSampleBufferInto(...)
+	
+	
+	/**
+	 * Copies the samples of a shared template into a buffer owned by this encoder.<br>
+	 * The templates of the SampleTemplateCache are read-only views without an accessible array, 
+	 * the copy lets fillSampleBufferInto() take the bulk copy of the array for each bit.
+	 * 
+	 * @param aTemplate
+	 * The samples from 0 to the limit or null.
+	 * 
+	 * @return
+	 * An array backed copy with position 0 or null if aTemplate is null.
+	 */
+	protected static ByteBuffer copyOf(final ByteBuffer aTemplate) {
+		
+		if(aTemplate == null) return null;
+		
+		ByteBuffer source = aTemplate.duplicate();
+		source.rewind();
+		
+		ByteBuffer copy = ByteBuffer.allocate(source.remaining());
+		copy.put(source);
+		copy.rewind();
+		
+		return copy;
+		
+	} // copyOf(...)
+	
+	
     /**
      * Returns a string summarizing the state of this object.
      *
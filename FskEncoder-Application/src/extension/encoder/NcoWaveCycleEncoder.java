@@ -0,0 +1,389 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : NcoWaveCycleEncoder.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.encoder;
+
+import java.nio.ByteBuffer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ *	Responsibilities:<br>
+ *		Encodes a number of wave cycles of frequency f with the sampling rate
+ *		given in constructor call like WaveCycleEncoder does, but with exact
+ *		(also fractional) frequencies and continuous phase.
+ *		<p>
+ *
+ *	Collaborators:<br>
+ *		WaveCycleEncoder as super class.<br>
+ *		<p>
+ *
+ *	Description:<br>
+ *		The encoder works like a numerically controlled oscillator (NCO).
+ *		<p>
+ *		The sine wave is taken from a table of SINE_TABLE_SIZE (a power of two) samples which
+ *		is calculated once. A fixed point phase accumulator with 32 fraction bits advances by
+ *		frequency * 2^32 / samplingRate per sample, it's upper SINE_TABLE_BITS bits select the
+ *		table entry. So no Math.sin() call is needed per sample.
+ *		<p>
+ *		Because the phase increment isn't limited to an integer number of samples per cycle,
+ *		frequencies which don't divide the sampling rate are not detuned. The number of samples
+ *		for one cycle varies by one so that the mean frequency is exact.
+ *		<p>
+ *		The phase is carried from one call to the next, so subsequent calls produce a continuous
+ *		wave. A call to resetPhase() restarts the wave at the zero-crossing.
+ *		<p>
+ *		If the sampling rate is a multiple of the frequency, a cycle has the same number of samples
+ *		as the one of WaveCycleEncoder. The samples themselves are identical only if the number of 
+ *		samples per cycle divides SINE_TABLE_SIZE, e.g. 8 or 16. Otherwise the phase falls between
+ *		two table entries and the increment is rounded up (see getPhaseIncrement()), so the samples
+ *		may differ slightly from the exact sine values WaveCycleEncoder calculates.
+ *		<p>
+ *		Templates returned by getTemplate() always start at the zero-crossing, they are cached
+ *		separately from the ones of WaveCycleEncoder.
+ *		<p>
+ *		LIMITATION:<br>
+ *		Only encodeInto() resp. Encoder.encodeWaveCycle() produce the exact frequency. A bit encoder
+ *		like FskBitEncoder builds each bit from a one cycle template, i.e. ceil(samplingRate / frequency)
+ *		samples starting at the zero-crossing. So for a frequency which doesn't divide the sampling 
+ *		rate the data bits are still detuned like the ones of WaveCycleEncoder.
+ *		<p>
+ *		NOTE:<br>
+ *		Because of the phase state an instance must not be shared between threads.
+ *
+ *<p>
+ * @author Stefan
+ *
+ */
+
+public class NcoWaveCycleEncoder extends WaveCycleEncoder {
+
+	private Logger logger = LogManager.getLogger(NcoWaveCycleEncoder.class.getName());
+
+	public static final int SINE_TABLE_BITS = 10;
+	public static final int SINE_TABLE_SIZE = 1 << SINE_TABLE_BITS;
+
+	protected static final int  PHASE_BITS = 32;
+	protected static final long PHASE_ONE_CYCLE = 1L << PHASE_BITS;
+
+	protected static final byte[] SINE_TABLE = new byte[SINE_TABLE_SIZE];
+
+	static {
+
+		for(int i = 0; i < SINE_TABLE_SIZE; i++) {
+
+			double angle = 2.0 * Math.PI * i / SINE_TABLE_SIZE;
+			SINE_TABLE[i] = (byte) (Math.sin(angle) * 127f);
+
+		}
+
+	} // static
+
+	/*
+	 * Phase within the current cycle, 0 <= phase < PHASE_ONE_CYCLE.
+	 */
+	protected long phase;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aSamplingRate<br>
+	 * A value which defines the desired sampling rate.<br>
+	 * This value must be <u>at least 4 times of the maximum frequency</u> which has to be encoded.
+	 *
+	 * @throws: IllegalArgumentException if the sampling rate is less or equal 0.
+	 *
+	 */
+	public NcoWaveCycleEncoder(final int aSamplingRate) {
+
+		super(aSamplingRate);
+
+		logger.trace("NcoWaveCycleEncoder(): aSamplingRate = {}", aSamplingRate);
+
+	} // NcoWaveCycleEncoder(...)
+
+
+	/**
+	 * Encodes the requested number of wave cycles of a fractional frequency to sound samples.
+	 * <p>
+	 * @param aFrequency<br>
+	 * The frequency to encode as sound samples.
+	 *
+	 * @param aCycleCount<br>
+	 * Number of full wave cycles to be encoded.
+	 *
+	 * @return<br>
+	 * A ByteBuffer containing the created sound samples.
+	 *
+	 * @throws IllegalArgumentException if the sampling rate is less than 4 times of aFrequency
+	 *
+	 */
+	public ByteBuffer encode(final double aFrequency, final int aCycleCount) {
+
+		logger.debug("encode(): freq = {}, aCycleCount = {}, sampleRate = {} ",aFrequency, aCycleCount, samplingRate);
+
+		checkFrequency(aFrequency);
+
+		ByteBuffer result = ByteBuffer.allocate(getSampleCount(aFrequency, aCycleCount));
+
+		encodeInto(result, aFrequency, aCycleCount);
+
+		result.position(0);
+		return result;
+
+	} // encode(...)
+
+
+	@Override
+	public void encodeInto(final ByteBuffer aTarget, final int aFrequency, final int aCycleCount) {
+
+		encodeInto(aTarget, (double) aFrequency, aCycleCount);
+
+	} // encodeInto(...)
+
+
+	/**
+	 * Encodes the requested number of wave cycles of a fractional frequency and writes the
+	 * sound samples directly into aTarget, starting at it's current position.
+	 * <p>
+	 * The wave continues at the phase the previous call has stopped.
+	 * <p>
+	 * @param aTarget<br>
+	 * The buffer to receive the sound samples. It's position is advanced by the number of samples written.
+	 *
+	 * @param aFrequency<br>
+	 * The frequency to encode as sound samples.
+	 *
+	 * @param aCycleCount<br>
+	 * Number of full wave cycles to be encoded.
+	 *
+	 * @throws IllegalArgumentException if the sampling rate is less than 4 times of aFrequency
+	 *
+	 */
+	public void encodeInto(final ByteBuffer aTarget, final double aFrequency, final int aCycleCount) {
+
+		logger.debug("encodeInto(): freq = {}, aCycleCount = {}, sampleRate = {}, phase = {}",
+				aFrequency, aCycleCount, samplingRate, phase);
+
+		checkFrequency(aFrequency);
+
+		phase = oscillate(aTarget, phase, getPhaseIncrement(aFrequency), aCycleCount);
+
+		logger.trace("encodeInto(): phase = {}", phase);
+
+	} // encodeInto(...)
+
+
+	/**
+	 * Calculates the sound samples of aCycleCount wave cycles of aFrequency starting at the
+	 * zero-crossing. The phase of the encoder isn't touched.
+	 */
+	@Override
+	protected ByteBuffer createTemplate(final int aFrequency, final int aCycleCount) {
+
+		final long increment = getPhaseIncrement(aFrequency);
+		final long distance = aCycleCount * PHASE_ONE_CYCLE;
+
+		ByteBuffer template = ByteBuffer.allocate((int) ((distance + increment - 1) / increment));
+
+		oscillate(template, 0, increment, aCycleCount);
+
+		template.flip();
+		return template;
+
+	} // createTemplate(...)
+
+
+	@Override
+	public int getSampleCount(final int aFrequency, final int aCycleCount) {
+
+		return getSampleCount((double) aFrequency, aCycleCount);
+
+	} // getSampleCount(...)
+
+
+	/**
+	 * Returns the number of sound samples the next call of encode() or encodeInto() will produce.
+	 * <br>
+	 * The result depends on the current phase and may vary by one between two calls.
+	 *
+	 * @param aFrequency<br>
+	 * The frequency to encode as sound samples.
+	 *
+	 * @param aCycleCount<br>
+	 * Number of full wave cycles to be encoded.
+	 *
+	 * @return
+	 * The number of sound samples.
+	 */
+	public int getSampleCount(final double aFrequency, final int aCycleCount) {
+
+		return getSampleCount(aFrequency, aCycleCount, phase);
+
+	} // getSampleCount(...)
+
+
+	/**
+	 * Returns the number of sound samples of aCycleCount wave cycles starting at aPhase.
+	 * <br>
+	 * Together with getPhaseAfter() the sizes of subsequent calls are known before any of them 
+	 * is done, see CompilePlan.
+	 *
+	 * @param aFrequency<br>
+	 * The frequency to encode as sound samples.
+	 *
+	 * @param aCycleCount<br>
+	 * Number of full wave cycles to be encoded.
+	 *
+	 * @param aPhase<br>
+	 * The phase the wave starts at, see getPhase().
+	 *
+	 * @return
+	 * The number of sound samples.
+	 */
+	public int getSampleCount(final double aFrequency, final int aCycleCount, final long aPhase) {
+
+		final long increment = getPhaseIncrement(aFrequency);
+		final long distance = aCycleCount * PHASE_ONE_CYCLE - aPhase;
+
+		if(distance <= 0) return 0;
+
+		return (int) ((distance + increment - 1) / increment);
+
+	} // getSampleCount(...)
+
+
+	/**
+	 * Returns the phase encodeInto() stops at if it starts at aPhase.
+	 *
+	 * @param aFrequency<br>
+	 * The frequency to encode as sound samples.
+	 *
+	 * @param aCycleCount<br>
+	 * Number of full wave cycles to be encoded.
+	 *
+	 * @param aPhase<br>
+	 * The phase the wave starts at, see getPhase().
+	 *
+	 * @return
+	 * The phase within the cycle following the last sample.
+	 */
+	public long getPhaseAfter(final double aFrequency, final int aCycleCount, final long aPhase) {
+
+		return aPhase + getSampleCount(aFrequency, aCycleCount, aPhase) * getPhaseIncrement(aFrequency) 
+				- aCycleCount * PHASE_ONE_CYCLE;
+
+	} // getPhaseAfter(...)
+
+
+	/**
+	 * @return
+	 * The phase the next call of encodeInto() starts at.
+	 */
+	public long getPhase() { return phase; }
+
+
+	/**
+	 * The length of a cycle varies with the phase, so the cycles are not repeatable.
+	 *
+	 * @return
+	 * false
+	 */
+	@Override
+	public boolean hasRepeatableCycles() { return false; }
+
+
+	/**
+	 * Restarts the wave at the zero-crossing.
+	 */
+	public void resetPhase() { phase = 0; }
+
+
+    /**
+     * Returns a string summarizing the state of this object.
+     *
+     * @return  A summary string
+     */
+	@Override
+	public String toString() {
+		return "NcoWaveCycleEncoder [samplingRate=" + samplingRate + ", phase=" + phase + "]";
+	}
+
+
+	/**
+	 * Verifies that the sampling rate is suitable for aFrequency.
+	 */
+	protected void checkFrequency(final double aFrequency) {
+
+		if(aFrequency <= 0) throw new IllegalArgumentException("aFrequency must be greater than 0!");
+		if(samplingRate < (4 * aFrequency)) throw new IllegalArgumentException("Given sample rate is not suitable for the requested frequency!");
+
+	} // checkFrequency()
+
+
+	/**
+	 * Runs the oscillator from aPhase until aCycleCount cycles are completed.
+	 *
+	 * @return
+	 * The phase within the cycle following the last sample.
+	 */
+	protected long oscillate(final ByteBuffer aTarget, final long aPhase, final long aIncrement, final int aCycleCount) {
+
+		final long target = aCycleCount * PHASE_ONE_CYCLE;
+		final int  shift = PHASE_BITS - SINE_TABLE_BITS;
+
+		long accumulator = aPhase;
+
+		while(accumulator < target) {
+
+			aTarget.put(SINE_TABLE[(int) (accumulator >>> shift) & (SINE_TABLE_SIZE - 1)]);
+			accumulator += aIncrement;
+
+		} // elihw
+
+		return accumulator - target;
+
+	} // oscillate(...)
+
+
+	/**
+	 * Returns the value added to the phase accumulator per sample.
+	 * <br>
+	 * The value is rounded up, so a cycle which ends exactly on a sample doesn't need one more sample.
+	 */
+	protected long getPhaseIncrement(final double aFrequency) {
+
+		return (long) Math.ceil(aFrequency * PHASE_ONE_CYCLE / samplingRate);
+
+	} // getPhaseIncrement()
+
+
+} // class
@@ -0,0 +1,294 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : SampleTemplateCache.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.encoder;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * 	Holds sound sample templates (wave cycles, silence) which are needed again and again,
+ * 	so they are calculated only once per process.
+ *
+ * <p>
+ * Collaborators:<br>
+ * 	WaveCycleEncoder,<br>
+ * 	SilenceEncoder.
+ *
+ * <p>
+ * Description:<br>
+ * 	A template is identified by the class of the encoder who created it, the sampling rate and
+ * 	two encoder specific values, e.g. frequency and number of cycles for a WaveCycleEncoder or
+ * 	the duration for a SilenceEncoder.
+ * 	<p>
+ * 	If a requested template isn't in the cache yet, it is created by the given factory and stored.
+ * 	Templates are never handed out directly but as read-only views with their own position and limit.
+ * 	So all encoders of the process can share them safely.
+ * 	<p>
+ * 	The cache is bounded by the sum of the template sizes. If the bound is exceeded, the least
+ * 	recently used templates are evicted. A template which is larger than the bound on it's own
+ * 	isn't stored at all.
+ * 	<p>
+ * 	The process wide instance is obtained by getInstance().
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class SampleTemplateCache {
+
+	private Logger logger = LogManager.getLogger(SampleTemplateCache.class.getName());
+
+	public static final long DEFAULT_MAX_SIZE = 4L * 1024 * 1024;
+
+	private static final SampleTemplateCache INSTANCE = new SampleTemplateCache(DEFAULT_MAX_SIZE);
+
+	protected final long maxSize;
+	protected long currentSize;
+
+	protected final LinkedHashMap<TemplateKey, ByteBuffer> templates = new LinkedHashMap<>(16, 0.75f, true);
+
+
+	/**
+	 * Key of a template.
+	 */
+	protected static final class TemplateKey {
+
+		private final Class<?> source;
+		private final int samplingRate;
+		private final int value1;
+		private final int value2;
+
+		TemplateKey(final Class<?> aSource, final int aSamplingRate, final int aValue1, final int aValue2) {
+			source = aSource;
+			samplingRate = aSamplingRate;
+			value1 = aValue1;
+			value2 = aValue2;
+		}
+
+		@Override
+		public int hashCode() { return Objects.hash(source, samplingRate, value1, value2); }
+
+		@Override
+		public boolean equals(final Object aObject) {
+
+			if(this == aObject) return true;
+			if(!(aObject instanceof TemplateKey)) return false;
+
+			TemplateKey other = (TemplateKey) aObject;
+
+			return source == other.source
+				&& samplingRate == other.samplingRate
+				&& value1 == other.value1
+				&& value2 == other.value2;
+
+		} // equals()
+
+		@Override
+		public String toString() {
+			return "TemplateKey [source=" + source.getSimpleName() + ", samplingRate=" + samplingRate
+					+ ", value1=" + value1 + ", value2=" + value2 + "]";
+		}
+
+	} // TemplateKey
+
+
+	/**
+	 * Constructor.
+	 * <br>
+	 * Usually the process wide instance is used, see getInstance().
+	 *
+	 * @param aMaxSize
+	 * The maximum number of bytes held by the cache.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aMaxSize is less than 0.
+	 */
+	public SampleTemplateCache(final long aMaxSize) {
+
+		logger.trace("SampleTemplateCache(): aMaxSize = {}", aMaxSize);
+
+		if(aMaxSize < 0) throw new IllegalArgumentException("aMaxSize can't be less than 0!");
+
+		maxSize = aMaxSize;
+
+	} // SampleTemplateCache(...)
+
+
+	/**
+	 * Returns the process wide instance.
+	 *
+	 * @return
+	 * The cache shared by all encoders.
+	 */
+	public static SampleTemplateCache getInstance() { return INSTANCE; }
+
+
+	/**
+	 * Returns a read-only view of the requested template.
+	 *
+	 * @param aSource
+	 * The class of the encoder who creates the template.
+	 *
+	 * @param aSamplingRate
+	 * The sampling rate of the template.
+	 *
+	 * @param aValue1
+	 * First encoder specific value, e.g. the frequency.
+	 *
+	 * @param aValue2
+	 * Second encoder specific value, e.g. the number of cycles.
+	 *
+	 * @param aFactory
+	 * Creates the template if it isn't in the cache. The samples must be located from 0 to the limit.
+	 *
+	 * @return
+	 * A read-only view of the template with position 0.
+	 */
+	public ByteBuffer getTemplate(final Class<?> aSource, final int aSamplingRate, final int aValue1, final int aValue2,
+			final Supplier<ByteBuffer> aFactory) {
+
+		TemplateKey key = new TemplateKey(aSource, aSamplingRate, aValue1, aValue2);
+		ByteBuffer template;
+
+		synchronized(this) {
+			template = templates.get(key);
+		}
+
+		if(template == null) {
+
+			// created outside of the lock, a concurrent creation of the same template is harmless
+			template = aFactory.get();
+			template.rewind();
+
+			logger.debug("getTemplate(): created {}, size = {}", key, template.limit());
+
+			store(key, template);
+
+		} // fi
+
+		ByteBuffer view = template.asReadOnlyBuffer();
+		view.rewind();
+
+		return view;
+
+	} // getTemplate(...)
+
+
+	/**
+	 * Removes all templates.
+	 */
+	public synchronized void clear() {
+		logger.trace("clear()");
+
+		templates.clear();
+		currentSize = 0;
+
+	} // clear()
+
+
+	/**
+	 * Returns the number of templates in the cache.
+	 *
+	 * @return
+	 * The number of templates.
+	 */
+	public synchronized int getTemplateCount() { return templates.size(); }
+
+
+	/**
+	 * Returns the number of bytes currently held by the cache.
+	 *
+	 * @return
+	 * The sum of all template sizes.
+	 */
+	public synchronized long getCurrentSize() { return currentSize; }
+
+
+	/**
+	 * Returns the maximum number of bytes held by the cache.
+	 *
+	 * @return
+	 * The bound given at construction time.
+	 */
+	public long getMaxSize() { return maxSize; }
+
+
+    /**
+     * Returns a string summarizing the state of this object.
+     *
+     * @return  A summary string
+     */
+	@Override
+	public synchronized String toString() {
+		return "SampleTemplateCache [maxSize=" + maxSize + ", currentSize=" + currentSize
+				+ ", templateCount=" + templates.size() + "]";
+	}
+
+
+	/**
+	 * Puts a template into the cache and evicts the least recently used ones if the bound is exceeded.
+	 */
+	protected synchronized void store(final TemplateKey aKey, final ByteBuffer aTemplate) {
+
+		int size = aTemplate.capacity();
+
+		if(size > maxSize || templates.containsKey(aKey)) return;
+
+		templates.put(aKey, aTemplate);
+		currentSize += size;
+
+		Iterator<Map.Entry<TemplateKey, ByteBuffer>> iterator = templates.entrySet().iterator();
+
+		while(currentSize > maxSize && iterator.hasNext()) {
+
+			Map.Entry<TemplateKey, ByteBuffer> eldest = iterator.next();
+
+			if(eldest.getKey().equals(aKey)) continue;
+
+			logger.debug("store(): evict {}", eldest.getKey());
+
+			currentSize -= eldest.getValue().capacity();
+			iterator.remove();
+
+		} // elihw
+
+	} // store(...)
+
+
+} // class
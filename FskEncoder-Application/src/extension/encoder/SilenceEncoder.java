@@ -41,7 +41,7 @@ import org.apache.logging.log4j.Logger;
  * 
  * <p>
  * Collaborators:<br>
- * None.
+ * SampleTemplateCache.
  * 
  * <p>
  * Description:<br>
@@ -49,7 +49,10 @@ import org.apache.logging.log4j.Logger;
  * with the formula <br>
  * (sampling rate [smpl/s] / 1000) * duration [ms].<br>
  * 
- * Teh created samples are returned in a ByteBuffer.
+ * Teh created samples are returned in a ByteBuffer.<br>
+ * encodeInto() copies the samples from read-only templates of the process wide SampleTemplateCache,
+ * because the target buffer may contain stale data. The templates used last are kept by the encoder,
+ * so repeated requests don't look up the cache again.
  * 
  * <p>
  * @author Stefan
@@ -60,8 +63,22 @@ public class SilenceEncoder {
 
 	private Logger logger = LogManager.getLogger(SilenceEncoder.class.getName());
 	
+	/*
+	 * Max. duration [ms] per template, longer silence is copied in chunks.
+	 */
+	public static final int TEMPLATE_DURATION = 100;
+	
 	protected int samplingRate;
 	
+	protected SampleTemplateCache templateCache = SampleTemplateCache.getInstance();
+	
+	/*
+	 * Templates used last by encodeInto(): TEMPLATE_DURATION and the remaining duration.
+	 */
+	private ByteBuffer blockTemplate;
+	private ByteBuffer restTemplate;
+	private int restDuration;
+	
 	/**
 	 * @param aSamplingRate
 	 * The sampling rate to be used.
@@ -94,22 +111,94 @@ public class SilenceEncoder {
 
 		if(aDuration <= 0) throw new IllegalArgumentException("aDuration must be greater than 0!");
 
-		int size = (samplingRate / 1000) * aDuration;
+		int size = getSampleCount(aDuration);
 		
+		// a new buffer is already filled with 0
 		ByteBuffer buffer = ByteBuffer.allocate(size);
 		
-		for(int n = 0; n < size; n++) {
-			buffer.put((byte) 0);
-		}
-		
-		logger.debug("buffer.limit = {}, buffer.position = {}", buffer.limit(), buffer.position());
-		
-		buffer.flip();
 		logger.debug("buffer.limit = {}, buffer.position = {}", buffer.limit(), buffer.position());
 		
 		return buffer;
 		
 	} // encode
+	
+	
+	/**
+	 * Writes the required amount of samples to fill aDuration seconds with silence directly
+	 * into aTarget, starting at it's current position.
+	 * 
+	 * @param aTarget
+	 * The buffer to receive the sound samples. It's position is advanced by the number of samples written.
+	 * 
+	 * @param aDuration
+	 * Lengths of silence in number of milliseconds.
+	 * 
+	 */
+	public void encodeInto(final ByteBuffer aTarget, final int aDuration) {
+		logger.trace("encodeInto(): aDuration = {}", aDuration);
+
+		if(aDuration <= 0) throw new IllegalArgumentException("aDuration must be greater than 0!");
+
+		int duration = aDuration;
+		
+		if(duration >= TEMPLATE_DURATION) {
+			
+			if(blockTemplate == null) blockTemplate = getTemplate(TEMPLATE_DURATION);
+			
+			while(duration >= TEMPLATE_DURATION) {
+				blockTemplate.rewind();
+				aTarget.put(blockTemplate);
+				duration -= TEMPLATE_DURATION;
+			}
+			
+		} // fi
+		
+		if(duration > 0) {
+			
+			if(restTemplate == null || restDuration != duration) {
+				restTemplate = getTemplate(duration);
+				restDuration = duration;
+			}
+			
+			restTemplate.rewind();
+			aTarget.put(restTemplate);
+			
+		} // fi
+		
+	} // encodeInto
+	
+	
+	/**
+	 * Returns the sound samples of aDuration milliseconds of silence out of the process wide
+	 * SampleTemplateCache.
+	 * 
+	 * @param aDuration
+	 * Lengths of silence in number of milliseconds.
+	 * 
+	 * @return
+	 * A read-only view of the sound samples with position set to 0.
+	 */
+	public ByteBuffer getTemplate(final int aDuration) {
+		logger.trace("getTemplate(): aDuration = {}", aDuration);
+		
+		if(aDuration <= 0) throw new IllegalArgumentException("aDuration must be greater than 0!");
+		
+		return templateCache.getTemplate(getClass(), samplingRate, aDuration, 0, 
+				() -> ByteBuffer.allocate(getSampleCount(aDuration)));
+		
+	} // getTemplate(...)
+	
+	
+	/**
+	 * Returns the number of sound samples needed to fill aDuration milliseconds with silence.
+	 * 
+	 * @param aDuration
+	 * Lengths of silence in number of milliseconds.
+	 * 
+	 * @return
+	 * The number of sound samples.
+	 */
+	public int getSampleCount(final int aDuration) { return (samplingRate / 1000) * aDuration; }
 
 
     /**
@@ -44,7 +44,7 @@ import org.apache.logging.log4j.Logger;
  *		<p>
  *
  *	Collaborators:<br>
- *		None<br>
+ *		SampleTemplateCache<br>
  *		<p>
  *
  *	Description:<br>
@@ -76,6 +76,14 @@ import org.apache.logging.log4j.Logger;
  *		<p>
  * 		A trailing '0' byte should be appended as the very last byte of a fully assembled 
  * 		sound buffer while nothing must be appended between two subsequent compilation steps.
+ * 		<p>
+ * 		For frequencies which are not an integer divider of the sampling rate use 
+ * 		NcoWaveCycleEncoder instead.
+ * 		<p>
+ * 		The sine values are calculated only once per frequency and number of cycles and
+ * 		kept in the process wide SampleTemplateCache, so encoding long leaders is a bulk copy.
+ * 		The templates used last by encodeInto() are kept by the encoder, so repeated requests 
+ * 		don't look up the cache again. Like the other encoders it isn't thread safe therefore.
  *  
  *<p>
  * @author Stefan
@@ -87,8 +95,24 @@ public class WaveCycleEncoder {
 	private Logger logger = LogManager.getLogger(WaveCycleEncoder.class.getName());
 	
 	
+	/*
+	 * Max. number of wave cycles per template, longer sequences are copied in chunks.
+	 */
+	public static final int TEMPLATE_CYCLES = 32;
+	
 	protected final int samplingRate;
 	
+	protected SampleTemplateCache templateCache = SampleTemplateCache.getInstance();
+	
+	/*
+	 * Templates used last by encodeInto(): TEMPLATE_CYCLES cycles and the remaining cycles.
+	 */
+	private ByteBuffer blockTemplate;
+	private int blockFrequency;
+	private ByteBuffer restTemplate;
+	private int restFrequency;
+	private int restCycles;
+	
 	/**
 	 * 
 	 * @param int aSampleRate<br>
@@ -137,11 +161,121 @@ public class WaveCycleEncoder {
 		if(samplingRate < (4 * aFrequency)) throw new IllegalArgumentException("Given sample rate is not suitable for the requested frequency!");
 		
 		int samples = (samplingRate/aFrequency);
-		int buffSize = samples * aCycleCount;
+		int buffSize = getSampleCount(aFrequency, aCycleCount);
 		
 		ByteBuffer result = ByteBuffer.allocate(buffSize);
 		logger.debug("samples / cycle = {}, buffer.capacity = {}, buffer.position = {}", samples, result.capacity(), result.position());
 		
+		encodeInto(result, aFrequency, aCycleCount);
+		
+		logger.debug("buffer.capacity = {}, buffer.position = {}", result.capacity(), result.position());
+		result.position(0);
+		return result;
+		
+	} // encode(...)
+	
+	
+	/**
+	 * Encodes the requested number of wave cycles of specified frequency and writes the 
+	 * sound samples directly into aTarget, starting at it's current position.
+	 * <p>
+	 * @param aTarget<br>
+	 * The buffer to receive the sound samples. It's position is advanced by the number of samples written.
+	 * 
+	 * @param aFrequency<br>
+	 * The frequency to encode as sound samples.
+	 * 
+	 * @param aCycleCount<br>
+	 * Number of full wave cycles to be encoded.
+	 * 
+	 * @throws IllegalArgumentException if the sampling rate is less than 4 times of aFrequency
+	 * 
+	 */
+	public void encodeInto(final ByteBuffer aTarget, final int aFrequency, final int aCycleCount) {
+		
+		logger.debug("encodeInto(): freq = {}, aCycleCount = {}, sampleRate = {} ",aFrequency, aCycleCount, samplingRate);
+		
+		if(samplingRate < (4 * aFrequency)) throw new IllegalArgumentException("Given sample rate is not suitable for the requested frequency!");
+		
+		int cycles = aCycleCount;
+		
+		if(cycles >= TEMPLATE_CYCLES) {
+			
+			if(blockTemplate == null || blockFrequency != aFrequency) {
+				blockTemplate = getTemplate(aFrequency, TEMPLATE_CYCLES);
+				blockFrequency = aFrequency;
+			}
+			
+			while(cycles >= TEMPLATE_CYCLES) {
+				blockTemplate.rewind();
+				aTarget.put(blockTemplate);
+				cycles -= TEMPLATE_CYCLES;
+			}
+			
+		} // fi
+		
+		if(cycles > 0) {
+			
+			if(restTemplate == null || restFrequency != aFrequency || restCycles != cycles) {
+				restTemplate = getTemplate(aFrequency, cycles);
+				restFrequency = aFrequency;
+				restCycles = cycles;
+			}
+			
+			restTemplate.rewind();
+			aTarget.put(restTemplate);
+			
+		} // fi
+		
+	} // encodeInto(...)
+	
+	
+	/**
+	 * Returns the sound samples of aCycleCount wave cycles of aFrequency out of the process wide
+	 * SampleTemplateCache. The samples are calculated only on the first request.
+	 * <p>
+	 * @param aFrequency<br>
+	 * The frequency to encode as sound samples.
+	 * 
+	 * @param aCycleCount<br>
+	 * Number of full wave cycles to be encoded.
+	 * 
+	 * @return<br>
+	 * A read-only view of the sound samples with position set to 0.
+	 * 
+	 * @throws IllegalArgumentException if the sampling rate is less than 4 times of aFrequency
+	 * 
+	 */
+	public ByteBuffer getTemplate(final int aFrequency, final int aCycleCount) {
+		
+		logger.trace("getTemplate(): freq = {}, aCycleCount = {}", aFrequency, aCycleCount);
+		
+		if(samplingRate < (4 * aFrequency)) throw new IllegalArgumentException("Given sample rate is not suitable for the requested frequency!");
+		
+		return templateCache.getTemplate(getClass(), samplingRate, aFrequency, aCycleCount, 
+				() -> createTemplate(aFrequency, aCycleCount));
+		
+	} // getTemplate(...)
+	
+	
+	/**
+	 * Calculates the sound samples of aCycleCount wave cycles of aFrequency.<br>
+	 * Called by the SampleTemplateCache if the requested template isn't cached yet.
+	 * 
+	 * @param aFrequency<br>
+	 * The frequency to encode as sound samples.
+	 * 
+	 * @param aCycleCount<br>
+	 * Number of full wave cycles to be encoded.
+	 * 
+	 * @return<br>
+	 * A new ByteBuffer containing the sound samples.
+	 */
+	protected ByteBuffer createTemplate(final int aFrequency, final int aCycleCount) {
+		
+		int samples = (samplingRate/aFrequency);
+		ByteBuffer template = ByteBuffer.allocate(samples * aCycleCount);
+		
 		byte value = 0;
 		
 		for(int n = 0; n < aCycleCount; n++) {
@@ -151,7 +285,7 @@ public class WaveCycleEncoder {
 				double angle = 2.0 * Math.PI * i / samples;
 				value = (byte) (Math.sin(angle) * 127f);
 	
-				result.put(value);
+				template.put(value);
 	
 				logger.trace("n: {}, i: {}, angle: {}, value: {}", n, i, angle, value);
 				
@@ -159,11 +293,45 @@ public class WaveCycleEncoder {
 		
 		} // for(cycleCount)
 		
-		logger.debug("buffer.capacity = {}, buffer.position = {}", result.capacity(), result.position());
-		result.position(0);
-		return result;
+		template.flip();
+		return template;
 		
-	} // encode(...)
+	} // createTemplate(...)
+	
+	
+	/**
+	 * Returns the number of sound samples needed to encode aCycleCount wave cycles of aFrequency.
+	 * 
+	 * @param aFrequency<br>
+	 * The frequency to encode as sound samples.
+	 * 
+	 * @param aCycleCount<br>
+	 * Number of full wave cycles to be encoded.
+	 * 
+	 * @return
+	 * The number of sound samples.
+	 */
+	public int getSampleCount(final int aFrequency, final int aCycleCount) { 
+		return (samplingRate / aFrequency) * aCycleCount; 
+	}
+
+
+	/**
+	 * Query if n wave cycles are always encoded as n copies of the template of a single cycle.
+	 * 
+	 * @return
+	 * true, because every cycle starts at the zero-crossing.
+	 */
+	public boolean hasRepeatableCycles() { return true; }
+
+
+	/**
+	 * Returns the sampling rate given at construction time.
+	 * 
+	 * @return
+	 * The sampling rate in samples per second.
+	 */
+	public int getSamplingRate() { return samplingRate; }
 
 
     /**
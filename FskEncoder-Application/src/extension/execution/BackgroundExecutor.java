@@ -90,7 +90,12 @@ public class BackgroundExecutor<T, V> extends SwingWorker<T, V> {
 	protected T doInBackground() throws Exception {
 		logger.trace("doInBackground()");
 		
-		return (T) backgroundTask.runBackgroundTask();
+		try {
+			return (T) backgroundTask.runBackgroundTask();
+		}
+		finally {
+			backgroundTask.flushProgress();
+		}
 		
 	} // doInBackground() 
 	
@@ -31,6 +31,7 @@
 package extension.execution;
 
 import java.beans.PropertyChangeListener;
+import java.util.concurrent.Executor;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -47,12 +48,27 @@ import extension.control.StatusListener;
  * <p>
  * Collaborators:<br>
  * BackgroundExecutor,<br>
+ * TaskExecutors,<br>
+ * ProgressAggregator,<br>
  * PropertyChangeListener.
  * 
  * <p>
  * Description:<br>
  * Provides basic functionality for all task implementations which should run as Swing background task. 
  * The background execution itself is handled by the BackgroundExecutor.
+ * <p>
+ * If an Executor is set, see setExecutor(), the BackgroundExecutor is run by it, otherwise by 
+ * SwingWorker.execute(). Derived classes choose a suitable executor from TaskExecutors in their 
+ * constructor, e.g. the compile pool or the audio thread.
+ * <p>
+ * stepOn() may be called as often as the task likes, the values are coalesced by a 
+ * ProgressAggregator before they are handed to the BackgroundExecutor. So only increasing values 
+ * are published, at most ProgressAggregator.DEFAULT_MAX_RATE times per second.
+ * <p>
+ * stop() clears the run-state and cancels the CancellationToken of the task. Implementations hand
+ * the token down to the parts doing the bulk work, so they terminate at the next chunk. The token 
+ * is reset by execute(), and stop() is ignored while the task isn't active, see isActive(). So a 
+ * stop() of an idle task doesn't terminate it's next run.
  * 
  * <p>
  * @author Stefan
@@ -68,6 +84,11 @@ public abstract class BackgroundTask<T, V> {
 	protected PropertyChangeListener propertyChangeListener;
 
 	protected boolean isRunning;
+	protected volatile boolean isExecuting;
+	
+	protected Executor executor;
+	protected final ProgressAggregator progressAggregator = new ProgressAggregator();
+	protected CancellationToken cancellationToken = new CancellationToken();
 
 	
 	public BackgroundTask() {
@@ -76,6 +97,20 @@ public abstract class BackgroundTask<T, V> {
 	} // BackgroundTask()
 	
 	
+	/**
+	 * Constructor.
+	 * 
+	 * @param aExecutor
+	 * The Executor to run the task, or null to run it by SwingWorker.execute().
+	 */
+	public BackgroundTask(final Executor aExecutor) {
+		logger.trace("BackgroundTask(): aExecutor = {}", aExecutor);
+		
+		executor = aExecutor;
+		
+	} // BackgroundTask(...)
+	
+	
 	/**
 	 * 
 	 * If the running task likes to drive a progress bar, then a PropertyChangeListener is needed.
@@ -133,6 +168,8 @@ public abstract class BackgroundTask<T, V> {
 	 */
 	public void done() {
 		logger.trace("done()");
+		
+		isExecuting = false;
 
 		if(statusListener != null) {
 			statusListener.done();
@@ -148,14 +185,73 @@ public abstract class BackgroundTask<T, V> {
 	public void execute() {
 		logger.trace("execute()");
 		
+		progressAggregator.reset();
+		
+		// a stop() after this point terminates the new run
+		cancellationToken.reset();
+		isExecuting = true;
+		
 		backgroundExecutor = new BackgroundExecutor<>(this);
 		backgroundExecutor.addPropertyChangeListener(propertyChangeListener);
 
-		backgroundExecutor.execute();
+		if(executor != null) executor.execute(backgroundExecutor);
+		else				 backgroundExecutor.execute();
 		
 	} // execute()
 
 	
+	/**
+	 * Returns the Executor which runs the task.
+	 * 
+	 * @return
+	 * The Executor, or null if the task is run by SwingWorker.execute().
+	 */
+	public Executor getExecutor() { return executor; }
+	
+	
+	/**
+	 * Replaces the Executor which runs the task, it's used by the next call of execute().
+	 * 
+	 * @param aExecutor
+	 * The Executor to run the task, or null to run it by SwingWorker.execute().
+	 */
+	public void setExecutor(final Executor aExecutor) {
+		logger.trace("setExecutor(): aExecutor = {}", aExecutor);
+		
+		executor = aExecutor;
+		
+	} // setExecutor()
+
+	
+	/**
+	 * Returns the token which is cancelled by stop().
+	 * 
+	 * @return
+	 * The CancellationToken of this task.
+	 */
+	public CancellationToken getCancellationToken() { return cancellationToken; }
+	
+	
+	/**
+	 * Replaces the CancellationToken, e.g. to share one token by several tasks or to set another 
+	 * maximum abort latency.
+	 * 
+	 * @param aCancellationToken
+	 * The token to be used from now on.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aCancellationToken is null.
+	 */
+	public void setCancellationToken(CancellationToken aCancellationToken) {
+		logger.trace("setCancellationToken(): aCancellationToken = {}", aCancellationToken);
+		
+		if(aCancellationToken == null) throw new IllegalArgumentException("aCancellationToken can't be null!");
+		
+		cancellationToken = aCancellationToken;
+		
+	} // setCancellationToken()
+
+	
 	/**
 	 * 
 	 * Method to read explicitly the current progress value/state.
@@ -238,10 +334,22 @@ public abstract class BackgroundTask<T, V> {
 	} // isRunning()
 	
 	
+	/**
+	 * 
+	 * Query whether stop() has an effect at the moment.
+	 * 
+	 * @return
+	 * true from execute() till done(), or while the task is running, false otherwise.
+	 * 
+	 */
+	public boolean isActive() { return isExecuting || isRunning; }
+	
+	
 	/**
 	 * 
 	 * Method to drive the progress bar.
-	 * A call to this method is relayed to backgroundExecutor.stepOn().
+	 * A call to this method is relayed to backgroundExecutor.stepOn() if the ProgressAggregator 
+	 * publishes the value.
 	 * 
 	 * @param aStep
 	 * : a value to step on, 0 <= aStep <= 100
@@ -250,24 +358,56 @@ public abstract class BackgroundTask<T, V> {
 		logger.trace("stepOn(): aStep = {}", aStep);
 		
 		if(backgroundExecutor != null)
-			backgroundExecutor.stepOn(aStep);
+			publishProgress(progressAggregator.update(aStep));
 		
 	} // stepOn()
 	
 	
+	/**
+	 * Publishes the last progress value which was held back by the ProgressAggregator.
+	 * <br>
+	 * Called by the BackgroundExecutor when runBackgroundTask() has returned.
+	 */
+	protected void flushProgress() {
+		logger.trace("flushProgress(): {}", progressAggregator);
+		
+		publishProgress(progressAggregator.flush());
+		
+	} // flushProgress()
+	
+	
+	/**
+	 * Hands a value released by the ProgressAggregator to the backgroundExecutor.
+	 */
+	private void publishProgress(final int aProgress) {
+		
+		if(aProgress < 0 || backgroundExecutor == null) return;
+		
+		logger.trace("publishProgress(): aProgress = {}", aProgress);
+		
+		backgroundExecutor.stepOn(aProgress);
+		
+	} // publishProgress()
+	
+	
 	/**
 	 * 
-	 * Set the isRunning flag to false and forces the task to exit prematurely.
+	 * Set the isRunning flag to false, cancels the CancellationToken and forces the task to exit prematurely.
+	 * <br>
+	 * An idle task isn't affected, see isActive().
 	 * 
 	 */
 	public void stop() {
 		logger.trace("stop()");
 		
+		if(! isActive()) return;
+		
 		// See
 		// https://stackoverflow.com/questions/21236289/swingworker-cancel-button-doesnt-work
 		// https://docs.oracle.com/javase/tutorial/uiswing/concurrency/cancel.html
 		
 		isRunning = false;
+		cancellationToken.cancel();
 		
 	} // stop()
 
@@ -0,0 +1,167 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : CancellationToken.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+
+package extension.execution;
+
+import java.util.concurrent.CancellationException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Responsibilities:<br>
+ * Signals the request to abort a running task to all parts of the task.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * BackgroundTask and derived classes,<br>
+ * Encoder.
+ * 
+ * <p>
+ * Description:<br>
+ * A BackgroundTask holds a token which is cancelled by stop(). The token is handed down to 
+ * the parts doing the bulk work, e.g. the Encoder of a protocol. They check it at chunk 
+ * granularity by throwIfCancelled() or isCancelled(), so a long running compilation or play 
+ * back is terminated at the next chunk instead of at it's end.
+ * <p>
+ * The maximum abort latency tells the parts how long a chunk may take at most, e.g. the 
+ * SoundPlayer doesn't write more samples at once than it plays in this time.
+ * <p>
+ * A token can be shared by several tasks, see BackgroundTask.setCancellationToken(). It is 
+ * reset by BackgroundTask.execute(), so a run isn't terminated by a cancellation of a former run.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class CancellationToken {
+	
+	private Logger logger = LogManager.getLogger(CancellationToken.class.getName());
+	
+	/** Default of the maximum abort latency in milliseconds. */
+	public static final long DEFAULT_MAX_ABORT_LATENCY = 100;
+	
+	protected final long maxAbortLatency;
+	protected volatile boolean isCancelled;
+
+	
+	/**
+	 * Constructor with the default maximum abort latency.
+	 */
+	public CancellationToken() {
+		
+		this(DEFAULT_MAX_ABORT_LATENCY);
+		
+	} // CancellationToken()
+	
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param aMaxAbortLatency
+	 * The maximum time in milliseconds between the cancellation and the termination of a task.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aMaxAbortLatency is less or equal 0.
+	 */
+	public CancellationToken(final long aMaxAbortLatency) {
+		logger.trace("CancellationToken(): aMaxAbortLatency = {}", aMaxAbortLatency);
+		
+		if(aMaxAbortLatency <= 0) throw new IllegalArgumentException("aMaxAbortLatency must be greater than 0!");
+		
+		maxAbortLatency = aMaxAbortLatency;
+		
+	} // CancellationToken(...)
+	
+	
+	/**
+	 * Requests the abort of all tasks holding this token.
+	 */
+	public void cancel() {
+		logger.trace("cancel()");
+		
+		isCancelled = true;
+		
+	} // cancel()
+	
+	
+	/**
+	 * Withdraws the cancellation, so the token can be used for the next execution.
+	 */
+	public void reset() {
+		logger.trace("reset()");
+		
+		isCancelled = false;
+		
+	} // reset()
+	
+	
+	/**
+	 * @return
+	 * true if the abort has been requested.
+	 */
+	public boolean isCancelled() { return isCancelled; }
+	
+	
+	/**
+	 * Terminates the current work if the abort has been requested.
+	 * 
+	 * @throws CancellationException
+	 * if the token is cancelled.
+	 */
+	public void throwIfCancelled() {
+		
+		if(isCancelled) throw new CancellationException("Cancelled by request!");
+		
+	} // throwIfCancelled()
+	
+	
+	/**
+	 * @return
+	 * The maximum time in milliseconds between the cancellation and the termination of a task.
+	 */
+	public long getMaxAbortLatency() { return maxAbortLatency; }
+
+
+	/**
+	 * Returns a string representation of the current state of this object.
+	 * 
+	 * @return
+	 * : a string representation of the object.
+	 */
+	@Override
+	public String toString() {
+		return "CancellationToken [maxAbortLatency=" + maxAbortLatency + ", isCancelled=" + isCancelled + "]";
+	}
+	
+	
+} // ssalc
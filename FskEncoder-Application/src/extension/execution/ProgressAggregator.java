@@ -0,0 +1,239 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : ProgressAggregator.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+
+package extension.execution;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Responsibilities:<br>
+ * Coalesces the progress reported by a worker before it's published to the GUI.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * BackgroundTask,<br>
+ * BackgroundExecutor.
+ * 
+ * <p>
+ * Description:<br>
+ * Each published progress value becomes a PropertyChangeEvent handled on the event dispatch 
+ * thread. A worker which reports it's progress on every chunk or step would flood the EDT, so 
+ * update() releases a value for publication only if
+ * <ul>
+ * <li>it's greater than the last published value, so the published progress never runs 
+ * backwards and an unchanged percentage is dropped at the cost of a single compare, and</li>
+ * <li>the last publication is at least 1 / maxRate seconds ago.</li>
+ * </ul>
+ * 100 percent is always released at once. A value dropped because of the rate is kept and 
+ * released by flush(), e.g. when a stopped task ends. The caller publishes the released values,
+ * so the aggregator holds no reference to the task.
+ * <p>
+ * update() doesn't lock, it may be called by several worker threads. The value held as published 
+ * never decreases. reset() prepares the aggregator for the next execution.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class ProgressAggregator {
+	
+	private Logger logger = LogManager.getLogger(ProgressAggregator.class.getName());
+	
+	/** Default of the maximum number of publications per second. */
+	public static final int DEFAULT_MAX_RATE = 30;
+	
+	protected final LongSupplier clock;
+	protected final long minInterval;
+	
+	protected final AtomicInteger publishedProgress = new AtomicInteger(-1);
+	protected final AtomicInteger pendingProgress = new AtomicInteger(-1);
+	protected final AtomicLong lastPublishTime = new AtomicLong();
+	protected final AtomicInteger publishCount = new AtomicInteger();
+
+	
+	/**
+	 * Constructor with the default maximum rate.
+	 */
+	public ProgressAggregator() {
+		
+		this(DEFAULT_MAX_RATE);
+		
+	} // ProgressAggregator()
+	
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param aMaxRate
+	 * The maximum number of publications per second.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aMaxRate is less or equal 0.
+	 */
+	public ProgressAggregator(final int aMaxRate) {
+		
+		this(aMaxRate, System::nanoTime);
+		
+	} // ProgressAggregator(...)
+	
+	
+	/**
+	 * Constructor with an own clock, used by tests.
+	 */
+	ProgressAggregator(final int aMaxRate, final LongSupplier aClock) {
+		logger.trace("ProgressAggregator(): aMaxRate = {}", aMaxRate);
+		
+		if(aMaxRate <= 0) throw new IllegalArgumentException("aMaxRate must be greater than 0!");
+		
+		clock = aClock;
+		minInterval = 1_000_000_000L / aMaxRate;
+		
+	} // ProgressAggregator(...)
+	
+	
+	/**
+	 * Reports the current progress of the worker.
+	 * 
+	 * @param aProgress
+	 * The progress in percent, values outside of 0 to 100 are clipped.
+	 * 
+	 * @return
+	 * The value to be published, or -1 if nothing is to be published.
+	 */
+	public int update(final int aProgress) {
+		
+		final int progress = Math.max(0, Math.min(100, aProgress));
+		
+		while(true) {
+			
+			final int published = publishedProgress.get();
+			
+			if(progress <= published) return -1;
+			
+			final long now = clock.getAsLong();
+			
+			if(progress < 100 && published >= 0 && now - lastPublishTime.get() < minInterval) {
+				pendingProgress.accumulateAndGet(progress, Math::max);
+				return -1;
+			}
+			
+			if(publishedProgress.compareAndSet(published, progress)) {
+				
+				lastPublishTime.set(now);
+				publishCount.incrementAndGet();
+				
+				return progress;
+				
+			} // fi
+			
+		} // elihw
+		
+	} // update()
+	
+	
+	/**
+	 * Releases a value which was dropped because of the rate.
+	 * 
+	 * @return
+	 * The value to be published, or -1 if nothing is to be published.
+	 */
+	public int flush() {
+		
+		final int pending = pendingProgress.get();
+		
+		while(true) {
+			
+			final int published = publishedProgress.get();
+			
+			if(pending <= published) return -1;
+			
+			if(publishedProgress.compareAndSet(published, pending)) {
+				
+				lastPublishTime.set(clock.getAsLong());
+				publishCount.incrementAndGet();
+				
+				return pending;
+				
+			} // fi
+			
+		} // elihw
+		
+	} // flush()
+	
+	
+	/**
+	 * Forgets all values, so the next execution starts again from 0.
+	 */
+	public void reset() {
+		logger.trace("reset()");
+		
+		publishedProgress.set(-1);
+		pendingProgress.set(-1);
+		lastPublishTime.set(0);
+		publishCount.set(0);
+		
+	} // reset()
+	
+	
+	/**
+	 * @return
+	 * The last released progress, -1 if nothing has been released since the last reset().
+	 */
+	public int getPublishedProgress() { return publishedProgress.get(); }
+	
+	
+	/**
+	 * @return
+	 * The number of released values since the last reset().
+	 */
+	public int getPublishCount() { return publishCount.get(); }
+
+
+	/**
+	 * Returns a string representation of the current state of this object.
+	 * 
+	 * @return
+	 * : a string representation of the object.
+	 */
+	@Override
+	public String toString() {
+		return "ProgressAggregator [minInterval=" + minInterval + ", publishedProgress=" + publishedProgress 
+				+ ", pendingProgress=" + pendingProgress + ", publishCount=" + publishCount + "]";
+	}
+	
+	
+} // ssalc
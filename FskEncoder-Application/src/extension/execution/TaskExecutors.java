@@ -0,0 +1,219 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : TaskExecutors.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+
+package extension.execution;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Responsibilities:<br>
+ * Provides the executors the background tasks run on.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * BackgroundTask and derived classes.
+ * 
+ * <p>
+ * Description:<br>
+ * Without an executor a BackgroundTask is run by SwingWorker.execute(), which shares a small 
+ * hidden thread pool with everything else using SwingWorker. The executors provided here keep 
+ * the different kinds of work apart:
+ * <ul>
+ * <li>getCompileExecutor(): a pool of daemon threads sized to the number of processors for the 
+ * CPU bound compilation.</li>
+ * <li>getAudioExecutor(): a single daemon thread with maximum priority for the play back. Play 
+ * backs are run one after the other.</li>
+ * <li>getStoreExecutor(): a single daemon thread for the I/O of caches on disk, e.g. the 
+ * CompiledAudioStore. Writes are done one after the other in the order they were requested.</li>
+ * <li>getVirtualThreadExecutor(): a new virtual thread per task, available on a JDK which 
+ * supports virtual threads only. It's looked up by reflection, so the application still runs on 
+ * older JDKs.</li>
+ * </ul>
+ * The executors are created on first use and live as long as the process. Their threads are 
+ * daemon threads, so they don't prevent the termination of the application.
+ * <p>
+ * Progress and done notifications are still delivered by the BackgroundExecutor on the event 
+ * dispatch thread, only the work itself is moved.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public final class TaskExecutors {
+	
+	private static Logger logger = LogManager.getLogger(TaskExecutors.class.getName());
+	
+	public static final String COMPILE_THREAD_NAME = "compile-";
+	public static final String AUDIO_THREAD_NAME = "audio-playback";
+	public static final String STORE_THREAD_NAME = "store-io";
+
+	
+	/**
+	 * Creates named daemon threads of the given priority.
+	 */
+	protected static final class DaemonThreadFactory implements ThreadFactory {
+		
+		private final String name;
+		private final int priority;
+		private final boolean isNumbered;
+		private final AtomicInteger threadCount = new AtomicInteger();
+		
+		DaemonThreadFactory(final String aName, final int aPriority, final boolean aIsNumbered) {
+			name = aName;
+			priority = aPriority;
+			isNumbered = aIsNumbered;
+		}
+		
+		@Override
+		public Thread newThread(final Runnable aRunnable) {
+			
+			Thread thread = new Thread(aRunnable, isNumbered ? name + threadCount.incrementAndGet() : name);
+			thread.setDaemon(true);
+			thread.setPriority(priority);
+			
+			return thread;
+			
+		} // newThread()
+		
+	} // DaemonThreadFactory
+	
+	
+	/*
+	 * Holders, so each executor is created on first use.
+	 */
+	private static final class CompileHolder {
+		static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+			Runtime.getRuntime().availableProcessors(), 
+			new DaemonThreadFactory(COMPILE_THREAD_NAME, Thread.NORM_PRIORITY, true)
+		);
+	}
+	
+	private static final class AudioHolder {
+		static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(
+			new DaemonThreadFactory(AUDIO_THREAD_NAME, Thread.MAX_PRIORITY, false)
+		);
+	}
+	
+	private static final class StoreHolder {
+		static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(
+			new DaemonThreadFactory(STORE_THREAD_NAME, Thread.NORM_PRIORITY, false)
+		);
+	}
+	
+	private static final class VirtualHolder {
+		static final Executor EXECUTOR = createVirtualThreadExecutor();
+	}
+
+	
+	private TaskExecutors() {}
+	
+	
+	/**
+	 * Returns the executor for CPU bound work like the compilation of a memory image.
+	 * 
+	 * @return
+	 * A pool with one thread per available processor.
+	 */
+	public static Executor getCompileExecutor() { return CompileHolder.EXECUTOR; }
+	
+	
+	/**
+	 * Returns the executor for the play back.
+	 * 
+	 * @return
+	 * A single thread with maximum priority.
+	 */
+	public static Executor getAudioExecutor() { return AudioHolder.EXECUTOR; }
+	
+	
+	/**
+	 * Returns the executor for the I/O of caches on disk.
+	 * 
+	 * @return
+	 * A single thread, so the tasks are run in the order they were submitted.
+	 */
+	public static Executor getStoreExecutor() { return StoreHolder.EXECUTOR; }
+	
+	
+	/**
+	 * Returns an executor which runs each task on a new virtual thread.
+	 * 
+	 * @return
+	 * The executor, or an empty Optional if the JDK doesn't support virtual threads.
+	 */
+	public static Optional<Executor> getVirtualThreadExecutor() { return Optional.ofNullable(VirtualHolder.EXECUTOR); }
+	
+	
+	/**
+	 * @return
+	 * true if the JDK supports virtual threads.
+	 */
+	public static boolean isVirtualThreadAvailable() { return VirtualHolder.EXECUTOR != null; }
+	
+	
+	/**
+	 * Looks up Executors.newVirtualThreadPerTaskExecutor() by reflection.
+	 * 
+	 * @return
+	 * The executor, or null if the method doesn't exist.
+	 */
+	protected static Executor createVirtualThreadExecutor() {
+		
+		try {
+			
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			Executor executor = (Executor) factory.invoke(null);
+			
+			logger.info("createVirtualThreadExecutor(): virtual threads available");
+			
+			return executor;
+			
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			logger.info("createVirtualThreadExecutor(): virtual threads not available, {}", e.toString());
+		}
+		
+		return null;
+		
+	} // createVirtualThreadExecutor()
+	
+	
+} // ssalc
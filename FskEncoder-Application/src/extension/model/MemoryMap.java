@@ -33,10 +33,10 @@ package extension.model;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -58,6 +58,19 @@ import org.apache.logging.log4j.Logger;
  * Keeps at least one or multiple MemoryRegion objects as a complete memory image. 
  * On request it creates a brief view of the entire memory layout by creating a list of MemoryBlockDescription objects 
  * and/or returns a specific MemoryRegion object.
+ * <p>
+ * The regions are kept in a TreeMap ordered by their start addresses. So the region covering an address 
+ * is found in O(log n) by getRegionAt() and the regions of an address range are iterated in address order 
+ * by getRegions(). addRegion() detects and logs regions overlapping others, see hasOverlaps(). A region 
+ * with the start address of a region already held replaces it, as before.
+ * <p>
+ * The memory layout is built in address order without sorting and kept until the next addRegion() or 
+ * clear(). Therefore the regions must be complete when they are added, like done by the MemoryRegionBuilder.
+ * <p>
+ * A file loaded in background must not change the map while the GUI reads it. So the loading thread 
+ * calls beginUpdate() first: From then on it reads and fills a new, empty layout while all other threads 
+ * still see the published one. commitUpdate() publishes the new layout when the load is done, 
+ * discardUpdate() drops it if the load was cancelled.
  * 
  * <p>
  * @author Stefan
@@ -68,8 +81,30 @@ public class MemoryMap implements ExtendableMemory {
 
 	private Logger logger = LogManager.getLogger(MemoryMap.class.getName());
 	
-				// Start Address, Memory Region
-	protected Map<Long, MemoryRegion> memoryLayout;
+	/*
+	 * The regions and the data derived from them.
+	 */
+	protected static final class Layout {
+		
+					// Start Address, Memory Region
+		protected final NavigableMap<Long, MemoryRegion> memoryLayout = new TreeMap<>();
+		
+		/*
+		 * Size of the largest region, limits the search for regions starting below an address.
+		 */
+		protected int maxRegionSize;
+		protected boolean hasOverlaps;
+		
+		protected List<MemoryBlockDescription> blockDescriptions;
+		
+	} // Layout
+	
+	/*
+	 * The published layout and the one filled by the updating thread, see beginUpdate().
+	 */
+	protected volatile Layout layout;
+	protected volatile Layout pendingLayout;
+	protected volatile Thread updatingThread;
 	
 	
 	/**
@@ -79,13 +114,15 @@ public class MemoryMap implements ExtendableMemory {
 	
 		logger.trace("MemoryMap()");
 		
-		memoryLayout = new HashMap<>();
+		layout = new Layout();
 		
 	} // MemoryMap()
 	
 	
 	/**
 	 * Adds a new MemoryRegion object to the internal collection of memory regions.
+	 * <br>
+	 * A region which overlaps other regions is added nevertheless, the overlap is logged as warning.
 	 * 
 	 * @param aRegion
 	 * The MemoryRegion object to add to the internal collection.
@@ -100,8 +137,30 @@ public class MemoryMap implements ExtendableMemory {
 		
 		if(aRegion == null) throw new IllegalArgumentException("aRegion can't be null");
 		
-		memoryLayout.put(aRegion.getStartAddress(), aRegion);
-		logger.trace("memoryLayout.size = {}", memoryLayout.size());
+		Layout current = getLayout();
+		
+		if(aRegion.getSize() > 0) {
+			
+			List<MemoryRegion> overlapping = getRegions(aRegion.getStartAddress(), aRegion.getEndAddress());
+			
+			// a region with the same start address is replaced
+			overlapping.removeIf(region -> region.getStartAddress() == aRegion.getStartAddress());
+			
+			if(!overlapping.isEmpty()) {
+				
+				logger.warn("addRegion(): {} overlaps {}", aRegion, overlapping);
+				current.hasOverlaps = true;
+				
+			}
+			
+			current.maxRegionSize = Math.max(current.maxRegionSize, aRegion.getSize());
+			
+		} // fi
+		
+		current.memoryLayout.put(aRegion.getStartAddress(), aRegion);
+		current.blockDescriptions = null;
+		
+		logger.trace("memoryLayout.size = {}", current.memoryLayout.size());
 		
 	} // addRegion()
 	
@@ -111,10 +170,17 @@ public class MemoryMap implements ExtendableMemory {
 	 */
 	@Override
 	public void clear() {
-		logger.trace("clear(): memoryLayout.size = {}", memoryLayout.size());
 		
-		memoryLayout.clear();
-		logger.trace("memoryLayout.size = {}", memoryLayout.size());
+		Layout current = getLayout();
+		
+		logger.trace("clear(): memoryLayout.size = {}", current.memoryLayout.size());
+		
+		current.memoryLayout.clear();
+		current.maxRegionSize = 0;
+		current.hasOverlaps = false;
+		current.blockDescriptions = null;
+		
+		logger.trace("memoryLayout.size = {}", current.memoryLayout.size());
 		
 	} // clear()
 
@@ -125,30 +191,34 @@ public class MemoryMap implements ExtendableMemory {
 	 * along with the size of the region.
 	 *  
 	 * @return
-	 * A list of MemoryBlockDescription objects.
+	 * An unmodifiable list of MemoryBlockDescription objects, ordered by their start addresses.
 	 */
 	
 	public List<MemoryBlockDescription> getMemoryLayout() { 
 		logger.trace("getMemoryLayout()");
 		
-		List<MemoryBlockDescription> result = new ArrayList<>();
+		Layout current = getLayout();
+		List<MemoryBlockDescription> blockDescriptions = current.blockDescriptions;
+		
+		if(blockDescriptions != null) return blockDescriptions;
+		
+		List<MemoryBlockDescription> result = new ArrayList<>(current.memoryLayout.size());
 		MemoryBlockDescription memBlockDesc;
-		MemoryRegion memRegion;
 		
-		logger.debug("number of available MemoryRegions = {}", memoryLayout.entrySet().size());
+		logger.debug("number of available MemoryRegions = {}", current.memoryLayout.size());
 		
-		for(Entry<Long, MemoryRegion> entry : memoryLayout.entrySet()) { // NOSONAR
+		for(MemoryRegion memRegion : current.memoryLayout.values()) {
 			
-			memRegion = (MemoryRegion) entry.getValue();
 			memBlockDesc = new MemoryBlockDescription(memRegion.getStartAddress(), memRegion.getEndAddress(), memRegion.getSize());
 			
 			result.add(memBlockDesc);
 			
 		} // rof
 		
-		Collections.sort(result);
+		blockDescriptions = Collections.unmodifiableList(result);
+		current.blockDescriptions = blockDescriptions;
 		
-		return result; 
+		return blockDescriptions; 
 		
 	} // getMemoryLayout()
 	
@@ -165,18 +235,166 @@ public class MemoryMap implements ExtendableMemory {
 	public MemoryRegion getMemoryRegion(final long aStartAddress) {
 		logger.trace("getMemoryRegion()");
 		
-		return memoryLayout.get(aStartAddress); 
+		return getLayout().memoryLayout.get(aStartAddress); 
 		
 	} // getMemoryRegion()
 	
 	
+	/**
+	 * Returns the MemoryRegion which covers an address.
+	 * <br>
+	 * If overlapping regions cover the address, the one with the highest start address is returned.
+	 * 
+	 * @param aAddress
+	 * The address to look up.
+	 * 
+	 * @return
+	 * The MemoryRegion covering aAddress, or null if the address isn't covered by any region.
+	 */
+	public MemoryRegion getRegionAt(final long aAddress) {
+		logger.trace("getRegionAt(): aAddress = {}", aAddress);
+		
+		Layout current = getLayout();
+		Map.Entry<Long, MemoryRegion> floor = current.memoryLayout.floorEntry(aAddress);
+		
+		if(floor == null) return null;
+		
+		if(covers(floor.getValue(), aAddress)) return floor.getValue();
+		
+		// without overlaps a region starting below the floor region ends below it, too
+		if(!current.hasOverlaps || (floor.getKey() <= aAddress - current.maxRegionSize)) return null;
+		
+		for(MemoryRegion region : current.memoryLayout.subMap(aAddress - current.maxRegionSize, false, floor.getKey(), false).descendingMap().values()) {
+			if(covers(region, aAddress)) return region;
+		}
+		
+		return null;
+		
+	} // getRegionAt()
+	
+	
+	/**
+	 * Returns the MemoryRegions which are located at least partly within an address range.
+	 * 
+	 * @param aStartAddress
+	 * The first address of the range.
+	 * 
+	 * @param aEndAddress
+	 * The last address of the range.
+	 * 
+	 * @return
+	 * The MemoryRegions ordered by their start addresses, an empty list if there are none.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aEndAddress is less than aStartAddress.
+	 */
+	public List<MemoryRegion> getRegions(final long aStartAddress, final long aEndAddress) {
+		logger.trace("getRegions(): aStartAddress = {}, aEndAddress = {}", aStartAddress, aEndAddress);
+		
+		if(aEndAddress < aStartAddress) throw new IllegalArgumentException("aEndAddress can't be less than aStartAddress");
+		
+		Layout current = getLayout();
+		Long fromAddress = current.hasOverlaps 
+			? Long.valueOf(aStartAddress - current.maxRegionSize) 
+			: current.memoryLayout.floorKey(aStartAddress);
+		
+		if(fromAddress == null) fromAddress = aStartAddress;
+		
+		List<MemoryRegion> result = new ArrayList<>();
+		
+		for(MemoryRegion region : current.memoryLayout.subMap(fromAddress, true, aEndAddress, true).values()) {
+			
+			if((region.getSize() > 0) && (region.getEndAddress() >= aStartAddress)) result.add(region);
+			
+		} // rof
+		
+		return result;
+		
+	} // getRegions()
+	
+	
+	/**
+	 * Returns whether overlapping regions were added since the last clear().
+	 * 
+	 * @return
+	 * true if addRegion() has detected an overlap.
+	 */
+	public boolean hasOverlaps() { return getLayout().hasOverlaps; }
+	
+	
 	/**
 	 * Returns the number of currently held MemoryRegion objects.
 	 * 
 	 * @return
 	 * Number of currently held MemoryRegion objects.
 	 */
-	public int getRegionCount() { return memoryLayout.size(); }
+	public int getRegionCount() { return getLayout().memoryLayout.size(); }
+	
+	
+	/**
+	 * Starts the update of the map by the calling thread.
+	 * <br>
+	 * The calling thread reads and fills a new, empty layout from now on, all other threads still 
+	 * see the published one. A pending update which hasn't been published is dropped.
+	 */
+	public synchronized void beginUpdate() {
+		logger.trace("beginUpdate(): thread = {}", Thread.currentThread().getName());
+		
+		pendingLayout = new Layout();
+		updatingThread = Thread.currentThread();
+		
+	} // beginUpdate()
+	
+	
+	/**
+	 * Ends the changes of the updating thread. The new layout is kept until commitUpdate() or 
+	 * discardUpdate() is called, e.g. on the event dispatch thread.
+	 */
+	public synchronized void endUpdate() {
+		logger.trace("endUpdate()");
+		
+		updatingThread = null;
+		
+	} // endUpdate()
+	
+	
+	/**
+	 * Publishes the layout filled since beginUpdate(), it replaces the previous one for all threads.
+	 * 
+	 * @return
+	 * true if a pending layout has been published.
+	 */
+	public synchronized boolean commitUpdate() {
+		logger.trace("commitUpdate(): pendingLayout = {}", pendingLayout);
+		
+		if(pendingLayout == null) return false;
+		
+		layout = pendingLayout;
+		pendingLayout = null;
+		updatingThread = null;
+		
+		return true;
+		
+	} // commitUpdate()
+	
+	
+	/**
+	 * Drops the layout filled since beginUpdate(), the published one is kept.
+	 */
+	public synchronized void discardUpdate() {
+		logger.trace("discardUpdate()");
+		
+		pendingLayout = null;
+		updatingThread = null;
+		
+	} // discardUpdate()
+	
+	
+	/**
+	 * @return
+	 * true from beginUpdate() till commitUpdate() or discardUpdate().
+	 */
+	public boolean isUpdating() { return pendingLayout != null; }
 
 
 	/**
@@ -187,8 +405,35 @@ public class MemoryMap implements ExtendableMemory {
 	 */
 	@Override
 	public String toString() {
-		return "MemoryMap [memoryLayout=" + memoryLayout + "]";
+		return "MemoryMap [memoryLayout=" + getLayout().memoryLayout + "]";
 	}
+	
+	
+	/**
+	 * @return
+	 * The layout seen by the calling thread: the pending one for the updating thread, the published 
+	 * one for all others.
+	 */
+	protected Layout getLayout() {
+		
+		Layout pending = pendingLayout;
+		
+		if(pending != null && updatingThread == Thread.currentThread()) return pending;
+		
+		return layout;
+		
+	} // getLayout()
+	
+	
+	/**
+	 * @return
+	 * true if aRegion holds content at aAddress.
+	 */
+	protected boolean covers(final MemoryRegion aRegion, final long aAddress) {
+		
+		return (aRegion.getSize() > 0) && (aRegion.getStartAddress() <= aAddress) && (aAddress <= aRegion.getEndAddress());
+		
+	} // covers()
 
 
 } // ssalc
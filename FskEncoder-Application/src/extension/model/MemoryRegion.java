@@ -31,8 +31,6 @@
 package extension.model;
 
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
-import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -53,6 +51,13 @@ import org.apache.logging.log4j.Logger;
  * For each subsequent record it updates the size attribute with the length of the given payload. 
  * <br>
  * Buffer contents, start and end addresses as well as the current payload size can be obtained using getter methods.  
+ * <p>
+ * The payload is kept in a single contiguous ByteBuffer which doubles it's capacity when it's full, optionally 
+ * allocated off-heap. getContentView() returns a read-only view of the payload without copying. A view isn't 
+ * affected by subsequent calls of addContent(), it keeps showing the payload at the time of the call.
+ * <br>
+ * getContent() returns a writable copy of the payload on the heap, as protocols may modify the data buffer 
+ * or access it's array.
  * 
  * <p>
  * @author Stefan
@@ -65,9 +70,12 @@ public class MemoryRegion {
 
 	private Logger logger = LogManager.getLogger(MemoryRegion.class.getName());
 	
+	public static final int DEFAULT_CAPACITY = 256;
+	
 	protected long startAddress;
 	protected int size;
-	protected List<byte[]> content;
+	protected ByteBuffer content;
+	protected final boolean isOffHeap;
 	
 	
 	/**
@@ -78,9 +86,26 @@ public class MemoryRegion {
 	 */
 	public MemoryRegion(final long aStartAddress) {
 
-		logger.trace("MemoryRegion(): aStartAddress = {}", aStartAddress);
+		this(aStartAddress, false);
 		
-		content = new ArrayList<>();
+	} // MemoryRegion()
+	
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param aStartAddress
+	 * The base address of the memory image kept in the content buffer.
+	 * 
+	 * @param aOffHeap
+	 * true to keep the content buffer off-heap in a direct ByteBuffer.
+	 */
+	public MemoryRegion(final long aStartAddress, final boolean aOffHeap) {
+
+		logger.trace("MemoryRegion(): aStartAddress = {}, aOffHeap = {}", aStartAddress, aOffHeap);
+		
+		isOffHeap = aOffHeap;
+		content = allocate(DEFAULT_CAPACITY);
 		startAddress = aStartAddress;
 		
 	} // MemoryRegion()
@@ -101,7 +126,10 @@ public class MemoryRegion {
 		if(aContent == null) throw new IllegalArgumentException("aContent can't be null");
 		if(aContent.length == 0) throw new IllegalArgumentException("aContent can't be empty");
 		
-		content.add(aContent);
+		ensureCapacity(size + aContent.length);
+		
+		// the position of the content buffer is always at size
+		content.put(aContent);
 		size += aContent.length;
 		
 	} // addContent()
@@ -121,6 +149,10 @@ public class MemoryRegion {
 	/**
 	 * Returns the payload buffer.
 	 * 
+	 * @return
+	 * A copy of the payload in a writable heap buffer with a capacity and limit of getSize(). The position is
+	 * at the end of the payload, the buffer must be rewound before it's read.
+	 * 
 	 * @throws IllegalAccessError
 	 * If the content buffer is empty.
 	 * <br>
@@ -130,19 +162,68 @@ public class MemoryRegion {
 	public ByteBuffer getContent() {
 		logger.trace("getContent()");
 		
-		if(content.size() == 0) throw new IllegalAccessError("No content available");
+		ByteBuffer view = getContentView();
 		
-		ByteBuffer result = ByteBuffer.allocate(getSize());
-		
-		for(byte[] region : content) {
-			result.put(region);
-		}
+		ByteBuffer result = ByteBuffer.allocate(size);
+		result.put(view);
 		
 		return result;
 		
 	} // getContent()
 	
 	
+	/**
+	 * Returns the payload buffer without copying it.
+	 * 
+	 * @return
+	 * A read-only view of the payload with position 0 and a capacity and limit of getSize().
+	 * 
+	 * @throws IllegalAccessError
+	 * If the content buffer is empty.
+	 */
+	public ByteBuffer getContentView() {
+		logger.trace("getContentView()");
+		
+		return getContentView(0, size);
+		
+	} // getContentView()
+	
+	
+	/**
+	 * Returns a part of the payload buffer.
+	 * 
+	 * @param aOffset
+	 * The offset of the first byte relative to the start address.
+	 * 
+	 * @param aLength
+	 * The number of bytes.
+	 * 
+	 * @return
+	 * A read-only view of the requested bytes with position 0 and a capacity and limit of aLength. The payload isn't copied.
+	 * 
+	 * @throws IllegalAccessError
+	 * If the content buffer is empty.
+	 * 
+	 * @throws IllegalArgumentException
+	 * If the requested range isn't located within the payload.
+	 */
+	public ByteBuffer getContentView(final int aOffset, final int aLength) {
+		logger.trace("getContentView(): aOffset = {}, aLength = {}", aOffset, aLength);
+		
+		if(size == 0) throw new IllegalAccessError("No content available");
+		
+		if(aOffset < 0 || aLength < 0 || aOffset > size - aLength) 
+			throw new IllegalArgumentException("aOffset and aLength must be located within the content!");
+		
+		ByteBuffer view = content.asReadOnlyBuffer();
+		view.position(aOffset);
+		view.limit(aOffset + aLength);
+		
+		return view.slice();
+		
+	} // getContentView()
+	
+	
 	/**
 	 * Returns the end address of the kept memory image.
 	 * 
@@ -173,6 +254,22 @@ public class MemoryRegion {
 	public int getSize() { return size; }
 
 	
+	/**
+	 * Returns the capacity of the content buffer.
+	 * 
+	 * @return the number of bytes the content buffer can hold without growing.
+	 */
+	public int getCapacity() { return content.capacity(); }
+	
+	
+	/**
+	 * Returns whether the content buffer is kept off-heap.
+	 * 
+	 * @return true if the content buffer is a direct ByteBuffer.
+	 */
+	public boolean isOffHeap() { return isOffHeap; }
+
+	
 	/**
 	 * Returns the start address of the memory image.
 	 * 
@@ -197,6 +294,39 @@ public class MemoryRegion {
 			+ "]";
 		
 	} // toString()
+	
+	
+	/**
+	 * Allocates a content buffer according to isOffHeap.
+	 */
+	protected ByteBuffer allocate(final int aCapacity) {
+		
+		return isOffHeap ? ByteBuffer.allocateDirect(aCapacity) : ByteBuffer.allocate(aCapacity);
+		
+	} // allocate()
+	
+	
+	/**
+	 * Grows the content buffer to at least aCapacity bytes, the capacity is doubled at least.
+	 * The previous buffer is left untouched, so views returned by getContent() stay valid.
+	 */
+	protected void ensureCapacity(final int aCapacity) {
+		
+		if(aCapacity <= content.capacity()) return;
+		
+		int capacity = Math.max(aCapacity, content.capacity() * 2);
+		
+		logger.trace("ensureCapacity(): capacity = {}", capacity);
+		
+		ByteBuffer larger = allocate(capacity);
+		
+		ByteBuffer source = content.duplicate();
+		source.flip();
+		larger.put(source);
+		
+		content = larger;
+		
+	} // ensureCapacity()
 
 
 } // ssalc
@@ -30,12 +30,18 @@
 package extension.protocol;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import extension.encoder.CompilePlan;
 import extension.encoder.Encoder;
 import extension.execution.BackgroundTask;
+import extension.execution.TaskExecutors;
+import extension.sound.SampleRingBuffer;
+import extension.sound.SymbolStream;
 
 /**
  * Responsibilities:<br>
@@ -51,6 +57,20 @@ import extension.execution.BackgroundTask;
  * <br>
  * It provides common used attributes and methods as well as some 
  * abstract methods which are required for a proper work.
+ * <p>
+ * If a SampleRingBuffer is set by setSampleStream(), the background execution streams the
+ * sound samples through the encoder into the ring buffer instead of collecting them in the
+ * sound sample buffer.
+ * <p>
+ * compileSymbols() delivers the compiled sound samples in the compact form of a SymbolStream.
+ * <p>
+ * A protocol which describes it's compilation by createCompilePlan() gets it's sample buffer
+ * sized exactly and the progress set up by prepareCompile(), and the duration of the upload is
+ * known before the compilation starts, see getUploadDuration().
+ * <p>
+ * The compilation can be aborted by stop(). The CancellationToken of the task is handed to the 
+ * encoder, which checks it chunk by chunk, and it's checked by progress() on each step of the 
+ * compile loop. An aborted compilation delivers no sound samples.
  * 
  * <p>
  * @author Stefan
@@ -68,10 +88,24 @@ public abstract class BackgroundTaskProtokol extends BackgroundTask<Void, Void>
 	protected ByteBuffer soundsampleBuffer;
 	protected int soundSampleBufferSize;
 	
+	protected SampleRingBuffer sampleStream;
+	
 	protected int fullProgress;
 	protected int currentProgress;
 
 	
+	/**
+	 * Constructor.
+	 * <br>
+	 * The compilation is run on the compile pool of TaskExecutors.
+	 */
+	public BackgroundTaskProtokol() {
+		
+		super(TaskExecutors.getCompileExecutor());
+		
+	} // BackgroundTaskProtokol()
+
+	
 	/**
 	 * Returns the buffer holding the sound samples.
 	 * 
@@ -100,8 +134,37 @@ public abstract class BackgroundTaskProtokol extends BackgroundTask<Void, Void>
 		logger.trace("runBackgroundTask(): dataBuffer = {}", dataBuffer);
 		
 		if(dataBuffer == null) throw new IllegalAccessError("No data buffer set!");
+		
+		shareCancellationToken();
+		
+		if(sampleStream != null) {
+			
+			try { compile(dataBuffer, sampleStream); }
+			catch (InterruptedException e) {
+				logger.warn("runBackgroundTask(): interrupted while streaming");
+				Thread.currentThread().interrupt();
+			}
+			catch (CancellationException e) {
+				logger.info("runBackgroundTask(): stream aborted by consumer");
+			}
+			finally {
+				sampleStream = null;
+			}
+			
+			return null;
+			
+		} // fi
 
-		soundsampleBuffer = compile(dataBuffer);
+		// the samples of a previous compilation must not be taken for this one
+		soundsampleBuffer = null;
+		
+		try {
+			soundsampleBuffer = compile(dataBuffer);
+		}
+		catch (CancellationException e) {
+			logger.info("runBackgroundTask(): compilation aborted");
+		}
+		
 		logger.trace("runBackgroundTask(): soundsampleBuffer = {}", soundsampleBuffer);
 		
 		return null;
@@ -109,6 +172,23 @@ public abstract class BackgroundTaskProtokol extends BackgroundTask<Void, Void>
 	} // runBackgroundTask()
 	
 	
+	/**
+	 * Extends the key of the interface by the configuration of the encoder and the checksum calculator.
+	 * 
+	 * @return
+	 * The configuration key.
+	 */
+	@Override
+	public String getConfigurationKey() {
+		
+		return Protocol.super.getConfigurationKey()
+			+ " [encoder=" + (encoder == null ? "-" : encoder.getConfigurationKey())
+			+ ", checksumCalculator=" + (checksumCalculator == null ? "-" : checksumCalculator.getClass().getName())
+			+ "]";
+		
+	} // getConfigurationKey()
+	
+	
 	/**
 	 * Direct invocation of the compilation process.
 	 * <p>
@@ -118,6 +198,206 @@ public abstract class BackgroundTaskProtokol extends BackgroundTask<Void, Void>
 	 * So any call the this method should be avoided and executed shall be used instead. 
 	 */
 	public abstract ByteBuffer compile(final ByteBuffer aDataBuffer);
+	
+	
+	/**
+	 * Streaming invocation of the compilation process.
+	 * <br>
+	 * The encoder is switched into streaming mode for the time of the compilation, so the sound samples
+	 * are handed over to aSampleStream chunk by chunk. Samples which were not produced by the encoder 
+	 * are written to the stream after compile(...) has returned.
+	 * <br>
+	 * In streaming mode compile(...) usually returns the sample buffer of the encoder, which is empty 
+	 * then. The final flush of the encoder clears this buffer, so the returned samples are taken by 
+	 * takeRemainingSamples() before. Otherwise the cleared buffer would be written as a whole, i.e. 
+	 * the stale samples of the last chunk would follow the upload.
+	 * <br>
+	 * The stream is closed in any case.
+	 * 
+	 * @throws InterruptedException
+	 * if the calling thread was interrupted while waiting for space in the stream.
+	 * 
+	 * @throws CancellationException
+	 * if the stream was aborted by the consumer.
+	 */
+	@Override
+	public void compile(final ByteBuffer aDataBuffer, final SampleRingBuffer aSampleStream) throws InterruptedException {
+		logger.trace("compile(): aDataBuffer = {}, aSampleStream = {}", aDataBuffer, aSampleStream);
+		
+		if(aSampleStream == null) throw new IllegalArgumentException("aSampleStream can't be null!");
+		
+		shareCancellationToken();
+		if(encoder != null) encoder.setSampleStream(aSampleStream);
+		
+		try {
+			
+			ByteBuffer remainingSamples = takeRemainingSamples(compile(aDataBuffer));
+			
+			if(encoder != null) encoder.flushSampleStream();
+			
+			if(remainingSamples != null && remainingSamples.hasRemaining()) {
+				aSampleStream.write(remainingSamples);
+			}
+			
+		}
+		finally {
+			
+			if(encoder != null) encoder.setSampleStream(null);
+			aSampleStream.close();
+			
+		}
+		
+	} // compile(...)
+
+	
+	/**
+	 * Compact invocation of the compilation process.
+	 * <br>
+	 * The encoder is switched into symbol mode for the time of the compilation, so it records the 
+	 * templates of bits, wave cycles and silence instead of copying them. Samples which were not 
+	 * produced by the encoder are appended after compile(...) has returned.
+	 * 
+	 * @return
+	 * The SymbolStream holding the compiled sound samples.
+	 * 
+	 * @throws CancellationException
+	 * if the compilation was aborted.
+	 */
+	@Override
+	public SymbolStream compileSymbols(final ByteBuffer aDataBuffer) {
+		logger.trace("compileSymbols(): aDataBuffer = {}", aDataBuffer);
+		
+		SymbolStream symbolStream = new SymbolStream();
+		
+		shareCancellationToken();
+		
+		if(encoder != null) encoder.setSymbolStream(symbolStream);
+		
+		try {
+			
+			ByteBuffer remainingSamples = takeRemainingSamples(compile(aDataBuffer));
+			
+			if(encoder != null) encoder.flushSampleStream();
+			
+			if(remainingSamples != null) {
+				symbolStream.append(remainingSamples, 1);
+			}
+			
+		}
+		finally {
+			if(encoder != null) encoder.setSymbolStream(null);
+		}
+		
+		logger.debug("compileSymbols(): symbolStream = {}", symbolStream);
+		
+		return symbolStream;
+		
+	} // compileSymbols(...)
+	
+	
+	/**
+	 * Encodes the data bytes and sums them up by the checksum calculator of the protocol, if it has one.
+	 * <br>
+	 * A large buffer is encoded and summed up chunk by chunk in parallel, see setParallelEncoding().
+	 * 
+	 * @param aDataBuffer
+	 * Buffer holding the bytes to encode.
+	 * 
+	 * @param withTxFrame
+	 * Set to true if each byte should be put in an envelope.
+	 */
+	protected void encodeData(final ByteBuffer aDataBuffer, final boolean withTxFrame) {
+		logger.trace("encodeData(): aDataBuffer = {}, withTxFrame = {}", aDataBuffer, withTxFrame);
+		
+		encoder.encodeByteBuffer(aDataBuffer, withTxFrame, checksumCalculator);
+		
+	} // encodeData()
+	
+	
+	/**
+	 * Hands the CancellationToken of this task to the encoder, so it checks it while encoding.
+	 */
+	protected void shareCancellationToken() {
+		
+		if(encoder != null) encoder.setCancellationToken(cancellationToken);
+		
+	} // shareCancellationToken()
+	
+	
+	/**
+	 * Returns an independent view of the samples returned by compile(...).
+	 * <br>
+	 * The view has to be taken before the encoder is flushed, because the returned buffer may 
+	 * be the sample buffer of the encoder, which is cleared by the flush.
+	 */
+	protected ByteBuffer takeRemainingSamples(final ByteBuffer aSamples) {
+		
+		return aSamples == null ? null : aSamples.duplicate();
+		
+	} // takeRemainingSamples()
+	
+	
+	/**
+	 * Describes the compilation of aDataBuffer step by step as a CompilePlan.
+	 * <br>
+	 * The default implementation returns null, in this case the protocol has to size it's 
+	 * buffers on it's own.
+	 * 
+	 * @param aDataBuffer
+	 * The data bytes to be compiled.
+	 * 
+	 * @return
+	 * The plan of the compilation or null if no plan is available.
+	 */
+	protected CompilePlan createCompilePlan(final ByteBuffer aDataBuffer) { return null; }
+	
+	
+	/**
+	 * Should be called at the beginning of compile(...).<br>
+	 * If the protocol provides a CompilePlan, the sample buffer of the encoder is allocated 
+	 * with the exact size and the progress is set up by the number of data bytes of the plan.
+	 * 
+	 * @param aDataBuffer
+	 * The data bytes to be compiled.
+	 * 
+	 * @return
+	 * The plan of the compilation or null if the protocol doesn't provide one.
+	 */
+	protected CompilePlan prepareCompile(final ByteBuffer aDataBuffer) {
+		logger.trace("prepareCompile(): aDataBuffer = {}", aDataBuffer);
+		
+		CompilePlan plan = createCompilePlan(aDataBuffer);
+		logger.debug("prepareCompile(): plan = {}", plan);
+		
+		if(plan == null) return null;
+		
+		soundSampleBufferSize = plan.getSampleCount();
+		encoder.setBufferSize(soundSampleBufferSize);
+		
+		currentProgress = 0;
+		setFullProgress(Math.max(1, plan.getDataByteCount()));
+		
+		return plan;
+		
+	} // prepareCompile()
+	
+	
+	/**
+	 * Returns the time needed to upload aDataBuffer, without compiling it.
+	 * 
+	 * @param aDataBuffer
+	 * The data bytes to be compiled.
+	 * 
+	 * @return
+	 * The duration in milliseconds or -1 if the protocol doesn't provide a CompilePlan.
+	 */
+	public long getUploadDuration(final ByteBuffer aDataBuffer) {
+		
+		CompilePlan plan = createCompilePlan(aDataBuffer);
+		
+		return plan == null ? -1 : plan.getDuration();
+		
+	} // getUploadDuration()
 
 	
 	/**
@@ -126,9 +406,14 @@ public abstract class BackgroundTaskProtokol extends BackgroundTask<Void, Void>
 	 * 
 	 * @param aStep <br>
 	 * The amount of progress achieved since the last invocation.
+	 * 
+	 * @throws CancellationException
+	 * if the compilation was aborted by stop().
 	 */
 	protected void progress(final int aStep) {
 		logger.trace("progress(): aStep = {}", aStep);
+		
+		cancellationToken.throwIfCancelled();
 
 		currentProgress += aStep;
 		
@@ -156,6 +441,42 @@ public abstract class BackgroundTaskProtokol extends BackgroundTask<Void, Void>
 	} // setDataBuffer()
 
 
+	/**
+	 * Set the stream to be used by the next background execution.<br>
+	 * The stream is used for one execution only.
+	 * 
+	 * @param aSampleStream
+	 * The stream to receive the sound samples or null to compile into the sound sample buffer.
+	 */
+	public void setSampleStream(final SampleRingBuffer aSampleStream) {
+		logger.trace("setSampleStream(): aSampleStream = {}", aSampleStream);
+		
+		sampleStream = aSampleStream;
+		
+	} // setSampleStream()
+
+
+	/**
+	 * Lets the encoder encode large data buffers in parallel, see Encoder.withParallelEncoding().<br>
+	 * The buffers given to encodeData() or Encoder.encodeByteBuffer() are split into chunks if the 
+	 * encoder uses it's ByteSymbolTable, which is the default. Has no effect if the protocol has no encoder.
+	 * 
+	 * @param aForkJoinPool
+	 * The pool which executes the chunks.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aForkJoinPool is null.
+	 */
+	public void setParallelEncoding(final ForkJoinPool aForkJoinPool) {
+		logger.trace("setParallelEncoding(): aForkJoinPool = {}", aForkJoinPool);
+		
+		if(aForkJoinPool == null) throw new IllegalArgumentException("aForkJoinPool can't be null!");
+		
+		if(encoder != null) encoder.withParallelEncoding(aForkJoinPool);
+		
+	} // setParallelEncoding()
+
+
 	public void setEndAddress(long endAddress) {
 		throw new IllegalAccessError("Unsupported method");	// NOSONAR
 	}
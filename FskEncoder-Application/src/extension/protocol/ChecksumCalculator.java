@@ -30,6 +30,10 @@
 
 package extension.protocol;
 
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -56,6 +60,12 @@ import org.apache.logging.log4j.Logger;
  * NOTE:<br>
  * The derived class must set the 'isInitialized' flag to true as soon as a 
  * valid checksum can be obtained.
+ * <P>
+ * A whole buffer is summed up by sumUp(ByteBuffer). If the derived class provides partial
+ * calculators by createPartial(), large buffers are summed up chunk by chunk on the common 
+ * ForkJoinPool and the partial checksums are merged by combine(). The same is done by 
+ * Encoder.encodeByteBuffer(ByteBuffer, boolean, ChecksumCalculator) for each chunk it encodes 
+ * in parallel.
  * 
  * <p>
  * @author Stefan
@@ -71,6 +81,55 @@ public abstract class ChecksumCalculator {
 	
 	protected boolean isInitialized = false;
 	
+	public static final int PARALLEL_CHUNK_SIZE = 4096;
+	
+	
+	/**
+	 * Sums up a range of a buffer into a partial calculator, splitting the range until
+	 * it fits into PARALLEL_CHUNK_SIZE.
+	 */
+	protected class PartialSumTask extends RecursiveTask<ChecksumCalculator> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient ByteBuffer data;
+		private final int from;
+		private final int to;
+
+		PartialSumTask(final ByteBuffer aData, final int aFrom, final int aTo) {
+			data = aData;
+			from = aFrom;
+			to = aTo;
+		}
+
+		@Override
+		protected ChecksumCalculator compute() {
+
+			if(to - from <= PARALLEL_CHUNK_SIZE) {
+
+				ChecksumCalculator partial = createPartial();
+				partial.sumUp(data, from, to);
+
+				return partial;
+
+			} // fi
+
+			int middle = (from + to) >>> 1;
+
+			PartialSumTask left = new PartialSumTask(data, from, middle);
+			left.fork();
+
+			ChecksumCalculator right = new PartialSumTask(data, middle, to).compute();
+			ChecksumCalculator result = left.join();
+
+			result.combine(right);
+
+			return result;
+
+		} // compute()
+
+	} // PartialSumTask
+	
 	
 	/**
 	 * Constructor.
@@ -115,6 +174,47 @@ public abstract class ChecksumCalculator {
 	public abstract void sumUp(final int aValue);
 	
 	
+	/**
+	 * Sums up all bytes of aData from 0 to it's limit as unsigned values (0 ... 255).
+	 * <br>
+	 * The position of aData isn't changed.
+	 * 
+	 * @param aData
+	 * The bytes to sum up to the check sum.
+	 */
+	public void sumUp(final ByteBuffer aData) {
+		logger.trace("sumUp(): aData = {}", aData);
+		
+		if(aData.limit() <= PARALLEL_CHUNK_SIZE || createPartial() == null) {
+			sumUp(aData, 0, aData.limit());
+			return;
+		}
+		
+		combine(ForkJoinPool.commonPool().invoke(new PartialSumTask(aData, 0, aData.limit())));
+		
+	} // sumUp()
+	
+	
+	/**
+	 * Merges the checksum of a partial calculator into this one.
+	 * <br>
+	 * The default implementation sums up the partial checksum as a single value, which is 
+	 * correct for all algorithms that simply add up the values. Other algorithms must 
+	 * override this method.
+	 * 
+	 * @param aPartial
+	 * A calculator created by createPartial() which has summed up a part of the data.
+	 */
+	public void combine(final ChecksumCalculator aPartial) {
+		logger.trace("combine(): aPartial = {}", aPartial);
+		
+		if(aPartial == null || ! aPartial.isInitialized) return;
+		
+		sumUp(aPartial.chkSum);
+		
+	} // combine()
+	
+	
 	/**
 	 * Returns the checksum calculated from previous calls to sumUp().<br>
 	 * the return value is masked with the mask which has been set on construction time.
@@ -158,6 +258,30 @@ public abstract class ChecksumCalculator {
 	public void clear() { chkSum = 0; }
 
 
+	/**
+	 * Creates a new, empty calculator with the same algorithm and mask, used to sum up
+	 * a part of the data in parallel.
+	 * <br>
+	 * The default implementation returns null, so the data is always summed up sequentially.
+	 * 
+	 * @return
+	 * A new calculator or null if parallel calculation isn't supported.
+	 */
+	public ChecksumCalculator createPartial() { return null; }
+	
+	
+	/**
+	 * Sums up the bytes of aData from aFrom (inclusive) to aTo (exclusive) as unsigned values.
+	 */
+	protected void sumUp(final ByteBuffer aData, final int aFrom, final int aTo) {
+		
+		for(int n = aFrom; n < aTo; n++) {
+			sumUp(aData.get(n) & 0x0FF);
+		}
+		
+	} // sumUp()
+	
+
     /**
      * Returns a string summarizing the state of this object.
      *
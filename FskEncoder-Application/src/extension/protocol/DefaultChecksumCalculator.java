@@ -93,4 +93,11 @@ public class DefaultChecksumCalculator extends ChecksumCalculator {
 	} // sumUp()
 
 
+	/**
+	 * The sum of values is additive, so the buffer can be summed up in parallel.
+	 */
+	@Override
+	public ChecksumCalculator createPartial() { return new DefaultChecksumCalculator(mask); }
+
+
 } // ChecksumCalculator
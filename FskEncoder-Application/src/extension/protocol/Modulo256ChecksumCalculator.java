@@ -78,4 +78,11 @@ public class Modulo256ChecksumCalculator extends ChecksumCalculator {
 	} // sumUp()
 
 
+	/**
+	 * The sum modulo 256 is additive, so the buffer can be summed up in parallel.
+	 */
+	@Override
+	public ChecksumCalculator createPartial() { return new Modulo256ChecksumCalculator(); }
+
+
 } // ChecksumCalculator
@@ -29,9 +29,14 @@
 
 package extension.protocol;
 
+import java.io.File;
+import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
+import java.security.CodeSource;
 
 import extension.sound.FskAudioFormat;
+import extension.sound.SampleRingBuffer;
+import extension.sound.SymbolStream;
 
 /**
  * Responsibilities:<br>
@@ -53,6 +58,12 @@ import extension.sound.FskAudioFormat;
 
 public interface Protocol {
 
+	/**
+	 * Default silence [ms] between two memory regions uploaded in a single stream.
+	 */
+	public static final int DEFAULT_INTER_BLOCK_SILENCE = 1000;
+
+
 	/**
 	 * Interface method which is expected from the application.
 	 * 
@@ -65,6 +76,158 @@ public interface Protocol {
 	public ByteBuffer compile(final ByteBuffer aDataBuffer);
 
 	
+	/**
+	 * Streaming variant of compile(...).<br>
+	 * The sound samples are written into aSampleStream as soon as they are available,
+	 * so a consumer can start the play back before the compilation is finished.
+	 * The stream is closed after the last sample was written.
+	 * <p>
+	 * The default implementation compiles the whole data buffer first and writes the 
+	 * result into the stream afterwards. Protocol implementations should override this 
+	 * method if they are able to deliver their samples in smaller chunks.
+	 * 
+	 * @param aDataBuffer
+	 * A ByteBuffer containing the data to be encoded.
+	 * 
+	 * @param aSampleStream
+	 * The stream to receive the sound samples.
+	 * 
+	 * @throws InterruptedException
+	 * if the calling thread was interrupted while waiting for space in the stream.
+	 */
+	public default void compile(final ByteBuffer aDataBuffer, final SampleRingBuffer aSampleStream) throws InterruptedException {
+		
+		try {
+			
+			ByteBuffer soundSamples = compile(aDataBuffer);
+			soundSamples.rewind();
+			aSampleStream.write(soundSamples);
+			
+		}
+		finally {
+			aSampleStream.close();
+		}
+		
+	} // compile(...)
+
+	
+	/**
+	 * Compact variant of compile(...).<br>
+	 * The sound samples are returned as a SymbolStream of templates and their repeat counts,
+	 * which is expanded to the sound samples at play back.
+	 * <p>
+	 * The default implementation compiles the whole data buffer and appends the result as a 
+	 * single template. Protocol implementations should override this method if they are able 
+	 * to deliver their samples as templates.
+	 * 
+	 * @param aDataBuffer
+	 * A ByteBuffer containing the data to be encoded.
+	 * 
+	 * @return
+	 * The SymbolStream holding the compiled sound samples.
+	 */
+	public default SymbolStream compileSymbols(final ByteBuffer aDataBuffer) {
+		
+		SymbolStream symbolStream = new SymbolStream();
+		
+		ByteBuffer soundSamples = compile(aDataBuffer).duplicate();
+		soundSamples.rewind();
+		symbolStream.append(soundSamples, 1);
+		
+		return symbolStream;
+		
+	} // compileSymbols(...)
+	
+	
+	/**
+	 * Returns a key describing everything that influences the sound samples created by this protocol,
+	 * except the data and the addresses.
+	 * <br>
+	 * The key is used to identify compiled sound samples which can be reused, so two protocol instances 
+	 * with equal keys must create identical sound samples for the same data.
+	 * <p>
+	 * The default implementation consists of the class, it's version and the audio format. Protocol 
+	 * implementations must override this method if they have further settings, e.g. configurable 
+	 * frequencies or framing.
+	 * 
+	 * @return
+	 * The configuration key.
+	 */
+	public default String getConfigurationKey() {
+		
+		return getClass().getName() + " [version=" + getVersion() + ", audioFormat=" + getAudioFormat() + "]";
+		
+	} // getConfigurationKey()
+	
+	
+	/**
+	 * Tells whether the sound samples created by this protocol may be reused, i.e. kept in the 
+	 * CompiledRegionCache and written into the CompiledAudioStore.
+	 * <p>
+	 * The default implementation returns false, so each region is compiled again. Protocol 
+	 * implementations may return true only if getConfigurationKey() covers all their settings.
+	 * 
+	 * @return
+	 * True if compiled sound samples may be reused.
+	 */
+	public default boolean isCacheable() {
+		
+		return false;
+		
+	} // isCacheable()
+	
+	
+	/**
+	 * Returns the version of the protocol implementation, a part of the configuration key.
+	 * <p>
+	 * The default implementation returns the implementation version from the manifest of the plugin jar.
+	 * If there isn't any, the modification time of the jar is returned, so an updated plugin doesn't 
+	 * reuse sound samples created by it's predecessor.
+	 * 
+	 * @return
+	 * The version or "unknown" if it can't be determined.
+	 */
+	public default String getVersion() {
+		
+		Package protocolPackage = getClass().getPackage();
+		String version = protocolPackage == null ? null : protocolPackage.getImplementationVersion();
+		
+		if(version != null) return version;
+		
+		try {
+			
+			CodeSource codeSource = getClass().getProtectionDomain().getCodeSource();
+			
+			if(codeSource != null && codeSource.getLocation() != null) {
+				
+				File location = new File(codeSource.getLocation().toURI());
+				
+				if(location.isFile()) return "jar@" + location.lastModified();
+				
+			} // fi
+			
+		} catch (URISyntaxException | IllegalArgumentException | SecurityException e) {
+			// no location, no version
+		}
+		
+		return "unknown";
+		
+	} // getVersion()
+	
+	
+	/**
+	 * Returns the silence to be inserted between two memory regions if they are uploaded in a single 
+	 * stream, i.e. the time the target system needs to finish one block and to be ready for the next.
+	 * <p>
+	 * The default implementation returns DEFAULT_INTER_BLOCK_SILENCE. Protocol implementations 
+	 * should override this method if their target system needs more or less time.
+	 * 
+	 * @return
+	 * The duration of silence in milliseconds, 0 for none.
+	 */
+	public default int getInterBlockSilence() { return DEFAULT_INTER_BLOCK_SILENCE; }
+	
+	
 	/**
 	 * Returns the audio format used for this protocol.
 	 * 
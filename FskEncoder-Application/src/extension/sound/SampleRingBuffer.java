@@ -0,0 +1,272 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : SampleRingBuffer.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.sound;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CancellationException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * 	Transfer of sound samples from exactly one producer (the compiling protocol) to
+ * 	exactly one consumer (the SoundPlayer) while both are running concurrently.
+ *
+ * <p>
+ * Collaborators:<br>
+ * 	Encoder and BackgroundTaskProtokol as producer,<br>
+ * 	SoundPlayer as consumer.
+ *
+ * <p>
+ * Description:<br>
+ * 	The ring buffer has a fixed capacity. A producer who writes into a full buffer is
+ * 	blocked until the consumer has taken enough samples. A consumer who reads from an
+ * 	empty buffer is blocked until new samples arrive or the producer signals the end of
+ * 	the stream by close().
+ * 	<p>
+ * 	So the memory needed to play back a region is bounded by the capacity of the ring,
+ * 	independent of the size of the region.
+ * 	<p>
+ * 	If the consumer gives up (e.g. the playback was stopped by the user) it calls abort().
+ * 	All pending and following writes are rejected with a CancellationException, which
+ * 	terminates the producer.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class SampleRingBuffer {
+
+	private Logger logger = LogManager.getLogger(SampleRingBuffer.class.getName());
+
+	protected final byte[] ring;
+
+	protected int readIndex;
+	protected int writeIndex;
+	protected int fillLevel;
+
+	protected boolean isClosed;
+	protected boolean isAborted;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param aCapacity
+	 * The maximum number of sound samples the ring can hold.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aCapacity is less or equal 0.
+	 */
+	public SampleRingBuffer(final int aCapacity) {
+
+		logger.trace("SampleRingBuffer(): aCapacity = {}", aCapacity);
+
+		if(aCapacity <= 0) throw new IllegalArgumentException("aCapacity must be greater than 0!");
+
+		ring = new byte[aCapacity];
+
+	} // SampleRingBuffer(...)
+
+
+	/**
+	 * Appends the remaining sound samples of aSamples to the ring.<br>
+	 * The call blocks as long as there is not enough space for all samples.
+	 *
+	 * @param aSamples
+	 * The sound samples to be written, from position to limit. The position is advanced to the limit.
+	 *
+	 * @throws InterruptedException
+	 * if the calling thread was interrupted while waiting.
+	 *
+	 * @throws CancellationException
+	 * if the stream was aborted by the consumer.
+	 *
+	 * @throws IllegalStateException
+	 * if the stream was already closed.
+	 */
+	public synchronized void write(final ByteBuffer aSamples) throws InterruptedException {
+		logger.trace("write(): aSamples = {}, fillLevel = {}", aSamples, fillLevel);
+
+		if(isAborted) throw new CancellationException("Stream aborted!");
+		if(isClosed)  throw new IllegalStateException("Stream already closed!");
+
+		while(aSamples.hasRemaining()) {
+
+			while(fillLevel == ring.length && ! isAborted) {
+				wait();
+			}
+
+			if(isAborted) throw new CancellationException("Stream aborted!");
+
+			int chunk = Math.min(aSamples.remaining(), Math.min(ring.length - fillLevel, ring.length - writeIndex));
+
+			aSamples.get(ring, writeIndex, chunk);
+
+			writeIndex = (writeIndex + chunk) % ring.length;
+			fillLevel += chunk;
+
+			notifyAll();
+
+		} // elihw
+
+	} // write()
+
+
+	/**
+	 * Takes up to aLength sound samples out of the ring.<br>
+	 * The call blocks until at least one sample is available or the end of the stream is reached.
+	 *
+	 * @param aTarget
+	 * The array to receive the sound samples.
+	 *
+	 * @param aOffset
+	 * The offset in aTarget of the first sample.
+	 *
+	 * @param aLength
+	 * The maximum number of samples to read.
+	 *
+	 * @return
+	 * The number of samples read, or -1 if the stream was closed and all samples were read
+	 * or the stream was aborted.
+	 *
+	 * @throws InterruptedException
+	 * if the calling thread was interrupted while waiting.
+	 */
+	public synchronized int read(final byte[] aTarget, final int aOffset, final int aLength) throws InterruptedException {
+		logger.trace("read(): aOffset = {}, aLength = {}, fillLevel = {}", aOffset, aLength, fillLevel);
+
+		while(fillLevel == 0 && ! isClosed && ! isAborted) {
+			wait();
+		}
+
+		if(isAborted || fillLevel == 0) return -1;
+
+		int count = 0;
+
+		while(count < aLength && fillLevel > 0) {
+
+			int chunk = Math.min(aLength - count, Math.min(fillLevel, ring.length - readIndex));
+
+			System.arraycopy(ring, readIndex, aTarget, aOffset + count, chunk);
+
+			readIndex = (readIndex + chunk) % ring.length;
+			fillLevel -= chunk;
+			count += chunk;
+
+		} // elihw
+
+		notifyAll();
+
+		return count;
+
+	} // read()
+
+
+	/**
+	 * Signals the end of the stream.<br>
+	 * Must be called by the producer after the last samples were written.
+	 * The consumer receives the remaining samples followed by the end of stream.
+	 */
+	public synchronized void close() {
+		logger.trace("close()");
+
+		isClosed = true;
+		notifyAll();
+
+	} // close()
+
+
+	/**
+	 * Aborts the stream.<br>
+	 * Usually called by the consumer if the play back was stopped. The pending samples are
+	 * discarded and the producer gets a CancellationException on it's next write.
+	 */
+	public synchronized void abort() {
+		logger.trace("abort()");
+
+		isAborted = true;
+		fillLevel = 0;
+		notifyAll();
+
+	} // abort()
+
+
+	/**
+	 * Returns the number of sound samples the ring can hold.
+	 *
+	 * @return
+	 * The capacity of the ring.
+	 */
+	public int getCapacity() { return ring.length; }
+
+
+	/**
+	 * Returns the number of sound samples which are currently waiting to be read.
+	 *
+	 * @return
+	 * The current fill level.
+	 */
+	public synchronized int available() { return fillLevel; }
+
+
+	/**
+	 * Query if the producer has signaled the end of the stream.
+	 *
+	 * @return
+	 * true if close() was called.
+	 */
+	public synchronized boolean isClosed() { return isClosed; }
+
+
+	/**
+	 * Query if the stream was aborted.
+	 *
+	 * @return
+	 * true if abort() was called.
+	 */
+	public synchronized boolean isAborted() { return isAborted; }
+
+
+    /**
+     * Returns a string summarizing the state of this object.
+     *
+     * @return  A summary string
+     */
+	@Override
+	public synchronized String toString() {
+		return "SampleRingBuffer [capacity=" + ring.length + ", fillLevel=" + fillLevel
+				+ ", isClosed=" + isClosed + ", isAborted=" + isAborted + "]";
+	}
+
+
+} // class
@@ -0,0 +1,450 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : SoundFileExporter.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.sound;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * 	Writes compiled sound samples to a WAV or RAW file.
+ *
+ * <p>
+ * Collaborators:<br>
+ * 	FskAudioFormat for the header,<br>
+ * 	SymbolStream,<br>
+ * 	FileChannel.
+ *
+ * <p>
+ * Description:<br>
+ * 	The RIFF/WAVE header is derived from the FskAudioFormat given in constructor call. Because WAVE 
+ * 	stores 8 bit samples unsigned, the signed samples are converted on the fly, 8 samples at a time.
+ * 	RAW files receive the samples as they are.
+ * 	<p>
+ * 	Outputs smaller than the mapping threshold are written by FileChannel.write(), RAW samples directly
+ * 	from the given buffer, WAVE samples through a small direct buffer. Larger outputs are written into a 
+ * 	MappedByteBuffer of the file, so the samples never pass through an intermediate heap array.
+ * 	<p>
+ * 	A SymbolStream is expanded chunk by chunk while writing, the full sample buffer is never created.
+ * 	<p>
+ * 	Existing files are overwritten.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class SoundFileExporter {
+
+	private Logger logger = LogManager.getLogger(SoundFileExporter.class.getName());
+
+	public static final int  HEADER_SIZE = 44;
+	public static final long DEFAULT_MAPPING_THRESHOLD = 16L * 1024 * 1024;
+	
+	/*
+	 * Largest number of samples in a WAVE file, the RIFF chunk size is an unsigned 32 bit value.
+	 */
+	public static final long MAX_WAVE_SAMPLES = 0xFFFFFFFFL - (HEADER_SIZE - 8);
+	
+	protected static final int  CHUNK_SIZE = 64 * 1024;
+	protected static final long SIGN_FLIP = 0x8080808080808080L;
+	
+	protected final FskAudioFormat audioFormat;
+	
+	protected SoundFileType fileType = SoundFileType.WAVE;
+	protected long mappingThreshold = DEFAULT_MAPPING_THRESHOLD;
+	
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param aAudioFormat
+	 * The format of the sound samples to be exported.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aAudioFormat is null.
+	 */
+	public SoundFileExporter(final FskAudioFormat aAudioFormat) {
+
+		logger.trace("SoundFileExporter(): aAudioFormat = {}", aAudioFormat);
+
+		if(aAudioFormat == null) throw new IllegalArgumentException("aAudioFormat can't be null!");
+
+		audioFormat = aAudioFormat;
+
+	} // SoundFileExporter(...)
+	
+	
+	/**
+	 * Sets the format of the exported files, default is WAVE.
+	 * 
+	 * @param aFileType
+	 * The file format.
+	 * 
+	 * @return
+	 * This instance.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aFileType is null.
+	 */
+	public SoundFileExporter withFileType(final SoundFileType aFileType) {
+
+		logger.trace("withFileType(): aFileType = {}", aFileType);
+
+		if(aFileType == null) throw new IllegalArgumentException("aFileType can't be null!");
+
+		fileType = aFileType;
+		
+		return this;
+
+	} // withFileType()
+	
+	
+	/**
+	 * Sets the file size from which on the file is written through a MappedByteBuffer.
+	 * <br>
+	 * Default is DEFAULT_MAPPING_THRESHOLD, 0 maps every file.
+	 * 
+	 * @param aMappingThreshold
+	 * The file size in bytes.
+	 * 
+	 * @return
+	 * This instance.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aMappingThreshold is less than 0.
+	 */
+	public SoundFileExporter withMappingThreshold(final long aMappingThreshold) {
+
+		logger.trace("withMappingThreshold(): aMappingThreshold = {}", aMappingThreshold);
+
+		if(aMappingThreshold < 0) throw new IllegalArgumentException("aMappingThreshold can't be less than 0!");
+
+		mappingThreshold = aMappingThreshold;
+		
+		return this;
+
+	} // withMappingThreshold()
+	
+	
+	/**
+	 * Writes the sound samples from position to limit of aSoundSamples to aFile.<br>
+	 * The position of aSoundSamples isn't changed.
+	 * 
+	 * @param aSoundSamples
+	 * The sound samples to export.
+	 * 
+	 * @param aFile
+	 * The file to be written.
+	 * 
+	 * @throws IOException
+	 * if the file can't be written.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if one of the parameters is null or there are too many samples for a WAVE file.
+	 */
+	public void export(final ByteBuffer aSoundSamples, final Path aFile) throws IOException {
+		
+		logger.trace("export(): aSoundSamples = {}, aFile = {}", aSoundSamples, aFile);
+		
+		if(aSoundSamples == null) throw new IllegalArgumentException("aSoundSamples can't be null!");
+		
+		ByteBuffer samples = aSoundSamples.duplicate();
+		
+		try(FileChannel channel = openChannel(aFile, samples.remaining())) {
+			
+			MappedByteBuffer target = mapFile(channel, samples.remaining());
+			
+			if(target != null) {
+				
+				putHeader(target, samples.remaining());
+				putSamples(target, samples);
+				
+			}
+			else {
+				
+				writeHeader(channel, samples.remaining());
+				
+				if(fileType == SoundFileType.RAW) {
+					
+					while(samples.hasRemaining()) {
+						channel.write(samples);
+					}
+					
+				}
+				else {
+					
+					ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_SIZE);
+					
+					while(samples.hasRemaining()) {
+						
+						ByteBuffer part = samples.duplicate();
+						part.limit(part.position() + Math.min(part.remaining(), CHUNK_SIZE));
+						
+						chunk.clear();
+						putSamples(chunk, part);
+						samples.position(part.position());
+						
+						chunk.flip();
+						
+						while(chunk.hasRemaining()) {
+							channel.write(chunk);
+						}
+						
+					} // elihw
+					
+				} // esle
+				
+			} // esle
+			
+		} // yrt
+		
+		logger.debug("export(): {} samples written to {}", aSoundSamples.remaining(), aFile);
+		
+	} // export(ByteBuffer, Path)
+	
+	
+	/**
+	 * Writes the sound samples of aSymbolStream to aFile.<br>
+	 * The samples are expanded chunk by chunk while writing.
+	 * 
+	 * @param aSymbolStream
+	 * The sound samples to export.
+	 * 
+	 * @param aFile
+	 * The file to be written.
+	 * 
+	 * @throws IOException
+	 * if the file can't be written.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if one of the parameters is null or there are too many samples for a WAVE file.
+	 */
+	public void export(final SymbolStream aSymbolStream, final Path aFile) throws IOException {
+		
+		logger.trace("export(): aSymbolStream = {}, aFile = {}", aSymbolStream, aFile);
+		
+		if(aSymbolStream == null) throw new IllegalArgumentException("aSymbolStream can't be null!");
+		
+		SymbolStream.Reader reader = aSymbolStream.newReader();
+		byte[] chunk = new byte[CHUNK_SIZE];
+		int count;
+		
+		try(FileChannel channel = openChannel(aFile, aSymbolStream.getSampleCount())) {
+			
+			MappedByteBuffer target = mapFile(channel, aSymbolStream.getSampleCount());
+			
+			if(target != null) {
+				putHeader(target, aSymbolStream.getSampleCount());
+			}
+			else {
+				writeHeader(channel, aSymbolStream.getSampleCount());
+			}
+			
+			while((count = reader.read(chunk, 0, chunk.length)) > 0) {
+				
+				ByteBuffer samples = ByteBuffer.wrap(chunk, 0, count);
+				
+				if(target != null) {
+					putSamples(target, samples);
+					continue;
+				}
+				
+				// converted in place
+				if(fileType == SoundFileType.WAVE) {
+					putSamples(ByteBuffer.wrap(chunk, 0, count), ByteBuffer.wrap(chunk, 0, count));
+				}
+				
+				while(samples.hasRemaining()) {
+					channel.write(samples);
+				}
+				
+			} // elihw
+			
+		} // yrt
+		
+		logger.debug("export(): {} samples written to {}", aSymbolStream.getSampleCount(), aFile);
+		
+	} // export(SymbolStream, Path)
+	
+	
+	/**
+	 * Returns the size of an exported file.
+	 * 
+	 * @param aSampleCount
+	 * The number of sound samples.
+	 * 
+	 * @return
+	 * The size of the file in bytes.
+	 */
+	public long getFileSize(final long aSampleCount) {
+		
+		return fileType == SoundFileType.WAVE ? aSampleCount + HEADER_SIZE : aSampleCount;
+		
+	} // getFileSize()
+
+
+    /**
+     * Returns a string summarizing the state of this object.
+     *
+     * @return  A summary string
+     */
+	@Override
+	public String toString() {
+		return "SoundFileExporter [fileType=" + fileType + ", mappingThreshold=" + mappingThreshold 
+				+ ", audioFormat=" + audioFormat + "]";
+	}
+	
+	
+	/**
+	 * Opens aFile for writing, an existing file is truncated.
+	 */
+	protected FileChannel openChannel(final Path aFile, final long aSampleCount) throws IOException {
+		
+		if(aFile == null) throw new IllegalArgumentException("aFile can't be null!");
+		
+		if(fileType == SoundFileType.WAVE && aSampleCount > MAX_WAVE_SAMPLES) {
+			throw new IllegalArgumentException("Too many sound samples for a WAVE file!");
+		}
+		
+		return FileChannel.open(aFile, 
+				StandardOpenOption.CREATE, 
+				StandardOpenOption.TRUNCATE_EXISTING, 
+				StandardOpenOption.READ, 
+				StandardOpenOption.WRITE);
+		
+	} // openChannel()
+	
+	
+	/**
+	 * Maps the whole file if it's size reaches the mapping threshold.
+	 * 
+	 * @return
+	 * The mapped file or null if the file has to be written by the channel.
+	 */
+	protected MappedByteBuffer mapFile(final FileChannel aChannel, final long aSampleCount) throws IOException {
+		
+		long fileSize = getFileSize(aSampleCount);
+		
+		if(fileSize < mappingThreshold || fileSize > Integer.MAX_VALUE || fileSize == 0) return null;
+		
+		logger.debug("mapFile(): fileSize = {}", fileSize);
+		
+		return aChannel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+		
+	} // mapFile()
+	
+	
+	/**
+	 * Writes the header by the channel, RAW files don't have a header.
+	 */
+	protected void writeHeader(final FileChannel aChannel, final long aSampleCount) throws IOException {
+		
+		if(fileType != SoundFileType.WAVE) return;
+		
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		
+		putHeader(header, aSampleCount);
+		header.flip();
+		
+		while(header.hasRemaining()) {
+			aChannel.write(header);
+		}
+		
+	} // writeHeader()
+	
+	
+	/**
+	 * Puts the canonical RIFF/WAVE header into aTarget, RAW files don't have a header.
+	 */
+	protected void putHeader(final ByteBuffer aTarget, final long aSampleCount) {
+		
+		if(fileType != SoundFileType.WAVE) return;
+		
+		final int frameSize = audioFormat.getFrameSize();
+		final int sampleRate = (int) audioFormat.getSampleRate();
+		
+		ByteOrder byteOrder = aTarget.order();
+		aTarget.order(ByteOrder.LITTLE_ENDIAN);
+		
+		aTarget.put("RIFF".getBytes(StandardCharsets.US_ASCII));
+		aTarget.putInt((int) (aSampleCount + HEADER_SIZE - 8));
+		aTarget.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+		
+		aTarget.put("fmt ".getBytes(StandardCharsets.US_ASCII));
+		aTarget.putInt(16);
+		aTarget.putShort((short) 1);											// PCM
+		aTarget.putShort((short) audioFormat.getChannels());
+		aTarget.putInt(sampleRate);
+		aTarget.putInt(sampleRate * frameSize);									// byte rate
+		aTarget.putShort((short) frameSize);									// block align
+		aTarget.putShort((short) audioFormat.getSampleSizeInBits());
+		
+		aTarget.put("data".getBytes(StandardCharsets.US_ASCII));
+		aTarget.putInt((int) aSampleCount);
+		
+		aTarget.order(byteOrder);
+		
+	} // putHeader()
+	
+	
+	/**
+	 * Copies the remaining samples of aSamples into aTarget and advances both positions.<br>
+	 * For WAVE files the signed samples are converted to unsigned ones.
+	 */
+	protected void putSamples(final ByteBuffer aTarget, final ByteBuffer aSamples) {
+		
+		if(fileType == SoundFileType.RAW) {
+			aTarget.put(aSamples);
+			return;
+		}
+		
+		// the sign of every byte is flipped, so the byte order doesn't matter
+		while(aSamples.remaining() >= Long.BYTES) {
+			aTarget.putLong(aSamples.getLong() ^ SIGN_FLIP);
+		}
+		
+		while(aSamples.hasRemaining()) {
+			aTarget.put((byte) (aSamples.get() ^ 0x80));
+		}
+		
+	} // putSamples()
+	
+	
+} // class
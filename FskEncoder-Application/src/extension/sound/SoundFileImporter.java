@@ -0,0 +1,328 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : SoundFileImporter.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.sound;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.sound.sampled.AudioFormat;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * 	Makes the sound samples of a file written by SoundFileExporter available for play back.
+ *
+ * <p>
+ * Collaborators:<br>
+ * 	SoundFileExporter,<br>
+ * 	SoundPlayer,<br>
+ * 	FileChannel.
+ *
+ * <p>
+ * Description:<br>
+ * 	The file is mapped read-only into memory, so it isn't loaded onto the heap. The sound samples
+ * 	are a view of the data chunk of the mapped file, the operating system pages them in while they 
+ * 	are played.
+ * 	<p>
+ * 	A WAVE file is recognized by it's RIFF header, the audio format is taken from the 'fmt ' chunk.
+ * 	8 bit WAVE samples are unsigned, so the audio format has to be passed to the SoundPlayer together 
+ * 	with the samples, see SoundPlayer.setSoundBuffer(ByteBuffer, AudioFormat).
+ * 	<p>
+ * 	A RAW file has no header, it's samples are played with the format given by withRawFormat(...).
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class SoundFileImporter {
+
+	private Logger logger = LogManager.getLogger(SoundFileImporter.class.getName());
+	
+	protected static final int RIFF_HEADER_SIZE = 12;
+	protected static final int CHUNK_HEADER_SIZE = 8;
+	
+	protected final Path file;
+	protected FskAudioFormat rawFormat;
+	
+	protected SoundFileType fileType;
+	protected AudioFormat audioFormat;
+	protected ByteBuffer soundSamples;
+	
+	
+	/**
+	 * Constructor.
+	 *
+	 * @param aFile
+	 * The file to be imported.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aFile is null.
+	 */
+	public SoundFileImporter(final Path aFile) {
+
+		logger.trace("SoundFileImporter(): aFile = {}", aFile);
+
+		if(aFile == null) throw new IllegalArgumentException("aFile can't be null!");
+
+		file = aFile;
+
+	} // SoundFileImporter(...)
+	
+	
+	/**
+	 * Sets the audio format of a file without header.<br>
+	 * If no format is set, only WAVE files can be imported.
+	 * 
+	 * @param aRawFormat
+	 * The format of the sound samples in a RAW file.
+	 * 
+	 * @return
+	 * This instance.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aRawFormat is null.
+	 */
+	public SoundFileImporter withRawFormat(final FskAudioFormat aRawFormat) {
+
+		logger.trace("withRawFormat(): aRawFormat = {}", aRawFormat);
+
+		if(aRawFormat == null) throw new IllegalArgumentException("aRawFormat can't be null!");
+
+		rawFormat = aRawFormat;
+		
+		return this;
+
+	} // withRawFormat()
+	
+	
+	/**
+	 * Maps the file into memory and locates the sound samples.
+	 * 
+	 * @return
+	 * This instance.
+	 * 
+	 * @throws IOException
+	 * if the file can't be read, is too large to be mapped or it's format is unknown.
+	 */
+	public SoundFileImporter load() throws IOException {
+		
+		logger.trace("load(): file = {}", file);
+		
+		MappedByteBuffer content;
+		
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			
+			if(channel.size() > Integer.MAX_VALUE) throw new IOException("File too large to be mapped: " + file);
+			
+			// the mapping stays valid after the channel is closed
+			content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			
+		}
+		
+		if(isWave(content)) {
+			
+			loadWave(content);
+			
+		}
+		else if(rawFormat != null) {
+			
+			fileType = SoundFileType.RAW;
+			audioFormat = rawFormat;
+			soundSamples = content;
+			
+		}
+		else {
+			throw new IOException("Unknown file format: " + file);
+		}
+		
+		logger.debug("load(): fileType = {}, audioFormat = {}, soundSamples = {}", fileType, audioFormat, soundSamples);
+		
+		return this;
+		
+	} // load()
+	
+	
+	/**
+	 * Returns a read-only view of the sound samples of the mapped file.
+	 * 
+	 * @return
+	 * The sound samples from position 0 to the limit.
+	 * 
+	 * @throws IllegalAccessError
+	 * if load() wasn't called successfully.
+	 */
+	public ByteBuffer getSoundSamples() {
+		
+		if(soundSamples == null) throw new IllegalAccessError("Nothing has been loaded so far.");
+		
+		return soundSamples.duplicate();
+		
+	} // getSoundSamples()
+	
+	
+	/**
+	 * Returns the audio format of the sound samples.
+	 * 
+	 * @return
+	 * The format read from the WAVE header or the RAW format, null if nothing has been loaded so far.
+	 */
+	public AudioFormat getAudioFormat() { return audioFormat; }
+	
+	
+	/**
+	 * Returns the format of the file.
+	 * 
+	 * @return
+	 * The file format, null if nothing has been loaded so far.
+	 */
+	public SoundFileType getFileType() { return fileType; }
+
+
+    /**
+     * Returns a string summarizing the state of this object.
+     *
+     * @return  A summary string
+     */
+	@Override
+	public String toString() {
+		return "SoundFileImporter [file=" + file + ", fileType=" + fileType + ", audioFormat=" + audioFormat + "]";
+	}
+	
+	
+	/**
+	 * Query if the content starts with a RIFF/WAVE header.
+	 */
+	protected boolean isWave(final ByteBuffer aContent) {
+		
+		return aContent.limit() >= RIFF_HEADER_SIZE
+			&& "RIFF".equals(getChunkId(aContent, 0))
+			&& "WAVE".equals(getChunkId(aContent, 8));
+		
+	} // isWave()
+	
+	
+	/**
+	 * Walks through the chunks of the WAVE file, reads the format and locates the samples.
+	 */
+	protected void loadWave(final MappedByteBuffer aContent) throws IOException {
+		
+		ByteBuffer content = aContent.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		content.position(RIFF_HEADER_SIZE);
+		
+		AudioFormat format = null;
+		ByteBuffer samples = null;
+		
+		while(content.remaining() >= CHUNK_HEADER_SIZE && (format == null || samples == null)) {
+			
+			String chunkId = getChunkId(content, content.position());
+			content.position(content.position() + 4);
+			
+			long chunkSize = Integer.toUnsignedLong(content.getInt());
+			int chunkStart = content.position();
+			int chunkLength = (int) Math.min(chunkSize, content.remaining());
+			
+			if("fmt ".equals(chunkId)) {
+				format = readFormat(content);
+			}
+			else if("data".equals(chunkId)) {
+				
+				ByteBuffer data = aContent.duplicate();
+				data.position(chunkStart).limit(chunkStart + chunkLength);
+				samples = data.slice();
+				
+			}
+			
+			// chunks are word aligned
+			content.position((int) Math.min(content.limit(), chunkStart + chunkLength + (chunkSize & 1)));
+			
+		} // elihw
+		
+		if(format == null || samples == null) throw new IOException("Incomplete WAVE file: " + file);
+		
+		fileType = SoundFileType.WAVE;
+		audioFormat = format;
+		soundSamples = samples;
+		
+	} // loadWave()
+	
+	
+	/**
+	 * Reads the content of the 'fmt ' chunk, aContent is positioned at it's start.
+	 */
+	protected AudioFormat readFormat(final ByteBuffer aContent) throws IOException {
+		
+		int formatTag = aContent.getShort();
+		int channels = aContent.getShort();
+		int sampleRate = aContent.getInt();
+		aContent.getInt();														// byte rate
+		int frameSize = aContent.getShort();
+		int sampleSizeInBits = aContent.getShort();
+		
+		if(formatTag != 1) throw new IOException("Unsupported WAVE encoding " + formatTag + ": " + file);
+		
+		// 8 bit WAVE samples are unsigned, all others signed little endian
+		return new AudioFormat(
+			sampleSizeInBits == 8 ? AudioFormat.Encoding.PCM_UNSIGNED : AudioFormat.Encoding.PCM_SIGNED,
+			sampleRate,
+			sampleSizeInBits,
+			channels,
+			frameSize,
+			sampleRate,
+			false);
+		
+	} // readFormat()
+	
+	
+	/**
+	 * Returns the four character chunk id at aIndex.
+	 */
+	protected String getChunkId(final ByteBuffer aContent, final int aIndex) {
+		
+		byte[] id = new byte[4];
+		
+		for(int n = 0; n < id.length; n++) {
+			id[n] = aContent.get(aIndex + n);
+		}
+		
+		return new String(id, StandardCharsets.US_ASCII);
+		
+	} // getChunkId()
+	
+	
+} // class
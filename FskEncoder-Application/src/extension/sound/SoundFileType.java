@@ -0,0 +1,57 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : SoundFileType.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.sound;
+
+/**
+ * Responsibilities:<br>
+ * Enumerates the file formats of exported sound samples.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * None.
+ * 
+ * <p>
+ * Description:<br>
+ * WAVE defines a RIFF/WAVE file with a canonical 44 byte header, 8 bit samples are stored unsigned
+ * as required by the format, while<br>
+ * RAW indicates the plain signed samples without any header, exactly as they are held in memory.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public enum SoundFileType {
+
+	WAVE,
+	RAW,
+	;
+	
+}
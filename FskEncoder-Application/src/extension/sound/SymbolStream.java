@@ -0,0 +1,348 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : SymbolStream.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.sound;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Responsibilities:<br>
+ * 	Compact representation of compiled sound samples.
+ *
+ * <p>
+ * Collaborators:<br>
+ * 	Encoder and BackgroundTaskProtokol as producer,<br>
+ * 	SoundPlayer as consumer.
+ *
+ * <p>
+ * Description:<br>
+ * 	The sound samples of an encoded data block are made of a few templates only, e.g. one wave 
+ * 	cycle for each bit value, the start and stop bits and some milliseconds of silence. So instead
+ * 	of the samples themselves, the stream holds a table of these templates and a sequence of 
+ * 	entries (template id, repeat count). Subsequent appends of the same template are merged into
+ * 	a single entry (run-length encoding).
+ * 	<p>
+ * 	Templates are identified by their content, so it doesn't matter whether the same template is 
+ * 	appended by the same or another buffer instance. Samples which are not made of templates are 
+ * 	appended as a template of their own which is used once.
+ * 	<p>
+ * 	The sound samples are expanded lazily by a Reader chunk by chunk, or at once by toByteBuffer().
+ * 	<p>
+ * 	NOTE:<br>
+ * 	A stream is filled by one thread. After it's completion it can be read by any number of 
+ * 	Readers concurrently.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class SymbolStream {
+
+	private Logger logger = LogManager.getLogger(SymbolStream.class.getName());
+
+	protected static final int INITIAL_CAPACITY = 64;
+
+	protected final List<byte[]> templates = new ArrayList<>();
+	protected final Map<ByteBuffer, Integer> templateIds = new HashMap<>();
+
+	protected int[] templateIdEntries = new int[INITIAL_CAPACITY];
+	protected int[] repeatCountEntries = new int[INITIAL_CAPACITY];
+	protected int entryCount;
+
+	protected long sampleCount;
+
+
+	/**
+	 * Reads the sound samples of a SymbolStream from the beginning to the end.
+	 */
+	public class Reader {
+
+		private int entry;
+		private int repeat;
+		private int offset;
+
+		private long nbrOfSamplesRead;
+
+
+		/**
+		 * Expands up to aLength sound samples into aTarget.
+		 *
+		 * @param aTarget
+		 * The array to receive the sound samples.
+		 *
+		 * @param aOffset
+		 * The offset in aTarget of the first sample.
+		 *
+		 * @param aLength
+		 * The maximum number of samples to read.
+		 *
+		 * @return
+		 * The number of samples read, or -1 if all samples were read.
+		 */
+		public int read(final byte[] aTarget, final int aOffset, final int aLength) {
+
+			if(entry >= entryCount) return -1;
+
+			int count = 0;
+
+			while(count < aLength && entry < entryCount) {
+
+				byte[] template = templates.get(templateIdEntries[entry]);
+				int chunk = Math.min(aLength - count, template.length - offset);
+
+				System.arraycopy(template, offset, aTarget, aOffset + count, chunk);
+
+				count += chunk;
+				offset += chunk;
+
+				if(offset == template.length) {
+
+					offset = 0;
+
+					if(++repeat == repeatCountEntries[entry]) {
+						repeat = 0;
+						entry++;
+					}
+
+				} // fi
+
+			} // elihw
+
+			nbrOfSamplesRead += count;
+
+			return count;
+
+		} // read()
+
+
+		/**
+		 * Returns the number of sound samples read so far.
+		 *
+		 * @return
+		 * The number of samples.
+		 */
+		public long getNbrOfSamplesRead() { return nbrOfSamplesRead; }
+
+	} // Reader
+
+
+	/**
+	 * Appends aCount repetitions of a template.
+	 *
+	 * @param aTemplate
+	 * The sound samples of the template, from position to limit. The buffer isn't changed.
+	 *
+	 * @param aCount
+	 * The number of repetitions. Nothing is appended if it's 0.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aCount is less than 0.
+	 */
+	public void append(final ByteBuffer aTemplate, final int aCount) {
+		logger.trace("append(): aTemplate = {}, aCount = {}", aTemplate, aCount);
+
+		if(aCount < 0) throw new IllegalArgumentException("aCount can't be less than 0!");
+		if(aCount == 0 || ! aTemplate.hasRemaining()) return;
+
+		int templateId = getTemplateId(aTemplate);
+
+		if(entryCount > 0 && templateIdEntries[entryCount - 1] == templateId) {
+			repeatCountEntries[entryCount - 1] += aCount;
+		}
+		else {
+
+			if(entryCount == templateIdEntries.length) {
+				templateIdEntries = Arrays.copyOf(templateIdEntries, entryCount * 2);
+				repeatCountEntries = Arrays.copyOf(repeatCountEntries, entryCount * 2);
+			}
+
+			templateIdEntries[entryCount] = templateId;
+			repeatCountEntries[entryCount] = aCount;
+			entryCount++;
+
+		} // esle
+
+		sampleCount += (long) aTemplate.remaining() * aCount;
+
+	} // append()
+
+
+	/**
+	 * Appends all sound samples of another stream.<br>
+	 * The templates of aSymbolStream are taken over, so the samples aren't expanded.
+	 *
+	 * @param aSymbolStream
+	 * The stream to be appended. It isn't changed.
+	 *
+	 * @throws IllegalArgumentException
+	 * if aSymbolStream is null or this stream itself.
+	 */
+	public void append(final SymbolStream aSymbolStream) {
+		logger.trace("append(): aSymbolStream = {}", aSymbolStream);
+
+		if(aSymbolStream == null) throw new IllegalArgumentException("aSymbolStream can't be null!");
+		if(aSymbolStream == this) throw new IllegalArgumentException("A stream can't be appended to itself!");
+
+		for(int n = 0; n < aSymbolStream.entryCount; n++) {
+			
+			append(
+				ByteBuffer.wrap(aSymbolStream.templates.get(aSymbolStream.templateIdEntries[n])), 
+				aSymbolStream.repeatCountEntries[n]
+			);
+			
+		} // rof
+
+	} // append(SymbolStream)
+
+
+	/**
+	 * Returns a new Reader positioned at the first sound sample.
+	 *
+	 * @return
+	 * A new Reader.
+	 */
+	public Reader newReader() { return new Reader(); }
+
+
+	/**
+	 * Expands all sound samples into a new buffer.
+	 *
+	 * @return
+	 * A ByteBuffer holding the sound samples with position set to 0.
+	 *
+	 * @throws IllegalStateException
+	 * if the sound samples don't fit into a single buffer.
+	 */
+	public ByteBuffer toByteBuffer() {
+
+		if(sampleCount > Integer.MAX_VALUE) throw new IllegalStateException("Too many sound samples for a single buffer!");
+
+		byte[] samples = new byte[(int) sampleCount];
+		newReader().read(samples, 0, samples.length);
+
+		return ByteBuffer.wrap(samples);
+
+	} // toByteBuffer()
+
+
+	/**
+	 * Returns the number of sound samples the stream expands to.
+	 *
+	 * @return
+	 * The number of samples.
+	 */
+	public long getSampleCount() { return sampleCount; }
+
+
+	/**
+	 * Returns the number of entries (template id, repeat count).
+	 *
+	 * @return
+	 * The number of entries.
+	 */
+	public int getEntryCount() { return entryCount; }
+
+
+	/**
+	 * Returns the number of different templates.
+	 *
+	 * @return
+	 * The size of the template table.
+	 */
+	public int getTemplateCount() { return templates.size(); }
+
+
+	/**
+	 * Returns the approximate memory used by the stream, i.e. the size of all templates
+	 * plus the size of the entries.
+	 *
+	 * @return
+	 * The size in bytes.
+	 */
+	public long getByteSize() {
+
+		long size = (long) entryCount * 2 * Integer.BYTES;
+
+		for(byte[] template : templates) {
+			size += template.length;
+		}
+
+		return size;
+
+	} // getByteSize()
+
+
+    /**
+     * Returns a string summarizing the state of this object.
+     *
+     * @return  A summary string
+     */
+	@Override
+	public String toString() {
+		return "SymbolStream [sampleCount=" + sampleCount + ", entryCount=" + entryCount
+				+ ", templateCount=" + templates.size() + "]";
+	}
+
+
+	/**
+	 * Returns the id of the template with the content of aTemplate, the template is added
+	 * to the table if it's new.
+	 */
+	protected int getTemplateId(final ByteBuffer aTemplate) {
+
+		Integer templateId = templateIds.get(aTemplate);
+
+		if(templateId == null) {
+
+			byte[] template = new byte[aTemplate.remaining()];
+			aTemplate.duplicate().get(template);
+
+			templateId = templates.size();
+			templates.add(template);
+			templateIds.put(ByteBuffer.wrap(template), templateId);
+
+			logger.debug("getTemplateId(): new template {}, size = {}", templateId, template.length);
+
+		} // fi
+
+		return templateId;
+
+	} // getTemplateId()
+
+
+} // class
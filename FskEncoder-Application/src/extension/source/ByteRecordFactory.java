@@ -0,0 +1,83 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : ByteRecordFactory.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.source;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Responsibilities:<br>
+ * Creates a data record from the raw bytes of a line of the source file.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Lexer, <br>
+ * HexDecoder.
+ * 
+ * <p>
+ * Description:<br>
+ * Used by the byte mode of the Lexer. The line isn't decoded to a String, instead the record gets 
+ * the buffer the Lexer reads into and the position of the line within it. ASCII formats like Intel-HEX 
+ * or S-records can be parsed directly from the buffer by the HexDecoder.
+ * <p>
+ * NOTE:<br>
+ * The buffer is reused for the following lines. The record must neither modify it nor keep a reference, 
+ * all data needed later on must be copied within create().
+ * 
+ * <p>
+ * @author Stefan
+ *
+ * @param <T>
+ * The type of the created records.
+ */
+
+@FunctionalInterface
+public interface ByteRecordFactory<T> {
+
+	/**
+	 * Creates a new record.
+	 * 
+	 * @param aRecordNumber
+	 * The unique number of the record, usually the line number.
+	 * 
+	 * @param aBuffer
+	 * The buffer holding the line. It's position and limit are undefined, use absolute access only.
+	 * 
+	 * @param aOffset
+	 * The index of the first byte of the line.
+	 * 
+	 * @param aLength
+	 * The number of bytes of the line, without the line terminator.
+	 * 
+	 * @return
+	 * The created record.
+	 */
+	public T create(int aRecordNumber, ByteBuffer aBuffer, int aOffset, int aLength);
+	
+} // ssalc
@@ -0,0 +1,198 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : HexDecoder.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.source;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Responsibilities:<br>
+ * Decodes hexadecimal ASCII digits from a ByteBuffer.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * ByteRecordFactory.
+ * 
+ * <p>
+ * Description:<br>
+ * The digits are converted by a lookup table, upper and lower case digits are accepted. All methods 
+ * use absolute access, the position of the buffer isn't changed. So the class can be used directly on 
+ * the line slices given to a ByteRecordFactory.
+ * <p>
+ * The class has no state, all methods are static.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public final class HexDecoder {
+
+	private static final byte[] DIGITS = new byte[256];
+	
+	static {
+		
+		Arrays.fill(DIGITS, (byte) -1);
+		
+		for(int i = 0; i < 10; i++) DIGITS['0' + i] = (byte) i;
+		
+		for(int i = 0; i < 6; i++) {
+			DIGITS['A' + i] = (byte) (10 + i);
+			DIGITS['a' + i] = (byte) (10 + i);
+		}
+		
+	} // static
+	
+	
+	private HexDecoder() { }
+	
+	
+	/**
+	 * Decodes a single hex digit.
+	 * 
+	 * @param aDigit
+	 * The ASCII character of the digit.
+	 * 
+	 * @return
+	 * The value of the digit, 0 .. 15.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aDigit isn't a hex digit.
+	 */
+	public static int digit(final byte aDigit) {
+		
+		int value = DIGITS[aDigit & 0xFF];
+		
+		if(value < 0) throw new IllegalArgumentException("Invalid hex digit: '" + (char) (aDigit & 0xFF) + "'!");
+		
+		return value;
+		
+	} // digit()
+	
+	
+	/**
+	 * Decodes a byte given by two hex digits.
+	 * 
+	 * @param aBuffer
+	 * The buffer holding the digits.
+	 * 
+	 * @param aOffset
+	 * The index of the high order digit.
+	 * 
+	 * @return
+	 * The unsigned value of the byte, 0 .. 255.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if one of the characters isn't a hex digit.
+	 * 
+	 * @throws IndexOutOfBoundsException
+	 * if the digits exceed the limit of aBuffer.
+	 */
+	public static int decodeByte(final ByteBuffer aBuffer, final int aOffset) {
+		
+		return (digit(aBuffer.get(aOffset)) << 4) | digit(aBuffer.get(aOffset + 1));
+		
+	} // decodeByte()
+	
+	
+	/**
+	 * Decodes a value given by up to 8 hex digits, high order digit first, e.g. an address.
+	 * 
+	 * @param aBuffer
+	 * The buffer holding the digits.
+	 * 
+	 * @param aOffset
+	 * The index of the first digit.
+	 * 
+	 * @param aDigitCount
+	 * The number of digits, 1 .. 8.
+	 * 
+	 * @return
+	 * The value, 8 digits are returned as unsigned int in a long.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aDigitCount is out of range or one of the characters isn't a hex digit.
+	 */
+	public static long decodeValue(final ByteBuffer aBuffer, final int aOffset, final int aDigitCount) {
+		
+		if(aDigitCount < 1 || aDigitCount > 8) throw new IllegalArgumentException("aDigitCount must be in range 1 .. 8!");
+		
+		long value = 0;
+		
+		for(int i = 0; i < aDigitCount; i++) value = (value << 4) | digit(aBuffer.get(aOffset + i));
+		
+		return value;
+		
+	} // decodeValue()
+	
+	
+	/**
+	 * Decodes a sequence of bytes, each given by two hex digits.
+	 * 
+	 * @param aBuffer
+	 * The buffer holding the digits.
+	 * 
+	 * @param aOffset
+	 * The index of the first digit.
+	 * 
+	 * @param aTarget
+	 * The array which receives the bytes.
+	 * 
+	 * @param aTargetOffset
+	 * The index of the first byte in aTarget.
+	 * 
+	 * @param aCount
+	 * The number of bytes to decode, 2 * aCount digits are read.
+	 * 
+	 * @return
+	 * The sum of the decoded byte values, e.g. for a checksum calculation.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if one of the characters isn't a hex digit.
+	 */
+	public static int decodeBytes(final ByteBuffer aBuffer, final int aOffset, final byte[] aTarget, final int aTargetOffset, final int aCount) {
+		
+		int sum = 0;
+		
+		for(int i = 0; i < aCount; i++) {
+			
+			int value = decodeByte(aBuffer, aOffset + 2 * i);
+			
+			aTarget[aTargetOffset + i] = (byte) value;
+			sum += value;
+			
+		} // rof
+		
+		return sum;
+		
+	} // decodeBytes()
+	
+	
+} // ssalc
@@ -31,12 +31,29 @@
 package extension.source;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -60,7 +77,29 @@ import org.apache.logging.log4j.Logger;
  * The Constructor object given in the constructor call must be the default constructor of that class which is 
  * given in the type argument for the Lexer class.
  * <p>
+ * The Constructor is bound once to a RecordFactory by the LambdaMetafactory, so getRecord() creates the 
+ * records by a plain interface call. It must take the record number and the line, e.g. (int, String) or 
+ * (Integer, String). If it can't be bound, the records are created by reflection like before.<br>
+ * The factories are cached per Constructor.
+ * <p>
  * Detailed information for the usage can be obtained e.g. from class source.ihx8.IhxLexer.
+ * <p>
+ * Alternatively the Lexer can be created with a ByteRecordFactory. In this byte mode the source file is read 
+ * by a FileChannel into a reusable ByteBuffer and the lines are scanned for their terminators directly in the 
+ * buffer. Neither a charset decoding nor a String per line is needed, the record gets the position of the 
+ * line within the buffer and may decode it e.g. by the HexDecoder. The bytes are taken as ASCII, so blank 
+ * lines and line terminators are handled the same way in both modes.
+ * <p>
+ * Large files can be parsed in parallel, see setParallelParsing(). The file is read completely on the 
+ * first getRecord() and split into it's lines. The lines are divided into chunks whose records are created 
+ * concurrently on the common ForkJoinPool. getRecord() hands them out in the order of the record numbers, 
+ * so the record numbers and recordIndex are the same as in sequential parsing. An exception of a record 
+ * creation is thrown by the getRecord() call which would have created that record.<br>
+ * The creation of the records, i.e. their constructor or ByteRecordFactory, must be thread safe.
+ * <p>
+ * The bytes read from the source file are counted, see getBytesRead(). If a LoadMonitor is attached 
+ * to the thread calling setFile(), each getRecord() reports the progress to it and is terminated by 
+ * a CancellationException if the load has been cancelled.
  * 
  * <p>
  * @author Stefan
@@ -69,17 +108,146 @@ import org.apache.logging.log4j.Logger;
 
 public abstract class Lexer<T> {
 
-	private Logger logger = LogManager.getLogger(Lexer.class.getName());
+	private static Logger logger = LogManager.getLogger(Lexer.class.getName());
+	
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+	public static final long DEFAULT_PARALLEL_THRESHOLD = 256 * 1024;
+	public static final int PARALLEL_CHUNK_SIZE = 512;
+	
+	private static final Map<Constructor<?>, Optional<RecordFactory<?>>> RECORD_FACTORIES = new ConcurrentHashMap<>();
 	
 	/**
 	 * Type T must be hold for usage in getRecord.
 	 */
 	protected T t;
 	protected Constructor<?> constructor;
+	protected RecordFactory<T> recordFactory;
 		
 	protected BufferedReader reader;
 	protected int recordIndex;
 	
+	protected CountingInputStream inputStream;
+	protected long fileSize;
+	protected LoadMonitor loadMonitor;
+	
+	protected ByteRecordFactory<T> byteRecordFactory;
+	protected FileChannel channel;
+	protected ByteBuffer buffer;
+	protected long bytesRead;
+	protected boolean isEndOfFile;
+	
+	protected boolean isParallelParsing;
+	protected long parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+	
+	/*
+	 * Lines collected for parallel parsing, either lines (String mode) or lineStarts and lineEnds (byte mode).
+	 */
+	protected int lineCount;
+	protected int[] recordNumbers;
+	protected List<String> lines;
+	protected int[] lineStarts;
+	protected int[] lineEnds;
+	protected int lastRecordIndex;
+	
+	/*
+	 * Records created in parallel, either the record or a Failure, and the index of the next one to return.
+	 */
+	protected Object[] parsedRecords;
+	protected int parsedIndex;
+	
+	
+	/**
+	 * Keeps the exception of a failed record creation until the record is requested.
+	 */
+	protected static final class Failure {
+		
+		final Exception exception;
+		
+		Failure(final Exception aException) { exception = aException; }
+		
+	} // Failure
+	
+	
+	/**
+	 * Creates the records of the lines from fromIndex to toIndex, large ranges are split into two halves.
+	 */
+	protected class ParseTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final int fromIndex;
+		private final int toIndex;
+		
+		ParseTask(final int aFromIndex, final int aToIndex) {
+			fromIndex = aFromIndex;
+			toIndex = aToIndex;
+		}
+		
+		@Override
+		protected void compute() {
+			
+			if(toIndex - fromIndex > PARALLEL_CHUNK_SIZE) {
+				
+				int middle = (fromIndex + toIndex) >>> 1;
+				
+				invokeAll(new ParseTask(fromIndex, middle), new ParseTask(middle, toIndex));
+				
+				return;
+				
+			}
+			
+			if((loadMonitor != null) && loadMonitor.isCancelled()) return;
+			
+			for(int i = fromIndex; i < toIndex; i++) parsedRecords[i] = createRecordAt(i);
+			
+		} // compute()
+		
+	} // ParseTask
+	
+	
+	/**
+	 * Counts the bytes read from the underlying stream.
+	 */
+	protected static class CountingInputStream extends FilterInputStream {
+		
+		protected long bytesRead;
+		
+		CountingInputStream(final InputStream aInputStream) { super(aInputStream); }
+		
+		@Override
+		public int read() throws IOException {
+			
+			int value = super.read();
+			if(value >= 0) bytesRead++;
+			
+			return value;
+			
+		} // read()
+		
+		@Override
+		public int read(final byte[] aBuffer, final int aOffset, final int aLength) throws IOException {
+			
+			int count = super.read(aBuffer, aOffset, aLength);
+			if(count > 0) bytesRead += count;
+			
+			return count;
+			
+		} // read(...)
+		
+		@Override
+		public long skip(final long aCount) throws IOException {
+			
+			long count = super.skip(aCount);
+			bytesRead += count;
+			
+			return count;
+			
+		} // skip()
+		
+		long getBytesRead() { return bytesRead; }
+		
+	} // CountingInputStream
+	
 	
 	/**
 	 * Default constructor.
@@ -99,10 +267,83 @@ public abstract class Lexer<T> {
 		if(aConstructor == null) throw new IllegalArgumentException("aConstructor cant be null!");
 		
 		constructor = aConstructor;
+		recordFactory = getRecordFactory(aConstructor);
+		
+	} // Lexer()
+	
+	
+	/**
+	 * Constructor for the byte mode.
+	 * 
+	 * @param aByteRecordFactory
+	 * Creates the records from the lines, usually the constructor reference of the record class.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aByteRecordFactory is null.
+	 */
+	public Lexer(final ByteRecordFactory<T> aByteRecordFactory) { 
+		
+		logger.trace("Lexer(): aByteRecordFactory = {}", aByteRecordFactory);
+
+		if(aByteRecordFactory == null) throw new IllegalArgumentException("aByteRecordFactory can't be null!");
+		
+		byteRecordFactory = aByteRecordFactory;
 		
 	} // Lexer()
 	
 	
+	/**
+	 * Returns the RecordFactory bound to aConstructor, the factory is created on first request.
+	 * 
+	 * @param aConstructor
+	 * the constructor of the record class.
+	 * 
+	 * @return
+	 * The factory, or null if aConstructor can't be bound and reflection must be used.
+	 */
+	@SuppressWarnings("unchecked")
+	protected static <T> RecordFactory<T> getRecordFactory(final Constructor<?> aConstructor) {
+		
+		return (RecordFactory<T>) RECORD_FACTORIES.computeIfAbsent(aConstructor, Lexer::createRecordFactory).orElse(null);
+		
+	} // getRecordFactory()
+	
+	
+	/**
+	 * Binds aConstructor to a RecordFactory by the LambdaMetafactory.
+	 */
+	private static Optional<RecordFactory<?>> createRecordFactory(final Constructor<?> aConstructor) {
+		
+		try {
+			
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle target = lookup.unreflectConstructor(aConstructor);
+			
+			RecordFactory<?> factory = (RecordFactory<?>) LambdaMetafactory.metafactory(
+					lookup, 
+					"create", 
+					MethodType.methodType(RecordFactory.class), 
+					MethodType.methodType(Object.class, int.class, String.class), 
+					target, 
+					MethodType.methodType(aConstructor.getDeclaringClass(), int.class, String.class)
+				).getTarget().invoke();
+			
+			logger.debug("createRecordFactory(): bound {}", aConstructor);
+			
+			return Optional.of(factory);
+			
+		}
+		catch(Throwable e) {
+			
+			logger.debug("createRecordFactory(): {} can't be bound, use reflection: {}", aConstructor, e.toString());
+			
+			return Optional.empty();
+			
+		}
+		
+	} // createRecordFactory()
+	
+	
 	/**
 	 * Set the name of the source file to be processed.
 	 * 
@@ -118,11 +359,34 @@ public abstract class Lexer<T> {
 		if(aFileName == null) throw new IllegalArgumentException("aFile cant be null!");
 		if(aFileName.isBlank()) throw new IllegalArgumentException("aFile cant be blank nor empty!");
 		
-		FileInputStream inputStream = new FileInputStream(aFileName);
-		reader = new BufferedReader(new InputStreamReader(inputStream));
+		parsedRecords = null;
+		lines = null;
+		
+		if(byteRecordFactory != null) {
+			
+			channel = new FileInputStream(aFileName).getChannel();
+			
+			if(buffer == null) buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+			
+			buffer.clear();
+			buffer.flip();
+			
+			bytesRead = 0;
+			isEndOfFile = false;
+			
+		}
+		else {
+			
+			inputStream = new CountingInputStream(new FileInputStream(aFileName));
+			reader = new BufferedReader(new InputStreamReader(inputStream));
+			
+		}
 		
 		recordIndex = 01;
 		
+		fileSize = new File(aFileName).length();
+		loadMonitor = LoadMonitor.current();
+		
 	} // setFile()
 	
 	
@@ -143,11 +407,17 @@ public abstract class Lexer<T> {
 	 * @throws IllegalAccessException
 	 * @throws IllegalArgumentException
 	 * If the created object is unable to parse the given line correctly.
+	 * 
+	 * @throws java.util.concurrent.CancellationException
+	 * if the load has been cancelled by the attached LoadMonitor.
 	 */
-	@SuppressWarnings("unchecked")
 	public T getRecord() throws IOException, InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
 		logger.trace("getrecord()");
 		
+		if(isParallelParsing && (fileSize >= parallelThreshold)) return getParsedRecord();
+		
+		if(byteRecordFactory != null) return getByteRecord();
+		
 		String line = null;
 		
 		do {
@@ -157,9 +427,11 @@ public abstract class Lexer<T> {
 			
 		} while((line != null) && (line.isBlank()));
 		
+		if(loadMonitor != null) loadMonitor.update(inputStream.getBytesRead(), fileSize);
+		
 		if(line != null) {
 			
-			t = (T) constructor.newInstance(new Object[] { recordIndex, line });
+			t = createRecord(recordIndex, line);
 			
 			return t;
 			
@@ -168,6 +440,457 @@ public abstract class Lexer<T> {
 		return null;
 		
 	} // getrecord()
+	
+	
+	/**
+	 * Creates a record from a line by the RecordFactory or, if the Constructor can't be bound, by reflection.
+	 * 
+	 * @throws InvocationTargetException
+	 * if the constructor of the record throws an exception.
+	 * 
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @throws IllegalArgumentException
+	 * if the reflective call fails.
+	 */
+	@SuppressWarnings("unchecked")
+	protected T createRecord(final int aRecordNumber, final String aLine) throws InstantiationException, IllegalAccessException, InvocationTargetException {
+		
+		if(recordFactory == null) return (T) constructor.newInstance(new Object[] { aRecordNumber, aLine });
+		
+		try {
+			
+			return recordFactory.create(aRecordNumber, aLine);
+			
+		}
+		catch(Exception e) {
+			
+			// same as Constructor.newInstance() does
+			throw new InvocationTargetException(e);
+			
+		}
+		
+	} // createRecord()
+	
+	
+	/**
+	 * Creates a record from a line of the buffer by the ByteRecordFactory.
+	 * 
+	 * @throws InvocationTargetException
+	 * if the ByteRecordFactory throws an exception.
+	 */
+	protected T createByteRecord(final int aRecordNumber, final int aStart, final int aEnd) throws InvocationTargetException {
+		
+		try {
+			
+			return byteRecordFactory.create(aRecordNumber, buffer, aStart, aEnd - aStart);
+			
+		}
+		catch(Exception e) {
+			
+			throw new InvocationTargetException(e);
+			
+		}
+		
+	} // createByteRecord()
+	
+	
+	/**
+	 * Scans the next line in the byte mode and creates the record by the ByteRecordFactory.
+	 * 
+	 * @return
+	 * the record currently created, null at the end of the file.
+	 * 
+	 * @throws IOException
+	 * if the source file can't be accessed.
+	 * 
+	 * @throws InvocationTargetException
+	 * if the record can't be created.
+	 */
+	protected T getByteRecord() throws IOException, InvocationTargetException {
+		
+		int start;
+		int end;
+		
+		do {
+			
+			end = findLineEnd();
+			recordIndex++;
+			
+			if(end < 0) {
+				
+				if(loadMonitor != null) loadMonitor.update(bytesRead, fileSize);
+				
+				return null;
+				
+			}
+			
+			start = buffer.position();
+			buffer.position(skipLineTerminator(end));
+			
+		} while(isBlank(start, end));
+		
+		if(loadMonitor != null) loadMonitor.update(bytesRead, fileSize);
+		
+		t = createByteRecord(recordIndex, start, end);
+		
+		return t;
+		
+	} // getByteRecord()
+	
+	
+	/**
+	 * Returns the next record of the parallel parsing, the records are created on the first call.
+	 * 
+	 * @return
+	 * the next record in the order of the record numbers, null at the end of the file.
+	 * 
+	 * @throws IOException
+	 * if the source file can't be accessed.
+	 * 
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @throws IllegalArgumentException
+	 * @throws InvocationTargetException
+	 * the exception of the creation of this record, like in sequential parsing.
+	 */
+	@SuppressWarnings("unchecked")
+	protected T getParsedRecord() throws IOException, InstantiationException, IllegalAccessException, InvocationTargetException {
+		
+		if(parsedRecords == null) parseAll();
+		
+		// bytesRead is counted in byte mode only
+		if(loadMonitor != null) loadMonitor.update(getBytesRead(), fileSize);
+		
+		if(parsedIndex >= lineCount) {
+			
+			recordIndex = lastRecordIndex;
+			
+			return null;
+			
+		}
+		
+		recordIndex = recordNumbers[parsedIndex];
+		
+		Object result = parsedRecords[parsedIndex++];
+		
+		if(result instanceof Failure) {
+			
+			Exception exception = ((Failure) result).exception;
+			
+			if(exception instanceof InvocationTargetException) throw (InvocationTargetException) exception;
+			if(exception instanceof InstantiationException) throw (InstantiationException) exception;
+			if(exception instanceof IllegalAccessException) throw (IllegalAccessException) exception;
+			if(exception instanceof RuntimeException) throw (RuntimeException) exception;
+			
+			throw new InvocationTargetException(exception);
+			
+		}
+		
+		t = (T) result;
+		
+		return t;
+		
+	} // getParsedRecord()
+	
+	
+	/**
+	 * Collects all lines of the file and creates their records in parallel.
+	 */
+	protected void parseAll() throws IOException {
+		
+		collectLines();
+		
+		logger.debug("parseAll(): lineCount = {}, parallelism = {}", lineCount, ForkJoinPool.commonPool().getParallelism());
+		
+		parsedRecords = new Object[lineCount];
+		parsedIndex = 0;
+		
+		ForkJoinPool.commonPool().invoke(new ParseTask(0, lineCount));
+		
+	} // parseAll()
+	
+	
+	/**
+	 * Reads the file and records the non blank lines with their record numbers.
+	 * In byte mode the whole file is read into the buffer, so the lines can be scanned without refill.
+	 */
+	protected void collectLines() throws IOException {
+		
+		lineCount = 0;
+		recordNumbers = new int[1024];
+		
+		if(byteRecordFactory != null) {
+			
+			readFile();
+			
+			lineStarts = new int[recordNumbers.length];
+			lineEnds = new int[recordNumbers.length];
+			
+			int end;
+			
+			while((end = findLineEnd()) >= 0) {
+				
+				int start = buffer.position();
+				
+				buffer.position(skipLineTerminator(end));
+				recordIndex++;
+				
+				if(isBlank(start, end)) continue;
+				
+				if(lineCount == recordNumbers.length) growLines();
+				
+				lineStarts[lineCount] = start;
+				lineEnds[lineCount] = end;
+				recordNumbers[lineCount++] = recordIndex;
+				
+			} // elihw
+			
+		}
+		else {
+			
+			lines = new ArrayList<>();
+			
+			String line;
+			
+			while((line = reader.readLine()) != null) {
+				
+				recordIndex++;
+				
+				if(line.isBlank()) continue;
+				
+				if(lineCount == recordNumbers.length) growLines();
+				
+				lines.add(line);
+				recordNumbers[lineCount++] = recordIndex;
+				
+				if(loadMonitor != null) loadMonitor.update(inputStream.getBytesRead(), fileSize);
+				
+			} // elihw
+			
+		}
+		
+		// the final call which returns null
+		lastRecordIndex = recordIndex + 1;
+		
+	} // collectLines()
+	
+	
+	/**
+	 * Reads the whole file into the buffer.
+	 */
+	protected void readFile() throws IOException {
+		
+		if(buffer.capacity() < fileSize) buffer = ByteBuffer.allocate((int) fileSize);
+		
+		buffer.clear();
+		
+		while(buffer.hasRemaining() && (channel.read(buffer) >= 0)) {
+			
+			bytesRead = buffer.position();
+			
+			if(loadMonitor != null) loadMonitor.update(bytesRead, fileSize);
+			
+		}
+		
+		channel.close();
+		isEndOfFile = true;
+		
+		buffer.flip();
+		
+	} // readFile()
+	
+	
+	/**
+	 * Doubles the size of the line arrays.
+	 */
+	private void growLines() {
+		
+		recordNumbers = Arrays.copyOf(recordNumbers, recordNumbers.length * 2);
+		
+		if(lineStarts != null) {
+			lineStarts = Arrays.copyOf(lineStarts, recordNumbers.length);
+			lineEnds = Arrays.copyOf(lineEnds, recordNumbers.length);
+		}
+		
+	} // growLines()
+	
+	
+	/**
+	 * Creates the record of a collected line, an exception is returned as Failure.
+	 */
+	protected Object createRecordAt(final int aIndex) {
+		
+		try {
+			
+			if(byteRecordFactory != null) return createByteRecord(recordNumbers[aIndex], lineStarts[aIndex], lineEnds[aIndex]);
+			
+			return createRecord(recordNumbers[aIndex], lines.get(aIndex));
+			
+		}
+		catch(Exception e) {
+			
+			return new Failure(e);
+			
+		}
+		
+	} // createRecordAt()
+	
+	
+	/**
+	 * Searches the end of the line which starts at the position of the buffer.
+	 * More data is read from the file if needed.
+	 * 
+	 * @return
+	 * The index of the line terminator, the limit of the buffer if the last line has none
+	 * or -1 if all lines are processed.
+	 */
+	protected int findLineEnd() throws IOException {
+		
+		int index = buffer.position();
+		
+		while(true) {
+			
+			for(; index < buffer.limit(); index++) {
+				
+				byte value = buffer.get(index);
+				
+				if(value == '\n') return index;
+				
+				if(value == '\r') {
+					
+					// a following '\n' belongs to the same terminator
+					if((index + 1 < buffer.limit()) || isEndOfFile) return index;
+					
+					break;
+					
+				}
+				
+			} // rof
+			
+			if(isEndOfFile) return index > buffer.position() ? index : -1;
+			
+			int scanned = index - buffer.position();
+			
+			fillBuffer();
+			
+			index = buffer.position() + scanned;
+			
+		} // elihw
+		
+	} // findLineEnd()
+	
+	
+	/**
+	 * @return
+	 * The index following the line terminator at aIndex, which is either '\n', '\r' or "\r\n".
+	 */
+	protected int skipLineTerminator(final int aIndex) {
+		
+		if(aIndex >= buffer.limit()) return aIndex;
+		
+		if((buffer.get(aIndex) == '\r') && (aIndex + 1 < buffer.limit()) && (buffer.get(aIndex + 1) == '\n')) return aIndex + 2;
+		
+		return aIndex + 1;
+		
+	} // skipLineTerminator()
+	
+	
+	/**
+	 * @return
+	 * true if the bytes from aStart to aEnd are white space only.
+	 */
+	protected boolean isBlank(final int aStart, final int aEnd) {
+		
+		for(int i = aStart; i < aEnd; i++) {
+			if(!Character.isWhitespace(buffer.get(i) & 0xFF)) return false;
+		}
+		
+		return true;
+		
+	} // isBlank()
+	
+	
+	/**
+	 * Moves the unprocessed bytes to the start of the buffer and reads more data from the file behind them.
+	 * If the buffer is full, e.g. by a very long line, it's size is doubled. 
+	 * The channel is closed at the end of the file.
+	 */
+	protected void fillBuffer() throws IOException {
+		
+		buffer.compact();
+		
+		if(!buffer.hasRemaining()) {
+			
+			ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+			
+			buffer.flip();
+			larger.put(buffer);
+			buffer = larger;
+			
+			logger.debug("fillBuffer(): buffer enlarged to {} bytes", buffer.capacity());
+			
+		}
+		
+		int count = channel.read(buffer);
+		
+		if(count < 0) {
+			
+			isEndOfFile = true;
+			channel.close();
+			
+		}
+		else {
+			
+			bytesRead += count;
+			
+		}
+		
+		buffer.flip();
+		
+	} // fillBuffer()
+	
+	
+	/**
+	 * Returns the number of bytes read from the source file so far.
+	 * <br>
+	 * The file is read ahead in blocks, so the value can be larger than the size of the records returned.
+	 * 
+	 * @return
+	 * The number of bytes read, 0 if no file is set.
+	 */
+	public long getBytesRead() { return inputStream == null ? bytesRead : inputStream.getBytesRead(); }
+	
+	
+	/**
+	 * @return
+	 * The size of the source file in bytes.
+	 */
+	public long getFileSize() { return fileSize; }
+	
+	
+	/**
+	 * Enables the parallel parsing for files of at least DEFAULT_PARALLEL_THRESHOLD bytes, smaller files 
+	 * are always parsed sequentially. Must be called before the first getRecord() of a file.
+	 * <br>
+	 * The creation of the records must be thread safe.
+	 * 
+	 * @param aParallelParsing
+	 * true to enable the parallel parsing.
+	 */
+	public void setParallelParsing(final boolean aParallelParsing) { 
+		logger.trace("setParallelParsing(): aParallelParsing = {}", aParallelParsing);
+		
+		isParallelParsing = aParallelParsing; 
+		
+	} // setParallelParsing()
+	
+	
+	/**
+	 * @return
+	 * true if the parallel parsing is enabled.
+	 */
+	public boolean isParallelParsing() { return isParallelParsing; }
 
 
 	/**
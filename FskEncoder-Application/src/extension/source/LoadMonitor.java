@@ -0,0 +1,193 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : LoadMonitor.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+
+package extension.source;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.IntConsumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import extension.execution.CancellationToken;
+
+/**
+ * Responsibilities:<br>
+ * Carries progress and cancellation of a file load to the Lexer.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Lexer,<br>
+ * CandidateFileLoader.
+ * 
+ * <p>
+ * Description:<br>
+ * The load of a source file is done by the reader plug-in, so the application can't pass anything 
+ * to the Lexer directly. Instead the loading task attaches a LoadMonitor to it's thread before 
+ * it calls the plug-in and detaches it afterwards. Lexer.setFile() picks up the monitor of the 
+ * current thread and reports the number of bytes read on each getRecord().
+ * <p>
+ * update() converts the bytes into a percentage for the progress listener and terminates the load 
+ * with a CancellationException if the CancellationToken has been cancelled.
+ * <p>
+ * Without an attached monitor the Lexer works as before.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class LoadMonitor {
+
+	private Logger logger = LogManager.getLogger(LoadMonitor.class.getName());
+	
+	private static final ThreadLocal<LoadMonitor> CURRENT = new ThreadLocal<>();
+	
+	protected final CancellationToken cancellationToken;
+	protected final IntConsumer progressListener;
+	
+	protected long bytesRead;
+	protected long totalBytes;
+
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param aCancellationToken
+	 * The token which aborts the load.
+	 * 
+	 * @param aProgressListener
+	 * Receives the progress of the load in percent.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aCancellationToken or aProgressListener is null.
+	 */
+	public LoadMonitor(final CancellationToken aCancellationToken, final IntConsumer aProgressListener) {
+		logger.trace("LoadMonitor(): aCancellationToken = {}, aProgressListener = {}", aCancellationToken, aProgressListener);
+		
+		if(aCancellationToken == null) throw new IllegalArgumentException("aCancellationToken can't be null!");
+		if(aProgressListener == null) throw new IllegalArgumentException("aProgressListener can't be null!");
+		
+		cancellationToken = aCancellationToken;
+		progressListener = aProgressListener;
+		
+	} // LoadMonitor(...)
+	
+	
+	/**
+	 * Returns the monitor attached to the current thread.
+	 * 
+	 * @return
+	 * The monitor, or null if none is attached.
+	 */
+	public static LoadMonitor current() { return CURRENT.get(); }
+	
+	
+	/**
+	 * Attaches this monitor to the current thread.
+	 */
+	public void attach() {
+		logger.trace("attach()");
+		
+		CURRENT.set(this);
+		
+	} // attach()
+	
+	
+	/**
+	 * Detaches the monitor from the current thread.
+	 */
+	public void detach() {
+		logger.trace("detach()");
+		
+		CURRENT.remove();
+		
+	} // detach()
+	
+	
+	/**
+	 * Reports the progress of the load.
+	 * 
+	 * @param aBytesRead
+	 * The number of bytes read so far.
+	 * 
+	 * @param aTotalBytes
+	 * The size of the file, 0 if it's unknown.
+	 * 
+	 * @throws CancellationException
+	 * if the load has been cancelled.
+	 */
+	public void update(final long aBytesRead, final long aTotalBytes) {
+		
+		cancellationToken.throwIfCancelled();
+		
+		bytesRead = aBytesRead;
+		totalBytes = aTotalBytes;
+		
+		if(aTotalBytes > 0) progressListener.accept((int) Math.min(100, aBytesRead * 100 / aTotalBytes));
+		
+	} // update()
+	
+	
+	/**
+	 * @return
+	 * true if the load has been cancelled.
+	 */
+	public boolean isCancelled() { return cancellationToken.isCancelled(); }
+	
+	
+	/**
+	 * @return
+	 * The number of bytes read, as reported by the last update().
+	 */
+	public long getBytesRead() { return bytesRead; }
+	
+	
+	/**
+	 * @return
+	 * The size of the file, as reported by the last update().
+	 */
+	public long getTotalBytes() { return totalBytes; }
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object. 
+	 */
+	@Override
+	public String toString() {
+		return "LoadMonitor [bytesRead=" + bytesRead + ", totalBytes=" + totalBytes + ", cancellationToken=" 
+				+ cancellationToken + "]";
+	}
+	
+	
+} // ssalc
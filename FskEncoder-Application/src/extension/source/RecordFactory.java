@@ -0,0 +1,72 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : RecordFactory.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.source;
+
+/**
+ * Responsibilities:<br>
+ * Creates a data record from a line of the source file.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Lexer.
+ * 
+ * <p>
+ * Description:<br>
+ * The Lexer binds the Constructor given in it's constructor call once to an implementation of this 
+ * interface, so no reflective call, boxing or argument array is needed per line.
+ * <p>
+ * Exceptions thrown by the record constructor are passed through unchanged, this includes checked 
+ * exceptions which are not declared here.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ * @param <T>
+ * The type of the created records.
+ */
+
+@FunctionalInterface
+public interface RecordFactory<T> {
+
+	/**
+	 * Creates a new record.
+	 * 
+	 * @param aRecordNumber
+	 * The unique number of the record, usually the line number.
+	 * 
+	 * @param aLine
+	 * The line read from the source file.
+	 * 
+	 * @return
+	 * The created record.
+	 */
+	public T create(int aRecordNumber, String aLine);
+	
+} // ssalc
@@ -0,0 +1,366 @@
+/**
+  *
+  * **********************************************************************
+  * PROJECT       : FskEncoder-Application
+  * FILENAME      : LineFillScheduler.java
+  *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+  *
+  * This program is free software.
+  * You can use, redistribute and/or modify it under the terms of 
+  * the GNU Lesser General Public License as published by the 
+  * Free Software Foundation, either version 3 of theLicense, 
+  * or (at your option) any later version.
+   *
+  * This program is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Lesser Public License for more details.
+  *
+  * You should have received a copy of the GNU General Lesser Public
+  * License along with this program.  If not, see
+  * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+  *
+  */
+
+
+package sound;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.SourceDataLine;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * 
+ * Responsibilities:<br>
+ * Sizes and times the writes to an output line, so the buffer of the line stays at a target fill level.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * SoundPlayer
+ * 
+ * <p>
+ * Description:<br>
+ * Before each write the fill level of the line is measured by it's available space, the latency 
+ * by the frames written and the frame position of the line. The next chunk fills the buffer up to 
+ * the target level. If there is less space than a minimum chunk, the scheduler sleeps exactly the
+ * time the line needs to play the excess, so there is neither a busy wait nor a guessed delay.
+ * <p>
+ * If all written frames have been played when the next chunk is requested, the line has run 
+ * empty and an underrun is recorded. The counters and the measured latencies are reported by 
+ * toString() to see whether the target level fits the device.
+ * <p>
+ * A line which doesn't report a frame rate can't be timed, so full buffer sized chunks are 
+ * written and the blocking write paces the play back.
+ * <p>
+ * The duration of a chunk can be limited by withMaxChunkDuration(), so the caller checks for an 
+ * abort at least in this interval.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class LineFillScheduler {
+
+	private Logger logger = LogManager.getLogger(LineFillScheduler.class.getName());
+	
+	/** Fill level of the line buffer to be kept, as fraction of the buffer size. */
+	public static final double DEFAULT_TARGET_FILL = 0.75;
+	
+	/** The minimum chunk is the buffer size divided by this value. */
+	public static final int MIN_CHUNK_DIVISOR = 8;
+	
+	protected final SourceDataLine line;
+	protected final double targetFill;
+	
+	protected int bufferSize;
+	protected int frameSize;
+	protected float frameRate;
+	protected int targetBytes;
+	protected int minChunk;
+	protected long maxChunkDuration;
+	protected int maxChunk;
+	
+	protected long startFramePosition;
+	protected long framesWritten;
+	
+	protected int writeCount;
+	protected int waitCount;
+	protected long waitTime;
+	protected int underrunCount;
+	protected long maxLatency;
+	protected long latencySum;
+	protected int latencyCount;
+
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param aLine
+	 * The output line to be written.
+	 * 
+	 * @param aTargetFill
+	 * The fill level of the line buffer to be kept, as fraction of the buffer size.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aLine is null or aTargetFill isn't within 0 < aTargetFill <= 1
+	 */
+	public LineFillScheduler(final SourceDataLine aLine, final double aTargetFill) {
+		logger.trace("LineFillScheduler(): aLine = {}, aTargetFill = {}", aLine, aTargetFill);
+		
+		if(aLine == null) throw new IllegalArgumentException("aLine can't be null!");
+		if(aTargetFill <= 0 || aTargetFill > 1) throw new IllegalArgumentException("aTargetFill must be greater than 0 and less or equal 1!");
+		
+		line = aLine;
+		targetFill = aTargetFill;
+		
+	} // LineFillScheduler(...)
+	
+	
+	/**
+	 * Limits the size of a chunk to the samples played within aMaxChunkDuration.
+	 * <br>
+	 * Has no effect if the line can't be timed.
+	 * 
+	 * @param aMaxChunkDuration
+	 * The maximum duration of a chunk in milliseconds.
+	 * 
+	 * @return
+	 * This instance.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aMaxChunkDuration is less or equal 0.
+	 */
+	public LineFillScheduler withMaxChunkDuration(final long aMaxChunkDuration) {
+		logger.trace("withMaxChunkDuration(): aMaxChunkDuration = {}", aMaxChunkDuration);
+		
+		if(aMaxChunkDuration <= 0) throw new IllegalArgumentException("aMaxChunkDuration must be greater than 0!");
+		
+		maxChunkDuration = aMaxChunkDuration;
+		
+		return this;
+		
+	} // withMaxChunkDuration(...)
+	
+	
+	/**
+	 * Takes the properties of the line and resets the counters. 
+	 * <br>
+	 * To be called after the line has been opened and before the first chunk is written.
+	 */
+	public void start() {
+		logger.trace("start()");
+		
+		AudioFormat format = line.getFormat();
+		
+		bufferSize = Math.max(1, line.getBufferSize());
+		frameSize = format != null ? Math.max(1, format.getFrameSize()) : 1;
+		frameRate = format != null ? format.getFrameRate() : 0;
+		
+		targetBytes = alignToFrame((int) (bufferSize * targetFill));
+		minChunk = Math.max(frameSize, alignToFrame(bufferSize / MIN_CHUNK_DIVISOR));
+		maxChunk = Integer.MAX_VALUE;
+		
+		if(maxChunkDuration > 0 && isTimed()) {
+			
+			maxChunk = Math.max(frameSize, alignToFrame((int) Math.min(Integer.MAX_VALUE, 
+					(long) (frameRate * maxChunkDuration / 1000) * frameSize)));
+			minChunk = Math.min(minChunk, maxChunk);
+			
+		} // fi
+		
+		// samples still queued, e.g. the silence of an idle pooled line, are played before the first chunk
+		startFramePosition = line.getLongFramePosition() + getQueuedBytes() / frameSize;
+		framesWritten = 0;
+		
+		writeCount = 0;
+		waitCount = 0;
+		waitTime = 0;
+		underrunCount = 0;
+		maxLatency = 0;
+		latencySum = 0;
+		latencyCount = 0;
+		
+		logger.debug("start(): bufferSize = {}, frameSize = {}, frameRate = {}, targetBytes = {}, minChunk = {}", 
+				bufferSize, frameSize, frameRate, targetBytes, minChunk);
+		
+	} // start()
+	
+	
+	/**
+	 * Returns the number of bytes to be written next. If the line is filled above the target level,
+	 * the method sleeps till the line has played the excess.
+	 * 
+	 * @param aRemaining
+	 * The number of bytes left to be played.
+	 * 
+	 * @return
+	 * The size of the next chunk, at most aRemaining.
+	 * 
+	 * @throws InterruptedException
+	 * if the thread is interrupted while it's sleeping.
+	 */
+	public int nextChunkSize(final int aRemaining) throws InterruptedException {
+		
+		if(! isTimed()) return Math.min(aRemaining, bufferSize);
+		
+		measure();
+		
+		int free = targetBytes - getQueuedBytes();
+		
+		if(free < minChunk) {
+			
+			long waitMillis = (long) ((minChunk - free) / frameSize * 1000L / frameRate);
+			
+			if(waitMillis > 0) {
+				
+				waitCount++;
+				waitTime += waitMillis;
+				
+				Thread.sleep(waitMillis);
+				
+			} // fi
+			
+			free = targetBytes - getQueuedBytes();
+			
+		} // fi
+		
+		int chunk = Math.min(maxChunk, alignToFrame(Math.max(minChunk, free)));
+		
+		logger.trace("nextChunkSize(): free = {}, chunk = {}", free, chunk);
+		
+		return Math.min(aRemaining, chunk);
+		
+	} // nextChunkSize()
+	
+	
+	/**
+	 * Notes that a chunk has been written to the line.
+	 * 
+	 * @param aCount
+	 * The number of bytes written.
+	 */
+	public void written(final int aCount) {
+		
+		writeCount++;
+		framesWritten += aCount / frameSize;
+		
+	} // written()
+	
+	
+	/**
+	 * Returns whether the writes are timed by the frame rate of the line.
+	 * 
+	 * @return
+	 * false if the line doesn't report a frame rate.
+	 */
+	public boolean isTimed() { return frameRate > 0; }
+	
+	
+	/**
+	 * @return
+	 * The number of chunks written since start().
+	 */
+	public int getWriteCount() { return writeCount; }
+	
+	
+	/**
+	 * @return
+	 * The number of times the line has run empty during the play back.
+	 */
+	public int getUnderrunCount() { return underrunCount; }
+	
+	
+	/**
+	 * @return
+	 * The number of sleeps till the line had played enough samples.
+	 */
+	public int getWaitCount() { return waitCount; }
+	
+	
+	/**
+	 * @return
+	 * The sum of all sleeps in milliseconds.
+	 */
+	public long getWaitTime() { return waitTime; }
+	
+	
+	/**
+	 * @return
+	 * The maximum latency between writing and playing a frame in microseconds.
+	 */
+	public long getMaxLatency() { return maxLatency; }
+	
+	
+	/**
+	 * @return
+	 * The mean latency between writing and playing a frame in microseconds.
+	 */
+	public long getMeanLatency() { return latencyCount > 0 ? latencySum / latencyCount : 0; }
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object. 
+	 */
+	@Override
+	public String toString() {
+		return "LineFillScheduler [targetFill=" + targetFill + ", bufferSize=" + bufferSize + ", isTimed=" + isTimed()
+				+ ", maxChunkDuration=" + maxChunkDuration
+				+ ", writeCount=" + writeCount + ", waitCount=" + waitCount + ", waitTime=" + waitTime 
+				+ ", underrunCount=" + underrunCount + ", maxLatency=" + maxLatency + ", meanLatency=" + getMeanLatency()
+				+ "]";
+	}
+	
+	
+	/**
+	 * Measures the latency by the frame position and detects an underrun.
+	 */
+	protected void measure() {
+		
+		if(framesWritten == 0) return;
+		
+		long framesPending = framesWritten - (line.getLongFramePosition() - startFramePosition);
+		
+		if(framesPending <= 0) {
+			
+			underrunCount++;
+			logger.warn("measure(): underrun after {} frames, writeCount = {}", framesWritten, writeCount);
+			
+			framesPending = 0;
+			
+		} // fi
+		
+		long latency = (long) (framesPending * 1_000_000L / frameRate);
+		
+		latencySum += latency;
+		latencyCount++;
+		maxLatency = Math.max(maxLatency, latency);
+		
+	} // measure()
+	
+	
+	/**
+	 * Returns the number of bytes in the buffer of the line.
+	 */
+	protected int getQueuedBytes() { return Math.max(0, bufferSize - line.available()); }
+	
+	
+	/**
+	 * Rounds down to a multiple of the frame size.
+	 */
+	protected int alignToFrame(final int aBytes) { return aBytes - aBytes % frameSize; }
+
+
+} // LineFillScheduler
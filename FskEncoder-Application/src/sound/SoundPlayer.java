@@ -37,12 +37,16 @@ import java.util.ServiceConfigurationError;
 import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.FloatControl;
 import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.Mixer;
 import javax.sound.sampled.SourceDataLine;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import extension.execution.BackgroundTask;
+import extension.execution.TaskExecutors;
+import extension.sound.SampleRingBuffer;
+import extension.sound.SymbolStream;
 
 
 /**
@@ -58,6 +62,26 @@ import extension.execution.BackgroundTask;
  * Description:<br>
  * A call to play() plays the sound samples which were given in a ByteBuffer
  * on the selected output device.
+ * <p>
+ * Alternatively the sound samples can be taken from a SampleRingBuffer while they are still 
+ * compiled, see play(SampleRingBuffer), or expanded chunk by chunk from the compact form of
+ * a SymbolStream, see play(SymbolStream).
+ * <p>
+ * As BackgroundTask the play back runs on the audio thread of TaskExecutors, a single thread with 
+ * maximum priority which isn't shared with the compilation.
+ * <p>
+ * The writes of play(ByteBuffer) and play(SymbolStream) are sized and timed by a LineFillScheduler,
+ * which keeps the buffer of the line at a target fill level and records underruns.
+ * <p>
+ * stop() cancels the CancellationToken of the player and flushes the line, so the output ends at
+ * once. A chunk never holds more samples than are played within the maximum abort latency of the 
+ * token, so the play loop notices the abort within this time. An aborted play back is flushed 
+ * instead of drained.
+ * <p>
+ * By default the output line is opened for each play back and drained and closed afterwards. 
+ * With a SourceDataLinePool, see withLinePool(), the line is taken from the pool instead. It stays
+ * open and running after the play back and is fed with silence till the next one, so back to back
+ * uploads start at once and without a click.
  * 
  * <p>
  * @author Stefan
@@ -72,6 +96,15 @@ public class SoundPlayer extends BackgroundTask<Void, Void> {
 	protected AudioFormat audioformat;
 	
 	protected ByteBuffer soundsampleBuffer;
+	protected AudioFormat soundsampleFormat;
+	protected SampleRingBuffer sampleStream;
+	protected SymbolStream symbolStream;
+	
+	protected SourceDataLinePool linePool;
+	protected Mixer.Info mixerInfo;
+	
+	protected double targetFill = LineFillScheduler.DEFAULT_TARGET_FILL;
+	protected LineFillScheduler scheduler;
 
 	
 	/**
@@ -89,6 +122,8 @@ public class SoundPlayer extends BackgroundTask<Void, Void> {
 	 */
 	public SoundPlayer(final SourceDataLine aLine, final AudioFormat aAudioFormat) {
 		
+		super(TaskExecutors.getAudioExecutor());
+		
 		logger.trace("SoundPlayer(): aLine = {}, aAudioFormat = {}", aLine, aAudioFormat);
 		
 		if(aLine == null) {
@@ -105,6 +140,69 @@ public class SoundPlayer extends BackgroundTask<Void, Void> {
 	} // SoundPlayer(...)
 	
 	
+	/**
+	 * Takes the output line from the given pool instead of opening and closing the line given in 
+	 * constructor call for each play back.
+	 * 
+	 * @param aLinePool
+	 * The pool holding the output lines.
+	 * 
+	 * @param aMixerInfo
+	 * The output device, null for the default device of the system.
+	 * 
+	 * @return
+	 * This instance.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aLinePool is null
+	 */
+	public SoundPlayer withLinePool(final SourceDataLinePool aLinePool, final Mixer.Info aMixerInfo) {
+		logger.trace("withLinePool(): aLinePool = {}, aMixerInfo = {}", aLinePool, aMixerInfo);
+		
+		if(aLinePool == null) throw new IllegalArgumentException("aLinePool can't be null!");
+		
+		linePool = aLinePool;
+		mixerInfo = aMixerInfo;
+		
+		return this;
+		
+	} // withLinePool(...)
+	
+	
+	/**
+	 * Sets the fill level of the output line to be kept while sound samples are written, see LineFillScheduler.
+	 * 
+	 * @param aTargetFill
+	 * The fill level as fraction of the buffer size, 0 < aTargetFill <= 1.
+	 * 
+	 * @return
+	 * This instance.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aTargetFill isn't within 0 < aTargetFill <= 1
+	 */
+	public SoundPlayer withTargetFill(final double aTargetFill) {
+		logger.trace("withTargetFill(): aTargetFill = {}", aTargetFill);
+		
+		if(aTargetFill <= 0 || aTargetFill > 1) throw new IllegalArgumentException("aTargetFill must be greater than 0 and less or equal 1!");
+		
+		targetFill = aTargetFill;
+		
+		return this;
+		
+	} // withTargetFill(...)
+	
+	
+	/**
+	 * Returns the scheduler of the latest play back of a ByteBuffer or a SymbolStream. It reports 
+	 * the number of underruns and the measured latency.
+	 * 
+	 * @return
+	 * The LineFillScheduler or null if nothing has been played so far.
+	 */
+	public LineFillScheduler getLineFillScheduler() { return scheduler; }
+	
+	
 	/**
 	 * Starts the execution as background task under control of a SwingWorker.
 	 * <p>
@@ -114,9 +212,15 @@ public class SoundPlayer extends BackgroundTask<Void, Void> {
 	public Void runBackgroundTask() {
 		logger.trace("runBackgroundTask()");
 		
-		if(soundsampleBuffer == null) throw new IllegalAccessError("No sound sample buffer set!");
+		if(soundsampleBuffer == null && sampleStream == null && symbolStream == null) throw new IllegalAccessError("No sound sample buffer set!");
 		
-		try { play(soundsampleBuffer); } 
+		try { 
+			
+			if(sampleStream != null) 	  play(sampleStream);
+			else if(symbolStream != null) play(symbolStream);
+			else					 	  play(soundsampleBuffer); 
+			
+		} 
 		catch (LineUnavailableException e) {
 			logger.fatal("No output device available! Execution aborted. {}", e);
 			throw new ServiceConfigurationError("No output line available");
@@ -135,7 +239,8 @@ public class SoundPlayer extends BackgroundTask<Void, Void> {
 	 * <br>
 	 * The play back can be stopped by invocation of method stop().
 	 * <br>
-	 * The output line is drained and closed correctly after termination of play back.  
+	 * The output line is drained and closed correctly after termination of play back, or it's given
+	 * back to the SourceDataLinePool.  
 	 * 
 	 * @param aSoundSampleBuffer
 	 * A ByteBuffer which held the sound samples to play.
@@ -148,76 +253,188 @@ public class SoundPlayer extends BackgroundTask<Void, Void> {
 
 		isRunning = true;
 		
+		openLine(soundsampleFormat != null ? soundsampleFormat : audioformat);
+		
 		int chunkSize = sourceDataLine.getBufferSize();
 		byte[] lineBuffer = new byte[chunkSize];
 		
 		logger.trace("0 chunkSize = {}, lineBuffer.length = {}", chunkSize, lineBuffer.length);
 		
-		int guardTime = (int)(sourceDataLine.getFormat().getSampleRate() * 5 / 1000);
 		int progress = 0;
 		
-    	if(! sourceDataLine.isOpen()) {
-    		sourceDataLine.open(audioformat);
-    	}
-
-		sourceDataLine.start();
+		scheduler = new LineFillScheduler(sourceDataLine, targetFill)
+						.withMaxChunkDuration(cancellationToken.getMaxAbortLatency());
+		scheduler.start();
 
 		int nbrOfSamplesLeft = aSoundSampleBuffer.limit() - aSoundSampleBuffer.position();
 
 		do {
 			
-			chunkSize = (nbrOfSamplesLeft < chunkSize) ? nbrOfSamplesLeft : chunkSize;
+			try {
+				
+				chunkSize = Math.min(lineBuffer.length, scheduler.nextChunkSize(nbrOfSamplesLeft));
+				
+			} catch (InterruptedException e) {
+				
+				Thread.currentThread().interrupt();
+				
+				isRunning = false;
+				break;
+			}
 			
 			logger.trace("1 nbrOfSamples: " + aSoundSampleBuffer.limit() + ", done: " + aSoundSampleBuffer.position() + ", left: " + nbrOfSamplesLeft);						
 			aSoundSampleBuffer.get(lineBuffer, 0, chunkSize);
 			sourceDataLine.write(lineBuffer, 0, chunkSize);
+			scheduler.written(chunkSize);
 
-			progress = aSoundSampleBuffer.position() * 100 / aSoundSampleBuffer.limit();
+			progress = aSoundSampleBuffer.position() * 100 / Math.max(1, aSoundSampleBuffer.limit());
 			stepOn(progress);
 			
 			logger.info("1 written: chunkSize = {}, lineBuffer.length = {}, progress = {}, isRunning = {}",
 					chunkSize, lineBuffer.length, progress, isRunning
 			);
+
+			nbrOfSamplesLeft = aSoundSampleBuffer.limit() - aSoundSampleBuffer.position();
+		
+		} while(isPlayBackRunning() && (nbrOfSamplesLeft > 0));
+		
+		logger.info("play(): {}", scheduler);
+		
+		logger.trace("closing line ...");
+
+		closeLine();
+		
+		logger.trace("DONE...");
+		
+	} // play()
+	
+	
+	/**
+	 * Plays the sound samples as they arrive in the given SampleRingBuffer till the end of the stream.
+	 * <br>
+	 * The play back starts with the first chunk of samples, the producer may still be working on the rest.
+	 * No polling is needed because both, the stream and the output line, block until they are ready.
+	 * <br>
+	 * If the play back is stopped by invocation of method stop(), the stream is aborted so that the 
+	 * producer terminates as well.
+	 * <br>
+	 * The output line is drained and closed correctly after termination of play back, or it's given
+	 * back to the SourceDataLinePool.  
+	 * 
+	 * @param aSampleStream
+	 * The stream delivering the sound samples.
+	 * 
+	 * @throws LineUnavailableException
+	 * If the given SourceDataLine can't be opened or accessed in any way.
+	 */
+	public void play(final SampleRingBuffer aSampleStream) throws LineUnavailableException {
+		logger.trace("play(): aSampleStream = {}", aSampleStream);
+
+		isRunning = true;
+		
+		openLine(audioformat);
+		
+		int chunkSize = sourceDataLine.getBufferSize();
+		byte[] lineBuffer = new byte[chunkSize];
+		long nbrOfSamplesPlayed = 0;
+		
+		try {
 			
-			while (sourceDataLine.getBufferSize() / 2 < sourceDataLine.available()) {
+			int count = aSampleStream.read(lineBuffer, 0, chunkSize);
+			
+			while(isPlayBackRunning() && count > 0) {
 				
-				/*
+				sourceDataLine.write(lineBuffer, 0, count);
+				nbrOfSamplesPlayed += count;
 				
-					No coverage, can't be tested!
+				count = aSampleStream.read(lineBuffer, 0, chunkSize);
 				
-					Mockito 5 says:
-						It is not possible to mock static methods of java.lang.Thread 
-						to avoid interfering with class loading what leads to infinite loops
+			} // elihw
+			
+		}
+		catch (InterruptedException e) {
+			
+			Thread.currentThread().interrupt();
+			isRunning = false;
+			
+		}
+		
+		if(! isPlayBackRunning()) aSampleStream.abort();
+		
+		logger.trace("closing line, nbrOfSamplesPlayed = {}", nbrOfSamplesPlayed);
+
+		closeLine();
+		
+		logger.trace("DONE...");
+		
+	} // play(SampleRingBuffer)
+	
+	
+	/**
+	 * Plays the sound samples of the given SymbolStream.
+	 * <br>
+	 * The samples are expanded chunk by chunk while they are written to the output line, so only
+	 * a single chunk of sound samples is held in memory.
+	 * <br>
+	 * The play back can be stopped by invocation of method stop().
+	 * <br>
+	 * The output line is drained and closed correctly after termination of play back, or it's given
+	 * back to the SourceDataLinePool.  
+	 * 
+	 * @param aSymbolStream
+	 * The compiled sound samples.
+	 * 
+	 * @throws LineUnavailableException
+	 * If the given SourceDataLine can't be opened or accessed in any way.
+	 */
+	public void play(final SymbolStream aSymbolStream) throws LineUnavailableException {
+		logger.trace("play(): aSymbolStream = {}", aSymbolStream);
+
+		isRunning = true;
+		
+		openLine(audioformat);
+		
+		int chunkSize = sourceDataLine.getBufferSize();
+		byte[] lineBuffer = new byte[chunkSize];
+		long nbrOfSamples = Math.max(1, aSymbolStream.getSampleCount());
+		
+		SymbolStream.Reader reader = aSymbolStream.newReader();
+		
+		scheduler = new LineFillScheduler(sourceDataLine, targetFill)
+						.withMaxChunkDuration(cancellationToken.getMaxAbortLatency());
+		scheduler.start();
+		
+		try {
+			
+			int count = reader.read(lineBuffer, 0, Math.min(chunkSize, scheduler.nextChunkSize(chunkSize)));
+			
+			while(isPlayBackRunning() && count > 0) {
 				
-				 */
+				sourceDataLine.write(lineBuffer, 0, count);
+				scheduler.written(count);
+				stepOn((int) (reader.getNbrOfSamplesRead() * 100 / nbrOfSamples));
 				
-				try {
-					
-					Thread.sleep((long)(chunkSize / guardTime));
-					
-				} catch (Exception e) {
-					
-					Thread.currentThread().interrupt();
-					
-					isRunning = false;
-					break;
-				}
+				count = reader.read(lineBuffer, 0, Math.min(chunkSize, scheduler.nextChunkSize(chunkSize)));
 				
 			} // elihw
-
-			nbrOfSamplesLeft = aSoundSampleBuffer.limit() - aSoundSampleBuffer.position();
+			
+		}
+		catch (InterruptedException e) {
+			
+			Thread.currentThread().interrupt();
+			isRunning = false;
+			
+		}
 		
-		} while(isRunning && (nbrOfSamplesLeft > 0));
+		logger.info("play(): {}", scheduler);
 		
-		logger.trace("closing line ...");
+		logger.trace("closing line, nbrOfSamplesRead = {}", reader.getNbrOfSamplesRead());
 
-		sourceDataLine.drain();
-		sourceDataLine.stop(); 
-		sourceDataLine.close();
+		closeLine();
 		
 		logger.trace("DONE...");
 		
-	} // play()
+	} // play(SymbolStream)
 	
 	
 	/**
@@ -232,17 +449,95 @@ public class SoundPlayer extends BackgroundTask<Void, Void> {
 		
 		if(aSoundSampleBuffer == null) throw new IllegalArgumentException("aSoundbufffer can't be null!");
 		soundsampleBuffer = aSoundSampleBuffer;
+		soundsampleFormat = null;
+		sampleStream = null;
+		symbolStream = null;
 		
 	} // setSoundBuffer()
 	
 	
 	/**
-	 * Set the isRunning flag to false and forces the play loop to exit prematurely.
+	 * Set the sound sample buffer to be played back, together with it's own audio format.
+	 * <br>
+	 * Used for samples which don't have the format given in constructor call, e.g. the unsigned
+	 * samples of an imported WAVE file, see SoundFileImporter. The output line is opened with
+	 * aAudioFormat for play(ByteBuffer).
+	 * 
+	 * @param aSoundSampleBuffer 
+	 * aByteBuffer containing the sound samples.
+	 * 
+	 * @param aAudioFormat 
+	 * The format of the sound samples.
+	 * 
+	 */
+	public void setSoundBuffer(ByteBuffer aSoundSampleBuffer, AudioFormat aAudioFormat) {
+		logger.trace("setSoundBuffer(): aSoundSampleBuffer = {}, aAudioFormat = {}", aSoundSampleBuffer, aAudioFormat);
+		
+		if(aAudioFormat == null) throw new IllegalArgumentException("aAudioFormat can't be null!");
+		
+		setSoundBuffer(aSoundSampleBuffer);
+		soundsampleFormat = aAudioFormat;
+		
+	} // setSoundBuffer()
+	
+	
+	/**
+	 * Set the stream of sound samples to be played back.
+	 * 
+	 * @param aSampleStream 
+	 * The SampleRingBuffer delivering the sound samples.
+	 * 
+	 */
+	public void setSampleStream(SampleRingBuffer aSampleStream) {
+		logger.trace("setSampleStream(): aSampleStream = {}", aSampleStream);
+		
+		if(aSampleStream == null) throw new IllegalArgumentException("aSampleStream can't be null!");
+		sampleStream = aSampleStream;
+		symbolStream = null;
+		
+	} // setSampleStream()
+	
+	
+	/**
+	 * Set the compiled sound samples to be played back.
+	 * 
+	 * @param aSymbolStream 
+	 * The SymbolStream holding the sound samples.
+	 * 
+	 */
+	public void setSymbolStream(SymbolStream aSymbolStream) {
+		logger.trace("setSymbolStream(): aSymbolStream = {}", aSymbolStream);
+		
+		if(aSymbolStream == null) throw new IllegalArgumentException("aSymbolStream can't be null!");
+		symbolStream = aSymbolStream;
+		sampleStream = null;
+		
+	} // setSymbolStream()
+	
+	
+	/**
+	 * Set the isRunning flag to false, cancels the CancellationToken and forces the play loop to exit prematurely.
 	 * <P>
-	 * The output line is drained and closed correctly after termination of play back.  
+	 * The samples queued in the output line are flushed, so the output ends at once. The line is 
+	 * closed correctly after termination of play back. A stream being played is aborted.
+	 * <br>
+	 * An idle player isn't affected, so the next play back isn't terminated.
 	 */
 	@Override
-	public void stop() { isRunning = false; }
+	public void stop() { 
+		
+		if(! isActive()) return;
+		
+		boolean isPlaying = isRunning;
+		
+		isRunning = false; 
+		cancellationToken.cancel();
+		
+		if(sampleStream != null) sampleStream.abort();
+		
+		if(isPlaying) sourceDataLine.flush();
+		
+	} // stop()
 
 
 	/**
@@ -259,6 +554,64 @@ public class SoundPlayer extends BackgroundTask<Void, Void> {
 	}
 
 
+	/**
+	 * Provides an open and started output line for aAudioFormat, taken from the pool if there is one.
+	 */
+	protected void openLine(final AudioFormat aAudioFormat) throws LineUnavailableException {
+		logger.trace("openLine(): aAudioFormat = {}", aAudioFormat);
+		
+		if(linePool != null) {
+			
+			sourceDataLine = linePool.acquire(mixerInfo, aAudioFormat);
+			return;
+			
+		} // fi
+		
+    	if(! sourceDataLine.isOpen()) {
+    		sourceDataLine.open(aAudioFormat);
+    	}
+
+		sourceDataLine.start();
+		
+	} // openLine()
+
+
+	/**
+	 * Returns whether the play back shall go on.
+	 * 
+	 * @return
+	 * false if the play back was stopped or the CancellationToken was cancelled.
+	 */
+	protected boolean isPlayBackRunning() { return isRunning && !cancellationToken.isCancelled(); }
+
+
+	/**
+	 * Waits till all samples are played and closes the output line, or gives it back to the pool.
+	 * <br>
+	 * A stopped play back is flushed, so it ends at once. The play back isn't running anymore
+	 * afterwards, so a later stop() doesn't touch the line.
+	 */
+	protected void closeLine() {
+		logger.trace("closeLine(): isRunning = {}, cancellationToken = {}", isRunning, cancellationToken);
+		
+		if(isPlayBackRunning()) sourceDataLine.drain();
+		else		  			sourceDataLine.flush();
+		
+		isRunning = false;
+		
+		if(linePool != null) {
+			
+			linePool.release(sourceDataLine);
+			return;
+			
+		} // fi
+		
+		sourceDataLine.stop(); 
+		sourceDataLine.close();
+		
+	} // closeLine()
+
+
 	/**
 	 * @param aValue
 	 * The requested gain in the range from 0 ... 100
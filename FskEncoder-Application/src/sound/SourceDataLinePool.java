@@ -0,0 +1,530 @@
+/**
+  *
+  * **********************************************************************
+  * PROJECT       : FskEncoder-Application
+  * FILENAME      : SourceDataLinePool.java
+  *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+  *
+  * This program is free software.
+  * You can use, redistribute and/or modify it under the terms of 
+  * the GNU Lesser General Public License as published by the 
+  * Free Software Foundation, either version 3 of theLicense, 
+  * or (at your option) any later version.
+   *
+  * This program is distributed in the hope that it will be useful,
+  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+  * GNU General Lesser Public License for more details.
+  *
+  * You should have received a copy of the GNU General Lesser Public
+  * License along with this program.  If not, see
+  * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+  *
+  */
+
+
+package sound;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.Mixer;
+import javax.sound.sampled.SourceDataLine;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * 
+ * Responsibilities:<br>
+ * Keeps output lines open and running between two play backs.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * SoundPlayer, OutputDeviceController
+ * 
+ * <p>
+ * Description:<br>
+ * Opening and closing a SourceDataLine costs tens up to hundreds of milliseconds on real drivers
+ * and sometimes the first samples are distorted. So the pool holds one line per output device 
+ * and audio format and keeps it open and started once it has been used.
+ * <p>
+ * A line is handed out by acquire() and given back by release(). While a line isn't in use,
+ * an idle feeder writes silence to it, so the line never runs empty and the next play back 
+ * starts without a click. The feeder keeps only IDLE_LOW_WATER_MARK chunks of silence in the 
+ * buffer of the line. acquire() stops the feeder after a whole chunk and doesn't flush the line, 
+ * so the queued silence is played in front of the samples and the signal stays continuous.
+ * <p>
+ * A line is handed out to one play back at a time. If a device is acquired in another format, 
+ * the idle lines of the device in the former format are closed, so they don't keep the device busy.
+ * <p>
+ * The lines are closed explicitly by release(Mixer.Info) when the output device is changed, 
+ * or by releaseAll() when the application terminates.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+public class SourceDataLinePool {
+
+	private Logger logger = LogManager.getLogger(SourceDataLinePool.class.getName());
+	
+	/** Duration of silence in milliseconds written at once while a line is idle. */
+	public static final int IDLE_CHUNK_DURATION = 20;
+	
+	/** Number of silence chunks the idle feeder keeps in the buffer of a line at most. */
+	public static final int IDLE_LOW_WATER_MARK = 2;
+	
+	protected final Map<LineKey, PooledLine> lines = new HashMap<>();
+
+	
+	/**
+	 * Key of a pooled line.
+	 * <br>
+	 * AudioFormat doesn't implement equals(), so the format is compared by it's properties.
+	 */
+	protected static final class LineKey {
+		
+		private final Mixer.Info mixerInfo;
+		private final AudioFormat format;
+		
+		LineKey(final Mixer.Info aMixerInfo, final AudioFormat aFormat) {
+			mixerInfo = aMixerInfo;
+			format = aFormat;
+		}
+		
+		@Override
+		public int hashCode() { 
+			return Objects.hash(mixerInfo, format.getEncoding(), format.getSampleRate(), format.getSampleSizeInBits(), 
+					format.getChannels(), format.isBigEndian()); 
+		}
+		
+		@Override
+		public boolean equals(final Object aObject) {
+			
+			if(this == aObject) return true;
+			if(!(aObject instanceof LineKey)) return false;
+			
+			LineKey other = (LineKey) aObject;
+			
+			return Objects.equals(mixerInfo, other.mixerInfo)
+				&& format.getEncoding().equals(other.format.getEncoding())
+				&& format.getSampleRate() == other.format.getSampleRate()
+				&& format.getSampleSizeInBits() == other.format.getSampleSizeInBits()
+				&& format.getChannels() == other.format.getChannels()
+				&& format.getFrameSize() == other.format.getFrameSize()
+				&& format.isBigEndian() == other.format.isBigEndian();
+			
+		} // equals()
+		
+		@Override
+		public String toString() {
+			return "LineKey [mixerInfo=" + mixerInfo + ", format=" + format + "]";
+		}
+		
+	} // LineKey
+
+	
+	/**
+	 * A line of the pool together with it's idle feeder.
+	 */
+	protected static final class PooledLine implements Runnable {
+		
+		private final Logger logger = LogManager.getLogger(PooledLine.class.getName());
+		
+		private final LineKey key;
+		private final SourceDataLine line;
+		private final byte[] silence;
+		
+		private boolean inUse;
+		private volatile boolean isIdle;
+		private Thread feeder;
+		
+		PooledLine(final LineKey aKey, final SourceDataLine aLine) {
+			key = aKey;
+			line = aLine;
+			silence = createSilence(aKey.format);
+		}
+		
+		/**
+		 * Writes silence as long as the line is idle. A chunk is written only if less than 
+		 * IDLE_LOW_WATER_MARK chunks are buffered, so the silence queued in front of the next 
+		 * play back stays short. 
+		 */
+		@Override
+		public void run() {
+			logger.trace("run(): {}", key);
+			
+			while(isIdle && line.isOpen()) {
+				
+				int buffered = line.getBufferSize() - line.available();
+				
+				if(buffered < silence.length * IDLE_LOW_WATER_MARK && line.available() >= silence.length) {
+					line.write(silence, 0, silence.length);
+				}
+				else {
+					
+					try {
+						Thread.sleep(IDLE_CHUNK_DURATION / 2);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+					
+				} // esle
+				
+			} // elihw
+			
+			logger.trace("run(): {} done", key);
+			
+		} // run()
+		
+		void startIdle() {
+			
+			isIdle = true;
+			
+			feeder = new Thread(this, "SourceDataLinePool-idle");
+			feeder.setDaemon(true);
+			feeder.start();
+			
+		} // startIdle()
+		
+		void stopIdle() {
+			
+			isIdle = false;
+			
+			if(feeder == null) return;
+			
+			try {
+				// the feeder finishes it's current chunk at most
+				feeder.join(IDLE_CHUNK_DURATION * 10L);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			
+			feeder = null;
+			
+		} // stopIdle()
+		
+		void close() {
+			
+			stopIdle();
+			
+			line.stop();
+			line.flush();
+			line.close();
+			
+		} // close()
+		
+		@Override
+		public String toString() {
+			return "PooledLine [key=" + key + ", inUse=" + inUse + ", isIdle=" + isIdle + "]";
+		}
+		
+	} // PooledLine
+
+	
+	/**
+	 * Returns the line for the given output device and audio format. The line is created if 
+	 * it isn't in the pool yet, but it isn't opened.
+	 * 
+	 * @param aMixerInfo
+	 * The output device, null for the default device of the system.
+	 * 
+	 * @param aAudioFormat
+	 * The format of the sound samples.
+	 * 
+	 * @return
+	 * The pooled line.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aAudioFormat is null.
+	 * 
+	 * @throws LineUnavailableException
+	 * if the device doesn't provide a line for aAudioFormat.
+	 */
+	public synchronized SourceDataLine getLine(final Mixer.Info aMixerInfo, final AudioFormat aAudioFormat) 
+			throws LineUnavailableException {
+		logger.trace("getLine(): aMixerInfo = {}, aAudioFormat = {}", aMixerInfo, aAudioFormat);
+		
+		return getPooledLine(aMixerInfo, aAudioFormat).line;
+		
+	} // getLine(...)
+	
+	
+	/**
+	 * Hands out the line for the given output device and audio format for a play back. 
+	 * <br>
+	 * The line is opened and started if necessary. If it's idle, the feeding of silence is stopped
+	 * after a whole chunk. The line isn't flushed while it's running, the samples written next follow 
+	 * the queued silence of IDLE_LOW_WATER_MARK chunks at most.
+	 * <br>
+	 * Idle lines of the same device in another format are closed and removed.
+	 * 
+	 * @param aMixerInfo
+	 * The output device, null for the default device of the system.
+	 * 
+	 * @param aAudioFormat
+	 * The format of the sound samples.
+	 * 
+	 * @return
+	 * The open and running line.
+	 * 
+	 * @throws IllegalArgumentException
+	 * if aAudioFormat is null.
+	 * 
+	 * @throws LineUnavailableException
+	 * if the line can't be opened or is in use by another play back.
+	 */
+	public synchronized SourceDataLine acquire(final Mixer.Info aMixerInfo, final AudioFormat aAudioFormat) 
+			throws LineUnavailableException {
+		logger.trace("acquire(): aMixerInfo = {}, aAudioFormat = {}", aMixerInfo, aAudioFormat);
+		
+		PooledLine pooledLine = getPooledLine(aMixerInfo, aAudioFormat);
+		
+		if(pooledLine.inUse) throw new LineUnavailableException("The line is in use already: " + pooledLine.key);
+		
+		closeIdleLines(pooledLine.key);
+		
+		// no flush, a running line would click; the feeder stops at a chunk boundary
+		pooledLine.stopIdle();
+		pooledLine.inUse = true;
+		
+		if(! pooledLine.line.isOpen()) {
+			
+			logger.debug("acquire(): opening {}", pooledLine.key);
+			pooledLine.line.open(aAudioFormat);
+			
+		}
+		
+		pooledLine.line.start();
+		
+		return pooledLine.line;
+		
+	} // acquire(...)
+	
+	
+	/**
+	 * Gives back a line after a play back. The line stays open and is fed with silence.
+	 * <br>
+	 * Lines which don't belong to the pool are ignored.
+	 * 
+	 * @param aLine
+	 * The line handed out by acquire().
+	 */
+	public synchronized void release(final SourceDataLine aLine) {
+		logger.trace("release(): aLine = {}", aLine);
+		
+		for(PooledLine pooledLine : lines.values()) {
+			
+			if(pooledLine.line == aLine && pooledLine.inUse) {
+				
+				pooledLine.inUse = false;
+				
+				if(aLine.isOpen()) pooledLine.startIdle();
+				
+				return;
+				
+			} // fi
+			
+		} // rof
+		
+	} // release(SourceDataLine)
+	
+	
+	/**
+	 * Closes and removes all lines of an output device, e.g. because another device was selected.
+	 * 
+	 * @param aMixerInfo
+	 * The output device, null for the default device of the system.
+	 */
+	public synchronized void release(final Mixer.Info aMixerInfo) {
+		logger.trace("release(): aMixerInfo = {}", aMixerInfo);
+		
+		Iterator<Map.Entry<LineKey, PooledLine>> iterator = lines.entrySet().iterator();
+		
+		while(iterator.hasNext()) {
+			
+			Map.Entry<LineKey, PooledLine> entry = iterator.next();
+			
+			if(Objects.equals(aMixerInfo, entry.getKey().mixerInfo)) {
+				
+				logger.debug("release(): closing {}", entry.getKey());
+				
+				entry.getValue().close();
+				iterator.remove();
+				
+			} // fi
+			
+		} // elihw
+		
+	} // release(Mixer.Info)
+	
+	
+	/**
+	 * Closes and removes all lines of the pool, e.g. when the application terminates.
+	 */
+	public synchronized void releaseAll() {
+		logger.trace("releaseAll()");
+		
+		List<PooledLine> pooledLines = new ArrayList<>(lines.values());
+		lines.clear();
+		
+		for(PooledLine pooledLine : pooledLines) pooledLine.close();
+		
+	} // releaseAll()
+	
+	
+	/**
+	 * Returns the number of lines in the pool.
+	 * 
+	 * @return
+	 * The number of lines.
+	 */
+	public synchronized int getLineCount() { return lines.size(); }
+	
+	
+	/**
+	 * Returns whether the given line is fed with silence at the moment.
+	 * 
+	 * @param aLine
+	 * A line of the pool.
+	 * 
+	 * @return
+	 * true if the line is idle.
+	 */
+	public synchronized boolean isIdle(final SourceDataLine aLine) {
+		
+		for(PooledLine pooledLine : lines.values()) {
+			if(pooledLine.line == aLine) return pooledLine.isIdle;
+		}
+		
+		return false;
+		
+	} // isIdle()
+
+
+	/**
+	 * Returns a string representation of the current instance.
+	 * 
+	 * @return
+	 * a string representing the current state of this object. 
+	 */
+	@Override
+	public synchronized String toString() {
+		return "SourceDataLinePool [lineCount=" + lines.size() + "]";
+	}
+
+
+	/**
+	 * Returns the pooled line for the key, creates it if necessary.
+	 */
+	protected PooledLine getPooledLine(final Mixer.Info aMixerInfo, final AudioFormat aAudioFormat) 
+			throws LineUnavailableException {
+		
+		if(aAudioFormat == null) throw new IllegalArgumentException("aAudioFormat can't be null!");
+		
+		LineKey key = new LineKey(aMixerInfo, aAudioFormat);
+		PooledLine pooledLine = lines.get(key);
+		
+		if(pooledLine == null) {
+			
+			logger.debug("getPooledLine(): creating {}", key);
+			
+			pooledLine = new PooledLine(key, createLine(aMixerInfo, aAudioFormat));
+			lines.put(key, pooledLine);
+			
+		} // fi
+		
+		return pooledLine;
+		
+	} // getPooledLine(...)
+
+
+	/**
+	 * Closes and removes the open lines of the device of aKey in other formats which aren't in use.
+	 */
+	protected void closeIdleLines(final LineKey aKey) {
+		
+		Iterator<Map.Entry<LineKey, PooledLine>> iterator = lines.entrySet().iterator();
+		
+		while(iterator.hasNext()) {
+			
+			Map.Entry<LineKey, PooledLine> entry = iterator.next();
+			PooledLine pooledLine = entry.getValue();
+			
+			if(Objects.equals(aKey.mixerInfo, entry.getKey().mixerInfo) && ! aKey.equals(entry.getKey()) 
+					&& ! pooledLine.inUse && pooledLine.line.isOpen()) {
+				
+				logger.debug("closeIdleLines(): closing {}", entry.getKey());
+				
+				pooledLine.close();
+				iterator.remove();
+				
+			} // fi
+			
+		} // elihw
+		
+	} // closeIdleLines()
+
+
+	/**
+	 * Obtains a new line from the audio system.
+	 */
+	protected SourceDataLine createLine(final Mixer.Info aMixerInfo, final AudioFormat aAudioFormat) 
+			throws LineUnavailableException {
+		
+		DataLine.Info dataLineInfo = new DataLine.Info(SourceDataLine.class, aAudioFormat);
+		
+		if(aMixerInfo == null) return (SourceDataLine) AudioSystem.getLine(dataLineInfo);
+		
+		return (SourceDataLine) AudioSystem.getMixer(aMixerInfo).getLine(dataLineInfo);
+		
+	} // createLine(...)
+
+
+	/**
+	 * Creates IDLE_CHUNK_DURATION milliseconds of silence in the given format.
+	 * <br>
+	 * Signed samples are silent at 0, unsigned ones at the middle of their range.
+	 */
+	protected static byte[] createSilence(final AudioFormat aAudioFormat) {
+		
+		int frameSize = Math.max(1, aAudioFormat.getFrameSize());
+		int frames = Math.max(1, (int) (aAudioFormat.getSampleRate() * IDLE_CHUNK_DURATION / 1000));
+		
+		byte[] silence = new byte[frames * frameSize];
+		
+		if(AudioFormat.Encoding.PCM_UNSIGNED.equals(aAudioFormat.getEncoding())) {
+			
+			int sampleSize = Math.max(1, aAudioFormat.getSampleSizeInBits() / 8);
+			int msbOffset = aAudioFormat.isBigEndian() ? 0 : sampleSize - 1;
+			
+			for(int n = msbOffset; n < silence.length; n += sampleSize) silence[n] = (byte) 0x80;
+			
+		} // fi
+		
+		return silence;
+		
+	} // createSilence()
+
+
+} // SourceDataLinePool
@@ -31,6 +31,7 @@
 package view.gui;
 
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JPanel;
 import javax.swing.JProgressBar;
 import javax.swing.JSeparator;
@@ -71,7 +72,9 @@ public class CompileAndUploadGui extends JPanel {
 
 	private JProgressBar progressBar;
 	private JButton btnCompileAndUpload;
+	private JButton btnUploadAll;
 	private JButton btnAbort;
+	private JCheckBox chkStreaming;
 
 
 
@@ -98,8 +101,10 @@ public class CompileAndUploadGui extends JPanel {
 		
 		add(progressBar, "growx, spanx");
 
-		add(btnCompileAndUpload,  "cell 0 1, gapright 50");
-		add(btnAbort, "cell 0 1, wrap");
+		add(btnCompileAndUpload,  "cell 0 1, gapright 20");
+		add(btnUploadAll,  "cell 0 1, gapright 20");
+		add(btnAbort, "cell 0 1, gapright 20");
+		add(chkStreaming, "cell 0 1, wrap");
 
 		add(new JSeparator(), "cell 0 2, grow");
 
@@ -120,10 +125,22 @@ public class CompileAndUploadGui extends JPanel {
 		btnCompileAndUpload.setName("btnCompileAndUpload");
 		btnCompileAndUpload.addActionListener(controller);
 
+		btnUploadAll = new JButton("Upload All");
+		btnUploadAll.setName("btnUploadAll");
+		btnUploadAll.setToolTipText("Uploads all selected regions in a single stream");
+		btnUploadAll.addActionListener(controller);
+
 		btnAbort = new JButton("Abort");
 		btnAbort.setName("btnAbort");
 		btnAbort.addActionListener(controller);
 
+		chkStreaming = new JCheckBox("Streaming");
+		chkStreaming.setName("chkStreaming");
+		chkStreaming.setActionCommand("Streaming");
+		chkStreaming.setToolTipText("Plays back a region while it is compiled, without the cache of compiled regions");
+		chkStreaming.setSelected(controller.isStreamingUpload());
+		chkStreaming.addActionListener(controller);
+
 	} // createComponents()
 
 
@@ -179,6 +179,19 @@ class ApplicationResourcesTest {
 	} // testEXTENSION_PROPERTY_FILE()
 	
 
+	/**
+	 * Test method for {@link application.ApplicationResources#COMPILED_AUDIO_STORE()}.
+	 */
+	@Test
+	final void testCOMPILED_AUDIO_STORE() {
+		LOGGER.info("testCOMPILED_AUDIO_STORE()");
+
+		ApplicationResources.setPath("./foo/bar");
+		assertEquals("./foo/bar/compiled-audio", ApplicationResources.COMPILED_AUDIO_STORE());
+				
+	} // testCOMPILED_AUDIO_STORE()
+	
+
 	/**
 	 * Test method for {@link application.ApplicationResources#asString()}.
 	 */
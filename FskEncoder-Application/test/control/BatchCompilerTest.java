@@ -0,0 +1,318 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : BatchCompilerTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package control;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import application.ExitCodes;
+import extension.control.ReaderExtensionControl;
+import extension.control.TargetSystemExtensionControl;
+import extension.model.InputReaderExtensionDao;
+import extension.model.MemoryMap;
+import extension.model.MemoryRegion;
+import extension.model.TargetSystemExtensionDao;
+import extension.protocol.Protocol;
+import extension.sound.FskAudioFormat;
+import extension.source.ReaderBase;
+import extension.view.gui.ExtensionGui;
+
+/**
+ * Responsibilities:<br>
+ * Verifies the correct function of class BatchCompiler.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * Class under test,<br>
+ * WorkflowEngine as mock.
+ * 
+ * <p>
+ * Description:<br>
+ * The WorkflowEngine mock delivers a reader which creates one region per line of the input file
+ * and a protocol which encodes each data byte by a sample of the same value.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class BatchCompilerTest {
+
+	private static Logger LOGGER = null;
+	
+	private static final String TARGET_SYSTEM = "Test";
+	private static final int SAMPLING_RATE = 16000;
+	
+	@TempDir
+	Path tempDir;
+	
+	private WorkflowEngine workflowEngineMock;
+	
+	
+	/*
+	 * ===========================================================================
+	 */
+	
+	/*
+	 * Each line of the input file is a region of it's own, starting at 0x1000 * line number.
+	 */
+	class LineReader extends ReaderBase {
+		
+		LineReader(MemoryMap aMemoryMap) { super(aMemoryMap); }
+		
+		@Override
+		public boolean loadFile() {
+			
+			try {
+				
+				List<String> lines = Files.readAllLines(Path.of(sourceFileName));
+				
+				for(int n = 0; n < lines.size(); n++) {
+					MemoryRegion region = new MemoryRegion(0x1000L * (n + 1));
+					region.addContent(lines.get(n).getBytes());
+					memoryMap.addRegion(region);
+				}
+				
+				return true;
+				
+			} catch (IOException e) {
+				operationStatus = e.getMessage();
+				return false;
+			}
+			
+		} // loadFile()
+		
+	} // ssalc
+	
+	
+	/*
+	 * Each data byte becomes one sample.
+	 */
+	class ByteProtocol implements Protocol {
+		
+		@Override public ByteBuffer compile(ByteBuffer aDataBuffer) { return aDataBuffer.duplicate(); }
+		@Override public FskAudioFormat getAudioFormat() { return new FskAudioFormat(SAMPLING_RATE); }
+		
+	} // ssalc
+
+	/*
+	 * ===========================================================================
+	 */
+	
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeEach
+	void setUp() throws Exception {
+		
+		workflowEngineMock = mock(WorkflowEngine.class);
+		
+		when(workflowEngineMock.isTargetSystemDefined(TARGET_SYSTEM)).thenReturn(true);
+		
+		when(workflowEngineMock.createReaderExtension(TARGET_SYSTEM)).thenAnswer(invocation -> {
+			MemoryMap memoryMap = new MemoryMap();
+			return new InputReaderExtensionDao(new LineReader(memoryMap), memoryMap, mock(ExtensionGui.class), mock(ReaderExtensionControl.class));
+		});
+		
+		when(workflowEngineMock.createTargetExtension(TARGET_SYSTEM)).thenAnswer(invocation -> 
+			new TargetSystemExtensionDao(new ByteProtocol(), mock(ExtensionGui.class), mock(TargetSystemExtensionControl.class))
+		);
+		
+	} // setUp()
+
+
+	/**
+	 * Test method for {@link control.BatchCompiler#BatchCompiler(WorkflowEngine, String, File)}.
+	 */
+	@Test
+	final void testBatchCompiler() {
+		LOGGER.info("testBatchCompiler()");
+		
+		IllegalArgumentException thrown;
+		File outputDirectory = tempDir.toFile();
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new BatchCompiler(null, TARGET_SYSTEM, outputDirectory));
+		assertEquals("aWorkflowEngine can't be null!", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new BatchCompiler(workflowEngineMock, null, outputDirectory));
+		assertEquals("aTargetSystemName can't be null!", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new BatchCompiler(workflowEngineMock, TARGET_SYSTEM, null));
+		assertEquals("aOutputDirectory can't be null!", thrown.getMessage());
+		
+		BatchCompiler cut = new BatchCompiler(workflowEngineMock, TARGET_SYSTEM, outputDirectory);
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.withNbrOfWorkers(0));
+		assertEquals("aNbrOfWorkers must be greater than 0!", thrown.getMessage());
+		
+		assertEquals(cut, cut.withNbrOfWorkers(3));
+		assertEquals(3, cut.nbrOfWorkers);
+		
+	} // testBatchCompiler()
+
+
+	/**
+	 * Test method for {@link control.BatchCompiler#compile(List)}.
+	 * <p>
+	 * Every region of every file must be written to a WAV file of it's own.
+	 */
+	@Test
+	final void testCompile() throws Exception {
+		LOGGER.info("testCompile()");
+		
+		Path firstFile = Files.write(tempDir.resolve("first.txt"), List.of("Hello", "World!"));
+		Path secondFile = Files.write(tempDir.resolve("second.rom"), List.of("Lorem ipsum"));
+		
+		File outputDirectory = tempDir.resolve("wav").toFile();
+		
+		BatchCompiler cut = new BatchCompiler(workflowEngineMock, TARGET_SYSTEM, outputDirectory).withNbrOfWorkers(2);
+		
+		assertEquals(ExitCodes.EOK, cut.compile(List.of(firstFile.toString(), secondFile.toString())));
+		assertEquals(3, cut.getCompiledRegionCount());
+		assertEquals(0, cut.getFailureCount());
+		
+		assertWaveFile(new File(outputDirectory, "first_1000.wav"), 5);
+		assertWaveFile(new File(outputDirectory, "first_2000.wav"), 6);
+		assertWaveFile(new File(outputDirectory, "second_1000.wav"), 11);
+		
+		verify(workflowEngineMock, times(2)).createReaderExtension(TARGET_SYSTEM);
+		verify(workflowEngineMock, times(3)).createTargetExtension(TARGET_SYSTEM);
+		
+	} // testCompile()
+
+
+	/**
+	 * Test method for {@link control.BatchCompiler#compile(List)}.
+	 * <p>
+	 * Failures are reported by the exit code, the remaining files are compiled anyway.
+	 */
+	@Test
+	final void testCompileFailures() throws IOException {
+		LOGGER.info("testCompileFailures()");
+		
+		Path inputFile = Files.write(tempDir.resolve("input.txt"), List.of("Hello"));
+		File outputDirectory = tempDir.toFile();
+		
+		// nothing to do
+		BatchCompiler cut = new BatchCompiler(workflowEngineMock, TARGET_SYSTEM, outputDirectory);
+		assertEquals(ExitCodes.EINVAL, cut.compile(List.of()));
+		
+		// unknown target system
+		BatchCompiler unknownCut = new BatchCompiler(workflowEngineMock, "Unknown", outputDirectory);
+		assertEquals(ExitCodes.EINVAL, unknownCut.compile(List.of(inputFile.toString())));
+		
+		// output directory is a file
+		BatchCompiler fileCut = new BatchCompiler(workflowEngineMock, TARGET_SYSTEM, inputFile.toFile());
+		assertEquals(ExitCodes.EACCES, fileCut.compile(List.of(inputFile.toString())));
+		
+		// missing input file
+		assertEquals(ExitCodes.EIO, cut.compile(List.of(inputFile.toString(), "missing.txt")));
+		assertEquals(1, cut.getCompiledRegionCount());
+		assertEquals(1, cut.getFailureCount());
+		assertTrue(new File(outputDirectory, "input_1000.wav").isFile());
+		
+		// same base name in another directory or with another extension
+		Path otherDirectory = Files.createDirectories(tempDir.resolve("other"));
+		Path sameNameFile = Files.write(otherDirectory.resolve("input.txt"), List.of("World!"));
+		Path sameBaseNameFile = Files.write(tempDir.resolve("INPUT.rom"), List.of("World!"));
+		
+		BatchCompiler collisionCut = new BatchCompiler(workflowEngineMock, TARGET_SYSTEM, tempDir.resolve("wav").toFile());
+		
+		assertEquals(ExitCodes.EINVAL, collisionCut.compile(List.of(inputFile.toString(), sameNameFile.toString())));
+		assertEquals(ExitCodes.EINVAL, collisionCut.compile(List.of(inputFile.toString(), sameBaseNameFile.toString())));
+		assertEquals(0, collisionCut.getCompiledRegionCount());
+		assertFalse(tempDir.resolve("wav").toFile().exists());
+		
+	} // testCompileFailures()
+
+
+	/**
+	 * Verifies the correct behavior of toString()
+	 *
+	 * Test method for {@link #toString()}.
+	 */
+	@Test
+	void testToString() {
+		LOGGER.info("testToString()");
+		
+		BatchCompiler cut = new BatchCompiler(workflowEngineMock, TARGET_SYSTEM, new File("out")).withNbrOfWorkers(2);
+		
+		assertEquals("BatchCompiler [targetSystemName=Test, outputDirectory=out, nbrOfWorkers=2, compiledRegionCount=0, failureCount=0]", 
+				cut.toString());
+		
+	} // testToString()
+	
+	
+	/*
+	 * Verifies the format and the length of a WAV file.
+	 */
+	private void assertWaveFile(File aWaveFile, int aFrameLength) throws UnsupportedAudioFileException, IOException {
+		
+		assertTrue(aWaveFile.isFile(), aWaveFile.toString());
+		
+		AudioFileFormat fileFormat = AudioSystem.getAudioFileFormat(aWaveFile);
+		
+		assertEquals(AudioFileFormat.Type.WAVE, fileFormat.getType());
+		assertEquals(SAMPLING_RATE, (int) fileFormat.getFormat().getSampleRate());
+		assertEquals(aFrameLength, fileFormat.getFrameLength());
+		
+	} // assertWaveFile()
+
+
+} // ssalc
@@ -0,0 +1,300 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : CompiledAudioStoreTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package control;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import control.CompiledRegionCache.RegionKey;
+import extension.sound.FskAudioFormat;
+
+/**
+ * Responsibilities:<br>
+ * Verifies the correct function of class CompiledAudioStore.
+ *
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ *
+ * <p>
+ * Description:<br>
+ * A new instance on the same directory acts like a new session of the application.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class CompiledAudioStoreTest {
+
+	private static Logger LOGGER = null;
+	
+	private static final FskAudioFormat AUDIO_FORMAT = new FskAudioFormat(16000);
+	
+	@TempDir
+	Path tempDir;
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link control.CompiledAudioStore#CompiledAudioStore(Path)}.
+	 */
+	@Test
+	final void testCompiledAudioStore() {
+		LOGGER.info("testCompiledAudioStore()");
+
+		IllegalArgumentException thrown;
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new CompiledAudioStore(null));
+		assertEquals("aDirectory can't be null!", thrown.getMessage());
+		
+		Path directory = tempDir.resolve("store");
+		CompiledAudioStore cut = new CompiledAudioStore(directory);
+		
+		assertEquals(directory, cut.getDirectory());
+		assertEquals(CompiledAudioStore.DEFAULT_MAX_SIZE, cut.getMaxSize());
+		assertEquals(0, cut.getEntryCount());
+		assertFalse(Files.exists(directory));
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.withMaxSize(-1));
+		assertEquals("aMaxSize can't be less than 0!", thrown.getMessage());
+		assertEquals(42, cut.withMaxSize(42).getMaxSize());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.get(null, AUDIO_FORMAT));
+		assertEquals("aKey can't be null!", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.get(createKey(0, 1), null));
+		assertEquals("aAudioFormat can't be null!", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.put(null, ByteBuffer.allocate(1), AUDIO_FORMAT));
+		assertEquals("aKey can't be null!", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.put(createKey(0, 1), null, AUDIO_FORMAT));
+		assertEquals("aSoundSamples can't be null!", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.put(createKey(0, 1), ByteBuffer.allocate(1), null));
+		assertEquals("aAudioFormat can't be null!", thrown.getMessage());
+
+	} // testCompiledAudioStore()
+
+
+	/**
+	 * Test method for {@link control.CompiledAudioStore#get(RegionKey, FskAudioFormat)} and 
+	 * {@link control.CompiledAudioStore#put(RegionKey, ByteBuffer, FskAudioFormat)}.
+	 * <p>
+	 * Stored regions are mapped in the next session.
+	 */
+	@Test
+	final void testGetPut() throws Exception {
+		LOGGER.info("testGetPut()");
+
+		CompiledAudioStore cut = new CompiledAudioStore(tempDir);
+		
+		assertNull(cut.get(createKey(0x1000, 1, 2, 3), AUDIO_FORMAT));
+		assertEquals(1, cut.getMissCount());
+		
+		ByteBuffer soundSamples = ByteBuffer.wrap(new byte[] { 10, 20, 30, 40, 50 });
+		
+		assertTrue(cut.put(createKey(0x1000, 1, 2, 3), soundSamples, AUDIO_FORMAT));
+		
+		assertEquals(0, soundSamples.position());
+		assertEquals(1, cut.getEntryCount());
+		assertEquals(5, cut.getCurrentSize());
+		assertTrue(Files.isRegularFile(tempDir.resolve(CompiledAudioStore.INDEX_FILE)));
+		
+		// next session
+		CompiledAudioStore session = new CompiledAudioStore(tempDir);
+		
+		assertEquals(1, session.getEntryCount());
+		assertEquals(5, session.getCurrentSize());
+		
+		ByteBuffer stored = session.get(createKey(0x1000, 1, 2, 3), AUDIO_FORMAT);
+		
+		assertEquals(1, session.getHitCount());
+		assertTrue(stored instanceof MappedByteBuffer);
+		assertTrue(stored.isReadOnly());
+		assertEquals(soundSamples, stored);
+		
+		assertNull(session.get(createKey(0x1000, 1, 2, 4), AUDIO_FORMAT));
+		assertNull(session.get(createKey(0x1001, 1, 2, 3), AUDIO_FORMAT));
+		assertEquals(2, session.getMissCount());
+		
+		// too large
+		assertFalse(session.withMaxSize(4).put(createKey(0x2000, 1), soundSamples, AUDIO_FORMAT));
+		
+		// a damaged entry is dropped
+		Files.write(tempDir.resolve(createKey(0x1000, 1, 2, 3).getDigest() + ".raw"), new byte[] { 1, 2 });
+		
+		CompiledAudioStore damaged = new CompiledAudioStore(tempDir);
+		
+		assertEquals(0, damaged.getEntryCount());
+		assertNull(damaged.get(createKey(0x1000, 1, 2, 3), AUDIO_FORMAT));
+		
+		damaged.flush();
+
+	} // testGetPut()
+
+
+	/**
+	 * Test method for {@link control.CompiledAudioStore#put(RegionKey, ByteBuffer, FskAudioFormat)}.
+	 * <p>
+	 * The least recently used entries are deleted, the order survives the session.
+	 */
+	@Test
+	final void testEviction() {
+		LOGGER.info("testEviction()");
+
+		CompiledAudioStore cut = new CompiledAudioStore(tempDir).withMaxSize(100);
+		
+		cut.put(createKey(1, 1), ByteBuffer.allocate(40), AUDIO_FORMAT);
+		cut.put(createKey(2, 2), ByteBuffer.allocate(40), AUDIO_FORMAT);
+		
+		// region 1 is used now, so region 2 is the eldest
+		assertNotNull(cut.get(createKey(1, 1), AUDIO_FORMAT));
+		
+		cut.flush();
+		
+		CompiledAudioStore session = new CompiledAudioStore(tempDir).withMaxSize(100);
+		
+		session.put(createKey(3, 3), ByteBuffer.allocate(40), AUDIO_FORMAT);
+		
+		assertEquals(2, session.getEntryCount());
+		assertEquals(80, session.getCurrentSize());
+		assertFalse(Files.exists(tempDir.resolve(createKey(2, 2).getDigest() + ".raw")));
+		
+		assertNotNull(session.get(createKey(1, 1), AUDIO_FORMAT));
+		assertNull(session.get(createKey(2, 2), AUDIO_FORMAT));
+		assertNotNull(session.get(createKey(3, 3), AUDIO_FORMAT));
+		
+		// a lowered bound is applied on the next session
+		CompiledAudioStore smaller = new CompiledAudioStore(tempDir).withMaxSize(50);
+		
+		assertEquals(1, smaller.getEntryCount());
+		assertNotNull(smaller.get(createKey(3, 3), AUDIO_FORMAT));
+		
+		smaller.clear();
+		
+		assertEquals(0, smaller.getEntryCount());
+		assertEquals(0, smaller.getCurrentSize());
+		
+		smaller.flush();
+		
+		assertEquals(0, new CompiledAudioStore(tempDir).getEntryCount());
+
+	} // testEviction()
+
+
+	/**
+	 * Test method for {@link control.CompiledAudioStore#putAsync(RegionKey, ByteBuffer, FskAudioFormat)}.
+	 */
+	@Test
+	final void testPutAsync() throws Exception {
+		LOGGER.info("testPutAsync()");
+
+		CompiledAudioStore cut = new CompiledAudioStore(tempDir);
+		
+		IllegalArgumentException thrown;
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.putAsync(createKey(1, 1), null, AUDIO_FORMAT));
+		assertEquals("aSoundSamples can't be null!", thrown.getMessage());
+		
+		CompletableFuture<Boolean> stored = cut.putAsync(createKey(1, 1, 2), ByteBuffer.wrap(new byte[] { 1, 2 }), AUDIO_FORMAT);
+		
+		assertTrue(stored.get(5, TimeUnit.SECONDS));
+		assertEquals(1, cut.getEntryCount());
+		
+		cut.putAsync(createKey(2, 3, 4), ByteBuffer.wrap(new byte[] { 3, 4 }), AUDIO_FORMAT);
+		cut.flush();
+		
+		CompiledAudioStore session = new CompiledAudioStore(tempDir);
+		
+		assertEquals(2, session.getEntryCount());
+		assertNotNull(session.get(createKey(2, 3, 4), AUDIO_FORMAT));
+		
+		session.flush();
+
+	} // testPutAsync()
+
+
+	/**
+	 * Verifies the correct behavior of toString()
+	 *
+	 * Test method for {@link #toString()}.
+	 */
+	@Test
+	void testToString() {
+		LOGGER.info("testToString()");
+
+		CompiledAudioStore cut = new CompiledAudioStore(Path.of("store")).withMaxSize(100);
+
+		assertEquals("CompiledAudioStore [directory=store, maxSize=100, currentSize=0, entryCount=0, hitCount=0, missCount=0]", 
+				cut.toString());
+
+	} // testToString()
+	
+	
+	/*
+	 * Creates the key of a region starting at aStartAddress with the content aContent.
+	 */
+	private RegionKey createKey(final long aStartAddress, final int... aContent) {
+		
+		byte[] content = new byte[aContent.length];
+		
+		for(int n = 0; n < content.length; n++) {
+			content[n] = (byte) aContent[n];
+		}
+		
+		return new RegionKey("protocol", aStartAddress, aStartAddress + content.length - 1, ByteBuffer.wrap(content));
+		
+	} // createKey(...)
+
+
+} // ssalc
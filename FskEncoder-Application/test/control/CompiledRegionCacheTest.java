@@ -0,0 +1,297 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : CompiledRegionCacheTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package control;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import control.CompiledRegionCache.RegionKey;
+
+/**
+ * Responsibilities:<br>
+ * Verifies the correct function of class CompiledRegionCache.
+ *
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ *
+ * <p>
+ * Description:<br>
+ * Covers the content addressed keys, the copies and read-only views, the counters and the 
+ * eviction of the least recently used regions.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class CompiledRegionCacheTest {
+
+	private static Logger LOGGER = null;
+	
+	private static final String CONFIGURATION = "protocol";
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link control.CompiledRegionCache#CompiledRegionCache(long)}.
+	 */
+	@Test
+	final void testCompiledRegionCache() {
+		LOGGER.info("testCompiledRegionCache()");
+
+		IllegalArgumentException thrown;
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new CompiledRegionCache(-1));
+		assertEquals("aMaxSize can't be less than 0!", thrown.getMessage());
+		
+		CompiledRegionCache cut = new CompiledRegionCache(100);
+		
+		assertEquals(100, cut.getMaxSize());
+		assertEquals(0, cut.getCurrentSize());
+		assertEquals(0, cut.getRegionCount());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.get(null));
+		assertEquals("aKey can't be null!", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.put(null, ByteBuffer.allocate(1)));
+		assertEquals("aKey can't be null!", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.put(createKey(0, 1, 2), null));
+		assertEquals("aSoundSamples can't be null!", thrown.getMessage());
+
+	} // testCompiledRegionCache()
+
+
+	/**
+	 * Test method for {@link control.CompiledRegionCache.RegionKey#RegionKey(String, long, long, ByteBuffer)}.
+	 * <p>
+	 * Keys are equal only if configuration, addresses and content are equal.
+	 */
+	@Test
+	final void testRegionKey() {
+		LOGGER.info("testRegionKey()");
+
+		IllegalArgumentException thrown;
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new RegionKey(null, 0, 0, ByteBuffer.allocate(1)));
+		assertEquals("aConfigurationKey can't be null!", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new RegionKey(CONFIGURATION, 0, 0, null));
+		assertEquals("aContent can't be null!", thrown.getMessage());
+		
+		RegionKey key = createKey(0x1000, 1, 2, 3);
+		
+		assertEquals(key, createKey(0x1000, 1, 2, 3));
+		assertEquals(key.hashCode(), createKey(0x1000, 1, 2, 3).hashCode());
+		assertEquals(3, key.getContentSize());
+		
+		assertNotEquals(key, createKey(0x1000, 1, 2, 4));
+		assertNotEquals(key, createKey(0x1001, 1, 2, 3));
+		assertNotEquals(key, new RegionKey(CONFIGURATION, 0x1000, 0x1003, ByteBuffer.wrap(new byte[] { 1, 2, 3 })));
+		assertNotEquals(key, new RegionKey("other", 0x1000, 0x1002, ByteBuffer.wrap(new byte[] { 1, 2, 3 })));
+		
+		// the content is taken from 0 to the limit and copied
+		byte[] content = { 1, 2, 3 };
+		ByteBuffer buffer = ByteBuffer.wrap(content);
+		buffer.position(3);
+		
+		RegionKey copied = new RegionKey(CONFIGURATION, 0x1000, 0x1002, buffer);
+		
+		assertEquals(3, buffer.position());
+		assertEquals(key, copied);
+		
+		content[0] = 42;
+		assertEquals(key, copied);
+		
+		assertEquals(64, key.getDigest().length());
+		assertEquals(key.getDigest(), copied.getDigest());
+		assertNotEquals(key.getDigest(), createKey(0x1000, 1, 2, 4).getDigest());
+		assertNotEquals(key.getDigest(), createKey(0x1001, 1, 2, 3).getDigest());
+		assertNotEquals(key.getDigest(), new RegionKey("other", 0x1000, 0x1002, ByteBuffer.wrap(new byte[] { 1, 2, 3 })).getDigest());
+		
+		assertEquals(String.format("RegionKey [startAddress=0x1000, endAddress=0x1002, contentSize=3, contentHash=%08X]", 
+				key.getContentHash()), key.toString());
+
+	} // testRegionKey()
+
+
+	/**
+	 * Test method for {@link control.CompiledRegionCache#get(RegionKey)} and 
+	 * {@link control.CompiledRegionCache#put(RegionKey, ByteBuffer)}.
+	 */
+	@Test
+	final void testGetPut() {
+		LOGGER.info("testGetPut()");
+
+		CompiledRegionCache cut = new CompiledRegionCache(CompiledRegionCache.DEFAULT_MAX_SIZE);
+		
+		assertNull(cut.get(createKey(0, 1, 2, 3)));
+		assertEquals(0, cut.getHitCount());
+		assertEquals(1, cut.getMissCount());
+		
+		byte[] samples = { 10, 20, 30, 40, 50 };
+		ByteBuffer soundSamples = ByteBuffer.wrap(samples);
+		soundSamples.position(2);
+		
+		ByteBuffer stored = cut.put(createKey(0, 1, 2, 3), soundSamples);
+		
+		assertEquals(2, soundSamples.position());
+		assertEquals(0, stored.position());
+		assertTrue(stored.isReadOnly());
+		assertEquals(ByteBuffer.wrap(new byte[] { 10, 20, 30, 40, 50 }), stored);
+		assertEquals(1, cut.getRegionCount());
+		assertEquals(5 + 3, cut.getCurrentSize());
+		
+		// the cache holds a copy
+		samples[0] = 0;
+		
+		ByteBuffer cached = cut.get(createKey(0, 1, 2, 3));
+		
+		assertEquals(1, cut.getHitCount());
+		assertEquals(1, cut.getMissCount());
+		
+		assertEquals(0, cached.position());
+		assertEquals(5, cached.limit());
+		assertEquals(10, cached.get(0));
+		assertTrue(cached.isReadOnly());
+		assertThrows(ReadOnlyBufferException.class, () -> cached.put((byte) 0));
+		
+		// each view has it's own position
+		cached.position(3);
+		assertEquals(0, cut.get(createKey(0, 1, 2, 3)).position());
+		
+		// replacing a region
+		cut.put(createKey(0, 1, 2, 3), ByteBuffer.allocate(7));
+		assertEquals(1, cut.getRegionCount());
+		assertEquals(7 + 3, cut.getCurrentSize());
+		
+		cut.clear();
+		
+		assertEquals(0, cut.getRegionCount());
+		assertEquals(0, cut.getCurrentSize());
+		assertEquals(2, cut.getHitCount());
+
+	} // testGetPut()
+
+
+	/**
+	 * Test method for {@link control.CompiledRegionCache#put(RegionKey, ByteBuffer)}.
+	 * <p>
+	 * The least recently used regions are evicted, too large regions are not stored.
+	 */
+	@Test
+	final void testEviction() {
+		LOGGER.info("testEviction()");
+
+		CompiledRegionCache cut = new CompiledRegionCache(100);
+		
+		cut.put(createKey(1, 1), ByteBuffer.allocate(39));
+		cut.put(createKey(2, 2), ByteBuffer.allocate(39));
+		
+		assertEquals(80, cut.getCurrentSize());
+		
+		// region 1 is used now, so region 2 is the eldest
+		assertNotNull(cut.get(createKey(1, 1)));
+		
+		cut.put(createKey(3, 3), ByteBuffer.allocate(39));
+		
+		assertEquals(2, cut.getRegionCount());
+		assertEquals(80, cut.getCurrentSize());
+		
+		assertNotNull(cut.get(createKey(1, 1)));
+		assertNull(cut.get(createKey(2, 2)));
+		assertNotNull(cut.get(createKey(3, 3)));
+		
+		// larger than the bound
+		assertNull(cut.put(createKey(4, 4), ByteBuffer.allocate(100)));
+		
+		assertEquals(2, cut.getRegionCount());
+		assertNull(cut.get(createKey(4, 4)));
+		
+		// a cache of size 0 holds nothing
+		CompiledRegionCache empty = new CompiledRegionCache(0);
+		empty.put(createKey(1, 1), ByteBuffer.allocate(1));
+		
+		assertEquals(0, empty.getRegionCount());
+
+	} // testEviction()
+
+
+	/**
+	 * Verifies the correct behavior of toString()
+	 *
+	 * Test method for {@link #toString()}.
+	 */
+	@Test
+	void testToString() {
+		LOGGER.info("testToString()");
+
+		CompiledRegionCache cut = new CompiledRegionCache(100);
+		cut.get(createKey(1, 1));
+
+		assertEquals("CompiledRegionCache [maxSize=100, currentSize=0, regionCount=0, hitCount=0, missCount=1]", cut.toString());
+
+	} // testToString()
+	
+	
+	/*
+	 * Creates the key of a region starting at aStartAddress with the content aContent.
+	 */
+	private RegionKey createKey(final long aStartAddress, final int... aContent) {
+		
+		byte[] content = new byte[aContent.length];
+		
+		for(int n = 0; n < content.length; n++) {
+			content[n] = (byte) aContent[n];
+		}
+		
+		return new RegionKey(CONFIGURATION, aStartAddress, aStartAddress + content.length - 1, ByteBuffer.wrap(content));
+		
+	} // createKey(...)
+
+
+} // ssalc
@@ -0,0 +1,278 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : RegionStreamCompilerTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package control;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import extension.model.MemoryRegion;
+import extension.protocol.BackgroundTaskProtokol;
+import extension.sound.FskAudioFormat;
+import extension.sound.SymbolStream;
+
+/**
+ * Responsibilities:<br>
+ * Verifies the correct function of class RegionStreamCompiler.
+ *
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ *
+ * <p>
+ * Description:<br>
+ * The protocol is mocked, it compiles each data byte to a wave cycle of four samples.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class RegionStreamCompilerTest {
+
+	private static Logger LOGGER = null;
+	
+	private static final byte[] CYCLE = new byte[] { 0, 127, 0, -127 };
+	
+	BackgroundTaskProtokol protocolMock;
+	List<MemoryRegion> regions;
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeEach
+	void setUp() throws Exception {
+		
+		protocolMock = mock(BackgroundTaskProtokol.class);
+		
+		when(protocolMock.getAudioFormat()).thenReturn(new FskAudioFormat(8000));
+		when(protocolMock.getInterBlockSilence()).thenReturn(10);
+		when(protocolMock.compileSymbols(any())).thenAnswer(invocation -> {
+			ByteBuffer data = invocation.getArgument(0);
+			SymbolStream stream = new SymbolStream();
+			stream.append(ByteBuffer.wrap(CYCLE), data.remaining());
+			return stream;
+		});
+		
+		regions = new ArrayList<>();
+		
+		MemoryRegion region = new MemoryRegion(0x1000);
+		region.addContent(new byte[] { 1, 2, 3 });
+		regions.add(region);
+		
+		region = new MemoryRegion(0x2000);
+		region.addContent(new byte[] { 4, 5 });
+		regions.add(region);
+		
+	} // setUp()
+
+
+	/**
+	 * Test method for {@link control.RegionStreamCompiler#RegionStreamCompiler(BackgroundTaskProtokol, List)}.
+	 */
+	@Test
+	void testRegionStreamCompiler() {
+		LOGGER.info("testRegionStreamCompiler()");
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, 
+				() -> new RegionStreamCompiler(null, regions));
+		assertEquals("aProtocol can't be null!", thrown.getMessage());
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> new RegionStreamCompiler(protocolMock, null));
+		assertEquals("aRegions can't be null or empty!", thrown.getMessage());
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> new RegionStreamCompiler(protocolMock, new ArrayList<>()));
+		assertEquals("aRegions can't be null or empty!", thrown.getMessage());
+
+		RegionStreamCompiler cut = new RegionStreamCompiler(protocolMock, regions);
+		
+		assertEquals(2, cut.getRegionCount());
+		assertEquals(0, cut.getCompiledRegionCount());
+		assertFalse(cut.isComplete());
+
+		IllegalAccessError error = assertThrows(IllegalAccessError.class, () -> cut.getSymbolStream());
+		assertEquals("Nothing has been compiled so far.", error.getMessage());
+
+	} // testRegionStreamCompiler()
+
+
+	/**
+	 * Test method for {@link control.RegionStreamCompiler#runBackgroundTask()}.
+	 * <p>
+	 * The regions are compiled in order and separated by the inter block silence.
+	 */
+	@Test
+	void testRunBackgroundTask() {
+		LOGGER.info("testRunBackgroundTask()");
+
+		RegionStreamCompiler cut = new RegionStreamCompiler(protocolMock, regions);
+		
+		cut.runBackgroundTask();
+		
+		assertTrue(cut.isComplete());
+		assertEquals(2, cut.getCompiledRegionCount());
+		
+		verify(protocolMock).setStartAddress(0x1000);
+		verify(protocolMock).setEndAddress(0x1002);
+		verify(protocolMock).setStartAddress(0x2000);
+		verify(protocolMock).setEndAddress(0x2001);
+		verify(protocolMock, times(2)).compileSymbols(any());
+		
+		SymbolStream stream = cut.getSymbolStream();
+		
+		// 3 bytes, 10 ms of silence at 8 kHz, 2 bytes
+		assertEquals(3 * 4 + 80 + 2 * 4, stream.getSampleCount());
+		assertEquals(3, stream.getEntryCount());
+		
+		byte[] samples = stream.toByteBuffer().array();
+		
+		assertEquals(127, samples[1]);
+		assertEquals(-127, samples[11]);
+		
+		for(int n = 12; n < 92; n++) assertEquals(0, samples[n]);
+		
+		assertEquals(127, samples[93]);
+		
+		// without silence
+		when(protocolMock.getInterBlockSilence()).thenReturn(0);
+		
+		cut.runBackgroundTask();
+		
+		assertEquals(5 * 4, cut.getSymbolStream().getSampleCount());
+		assertEquals(1, cut.getSymbolStream().getEntryCount());
+		
+	} // testRunBackgroundTask()
+
+
+	/**
+	 * Test method for {@link control.RegionStreamCompiler#stop()}.
+	 * <p>
+	 * A stopped compilation holds the regions compiled so far, but isn't complete.
+	 */
+	@Test
+	void testStop() {
+		LOGGER.info("testStop()");
+
+		RegionStreamCompiler cut = new RegionStreamCompiler(protocolMock, regions);
+		
+		doAnswer(invocation -> {
+			cut.stop();
+			return new SymbolStream();
+		}).when(protocolMock).compileSymbols(any());
+		
+		cut.runBackgroundTask();
+		
+		verify(protocolMock, times(1)).compileSymbols(any());
+		
+		assertFalse(cut.isComplete());
+		assertEquals(1, cut.getCompiledRegionCount());
+		assertEquals(0, cut.getSymbolStream().getSampleCount());
+		
+	} // testStop()
+
+
+	/**
+	 * Test method for {@link control.RegionStreamCompiler#runBackgroundTask()}.
+	 * <p>
+	 * The CancellationToken is shared with the protocol, a region aborted by it isn't part of the stream.
+	 */
+	@Test
+	void testCancellation() {
+		LOGGER.info("testCancellation()");
+
+		RegionStreamCompiler cut = new RegionStreamCompiler(protocolMock, regions);
+		
+		doAnswer(invocation -> {
+			cut.getCancellationToken().cancel();
+			cut.getCancellationToken().throwIfCancelled();
+			return new SymbolStream();
+		}).when(protocolMock).compileSymbols(any());
+		
+		cut.runBackgroundTask();
+		
+		verify(protocolMock).setCancellationToken(cut.getCancellationToken());
+		verify(protocolMock, times(1)).compileSymbols(any());
+		
+		assertFalse(cut.isComplete());
+		assertEquals(0, cut.getCompiledRegionCount());
+		assertEquals(0, cut.getSymbolStream().getSampleCount());
+		
+		// a cancelled token stops before the first region
+		cut.runBackgroundTask();
+		
+		verify(protocolMock, times(1)).compileSymbols(any());
+		assertThrows(CancellationException.class, () -> cut.getCancellationToken().throwIfCancelled());
+		
+	} // testCancellation()
+
+
+	/**
+	 * Verifies the correct behavior of toString()
+	 *
+	 * Test method for {@link #toString()}.
+	 */
+	@Test
+	void testToString() {
+		LOGGER.info("testToString()");
+
+		RegionStreamCompiler cut = new RegionStreamCompiler(protocolMock, regions);
+
+		assertTrue(cut.toString().startsWith("RegionStreamCompiler [regionCount=2, compiledRegionCount=0, symbolStream=null, "));
+
+	} // testToString()
+
+
+} // ssalc
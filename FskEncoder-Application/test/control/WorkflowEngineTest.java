@@ -32,6 +32,8 @@ package control;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -39,9 +41,11 @@ import static org.mockito.Mockito.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.sound.sampled.Mixer.Info;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
 import org.apache.logging.log4j.LogManager;
@@ -71,6 +75,7 @@ import extension.model.MemoryRegion;
 import extension.model.TargetSystemExtensionDao;
 import extension.protocol.Protocol;
 import extension.sound.FskAudioFormat;
+import extension.source.LoadMonitor;
 import extension.source.Reader;
 import extension.view.gui.ExtensionGui;
 import model.FskUploaderModel;
@@ -109,6 +114,7 @@ class WorkflowEngineTest {
 	private InputReaderExtensionFactory inputReaderFactoryMock;
 	private ReaderExtensionControl readerExtensionControllerMock;
 	private InputReaderExtensionDao inputReaderExtensionDao;
+	private MemoryMap memoryMapMock;
 
 	private TargetSystemExtensionFactory targetSystemFactoryMock;
 	private TargetSystemExtensionControl  targetSystemExtensionControllerMock;
@@ -157,7 +163,7 @@ class WorkflowEngineTest {
 		mainWindowControllerMock = mock(MainWindowController.class);
 				
 		readerMock = mock(Reader.class);
-		MemoryMap memoryMapMock = mock(MemoryMap.class);
+		memoryMapMock = mock(MemoryMap.class);
 
 		readerExtensionControllerMock = mock(ReaderExtensionControl.class);
 		
@@ -379,12 +385,37 @@ class WorkflowEngineTest {
 			
 			when(readerExtensionControllerMock.createLayout()).thenReturn(extensionGuiMock);
 			
+			// the plug-in reports from the loading thread
+			cut.registerCallback(statusBarUpdateMock);
+			doAnswer(invocation -> { cut.setStatusMessage("2 regions loaded"); return null; })
+				.when(readerExtensionControllerMock).load();
+			
+			AtomicBoolean isOnEdt = new AtomicBoolean();
+			doAnswer(invocation -> { isOnEdt.set(SwingUtilities.isEventDispatchThread()); return null; })
+				.when(statusBarUpdateMock).setStatusMessage("2 regions loaded");
+			
 			cut.setReaderPlugin(TARGET_SYSTEM);
 			
-			// test
+			// test: the file is loaded in background, the GUI is updated when done
 			cut.loadCandidateFile();
-			verify(readerExtensionControllerMock, times(1)).load();
-			verify(mainWindowControllerMock, times(2)).setReaderExtensionPanel(extensionGuiMock);
+			verify(readerExtensionControllerMock, timeout(5000).times(1)).load();
+			verify(mainWindowControllerMock, timeout(5000).times(2)).setReaderExtensionPanel(extensionGuiMock);
+			
+			// the new memory map is published before the GUI is updated
+			InOrder loadOrder = inOrder(memoryMapMock, readerExtensionControllerMock);
+			loadOrder.verify(memoryMapMock).beginUpdate();
+			loadOrder.verify(readerExtensionControllerMock).load();
+			loadOrder.verify(memoryMapMock).endUpdate();
+			loadOrder.verify(memoryMapMock).commitUpdate();
+			loadOrder.verify(readerExtensionControllerMock).createLayout();
+			verify(memoryMapMock, never()).discardUpdate();
+			
+			// the message of the plug-in is shown on the event dispatch thread
+			verify(statusBarUpdateMock, timeout(5000).atLeastOnce()).setStatusMessage("2 regions loaded");
+			assertTrue(isOnEdt.get());
+			
+			assertFalse(cut.isLoading());
+			assertTrue(cut.candidateFileLoader.isComplete());
 			
 		} // yrt
 		catch (Exception e) {
@@ -396,6 +427,84 @@ class WorkflowEngineTest {
 	} // testLoadCandidateFile()
 
 
+	/**
+	 * Test method for {@link control.WorkflowEngine#cancelLoad()}.
+	 * <p>
+	 * The load is terminated by the LoadMonitor of the loading thread, a second load request 
+	 * meanwhile is ignored.
+	 */
+	@Test
+	final void testCancelLoad() {
+		LOGGER.info("testCancelLoad()");
+
+		final String TARGET_SYSTEM = "Test";
+		
+		try(
+			
+			MockedStatic<PlugInFactory> msPlugInFactory = mockStatic(PlugInFactory.class);
+				
+		)
+		{
+		
+			WorkflowEngine cut = new WorkflowEngine(fskUploaderModelMock);
+			cut.registerCallback(mainWindowControllerMock);
+			cut.registerCallback(statusBarUpdateMock);
+
+			when(fskUploaderModelMock.getInputReaderProviderClassName(TARGET_SYSTEM)).thenReturn("tEST");
+			
+			msPlugInFactory.when( () -> PlugInFactory.getInputReaderExtensionFactory(any()) )
+				.thenReturn(inputReaderFactoryMock);
+			
+			when(inputReaderFactoryMock.getInputReaderExtensions(cut)).thenReturn(inputReaderExtensionDao);
+			
+			when(readerExtensionControllerMock.createLayout()).thenReturn(extensionGuiMock);
+			
+			// a load which runs till it's cancelled
+			doAnswer(invocation -> {
+				
+				LoadMonitor loadMonitor = LoadMonitor.current();
+				assertNotNull(loadMonitor);
+				
+				for(long n = 0; ; n++) {
+					loadMonitor.update(n % 1000, 1000);
+					Thread.sleep(1);
+				}
+				
+			}).when(readerExtensionControllerMock).load();
+			
+			cut.setReaderPlugin(TARGET_SYSTEM);
+			cut.setSelectedFileName("test.hex");
+			
+			cut.loadCandidateFile();
+			assertTrue(cut.isLoading());
+			
+			cut.loadCandidateFile();
+			verify(statusBarUpdateMock, timeout(5000)).setStatusMessage("Loading in progress, please wait");
+			
+			cut.cancelLoad();
+			
+			// the previous memory map and GUI are kept
+			verify(statusBarUpdateMock, timeout(5000)).setStatusMessage("Loading of test.hex cancelled");
+			verify(mainWindowControllerMock, times(1)).setReaderExtensionPanel(extensionGuiMock);
+			verify(readerExtensionControllerMock, times(1)).load();
+			verify(readerExtensionControllerMock, times(1)).createLayout();
+			verify(memoryMapMock, times(1)).endUpdate();
+			verify(memoryMapMock, times(1)).discardUpdate();
+			verify(memoryMapMock, never()).commitUpdate();
+			
+			assertFalse(cut.isLoading());
+			assertFalse(cut.candidateFileLoader.isComplete());
+			
+		} // yrt
+		catch (Exception e) {
+			
+			LOGGER.error("Unexpected exception caught: {}", e);
+			fail("Unexpected exception caught: " + e);
+		}
+		
+	} // testCancelLoad()
+
+
 	/**
 	 * Test method for {@link control.WorkflowEngine#registerCallback(control.gui.InputFileController)}.
 	 */
@@ -422,6 +531,7 @@ class WorkflowEngineTest {
 			assertEquals("aInputFileController can't be null.", thrown.getMessage());
 			
 			assertDoesNotThrow(() -> { cut.registerCallback(controllerMock); });
+			assertEquals(1, mcEnlistOutputDevices.constructed().size());
 			
 		} // yrt
 		
@@ -452,6 +562,7 @@ class WorkflowEngineTest {
 			assertEquals("aMainWindowController can't be null.", thrown.getMessage());
 			
 			assertDoesNotThrow(() -> { cut.registerCallback(mainWindowControllerMock); });
+			assertEquals(1, mcEnlistOutputDevices.constructed().size());
 			
 		} // yrt
 		
@@ -484,6 +595,7 @@ class WorkflowEngineTest {
 			assertEquals("aOutputDeviceSelection can't be null.", thrown.getMessage());
 			
 			assertDoesNotThrow(() -> { cut.registerCallback(controllerMock); });
+			assertEquals(1, mcEnlistOutputDevices.constructed().size());
 			
 		} // yrt
 		
@@ -516,6 +628,7 @@ class WorkflowEngineTest {
 			assertEquals("aStatusBarUpdate can't be null.", thrown.getMessage());
 			
 			assertDoesNotThrow(() -> { cut.registerCallback(controllerMock); });
+			assertEquals(1, mcEnlistOutputDevices.constructed().size());
 			
 		} // yrt
 		
@@ -693,10 +806,27 @@ class WorkflowEngineTest {
 			WorkflowEngine cut = new WorkflowEngine(fskUploaderModelMock);
 			cut.registerCallback(controllerMock);
 			
+			// on the event dispatch thread the message is passed at once
+			SwingUtilities.invokeAndWait(() -> {
+				cut.setStatusMessage(MESSAGE);
+				verify(controllerMock, times(1)).setStatusMessage(MESSAGE);
+			});
+			
+			// from other threads it's passed by the event dispatch thread
 			cut.setStatusMessage(MESSAGE);
-			verify(controllerMock, times(1)).setStatusMessage(MESSAGE);
+			verify(controllerMock, timeout(5000).times(2)).setStatusMessage(MESSAGE);
+			
+			// headless, the message is logged only
+			WorkflowEngine headlessCut = new WorkflowEngine(fskUploaderModelMock);
+			assertDoesNotThrow(() -> headlessCut.setStatusMessage(MESSAGE));
+			assertEquals(2, mcEnlistOutputDevices.constructed().size());
 			
 		} // yrt
+		catch (Exception e) {
+			
+			LOGGER.error("Unexpected exception caught: {}", e);
+			fail("Unexpected exception caught: " + e);
+		}
 		
 	} // testSetStatusMessage()
 
@@ -769,6 +899,33 @@ class WorkflowEngineTest {
 	} // testSetTargetPlugin()
 
 
+	/**
+	 * Test method for {@link control.WorkflowEngine#isTargetSystemDefined(java.lang.String)}.
+	 */
+	@Test
+	final void testIsTargetSystemDefined() {
+		LOGGER.info("testIsTargetSystemDefined()");
+
+		try(
+		
+			MockedConstruction<EnlistOutputDevices> mcEnlistOutputDevices = mockConstruction(EnlistOutputDevices.class);
+			
+		) {
+			
+			when(fskUploaderModelMock.getTargetSystemProviderClassName("Test")).thenReturn("tEST");
+			when(fskUploaderModelMock.getTargetSystemProviderClassName("Unknown")).thenReturn(FskUploaderModel.NOT_DEFINED);
+			
+			WorkflowEngine cut = new WorkflowEngine(fskUploaderModelMock);
+			
+			assertTrue(cut.isTargetSystemDefined("Test"));
+			assertFalse(cut.isTargetSystemDefined("Unknown"));
+			assertEquals(1, mcEnlistOutputDevices.constructed().size());
+			
+		} // yrt
+		
+	} // testIsTargetSystemDefined()
+
+
 	/**
 	 * Test method for {@link control.WorkflowEngine#setTargetSystem(java.lang.String)}.
 	 */
@@ -840,7 +997,7 @@ class WorkflowEngineTest {
 			fskUploaderModelOrder.verify(fskUploaderModelMock, times(1)).getTargetSystemName();
 			fskUploaderModelOrder.verify(fskUploaderModelMock, times(1)).getInputReaderProviderClassName(TARGET_SYSTEM);
 			fskUploaderModelOrder.verify(fskUploaderModelMock, times(1)).getTargetSystemProviderClassName(TARGET_SYSTEM);
-			verify(statusBarUpdateMock, times(1)).setStatusMessage("");
+			verify(statusBarUpdateMock, timeout(5000).times(1)).setStatusMessage("");
 			verify(mainWindowControllerMock, times(1)).setTitle();
 
 		
@@ -860,7 +1017,7 @@ class WorkflowEngineTest {
 			fskUploaderModelOrder.verify(fskUploaderModelMock, times(1)).getInputReaderProviderClassName(TARGET_SYSTEM);
 			fskUploaderModelOrder.verify(fskUploaderModelMock, times(1)).getTargetSystemProviderClassName(TARGET_SYSTEM);
 			verify(outputDeviceControllerMock, times(1)).setOutputDevice();
-			verify(statusBarUpdateMock, times(1)).setStatusMessage("");
+			verify(statusBarUpdateMock, timeout(5000).times(1)).setStatusMessage("");
 			verify(mainWindowControllerMock, times(1)).setTitle();
 
 		} // yrt
@@ -896,6 +1053,7 @@ class WorkflowEngineTest {
 			cut.setUploadTimestamp(TIME_STAMP);
 			
 			verify(controllerMock, times(1)).setLastUploadTime(TIME_STAMP);
+			assertEquals(1, mcEnlistOutputDevices.constructed().size());
 			
 		} // yrt
 		
@@ -1123,6 +1281,7 @@ class WorkflowEngineTest {
 			cut.registerCallback(controllerMock);
 			
 			assertEquals(soundPlayerMock, cut.getSoundPlayer());
+			assertEquals(1, mcEnlistOutputDevices.constructed().size());
 			
 		} // yrt
 		
@@ -30,14 +30,20 @@
 
 package control.gui;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockConstruction;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -47,9 +53,16 @@ import java.awt.event.ActionEvent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.swing.JCheckBox;
+import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.AfterAll;
@@ -57,15 +70,22 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.MockedConstruction;
 import org.mockito.Mockito;
 
+import control.CompiledAudioStore;
+import control.CompiledRegionCache;
+import control.RegionStreamCompiler;
 import control.WorkflowEngine;
 import extension.control.StatusListener;
 import extension.execution.BackgroundTask;
 import extension.model.MemoryRegion;
 import extension.protocol.BackgroundTaskProtokol;
+import extension.sound.FskAudioFormat;
+import extension.sound.SymbolStream;
 import sound.SoundPlayer;
 import view.gui.CompileAndUploadGui;
 
@@ -372,6 +392,546 @@ class CompileAndUploadActionTest {
 	} // testRunCompile()
 
 
+	/**
+	 * Test method for {@link control.gui.CompileAndUploadAction#runCompile(extension.model.MemoryRegion)}.
+	 * <p>
+	 * A region which is in the CompiledRegionCache is uploaded without compilation.
+	 */
+	@Test
+	final void testRunCompileCached() throws IllegalAccessException {
+		LOGGER.info("testRunCompileCached()");
+
+		ActionEvent doUploadMock = mock(ActionEvent.class);
+			when(doUploadMock.getActionCommand()).thenReturn("Do Upload");
+		
+		when(protocolMock.getConfigurationKey()).thenReturn("protocol");
+		when(protocolMock.isCacheable()).thenReturn(true);
+		when(memoryRegionMock0.getStartAddress()).thenReturn(0x1000L);
+		when(memoryRegionMock0.getEndAddress()).thenReturn(0x1063L);
+		
+		memoryRegionList.add(memoryRegionMock0);
+		cut.setStreamingUpload(false);
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> cut.setCompiledRegionCache(null));
+		assertEquals("aCompiledRegionCache can't be null!", thrown.getMessage());
+		
+		CompiledRegionCache cache = new CompiledRegionCache(CompiledRegionCache.DEFAULT_MAX_SIZE);
+		cut.setCompiledRegionCache(cache);
+		assertEquals(cache, cut.getCompiledRegionCache());
+		
+		ByteBuffer soundSamples = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 });
+		
+		cache.put(cut.createRegionKey(memoryRegionMock0, memoryRegionMock0.getContent()), soundSamples);
+		
+		try(
+			
+			MockedConstruction<JFrame> mcFrame = mockConstruction(JFrame.class);
+			MockedConstruction<OptionPane> mcOptionPane = mockConstruction(OptionPane.class, 
+				(mock, context) -> when(mock.showConfirmDialog(any(), any(), anyString(), anyInt(), anyInt()))
+										.thenReturn(JOptionPane.YES_OPTION)
+			);
+				
+		) {
+
+			cut.actionPerformed(doUploadMock);
+			
+			assertEquals(1, mcOptionPane.constructed().size());
+			assertEquals(1, mcFrame.constructed().size());
+			
+		} // yrt
+		
+		assertEquals(1, cache.getHitCount());
+		
+		verify(protocolMock, never()).setDataBuffer(any());
+		verify(protocolMock, never()).execute();
+		verify(protocolMock, never()).getSoundSampleBuffer();
+
+		verify(soundplayerMock).setSoundBuffer(soundSamples);
+		verify(soundplayerMock).execute();
+		
+		
+		// a changed region is compiled
+		when(memoryRegionMock0.getStartAddress()).thenReturn(0x2000L);
+		
+		cut.actionPerformed(doUploadMock);
+		
+		assertEquals(1, cache.getMissCount());
+		verify(protocolMock).setDataBuffer(any());
+		verify(protocolMock).execute();
+		
+		
+		// a protocol which isn't cacheable compiles a cached region again
+		when(protocolMock.isCacheable()).thenReturn(false);
+		when(memoryRegionMock0.getStartAddress()).thenReturn(0x1000L);
+		
+		assertNull(cut.createRegionKey(memoryRegionMock0, memoryRegionMock0.getContent()));
+		
+		cut.actionPerformed(doUploadMock);
+		
+		assertEquals(1, cache.getHitCount());
+		verify(protocolMock, times(2)).setDataBuffer(any());
+		verify(protocolMock, times(2)).execute();
+		
+	} // testRunCompileCached()
+
+
+	/**
+	 * Test method for {@link control.gui.CompileAndUploadAction#runCompile(extension.model.MemoryRegion)}.
+	 * <p>
+	 * A region which was compiled in an earlier session is mapped from the CompiledAudioStore, in streaming
+	 * upload as well. A compiled region is written into the store in the background.
+	 */
+	@Test
+	final void testRunCompileStored(@TempDir Path aTempDir) throws IllegalAccessException {
+		LOGGER.info("testRunCompileStored()");
+
+		ActionEvent doUploadMock = mock(ActionEvent.class);
+			when(doUploadMock.getActionCommand()).thenReturn("Do Upload");
+		
+		FskAudioFormat audioFormat = new FskAudioFormat(16000);
+		
+		when(protocolMock.getConfigurationKey()).thenReturn("protocol");
+		when(protocolMock.isCacheable()).thenReturn(true);
+		when(protocolMock.getAudioFormat()).thenReturn(audioFormat);
+		when(memoryRegionMock0.getStartAddress()).thenReturn(0x1000L);
+		when(memoryRegionMock0.getEndAddress()).thenReturn(0x1063L);
+		
+		memoryRegionList.add(memoryRegionMock0);
+		cut.setStreamingUpload(false);
+		
+		ByteBuffer soundSamples = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 });
+		
+		new CompiledAudioStore(aTempDir).put(
+			cut.createRegionKey(memoryRegionMock0, memoryRegionMock0.getContent()), soundSamples, audioFormat);
+		
+		CompiledAudioStore store = new CompiledAudioStore(aTempDir);
+		cut.setCompiledAudioStore(store);
+		
+		try(
+			
+			MockedConstruction<JFrame> mcFrame = mockConstruction(JFrame.class);
+			MockedConstruction<OptionPane> mcOptionPane = mockConstruction(OptionPane.class, 
+				(mock, context) -> when(mock.showConfirmDialog(any(), any(), anyString(), anyInt(), anyInt()))
+										.thenReturn(JOptionPane.YES_OPTION)
+			);
+				
+		) {
+
+			cut.actionPerformed(doUploadMock);
+			
+			assertEquals(1, cut.getCompiledRegionCache().getMissCount());
+			assertEquals(1, store.getHitCount());
+			
+			verify(protocolMock, never()).execute();
+			verify(soundplayerMock).setSoundBuffer(soundSamples);
+			verify(soundplayerMock).execute();
+			
+			cut.propertyChange(new PropertyChangeEvent(soundplayerMock, "state", null, SwingWorker.StateValue.DONE));
+			
+			
+			// streaming upload
+			cut.setStreamingUpload(true);
+			cut.actionPerformed(doUploadMock);
+			
+			assertEquals(2, store.getHitCount());
+			
+			verify(protocolMock, never()).execute();
+			verify(soundplayerMock, times(2)).setSoundBuffer(soundSamples);
+			verify(soundplayerMock, times(2)).execute();
+			
+			cut.propertyChange(new PropertyChangeEvent(soundplayerMock, "state", null, SwingWorker.StateValue.DONE));
+			
+			
+			// a changed region is compiled and stored
+			cut.setStreamingUpload(false);
+			when(memoryRegionMock0.getStartAddress()).thenReturn(0x2000L);
+			
+			ArgumentCaptor<PropertyChangeListener> compilerListener = ArgumentCaptor.forClass(PropertyChangeListener.class);
+			
+			cut.actionPerformed(doUploadMock);
+			
+			verify(protocolMock).execute();
+			verify((BackgroundTask<?, ?>) protocolMock).addPropertyChangeListener(compilerListener.capture());
+			
+			compilerListener.getValue().propertyChange(new PropertyChangeEvent(protocolMock, "state", null, SwingWorker.StateValue.DONE));
+			
+			store.flush();
+			
+			assertEquals(2, store.getEntryCount());
+			
+			cut.propertyChange(new PropertyChangeEvent(soundplayerMock, "state", null, SwingWorker.StateValue.DONE));
+			
+			
+			// a protocol which isn't cacheable neither reads nor writes the store
+			when(protocolMock.isCacheable()).thenReturn(false);
+			when(memoryRegionMock0.getStartAddress()).thenReturn(0x3000L);
+			
+			cut.actionPerformed(doUploadMock);
+			
+			verify(protocolMock, times(2)).execute();
+			
+			compilerListener.getValue().propertyChange(new PropertyChangeEvent(protocolMock, "state", null, SwingWorker.StateValue.DONE));
+			
+			store.flush();
+			
+			assertEquals(2, store.getHitCount());
+			assertEquals(2, store.getEntryCount());
+			
+			assertEquals(4, mcOptionPane.constructed().size());
+			assertEquals(4, mcFrame.constructed().size());
+			
+		} // yrt
+		
+	} // testRunCompileStored()
+
+
+	/**
+	 * Test method for {@link control.gui.CompileAndUploadAction#compileNextRegion()}.
+	 * <p>
+	 * The next region is compiled while the current one is played back. Its upload starts when the 
+	 * player is done, or when the compilation is done if the player has finished earlier.
+	 */
+	@Test
+	final void testPipelinedUpload() throws IllegalAccessException {
+		LOGGER.info("testPipelinedUpload()");
+
+		ActionEvent doUploadMock = mock(ActionEvent.class);
+			when(doUploadMock.getActionCommand()).thenReturn("Do Upload");
+		
+		when(protocolMock.getConfigurationKey()).thenReturn("protocol");
+		when(protocolMock.isCacheable()).thenReturn(true);
+		when(protocolMock.getSoundSampleBuffer()).thenReturn(
+			ByteBuffer.wrap(new byte[] { 1, 2, 3 }), 
+			ByteBuffer.wrap(new byte[] { 4, 5, 6 }),
+			ByteBuffer.wrap(new byte[] { 7, 8, 9 }),
+			ByteBuffer.wrap(new byte[] { 10, 11, 12 })
+		);
+		
+		when(memoryRegionMock0.getStartAddress()).thenReturn(0x1000L);
+		when(memoryRegionMock1.getStartAddress()).thenReturn(0x2000L);
+		when(memoryRegionMock1.getContent()).thenReturn(ByteBuffer.allocate(10));
+		
+		memoryRegionList.add(memoryRegionMock0);
+		memoryRegionList.add(memoryRegionMock1);
+		cut.setStreamingUpload(false);
+		
+		PropertyChangeEvent compilerDone = new PropertyChangeEvent(protocolMock, "state", null, SwingWorker.StateValue.DONE);
+		PropertyChangeEvent playerDone = new PropertyChangeEvent(soundplayerMock, "state", null, SwingWorker.StateValue.DONE);
+		
+		ArgumentCaptor<PropertyChangeListener> compilerListener = ArgumentCaptor.forClass(PropertyChangeListener.class);
+		
+		try(
+			
+			MockedConstruction<JFrame> mcFrame = mockConstruction(JFrame.class);
+			MockedConstruction<OptionPane> mcOptionPane = mockConstruction(OptionPane.class, 
+				(mock, context) -> when(mock.showConfirmDialog(any(), any(), anyString(), anyInt(), anyInt()))
+										.thenReturn(JOptionPane.YES_OPTION)
+			);
+				
+		) {
+
+			// the compilation of region 2 finishes while region 1 is played back
+			cut.actionPerformed(doUploadMock);
+			
+			verify(protocolMock, times(1)).execute();
+			verify((BackgroundTask<?, ?>) protocolMock).addPropertyChangeListener(compilerListener.capture());
+			
+			compilerListener.getValue().propertyChange(compilerDone);
+			
+			verify(soundplayerMock).setSoundBuffer(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+			verify(soundplayerMock, times(1)).execute();
+			verify(protocolMock, times(2)).execute();
+			
+			compilerListener.getValue().propertyChange(compilerDone);
+			
+			verify(soundplayerMock, times(1)).execute();
+			
+			cut.propertyChange(playerDone);
+			
+			verify(soundplayerMock).setSoundBuffer(ByteBuffer.wrap(new byte[] { 4, 5, 6 }));
+			verify(soundplayerMock, times(2)).execute();
+			verify(protocolMock, times(2)).execute();
+			
+			cut.propertyChange(playerDone);
+			
+			
+			// region 1 is played back faster than region 2 is compiled
+			cut.getCompiledRegionCache().clear();
+			cut.actionPerformed(doUploadMock);
+			
+			compilerListener.getValue().propertyChange(compilerDone);
+			
+			verify(soundplayerMock).setSoundBuffer(ByteBuffer.wrap(new byte[] { 7, 8, 9 }));
+			verify(protocolMock, times(4)).execute();
+			
+			cut.propertyChange(playerDone);
+			
+			verify(soundplayerMock, times(3)).execute();
+			
+			compilerListener.getValue().propertyChange(compilerDone);
+			
+			verify(soundplayerMock).setSoundBuffer(ByteBuffer.wrap(new byte[] { 10, 11, 12 }));
+			verify(soundplayerMock, times(4)).execute();
+			
+			assertEquals(4, mcOptionPane.constructed().size());
+			assertEquals(4, mcFrame.constructed().size());
+			
+		} // yrt
+		
+		assertEquals(0, cut.getCompiledRegionCache().getHitCount());
+		assertEquals(4, cut.getCompiledRegionCache().getMissCount());
+		
+	} // testPipelinedUpload()
+
+
+	/**
+	 * Test method for {@link control.gui.CompileAndUploadAction#actionPerformed(java.awt.event.ActionEvent)}.
+	 * <p>
+	 * An abort ends the whole work flow, the remaining regions are neither confirmed nor uploaded.
+	 */
+	@Test
+	final void testAbort() throws IllegalAccessException {
+		LOGGER.info("testAbort()");
+
+		ActionEvent doUploadMock = mock(ActionEvent.class);
+			when(doUploadMock.getActionCommand()).thenReturn("Do Upload");
+		
+		ActionEvent abortMock = mock(ActionEvent.class);
+			when(abortMock.getActionCommand()).thenReturn("Abort");
+		
+		when(protocolMock.getConfigurationKey()).thenReturn("protocol");
+		when(protocolMock.isCacheable()).thenReturn(true);
+		when(protocolMock.getSoundSampleBuffer()).thenReturn(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+		
+		when(memoryRegionMock0.getStartAddress()).thenReturn(0x1000L);
+		when(memoryRegionMock1.getStartAddress()).thenReturn(0x2000L);
+		when(memoryRegionMock1.getContent()).thenReturn(ByteBuffer.allocate(10));
+		
+		PropertyChangeEvent compilerDone = new PropertyChangeEvent(protocolMock, "state", null, SwingWorker.StateValue.DONE);
+		PropertyChangeEvent playerDone = new PropertyChangeEvent(soundplayerMock, "state", null, SwingWorker.StateValue.DONE);
+		
+		ArgumentCaptor<PropertyChangeListener> compilerListener = ArgumentCaptor.forClass(PropertyChangeListener.class);
+		
+		// nothing to abort
+		cut.actionPerformed(abortMock);
+		
+		memoryRegionList.add(memoryRegionMock0);
+		memoryRegionList.add(memoryRegionMock1);
+		
+		try(
+			
+			MockedConstruction<JFrame> mcFrame = mockConstruction(JFrame.class);
+			MockedConstruction<OptionPane> mcOptionPane = mockConstruction(OptionPane.class, 
+				(mock, context) -> when(mock.showConfirmDialog(any(), any(), anyString(), anyInt(), anyInt()))
+										.thenReturn(JOptionPane.YES_OPTION)
+			);
+				
+		) {
+
+			// abort while region 1 is compiled
+			cut.actionPerformed(doUploadMock);
+			cut.actionPerformed(abortMock);
+			
+			verify(protocolMock).stop();
+			
+			verify((BackgroundTask<?, ?>) protocolMock).addPropertyChangeListener(compilerListener.capture());
+			compilerListener.getValue().propertyChange(compilerDone);
+			
+			assertEquals(0, mcOptionPane.constructed().size());
+			verify(soundplayerMock, never()).execute();
+			verify(protocolMock, times(1)).execute();
+			verify(wfeMock).setStatusMessage("Upload aborted");
+			
+			
+			// abort while region 1 is played back and region 2 is compiled
+			cut.getCompiledRegionCache().clear();
+			cut.actionPerformed(doUploadMock);
+			
+			compilerListener.getValue().propertyChange(compilerDone);
+			
+			assertEquals(1, mcOptionPane.constructed().size());
+			verify(soundplayerMock, times(1)).execute();
+			verify(protocolMock, times(3)).execute();
+			
+			cut.actionPerformed(abortMock);
+			
+			verify(soundplayerMock).stop();
+			verify(protocolMock, times(2)).stop();
+			
+			compilerListener.getValue().propertyChange(compilerDone);
+			cut.propertyChange(playerDone);
+			
+			assertEquals(1, mcOptionPane.constructed().size());
+			verify(soundplayerMock, times(1)).execute();
+			verify(protocolMock, times(3)).execute();
+			verify(wfeMock, times(2)).setStatusMessage("Upload aborted");
+			
+			assertEquals(1, mcOptionPane.constructed().size());
+			assertEquals(1, mcFrame.constructed().size());
+			
+		} // yrt
+		
+	} // testAbort()
+
+
+	/**
+	 * Test method for {@link control.gui.CompileAndUploadAction#runStreamingUpload(extension.model.MemoryRegion)}.
+	 * <p>
+	 * Streaming upload is selected by the user. A region which is in the CompiledRegionCache is played back 
+	 * from there, any other region is streamed while it is compiled.
+	 */
+	@Test
+	final void testStreamingUploadCached() {
+		LOGGER.info("testStreamingUploadCached()");
+
+		ActionEvent doUploadMock = mock(ActionEvent.class);
+			when(doUploadMock.getActionCommand()).thenReturn("Do Upload");
+		
+		JCheckBox streamingCheckBox = new JCheckBox();
+		ActionEvent streamingEvent = new ActionEvent(streamingCheckBox, ActionEvent.ACTION_PERFORMED, "Streaming");
+		
+		when(protocolMock.getConfigurationKey()).thenReturn("protocol");
+		when(protocolMock.isCacheable()).thenReturn(true);
+		when(protocolMock.getAudioFormat()).thenReturn(new FskAudioFormat(16000));
+		when(memoryRegionMock0.getStartAddress()).thenReturn(0x1000L);
+		when(memoryRegionMock0.getEndAddress()).thenReturn(0x1063L);
+		
+		memoryRegionList.add(memoryRegionMock0);
+		
+		// the pipeline with the cache is the default
+		assertFalse(cut.isStreamingUpload());
+		
+		streamingCheckBox.setSelected(true);
+		cut.actionPerformed(streamingEvent);
+		assertTrue(cut.isStreamingUpload());
+		
+		ByteBuffer soundSamples = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 });
+		cut.getCompiledRegionCache().put(cut.createRegionKey(memoryRegionMock0, memoryRegionMock0.getContent()), soundSamples);
+		
+		try(
+			
+			MockedConstruction<JFrame> mcFrame = mockConstruction(JFrame.class);
+			MockedConstruction<OptionPane> mcOptionPane = mockConstruction(OptionPane.class, 
+				(mock, context) -> when(mock.showConfirmDialog(any(), any(), anyString(), anyInt(), anyInt()))
+										.thenReturn(JOptionPane.YES_OPTION)
+			);
+				
+		) {
+
+			cut.actionPerformed(doUploadMock);
+			
+			assertEquals(1, cut.getCompiledRegionCache().getHitCount());
+			
+			verify(protocolMock, never()).execute();
+			verify(protocolMock, never()).setSampleStream(any());
+			verify(soundplayerMock).setSoundBuffer(soundSamples);
+			verify(soundplayerMock).execute();
+			
+			
+			// a changed region is streamed
+			when(memoryRegionMock0.getStartAddress()).thenReturn(0x2000L);
+			
+			cut.actionPerformed(doUploadMock);
+			
+			assertEquals(1, cut.getCompiledRegionCache().getMissCount());
+			verify(protocolMock).setSampleStream(any());
+			verify(soundplayerMock).setSampleStream(any());
+			verify(protocolMock).execute();
+			verify(soundplayerMock, times(2)).execute();
+			
+			assertEquals(2, mcOptionPane.constructed().size());
+			assertEquals(2, mcFrame.constructed().size());
+			
+		} // yrt
+		
+		streamingCheckBox.setSelected(false);
+		cut.actionPerformed(streamingEvent);
+		assertFalse(cut.isStreamingUpload());
+		
+	} // testStreamingUploadCached()
+
+
+	/**
+	 * Test method for {@link control.gui.CompileAndUploadAction#runUploadAll()}.
+	 * <p>
+	 * All regions are compiled into one stream which is played back once after a single confirmation.
+	 */
+	@Test
+	final void testUploadAll() {
+		LOGGER.info("testUploadAll()");
+
+		ActionEvent uploadAllMock = mock(ActionEvent.class);
+			when(uploadAllMock.getActionCommand()).thenReturn("Upload All");
+		
+		SymbolStream symbolStream = new SymbolStream();
+		
+		PropertyChangeEvent compilerDone = new PropertyChangeEvent(this, "state", null, SwingWorker.StateValue.DONE);
+		PropertyChangeEvent playerDone = new PropertyChangeEvent(soundplayerMock, "state", null, SwingWorker.StateValue.DONE);
+		
+		ArgumentCaptor<PropertyChangeListener> compilerListener = ArgumentCaptor.forClass(PropertyChangeListener.class);
+		
+		try(
+			
+			MockedConstruction<JFrame> mcFrame = mockConstruction(JFrame.class);
+			MockedConstruction<OptionPane> mcOptionPane = mockConstruction(OptionPane.class, 
+				(mock, context) -> when(mock.showConfirmDialog(any(), any(), anyString(), anyInt(), anyInt()))
+										.thenReturn(JOptionPane.YES_OPTION)
+			);
+			MockedConstruction<RegionStreamCompiler> mcCompiler = mockConstruction(RegionStreamCompiler.class, 
+				(mock, context) -> {
+					when(mock.isComplete()).thenReturn(true, false);
+					when(mock.getRegionCount()).thenReturn(2);
+					when(mock.getSymbolStream()).thenReturn(symbolStream);
+				}
+			);
+				
+		) {
+
+			// nothing selected
+			cut.actionPerformed(uploadAllMock);
+			
+			assertEquals(0, mcCompiler.constructed().size());
+			verify(wfeMock).setStatusMessage("Please select one or more memory regions for upload");
+			
+			memoryRegionList.add(memoryRegionMock0);
+			memoryRegionList.add(memoryRegionMock1);
+			
+			cut.actionPerformed(uploadAllMock);
+			
+			assertEquals(1, mcCompiler.constructed().size());
+			
+			RegionStreamCompiler compilerMock = mcCompiler.constructed().get(0);
+			
+			verify(compilerMock).execute();
+			verify(compilerMock).addPropertyChangeListener(compilerListener.capture());
+			verify(protocolMock, never()).execute();
+			
+			compilerListener.getValue().propertyChange(compilerDone);
+			
+			assertEquals(1, mcOptionPane.constructed().size());
+			verify(soundplayerMock).setSymbolStream(symbolStream);
+			verify(soundplayerMock, times(1)).execute();
+			
+			// no further region after the play back
+			cut.propertyChange(playerDone);
+			
+			verify(soundplayerMock, times(1)).execute();
+			
+			// an aborted compilation isn't uploaded
+			compilerListener.getValue().propertyChange(compilerDone);
+			
+			assertEquals(1, mcOptionPane.constructed().size());
+			verify(soundplayerMock, times(1)).execute();
+			verify(wfeMock).setStatusMessage("Compilation aborted");
+			
+			assertEquals(1, mcOptionPane.constructed().size());
+			assertEquals(1, mcFrame.constructed().size());
+			
+		} // yrt
+		
+	} // testUploadAll()
+
+
 	/**
 	 * Test method for {@link control.gui.CompileAndUploadAction#runUpload()}.
 	 */
@@ -391,13 +951,20 @@ class CompileAndUploadActionTest {
 	/**
 	 * Test method for {@link control.gui.CompileAndUploadAction#setProtocol(protocol.Protocol)}.
 	 */
-//	@Test
+	@Test
 	final void testSetProtocol() {
-		LOGGER.info("()");
+		LOGGER.info("testSetProtocol()");
 
-		fail("Not yet implemented"); // TODO
+		// set by the constructor
+		verify(protocolMock).setParallelEncoding(ForkJoinPool.commonPool());
 		
-	} // ()
+		BackgroundTaskProtokol otherProtocolMock = mock(BackgroundTaskProtokol.class);
+		cut.setProtocol(otherProtocolMock);
+		verify(otherProtocolMock).setParallelEncoding(ForkJoinPool.commonPool());
+		
+		assertDoesNotThrow(() -> cut.setProtocol(null));
+		
+	} // testSetProtocol()
 
 
 	/**
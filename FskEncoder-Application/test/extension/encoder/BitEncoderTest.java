@@ -245,6 +245,42 @@ class BitEncoderTest {
 	} // testEncode1Bit()
 	
 	
+	/**
+	 * Test method for {@link extension.encoder.BitEncoder#encodeInto(ByteBuffer, int, int)}.
+	 * 
+	 * Verifies error handling and the default implementation which copies the result 
+	 * of encodeLowBit() / encodeHighBit() into the target buffer.
+	 * 
+	 */
+	@Test
+	final void testEncodeInto() {
+		LOGGER.info("testEncodeInto()");
+		
+		IllegalArgumentException thrown;
+		BitEncoder cut = Mockito.mock(BitEncoder.class, Answers.CALLS_REAL_METHODS);
+		ByteBuffer target = ByteBuffer.allocate(8);
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> { cut.encodeInto(target, 2, 1); });
+		assertTrue(thrown.getMessage().equals("aBitValue must be in range 0 ... 1!"));
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> { cut.encodeInto(target, 0, 0); });
+		assertTrue(thrown.getMessage().equals("aCount must be greater than 0!"));
+		
+		when(cut.encodeLowBit(2)).thenReturn(ByteBuffer.wrap(new byte[] { 0, 0 }));
+		when(cut.encodeHighBit(1)).thenReturn(ByteBuffer.wrap(new byte[] { 1, 1, 1 }));
+		
+		cut.encodeInto(target, 0, 2);
+		cut.encodeInto(target, 1, 1);
+		
+		verify(cut, times(1)).encodeLowBit(2);
+		verify(cut, times(1)).encodeHighBit(1);
+		
+		assertEquals(5, target.position());
+		assertArrayEquals(new byte[] { 0, 0, 1, 1, 1, 0, 0, 0 }, target.array());
+		
+	} // testEncodeInto()
+	
+	
 	/**
 	 * Test method for {@link extension.encoder.BitEncoder#getSampleBufferSize()}.
 	 * 
@@ -0,0 +1,203 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : ByteSymbolTableTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.encoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verifies the correct function of class ByteSymbolTable.
+ *
+ * <p>
+ * Collaborators:<br>
+ * Class under test,<br>
+ * FskBitEncoder as bit encoder.
+ *
+ * <p>
+ * Description:<br>
+ * The symbols of the table are compared against the samples created bit by bit
+ * with the same FskBitEncoder.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class ByteSymbolTableTest {
+
+	private static Logger LOGGER = null;
+
+	private static final int SAMPLING_RATE = 16000;
+	private static final int LOW_FREQ  = 1000;		// 16 samples / bit
+	private static final int HIGH_FREQ = 2000;		//  8 samples / bit
+
+	private FskBitEncoder bitEncoder;
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeEach
+	void setUp() throws Exception {
+
+		bitEncoder = new FskBitEncoder(LOW_FREQ, HIGH_FREQ, new WaveCycleEncoder(SAMPLING_RATE));
+
+	}
+
+
+	/**
+	 * Test method for {@link extension.encoder.ByteSymbolTable#ByteSymbolTable(BitEncoder, BitOrder, ByteBuffer, ByteBuffer)}.
+	 * <p>
+	 * Error recognition checking on constructor.
+	 */
+	@Test
+	final void testByteSymbolTable() {
+		LOGGER.info("testByteSymbolTable()");
+
+		IllegalArgumentException thrown;
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> new ByteSymbolTable(null, BitOrder.LSB_MSB, null, null));
+		assertEquals("aBitEncoder can't be null!", thrown.getMessage());
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> new ByteSymbolTable(bitEncoder, null, null, null));
+		assertEquals("aBitOrder can't be null!", thrown.getMessage());
+
+		assertDoesNotThrow(() -> new ByteSymbolTable(bitEncoder, BitOrder.LSB_MSB, null, null));
+
+	} // testByteSymbolTable()
+
+
+	/**
+	 * Test method for {@link extension.encoder.ByteSymbolTable#getSymbolSize(byte)}.
+	 * <p>
+	 * The symbol size depends on the number of low and high bits.
+	 */
+	@Test
+	final void testGetSymbolSize() {
+		LOGGER.info("testGetSymbolSize()");
+
+		ByteSymbolTable cut = new ByteSymbolTable(bitEncoder, BitOrder.LSB_MSB, null, null);
+
+		assertEquals(8 * 16, cut.getSymbolSize((byte) 0x00));
+		assertEquals(8 *  8, cut.getSymbolSize((byte) 0xFF));
+		assertEquals(4 * 16 + 4 * 8, cut.getSymbolSize((byte) 0x0F));
+		assertEquals(8 * 16, cut.getMaxSymbolSize());
+
+		ByteBuffer start = bitEncoder.encode(0, 1);
+		ByteBuffer stop  = bitEncoder.encode(1, 2);
+
+		ByteSymbolTable framed = new ByteSymbolTable(bitEncoder, BitOrder.LSB_MSB, start, stop);
+
+		assertEquals(16 + 8 * 16 + 2 * 8, framed.getSymbolSize((byte) 0x00));
+		assertEquals(16 + 8 *  8 + 2 * 8, framed.getSymbolSize((byte) 0xFF));
+
+	} // testGetSymbolSize()
+
+
+	/**
+	 * Test method for {@link extension.encoder.ByteSymbolTable#put(ByteBuffer, byte)}.
+	 * <p>
+	 * Every symbol must be identical to the bit by bit encoding in both bit orders.
+	 */
+	@Test
+	final void testPut() {
+		LOGGER.info("testPut()");
+
+		for(BitOrder bitOrder : BitOrder.values()) {
+
+			ByteBuffer start = bitEncoder.encode(1, 1);
+			ByteBuffer stop  = bitEncoder.encode(0, 2);
+
+			ByteSymbolTable cut = new ByteSymbolTable(bitEncoder, bitOrder, start, stop);
+
+			for(int value = 0; value < ByteSymbolTable.NBR_OF_SYMBOLS; value++) {
+
+				ByteBuffer expected = ByteBuffer.allocate(cut.getMaxSymbolSize());
+
+				start.rewind();
+				expected.put(start);
+
+				for(int n = 0; n < 8; n++) {
+					int bit = (bitOrder == BitOrder.LSB_MSB) ? (value >> n) & 1 : (value >> (7 - n)) & 1;
+					ByteBuffer samples = bitEncoder.encode(bit, 1);
+					samples.rewind();
+					expected.put(samples);
+				}
+
+				stop.rewind();
+				expected.put(stop);
+				expected.flip();
+
+				ByteBuffer result = ByteBuffer.allocate(cut.getMaxSymbolSize());
+				cut.put(result, (byte) value);
+				result.flip();
+
+				assertEquals(expected, result, "bitOrder = " + bitOrder + ", value = " + value);
+
+			} // rof
+
+		} // rof
+
+	} // testPut()
+
+
+	/**
+	 * Test method for {@link extension.encoder.ByteSymbolTable#toString()}.
+	 */
+	@Test
+	final void testToString() {
+		LOGGER.info("testToString()");
+
+		ByteSymbolTable cut = new ByteSymbolTable(bitEncoder, BitOrder.LSB_MSB, null, null);
+
+		assertEquals("ByteSymbolTable [maxSymbolSize=128]", cut.toString());
+
+	} // testToString()
+
+
+} // ssalc
@@ -0,0 +1,243 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : CompilePlanTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.encoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verifies the correct function of class CompilePlan.
+ *
+ * <p>
+ * Collaborators:<br>
+ * Class under test,<br>
+ * Encoder with real bit, silence and wave cycle encoders.
+ *
+ * <p>
+ * Description:<br>
+ * The sample count of a plan must be exactly the number of sound samples the
+ * same steps produce on the encoder.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class CompilePlanTest {
+
+	private static Logger LOGGER = null;
+
+	private static final int SAMPLING_RATE = 16000;
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	private Encoder createEncoder() {
+
+		WaveCycleEncoder waveCycleEncoder = new WaveCycleEncoder(SAMPLING_RATE);
+
+		return new Encoder(new FskBitEncoder(1000, 2000, waveCycleEncoder), ByteOrder.BIG_ENDIAN, BitOrder.MSB_LSB)
+			.withSilenceEncoder(new SilenceEncoder(SAMPLING_RATE))
+			.withWaveCycleEncoder(waveCycleEncoder)
+			.withStartBits(1, BitValue.LOW)
+			.withStopBits(2, BitValue.HIGH);
+
+	} // createEncoder()
+
+
+	/**
+	 * Test method for {@link extension.encoder.CompilePlan#CompilePlan(Encoder)}.
+	 */
+	@Test
+	final void testCompilePlan() {
+		LOGGER.info("testCompilePlan()");
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> new CompilePlan(null));
+		assertEquals("aEncoder can't be null!", thrown.getMessage());
+
+		CompilePlan cut = new CompilePlan(createEncoder());
+
+		assertEquals(0, cut.getSampleCount());
+		assertEquals(0, cut.getDataByteCount());
+		assertEquals(0, cut.getDuration());
+
+		// steps which need an encoder not configured
+		CompilePlan bare = new CompilePlan(new Encoder(new FskBitEncoder(1000, 2000, new WaveCycleEncoder(SAMPLING_RATE)),
+				ByteOrder.BIG_ENDIAN, BitOrder.MSB_LSB));
+
+		assertThrows(IllegalAccessError.class, () -> bare.addSilence(1));
+		assertThrows(IllegalAccessError.class, () -> bare.addWaveCycles(1000, 1));
+
+	} // testCompilePlan()
+
+
+	/**
+	 * Test method for {@link extension.encoder.CompilePlan#getSampleCount()}.
+	 * <p>
+	 * A sample buffer of exactly the planned size must be filled completely by the encoding.
+	 */
+	@Test
+	final void testGetSampleCount() {
+		LOGGER.info("testGetSampleCount()");
+
+		ByteBuffer dataBuffer = ByteBuffer.allocate(300);
+		for(int n = 0; n < dataBuffer.limit(); n++) {
+			dataBuffer.put(n, (byte) (n * 37));
+		}
+
+		for(boolean withTxFrame : new boolean[] { false, true }) {
+
+			Encoder encoder = createEncoder();
+
+			CompilePlan cut = new CompilePlan(encoder)
+				.addSilence(250)
+				.addWaveCycles(1000, 400)
+				.addBits((byte) 1, 3)
+				.addWord(0x1234, withTxFrame)
+				.addByteBuffer(dataBuffer, withTxFrame)
+				.addByte((byte) 0x7E, withTxFrame)
+				.addSilence(10);
+
+			encoder.setBufferSize(cut.getSampleCount());
+
+			encoder.encodeSilence(250);
+			encoder.encodeWaveCycle(1000, 400);
+			encoder.encodeBit((byte) 1, 3);
+			encoder.encodeWord(0x1234, withTxFrame);
+			encoder.encodeByteBuffer(dataBuffer, withTxFrame);
+			encoder.encodeByte((byte) 0x7E, withTxFrame);
+			encoder.encodeSilence(10);
+
+			assertFalse(encoder.sampleBuffer.hasRemaining(), "withTxFrame = " + withTxFrame);
+			assertEquals(303, cut.getDataByteCount());
+
+		} // rof
+
+	} // testGetSampleCount()
+
+
+	/**
+	 * Test method for {@link extension.encoder.CompilePlan#addWaveCycles(int, int)}.
+	 * <p>
+	 * The length of the NCO wave cycles depends on the phase left by the previous step.
+	 */
+	@Test
+	final void testAddWaveCyclesNco() {
+		LOGGER.info("testAddWaveCyclesNco()");
+
+		NcoWaveCycleEncoder waveCycleEncoder = new NcoWaveCycleEncoder(SAMPLING_RATE);
+
+		Encoder encoder = new Encoder(new FskBitEncoder(1000, 2000, new WaveCycleEncoder(SAMPLING_RATE)), ByteOrder.BIG_ENDIAN, BitOrder.MSB_LSB)
+			.withSilenceEncoder(new SilenceEncoder(SAMPLING_RATE))
+			.withWaveCycleEncoder(waveCycleEncoder);
+
+		// the plan starts at the current phase of the encoder
+		encoder.setBufferSize(100);
+		encoder.encodeWaveCycle(1500, 1);
+		assertNotEquals(0, waveCycleEncoder.getPhase());
+		
+		CompilePlan cut = new CompilePlan(encoder).addSilence(10);
+		
+		for(int n = 0; n < 7; n++) {
+			cut.addWaveCycles(1500, 1).addBits((byte) 1, 1);
+		}
+		
+		cut.addWaveCycles(1700, 3);
+		
+		// each step taken from the same phase would be off
+		int samePhaseCount = encoder.getSilenceSampleCount(10) 
+				+ 7 * (encoder.getWaveCycleSampleCount(1500, 1) + encoder.getBitSampleCount((byte) 1, 1))
+				+ encoder.getWaveCycleSampleCount(1700, 3);
+		assertNotEquals(samePhaseCount, cut.getSampleCount());
+		
+		encoder.setBufferSize(cut.getSampleCount());
+		encoder.encodeSilence(10);
+		
+		for(int n = 0; n < 7; n++) {
+			encoder.encodeWaveCycle(1500, 1);
+			encoder.encodeBit((byte) 1, 1);
+		}
+		
+		encoder.encodeWaveCycle(1700, 3);
+		
+		assertFalse(encoder.sampleBuffer.hasRemaining());
+
+	} // testAddWaveCyclesNco()
+
+
+	/**
+	 * Test method for {@link extension.encoder.CompilePlan#getDuration()}.
+	 */
+	@Test
+	final void testGetDuration() {
+		LOGGER.info("testGetDuration()");
+
+		CompilePlan cut = new CompilePlan(createEncoder())
+			.addSilence(1000)
+			.addBits((byte) 1, 1);
+
+		assertEquals(SAMPLING_RATE + 8, cut.getSampleCount());
+		assertEquals(1001, cut.getDuration());
+
+	} // testGetDuration()
+
+
+	/**
+	 * Verifies the correct behavior of toString()
+	 *
+	 * Test method for {@link #toString()}.
+	 */
+	@Test
+	void testToString() {
+		LOGGER.info("testToString()");
+
+		CompilePlan cut = new CompilePlan(createEncoder()).addByte((byte) 0, false);
+
+		assertEquals("CompilePlan [sampleCount=128, dataByteCount=1]", cut.toString());
+
+	} // testToString()
+
+
+} // ssalc
@@ -32,8 +32,11 @@ package extension.encoder;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -50,8 +53,16 @@ import extension.encoder.BitOrder;
 import extension.encoder.BitValue;
 import extension.encoder.ByteOrder;
 import extension.encoder.Encoder;
+import extension.encoder.FskBitEncoder;
+import extension.encoder.NcoWaveCycleEncoder;
 import extension.encoder.SilenceEncoder;
 import extension.encoder.WaveCycleEncoder;
+import extension.execution.CancellationToken;
+import extension.protocol.ChecksumCalculator;
+import extension.protocol.DefaultChecksumCalculator;
+import extension.protocol.Modulo256ChecksumCalculator;
+import extension.sound.SampleRingBuffer;
+import extension.sound.SymbolStream;
 
 /**
  * Responsibilities:<br>
@@ -194,8 +205,11 @@ class EncoderTest {
 		public Object answer(InvocationOnMock invocation) throws Throwable {
 			Object target = invocation.getMock();
 			String method = invocation.getMethod().getName();
-			int bitvalue = invocation.getArgument(0);
-			int bitCount = invocation.getArgument(1);
+			
+			// encode(bitValue, count) returns a buffer, encodeInto(buffer, bitValue, count) fills the given one
+			boolean isInto = method.equals("encodeInto");
+			int bitvalue = invocation.getArgument(isInto ? 1 : 0);
+			int bitCount = invocation.getArgument(isInto ? 2 : 1);
 			
 			for(int n = 0; n < bitCount; n++) {
 				sequence.add(new Step(bitvalue, 1));
@@ -205,11 +219,39 @@ class EncoderTest {
 			LOGGER.debug("EncodeAnswer.answer(): arguments: {}, target: {}, method: {}, sequence = {}, buffer = {}", 
 				invocation, target, method, sequence.getSequence(), buffer);
 			
+			if(isInto) {
+				((ByteBuffer) invocation.getArgument(0)).put(buffer);
+				return null;
+			}
+			
 			return buffer;
 		}
 		
 	} // EncodeAnswer
 	
+	/*
+	 * Interface to Mockito framework.
+	 * 
+	 * Simulates the xxxInto(...) methods of the encoders by putting the content of aSamples 
+	 * into the target buffer given as first argument.
+	 */
+	class EncodeIntoAnswer implements Answer<Object> {
+		
+		final ByteBuffer samples;
+		
+		public EncodeIntoAnswer(final ByteBuffer aSamples) {
+			samples = aSamples;
+		}
+		
+		@Override
+		public Object answer(InvocationOnMock invocation) throws Throwable {
+			samples.rewind();
+			((ByteBuffer) invocation.getArgument(0)).put(samples);
+			return null;
+		}
+		
+	} // EncodeIntoAnswer
+	
 	/*
 	 * ===================================================================================================================
 	 */
@@ -374,6 +416,54 @@ class EncoderTest {
 	} // testWithStopBits()
 
 	
+	/**
+	 * Test method for {@link extension.encoder.Encoder#getConfigurationKey()}.
+	 * 
+	 * Encoders creating the same sound samples must have equal keys, any difference in
+	 * frequencies, sampling rate, framing or order must lead to different keys.
+	 */
+	@Test
+	final void testGetConfigurationKey() {
+		LOGGER.info("testGetConfigurationKey()");
+		
+		String key = createFramedEncoder(1200, 2400, 16000, 2).getConfigurationKey();
+		
+		assertEquals(key, createFramedEncoder(1200, 2400, 16000, 2).getConfigurationKey());
+		assertEquals(key, createFramedEncoder(1200, 2400, 16000, 2).withByteSymbolTable().getConfigurationKey());
+		
+		assertNotEquals(key, createFramedEncoder(1000, 2400, 16000, 2).getConfigurationKey());
+		assertNotEquals(key, createFramedEncoder(1200, 3200, 16000, 2).getConfigurationKey());
+		assertNotEquals(key, createFramedEncoder(1200, 2400, 32000, 2).getConfigurationKey());
+		assertNotEquals(key, createFramedEncoder(1200, 2400, 16000, 1).getConfigurationKey());
+		
+		assertNotEquals(key, 
+			new Encoder(new FskBitEncoder(1200, 2400, new WaveCycleEncoder(16000)), ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB)
+				.getConfigurationKey());
+		
+		assertNotEquals(
+			new Encoder(new FskBitEncoder(1200, 2400, new WaveCycleEncoder(16000)), ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB)
+				.getConfigurationKey(), 
+			new Encoder(new FskBitEncoder(1200, 2400, new WaveCycleEncoder(16000)), ByteOrder.LITTLE_ENDIAN, BitOrder.MSB_LSB)
+				.getConfigurationKey());
+		
+	} // testGetConfigurationKey()
+	
+	
+	/*
+	 * Creates an encoder with one start bit and aNbrStopBits stop bits.
+	 */
+	private Encoder createFramedEncoder(final int aLowFrequency, final int aHighFrequency, final int aSamplingRate, 
+			final int aNbrStopBits) {
+		
+		return new Encoder(new FskBitEncoder(aLowFrequency, aHighFrequency, new WaveCycleEncoder(aSamplingRate)), 
+				ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB)
+			.withSilenceEncoder(new SilenceEncoder(aSamplingRate))
+			.withStartBits(1, BitValue.LOW)
+			.withStopBits(aNbrStopBits, BitValue.HIGH);
+		
+	} // createFramedEncoder(...)
+
+	
 	/**
 	 * Test method for {@link extension.encoder.Encoder#getSampleBufferSize()}.
 	 * 
@@ -452,10 +542,10 @@ class EncoderTest {
 		assertTrue(result.position() == 0);
 		assertTrue(result.limit() == SB_SIZE);
 		
-		when(bitEncoderMock.encode((byte)0, 1)).thenReturn(sampleBufferMock);
+		doAnswer(new EncodeIntoAnswer(sampleBufferMock)).when(bitEncoderMock).encodeInto(any(ByteBuffer.class), eq(0), eq(1));
 
 		cut.encodeBit((byte) 0, 1);
-		verify(bitEncoderMock, times(1)).encode(0, 1);
+		verify(bitEncoderMock, times(1)).encodeInto(any(ByteBuffer.class), eq(0), eq(1));
 		
 		result = cut.getSampleBuffer();
 		
@@ -498,11 +588,17 @@ class EncoderTest {
 		// setup
 		cut.setBufferSize(SB_SIZE);
 		
-		when(silenceEncoderMock.encode(1000)).thenReturn(sampleBufferMock);
+		doAnswer(new EncodeIntoAnswer(sampleBufferMock)).when(silenceEncoderMock).encodeInto(any(ByteBuffer.class), eq(1000));
 		
 		// functionality
 		cut.encodeSilence(1000);		
-		verify(silenceEncoderMock, times(1)).encode(1000);
+		verify(silenceEncoderMock, times(1)).encodeInto(any(ByteBuffer.class), eq(1000));
+		verify(silenceEncoderMock, never()).encode(anyInt());
+		
+		ByteBuffer result = cut.getSampleBuffer();
+		
+		// verify buffer NOT empty
+		assertTrue(result.limit() == SB_SIZE / 2);
 		
 	} // testEncodeSilence()
 	
@@ -529,11 +625,12 @@ class EncoderTest {
 		// setup
 		cut.setBufferSize(SB_SIZE);
 				
-		when(waveCycleMock.encode(1000, 10)).thenReturn(sampleBufferMock);
+		doAnswer(new EncodeIntoAnswer(sampleBufferMock)).when(waveCycleMock).encodeInto(any(ByteBuffer.class), eq(1000), eq(10));
 		
 		// functionality
 		cut.encodeWaveCycle(1000, 10);
-		verify(waveCycleMock, times(1)).encode(1000, 10);
+		verify(waveCycleMock, times(1)).encodeInto(any(ByteBuffer.class), eq(1000), eq(10));
+		verify(waveCycleMock, never()).encode(anyInt(), anyInt());
 		
 		ByteBuffer result = cut.getSampleBuffer();
 		
@@ -566,11 +663,12 @@ class EncoderTest {
 		// setup
 		cut.setBufferSize(SB_SIZE);
 				
-		when(bitEncoderMock.encode((byte) 1, 8)).thenReturn(sampleBufferMock);
+		doAnswer(new EncodeIntoAnswer(sampleBufferMock)).when(bitEncoderMock).encodeInto(any(ByteBuffer.class), eq(1), eq(8));
 		
 		// functionality
 		cut.encodeBit((byte) 1, 8);
-		verify(bitEncoderMock, times(1)).encode((byte) 1, 8);
+		verify(bitEncoderMock, times(1)).encodeInto(any(ByteBuffer.class), eq(1), eq(8));
+		verify(bitEncoderMock, never()).encode(anyInt(), anyInt());
 		
 		ByteBuffer result = cut.getSampleBuffer();
 		
@@ -615,6 +713,7 @@ class EncoderTest {
 		cut.setBufferSize(SB_SIZE);
 		
 		doAnswer(ea).when(bitEncoderMock).encode(anyInt(), anyInt());
+		doAnswer(ea).when(bitEncoderMock).encodeInto(any(ByteBuffer.class), anyInt(), anyInt());
 
 		// functionality
 		cut.encodeByte((byte)0x0F, false);
@@ -672,6 +771,7 @@ class EncoderTest {
 		cut.setBufferSize(SB_SIZE);
 		
 		doAnswer(ea).when(bitEncoderMock).encode(anyInt(), anyInt());
+		doAnswer(ea).when(bitEncoderMock).encodeInto(any(ByteBuffer.class), anyInt(), anyInt());
 
 		// functionality
 		cut.encodeByte((byte)0x0F, false);
@@ -731,6 +831,7 @@ class EncoderTest {
 		EncodeAnswer ea = new EncodeAnswer(BUFFER_SIZE, sequence);
 		
 		doAnswer(ea).when(bitEncoderMock).encode(anyInt(), anyInt());
+		doAnswer(ea).when(bitEncoderMock).encodeInto(any(ByteBuffer.class), anyInt(), anyInt());
 
 		IllegalAccessError illegalAccessthrown;
 
@@ -816,6 +917,7 @@ class EncoderTest {
 		EncodeAnswer ea = new EncodeAnswer(BUFFER_SIZE, sequence);
 		
 		doAnswer(ea).when(bitEncoderMock).encode(anyInt(), anyInt());
+		doAnswer(ea).when(bitEncoderMock).encodeInto(any(ByteBuffer.class), anyInt(), anyInt());
 
 		IllegalAccessError illegalAccessthrown;
 
@@ -908,6 +1010,7 @@ class EncoderTest {
 		EncodeAnswer ea = new EncodeAnswer(BUFFER_SIZE, sequence);
 		
 		doAnswer(ea).when(bitEncoderMock).encode(anyInt(), anyInt());
+		doAnswer(ea).when(bitEncoderMock).encodeInto(any(ByteBuffer.class), anyInt(), anyInt());
 
 		IllegalAccessError illegalAccessthrown;
 
@@ -984,20 +1087,21 @@ class EncoderTest {
 		EncodeAnswer ea = new EncodeAnswer(BUFFER_SIZE, sequence);
 		
 		doAnswer(ea).when(bitEncoderMock).encode(anyInt(), anyInt());
+		doAnswer(ea).when(bitEncoderMock).encodeInto(any(ByteBuffer.class), anyInt(), anyInt());
 
 		IllegalAccessError illegalAccessthrown;
 
 		Encoder cut = new Encoder(bitEncoderMock, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB);
 
 		// error handling
-		illegalAccessthrown = assertThrows(IllegalAccessError.class, () -> cut.encodeWord((int)0x0FA5, false) );
+		illegalAccessthrown = assertThrows(IllegalAccessError.class, () -> cut.encodeWord(0x0FA5, false) );
 		assertTrue(illegalAccessthrown.getMessage().equals("Sample buffer size not set!"));
 		
 		// setup
 		cut.setBufferSize(SB_SIZE);
 
 		// functionality
-		cut.encodeWord((int)0x0FA5, false);
+		cut.encodeWord(0x0FA5, false);
 		
 		ByteBuffer result = cut.getSampleBuffer();
 		LOGGER.info("testEncodeByte(): result = {}", result);
@@ -1061,6 +1165,7 @@ class EncoderTest {
 		EncodeAnswer ea = new EncodeAnswer(BUFFER_SIZE, sequence);
 		
 		doAnswer(ea).when(bitEncoderMock).encode(anyInt(), anyInt());
+		doAnswer(ea).when(bitEncoderMock).encodeInto(any(ByteBuffer.class), anyInt(), anyInt());
 
 		IllegalAccessError illegalAccessthrown;
 
@@ -1069,14 +1174,14 @@ class EncoderTest {
 		cut.withStopBits(2, BitValue.LOW);
 
 		// error handling
-		illegalAccessthrown = assertThrows(IllegalAccessError.class, () -> cut.encodeWord((int)0x0FA5, true) );
+		illegalAccessthrown = assertThrows(IllegalAccessError.class, () -> cut.encodeWord(0x0FA5, true) );
 		assertTrue(illegalAccessthrown.getMessage().equals("Sample buffer size not set!"));
 		
 		// setup
 		cut.setBufferSize(SB_SIZE);
 		
 		// functionality
-		cut.encodeWord((int)0x0FA5, true);
+		cut.encodeWord(0x0FA5, true);
 		
 		ByteBuffer result = cut.getSampleBuffer();
 		LOGGER.info("testEncodeByte(): result = {}", result);
@@ -1100,6 +1205,509 @@ class EncoderTest {
 	} // testEncodeWord()
 	
 	
+	/**
+	 * Test method for {@link extension.encoder.Encoder#withByteSymbolTable()}.
+	 * 
+	 * The table based encoding must produce exactly the same sound samples as the bit by bit encoding,
+	 * with and without envelope.
+	 * 
+	 */
+	@Test
+	final void testWithByteSymbolTable() {
+		LOGGER.info("testWithByteSymbolTable()");
+
+		FskBitEncoder bitEncoder = new FskBitEncoder(1000, 2000, new WaveCycleEncoder(16000));
+		
+		ByteBuffer dataBuffer = ByteBuffer.allocate(6)
+			.put((byte) 0xFF)
+			.put((byte) 0xA5)
+			.put((byte) 0x5A)
+			.put((byte) 0x00)
+			.put((byte) 0x0F)
+			.put((byte) 0xA5)
+		;
+		
+		for(boolean withTxFrame : new boolean[] { false, true }) {
+			
+			Encoder reference = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.MSB_LSB)
+				.withByteSymbolTable(false)
+				.withStartBits(1, BitValue.LOW)
+				.withStopBits(2, BitValue.HIGH);
+			reference.setBufferSize(SB_SIZE * 4);
+			reference.encodeByteBuffer(dataBuffer, withTxFrame);
+			
+			Encoder cut = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.MSB_LSB)
+				.withByteSymbolTable()
+				.withStartBits(1, BitValue.LOW)
+				.withStopBits(2, BitValue.HIGH);
+			cut.setBufferSize(SB_SIZE * 4);
+			cut.encodeByteBuffer(dataBuffer, withTxFrame);
+			
+			assertEquals(reference.getSampleBuffer(), cut.getSampleBuffer(), "withTxFrame = " + withTxFrame);
+			
+		} // rof
+		
+	} // testWithByteSymbolTable()
+	
+	
+	/**
+	 * Test method for {@link extension.encoder.Encoder#canUseByteSymbolTable()}.
+	 * 
+	 * The ByteSymbolTable is used by default. Bit encoders without bit templates and derived classes
+	 * which override encodeBit() encode the bytes bit by bit.
+	 * 
+	 */
+	@Test
+	final void testCanUseByteSymbolTable() {
+		LOGGER.info("testCanUseByteSymbolTable()");
+
+		FskBitEncoder bitEncoder = spy(new FskBitEncoder(1000, 2000, new WaveCycleEncoder(16000)));
+		
+		Encoder cut = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB);
+		cut.setBufferSize(SB_SIZE * 4);
+		
+		assertTrue(cut.canUseByteSymbolTable());
+		assertFalse(cut.withByteSymbolTable(false).canUseByteSymbolTable());
+		assertTrue(cut.withByteSymbolTable().canUseByteSymbolTable());
+		
+		cut.encodeByte((byte) 0xA5, false);
+		cut.encodeByte((byte) 0x5A, false);
+		
+		// the table is built once, no more bits are encoded
+		verify(bitEncoder, times(1)).encode(0, 1);
+		verify(bitEncoder, times(1)).encode(1, 1);
+		verify(bitEncoder, never()).encodeInto(any(), anyInt(), anyInt());
+		
+		// a bit encoder without templates
+		BitEncoder bitEncoderMock = mock(BitEncoder.class);
+		doReturn(16).when(bitEncoderMock).getSampleBufferSize();
+		
+		Encoder mockCut = new Encoder(bitEncoderMock, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB);
+		mockCut.setBufferSize(SB_SIZE * 4);
+		
+		assertFalse(mockCut.canUseByteSymbolTable());
+		
+		mockCut.encodeByte((byte) 0xA5, false);
+		verify(bitEncoderMock, times(8)).encodeInto(any(), anyInt(), eq(1));
+		
+		// a derived class which encodes the bits on it's own
+		int[] encodedBits = new int[1];
+		
+		Encoder derivedCut = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB) {
+			
+			@Override public void encodeBit(byte aBitValue, int aCount) {
+				encodedBits[0] += aCount;
+				super.encodeBit(aBitValue, aCount);
+			}
+			
+		};
+		derivedCut.setBufferSize(SB_SIZE * 4);
+		
+		assertFalse(derivedCut.canUseByteSymbolTable());
+		
+		derivedCut.encodeByte((byte) 0xA5, false);
+		assertEquals(8, encodedBits[0]);
+		
+	} // testCanUseByteSymbolTable()
+	
+	
+	/**
+	 * Test method for {@link extension.encoder.Encoder#withParallelEncoding(ForkJoinPool)}.
+	 * 
+	 * The parallel encoding of a large buffer must produce exactly the same sound samples and checksum 
+	 * as the sequential encoding, for both bit orders, with and without envelope and behind samples
+	 * which are already in the sample buffer.
+	 * 
+	 */
+	@Test
+	final void testWithParallelEncoding() throws IllegalAccessException {
+		LOGGER.info("testWithParallelEncoding()");
+
+		final int NBR_OF_BYTES = 5 * Encoder.PARALLEL_CHUNK_SIZE + 123;
+		
+		FskBitEncoder bitEncoder = new FskBitEncoder(1000, 2000, new WaveCycleEncoder(16000));
+		ForkJoinPool pool = new ForkJoinPool(4);
+		
+		ByteBuffer dataBuffer = ByteBuffer.allocate(NBR_OF_BYTES);
+		for(int n = 0; n < NBR_OF_BYTES; n++) {
+			dataBuffer.put((byte) (n * 13 + (n >> 8)));
+		}
+		
+		int bufferSize = NBR_OF_BYTES * 11 * 16 + 8;
+		
+		assertThrows(IllegalArgumentException.class, () -> new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB)
+				.withParallelEncoding(null));
+		
+		for(BitOrder bitOrder : BitOrder.values()) {
+			
+			for(boolean withTxFrame : new boolean[] { false, true }) {
+				
+				Encoder reference = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, bitOrder)
+					.withByteSymbolTable(false)
+					.withStartBits(1, BitValue.LOW)
+					.withStopBits(2, BitValue.HIGH);
+				reference.setBufferSize(bufferSize);
+				reference.encodeBit((byte) 1, 1);
+				
+				ChecksumCalculator referenceChecksum = new DefaultChecksumCalculator(0x0FFFF);
+				reference.encodeByteBuffer(dataBuffer, withTxFrame, referenceChecksum);
+				
+				Encoder cut = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, bitOrder)
+					.withByteSymbolTable()
+					.withParallelEncoding(pool)
+					.withStartBits(1, BitValue.LOW)
+					.withStopBits(2, BitValue.HIGH);
+				cut.setBufferSize(bufferSize);
+				cut.encodeBit((byte) 1, 1);
+				
+				ChecksumCalculator checksum = new DefaultChecksumCalculator(0x0FFFF);
+				cut.encodeByteBuffer(dataBuffer, withTxFrame, checksum);
+				
+				assertEquals(reference.getSampleBuffer(), cut.getSampleBuffer(), bitOrder + ", withTxFrame = " + withTxFrame);
+				assertEquals(referenceChecksum.getCheckSum(), checksum.getCheckSum(), bitOrder + ", withTxFrame = " + withTxFrame);
+				
+			} // rof
+			
+		} // rof
+		
+		// the partial checksums are combined, a calculator without partial calculators sums up sequentially
+		Encoder checksumCut = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB).withByteSymbolTable().withParallelEncoding(pool);
+		checksumCut.setBufferSize(bufferSize);
+		
+		Modulo256ChecksumCalculator moduloChecksum = spy(new Modulo256ChecksumCalculator());
+		checksumCut.encodeByteBuffer(dataBuffer, false, moduloChecksum);
+		
+		Modulo256ChecksumCalculator moduloReference = new Modulo256ChecksumCalculator();
+		for(int n = 0; n < NBR_OF_BYTES; n++) moduloReference.sumUp(dataBuffer.get(n) & 0x0FF);
+		
+		assertEquals(moduloReference.getCheckSum(), moduloChecksum.getCheckSum());
+		verify(moduloChecksum, times(6)).combine(any());
+		
+		ChecksumCalculator xorChecksum = new ChecksumCalculator(0x0FF) {
+			@Override public void sumUp(int aValue) { chkSum ^= aValue; isInitialized = true; }
+		};
+		
+		checksumCut.clearSampleBuffer();
+		checksumCut.encodeByteBuffer(dataBuffer, false, xorChecksum);
+		
+		int xor = 0;
+		for(int n = 0; n < NBR_OF_BYTES; n++) xor ^= dataBuffer.get(n) & 0x0FF;
+		
+		assertEquals(xor, xorChecksum.getCheckSum());
+		
+		// too small, nothing is encoded
+		Encoder cut = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB).withByteSymbolTable().withParallelEncoding(pool);
+		cut.setBufferSize(NBR_OF_BYTES);
+		
+		assertThrows(BufferOverflowException.class, () -> cut.encodeByteBuffer(dataBuffer, false));
+		assertEquals(0, cut.sampleBuffer.position());
+		
+		pool.shutdown();
+		
+		// without ByteSymbolTable the bytes are encoded sequentially
+		ForkJoinPool poolMock = mock(ForkJoinPool.class);
+		
+		Encoder sequentialCut = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB).withByteSymbolTable(false).withParallelEncoding(poolMock);
+		sequentialCut.setBufferSize(bufferSize);
+		sequentialCut.encodeByteBuffer(dataBuffer, false);
+		
+		// a derived class which encodes the bytes on it's own, too
+		int[] encodedBytes = new int[1];
+		
+		Encoder derivedCut = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB) {
+			
+			@Override public void encodeByte(byte aDataByte, boolean withTxFrame) {
+				encodedBytes[0]++;
+				super.encodeByte(aDataByte, withTxFrame);
+			}
+			
+		}.withByteSymbolTable().withParallelEncoding(poolMock);
+		
+		derivedCut.setBufferSize(bufferSize);
+		derivedCut.encodeByteBuffer(dataBuffer, false);
+		
+		assertEquals(NBR_OF_BYTES, encodedBytes[0]);
+		assertEquals(sequentialCut.getSampleBuffer(), derivedCut.getSampleBuffer());
+		verifyNoInteractions(poolMock);
+		
+	} // testWithParallelEncoding()
+	
+	
+	/**
+	 * Test method for {@link extension.encoder.Encoder#setSampleStream(SampleRingBuffer)}.
+	 * 
+	 * In streaming mode the sample buffer is limited to STREAM_CHUNK_SIZE and the samples delivered
+	 * by the stream must be the same as the samples of the sample buffer without streaming.
+	 * 
+	 */
+	@Test
+	final void testSetSampleStream() {
+		LOGGER.info("testSetSampleStream()");
+
+		final int NBR_OF_BYTES = 200;
+		
+		FskBitEncoder bitEncoder = new FskBitEncoder(1000, 2000, new WaveCycleEncoder(16000));
+		SilenceEncoder silenceEncoder = new SilenceEncoder(16000);
+		WaveCycleEncoder waveCycleEncoder = new WaveCycleEncoder(16000);
+		
+		ByteBuffer dataBuffer = ByteBuffer.allocate(NBR_OF_BYTES);
+		for(int n = 0; n < NBR_OF_BYTES; n++) {
+			dataBuffer.put((byte) (n * 7));
+		}
+		
+		int bufferSize = 1000 * 16 + 500 * 16 + NBR_OF_BYTES * 11 * 16;
+		
+		Encoder reference = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB)
+			.withSilenceEncoder(silenceEncoder)
+			.withWaveCycleEncoder(waveCycleEncoder)
+			.withStartBits(1, BitValue.LOW)
+			.withStopBits(2, BitValue.HIGH);
+		reference.setBufferSize(bufferSize);
+		reference.encodeSilence(1000);
+		reference.encodeWaveCycle(1000, 500);
+		reference.encodeByteBuffer(dataBuffer, true);
+		ByteBuffer expected = reference.getSampleBuffer();
+		
+		SampleRingBuffer sampleStream = new SampleRingBuffer(bufferSize);
+		
+		Encoder cut = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB)
+			.withSilenceEncoder(silenceEncoder)
+			.withWaveCycleEncoder(waveCycleEncoder)
+			.withStartBits(1, BitValue.LOW)
+			.withStopBits(2, BitValue.HIGH);
+		cut.setSampleStream(sampleStream);
+		cut.setBufferSize(bufferSize);
+		
+		assertEquals(Encoder.STREAM_CHUNK_SIZE, cut.sampleBuffer.capacity());
+		
+		cut.encodeSilence(1000);
+		cut.encodeWaveCycle(1000, 500);
+		cut.encodeByteBuffer(dataBuffer, true);
+		
+		assertEquals(0, cut.getSampleBuffer().remaining());
+		assertEquals(expected.limit(), sampleStream.available());
+		
+		byte[] result = new byte[expected.limit()];
+		
+		try { 
+			sampleStream.close();
+			assertEquals(expected.limit(), sampleStream.read(result, 0, result.length)); 
+		} 
+		catch (InterruptedException e) { 
+			fail("Unexpected exception caught"); 
+		}
+		
+		assertEquals(expected, ByteBuffer.wrap(result));
+		
+		
+		// aborted stream
+		SampleRingBuffer abortedStream = new SampleRingBuffer(100);
+		abortedStream.abort();
+		cut.setSampleStream(abortedStream);
+		cut.setBufferSize(100);
+		
+		assertThrows(CancellationException.class, () -> cut.encodeSilence(1000));
+		
+	} // testSetSampleStream()
+	
+	
+	/**
+	 * Test method for {@link extension.encoder.Encoder#getUnitsPerChunk(int)}.
+	 * 
+	 * In streaming mode a leader of several seconds is encoded piece by piece, so the sample buffer
+	 * doesn't grow beyond STREAM_CHUNK_SIZE. The streamed samples are the same as without streaming,
+	 * also for the continuous phase of a NcoWaveCycleEncoder.
+	 * 
+	 */
+	@Test
+	final void testSetSampleStreamLongRuns() throws InterruptedException {
+		LOGGER.info("testSetSampleStreamLongRuns()");
+		
+		final int LEADER_CYCLES = 3 * 1200;
+		final int bufferSize = 2000 * 16 + LEADER_CYCLES * 16000 / 1200 + 2000 * 16 + 16;
+		
+		for(boolean isNco : new boolean[] { false, true }) {
+			
+			Encoder reference = new Encoder(new FskBitEncoder(1000, 2000, new WaveCycleEncoder(16000)), ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB)
+				.withSilenceEncoder(new SilenceEncoder(16000))
+				.withWaveCycleEncoder(isNco ? new NcoWaveCycleEncoder(16000) : new WaveCycleEncoder(16000));
+			reference.setBufferSize(bufferSize);
+			reference.encodeSilence(2000);
+			reference.encodeWaveCycle(1200, LEADER_CYCLES);
+			reference.encodeBit((byte) 1, 2000);
+			ByteBuffer expected = reference.getSampleBuffer();
+			
+			SampleRingBuffer sampleStream = new SampleRingBuffer(bufferSize);
+			
+			Encoder cut = new Encoder(new FskBitEncoder(1000, 2000, new WaveCycleEncoder(16000)), ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB)
+				.withSilenceEncoder(new SilenceEncoder(16000))
+				.withWaveCycleEncoder(isNco ? new NcoWaveCycleEncoder(16000) : new WaveCycleEncoder(16000));
+			cut.setSampleStream(sampleStream);
+			cut.setBufferSize(bufferSize);
+			
+			cut.encodeSilence(2000);
+			assertEquals(Encoder.STREAM_CHUNK_SIZE, cut.sampleBuffer.capacity(), "isNco = " + isNco);
+			
+			cut.encodeWaveCycle(1200, LEADER_CYCLES);
+			assertEquals(Encoder.STREAM_CHUNK_SIZE, cut.sampleBuffer.capacity(), "isNco = " + isNco);
+			
+			cut.encodeBit((byte) 1, 2000);
+			assertEquals(Encoder.STREAM_CHUNK_SIZE, cut.sampleBuffer.capacity(), "isNco = " + isNco);
+			
+			cut.flushSampleStream();
+			sampleStream.close();
+			
+			byte[] result = new byte[bufferSize];
+			
+			assertEquals(expected.limit(), sampleStream.read(result, 0, result.length), "isNco = " + isNco);
+			assertEquals(expected, ByteBuffer.wrap(result, 0, expected.limit()), "isNco = " + isNco);
+			
+		} // rof
+		
+		// without streaming the run is encoded as a whole
+		Encoder cut = new Encoder(new FskBitEncoder(1000, 2000, new WaveCycleEncoder(16000)), ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB);
+		cut.setBufferSize(16);
+		
+		assertEquals(Integer.MAX_VALUE, cut.getUnitsPerChunk(16));
+		
+		cut.setSampleStream(new SampleRingBuffer(16));
+		
+		assertEquals(Encoder.STREAM_CHUNK_SIZE / 16, cut.getUnitsPerChunk(16));
+		assertEquals(1, cut.getUnitsPerChunk(2 * Encoder.STREAM_CHUNK_SIZE));
+		
+	} // testSetSampleStreamLongRuns()
+	
+	
+	/**
+	 * Test method for {@link extension.encoder.Encoder#setSymbolStream(SymbolStream)}.
+	 * 
+	 * In symbol mode the expanded SymbolStream must deliver the same sound samples as the sample 
+	 * buffer without symbol mode, for both bit orders, while holding only a fraction of the bytes.
+	 * 
+	 */
+	@Test
+	final void testSetSymbolStream() {
+		LOGGER.info("testSetSymbolStream()");
+
+		final int NBR_OF_BYTES = 200;
+		
+		FskBitEncoder bitEncoder = new FskBitEncoder(1000, 2000, new WaveCycleEncoder(16000));
+		SilenceEncoder silenceEncoder = new SilenceEncoder(16000);
+		WaveCycleEncoder waveCycleEncoder = new WaveCycleEncoder(16000);
+		
+		ByteBuffer dataBuffer = ByteBuffer.allocate(NBR_OF_BYTES);
+		for(int n = 0; n < NBR_OF_BYTES; n++) {
+			dataBuffer.put((byte) (n * 7));
+		}
+		
+		int bufferSize = 1000 * 16 + 500 * 16 + 3 * 16 + NBR_OF_BYTES * 11 * 16 * 2 + 8 * 16;
+		
+		for(BitOrder bitOrder : BitOrder.values()) {
+			
+			Encoder reference = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, bitOrder)
+				.withSilenceEncoder(silenceEncoder)
+				.withWaveCycleEncoder(waveCycleEncoder)
+				.withStartBits(1, BitValue.LOW)
+				.withStopBits(2, BitValue.HIGH);
+			reference.setBufferSize(bufferSize);
+			reference.encodeSilence(1000);
+			reference.encodeWaveCycle(1000, 500);
+			reference.encodeBit((byte) 1, 3);
+			reference.encodeByteBuffer(dataBuffer, true);
+			reference.encodeByteBuffer(dataBuffer, false);
+			reference.encodeByte((byte) 0x5A, false);
+			ByteBuffer expected = reference.getSampleBuffer();
+			
+			SymbolStream symbolStream = new SymbolStream();
+			
+			Encoder cut = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, bitOrder)
+				.withSilenceEncoder(silenceEncoder)
+				.withWaveCycleEncoder(waveCycleEncoder)
+				.withStartBits(1, BitValue.LOW)
+				.withStopBits(2, BitValue.HIGH);
+			cut.setSymbolStream(symbolStream);
+			cut.setBufferSize(bufferSize);
+			
+			assertEquals(Encoder.STREAM_CHUNK_SIZE, cut.sampleBuffer.capacity());
+			
+			cut.encodeSilence(1000);
+			cut.encodeWaveCycle(1000, 500);
+			cut.encodeBit((byte) 1, 3);
+			cut.encodeByteBuffer(dataBuffer, true);
+			cut.encodeByteBuffer(dataBuffer, false);
+			cut.encodeByte((byte) 0x5A, false);
+			cut.flushSampleStream();
+			
+			assertEquals(expected.limit(), symbolStream.getSampleCount(), bitOrder.toString());
+			assertEquals(expected, symbolStream.toByteBuffer(), bitOrder.toString());
+			
+			LOGGER.info("samples = {}, symbolStream = {} bytes", expected.limit(), symbolStream.getByteSize());
+			assertTrue(symbolStream.getByteSize() * 2 < expected.limit(), "byteSize = " + symbolStream.getByteSize());
+			
+		} // rof
+		
+		Encoder cut = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB);
+		cut.setSymbolStream(new SymbolStream());
+		cut.setBufferSize(100);
+		
+		assertThrows(IllegalArgumentException.class, () -> cut.encodeBit((byte) 1, 0));
+		
+	} // testSetSymbolStream()
+	
+	
+	/**
+	 * Test method for {@link extension.encoder.Encoder#setCancellationToken(CancellationToken)}.
+	 * 
+	 * A cancelled token terminates encodeByteBuffer() and the flush of the symbol stream.
+	 * 
+	 */
+	@Test
+	final void testSetCancellationToken() {
+		LOGGER.info("testSetCancellationToken()");
+
+		FskBitEncoder bitEncoder = new FskBitEncoder(1000, 2000, new WaveCycleEncoder(16000));
+		ByteBuffer dataBuffer = ByteBuffer.allocate(1000);
+		
+		CancellationToken token = new CancellationToken();
+		
+		Encoder cut = new Encoder(bitEncoder, ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB);
+		cut.setBufferSize(1000 * 8 * 16 * 2);
+		cut.setCancellationToken(token);
+		
+		assertDoesNotThrow(() -> cut.encodeByteBuffer(dataBuffer, false));
+		
+		// the check interval follows the maximum abort latency
+		int checkInterval = cut.getCancellationCheckInterval(false);
+		assertTrue(checkInterval >= 1);
+		assertTrue(checkInterval < dataBuffer.limit() * 100);
+		
+		cut.setCancellationToken(new CancellationToken(10 * CancellationToken.DEFAULT_MAX_ABORT_LATENCY));
+		assertEquals(10 * checkInterval, cut.getCancellationCheckInterval(false), 10);
+		
+		cut.setCancellationToken(new CancellationToken(1));
+		assertTrue(cut.getCancellationCheckInterval(false) >= 1);
+		assertTrue(cut.getCancellationCheckInterval(false) < checkInterval);
+		
+		cut.setCancellationToken(null);
+		assertEquals(Integer.MAX_VALUE, cut.getCancellationCheckInterval(false));
+		
+		cut.setCancellationToken(token);
+		token.cancel();
+		dataBuffer.rewind();
+		cut.clearSampleBuffer();
+		
+		assertThrows(CancellationException.class, () -> cut.encodeByteBuffer(dataBuffer, false));
+		
+		cut.setSymbolStream(new SymbolStream());
+		assertThrows(CancellationException.class, () -> cut.flushSampleStream());
+		
+		// without a token nothing is checked
+		cut.setCancellationToken(null);
+		assertDoesNotThrow(() -> cut.flushSampleStream());
+		
+	} // testSetCancellationToken()
+	
+	
 	/**
 	 * Test method for {@link extension.encoder.Encoder#toString()}.
 	 * 
@@ -30,6 +30,8 @@
 package extension.encoder;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -186,6 +188,44 @@ class FskBitEncoderTest {
 	} // testEncode1Bit
 
 
+	/**
+	 * Test method for {@link extension.encoder.FullCycleBitEncoder#getBitTemplate(int)}.
+	 * 
+	 * The prepared samples are array backed copies of the cached templates, the templates handed
+	 * out are read-only views created once.
+	 * 
+	 */
+	@Test
+	final void testBitTemplates() {
+		LOGGER.info("testBitTemplates()");
+
+		waveCycleEncoder = new WaveCycleEncoder(SAMPLING_RATE);
+		FskBitEncoder cut = new FskBitEncoder(1, 2, waveCycleEncoder);
+		
+		assertTrue(cut.lowBitSamples.hasArray());
+		assertTrue(cut.highBitSamples.hasArray());
+		assertEquals(waveCycleEncoder.getTemplate(1, 1), cut.lowBitSamples);
+		assertEquals(waveCycleEncoder.getTemplate(2, 1), cut.highBitSamples);
+		
+		ByteBuffer template = cut.getBitTemplate(0);
+		
+		assertTrue(template.isReadOnly());
+		assertEquals(cut.lowBitSamples, template);
+		
+		template.get();
+		assertSame(template, cut.getBitTemplate(0));
+		assertEquals(0, template.position());
+		assertSame(cut.getBitTemplate(1), cut.getBitTemplate(1));
+		
+		// a bit is a single cycle from the zero-crossing, with a NcoWaveCycleEncoder as well
+		FskBitEncoder nco = new FskBitEncoder(1200, 2000, new NcoWaveCycleEncoder(16000));
+		
+		assertEquals(14, nco.lowBitSamples.limit());
+		assertEquals(8, nco.highBitSamples.limit());
+		
+	} // testBitTemplates()
+
+
 	/**
 	 * Test method for {@link extension.encoder.Encoder#toString()}.
 	 * 
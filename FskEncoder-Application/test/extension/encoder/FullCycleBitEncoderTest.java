@@ -198,6 +198,24 @@ class FullCycleBitEncoderTest {
 		
 	} // testGetSampleBufferSize()
 
+
+	/**
+	 * Test method for {@link extension.encoder.FullCycleBitEncoder#getSampleCount(int, int)}.
+	 * 
+	 * The sample count depends on the bit value.
+	 * 
+	 */
+	@Test
+	final void testGetSampleCount() {
+		
+		BitEncoder cut = new TestFullCycleBitEncoder(waveCycleMock);
+
+		assertEquals(3 * cut.encode(0, 1).limit(), cut.getSampleCount(0, 3));
+		assertEquals(3 * cut.encode(1, 1).limit(), cut.getSampleCount(1, 3));
+		assertNotEquals(cut.getSampleCount(0, 1), cut.getSampleCount(1, 1));
+		
+	} // testGetSampleCount()
+
 	
 	/**
 	 * Test method for {@link extension.encoder.FullCycleBitEncoder#encode(int, int)}.
@@ -246,6 +264,39 @@ class FullCycleBitEncoderTest {
 	} // testEncode1Bit()
 	
 
+	/**
+	 * Test method for {@link extension.encoder.FullCycleBitEncoder#encodeInto(ByteBuffer, int, int)}.
+	 * 
+	 * Validate that the samples are written directly into the target buffer.
+	 * 
+	 */
+	@Test
+	final void testEncodeInto() {
+		LOGGER.info("testEncodeInto()");
+		
+		BitEncoder cut = new TestFullCycleBitEncoder(waveCycleMock);
+		ByteBuffer target = ByteBuffer.allocate(8);
+		
+		cut.encodeInto(target, 1, 2);
+		cut.encodeInto(target, 0, 3);
+		
+		// 2 high bits of 2 samples, 3 low bits of 1 sample
+		assertTrue(target.position() == 7);
+		assertArrayEquals(new byte[] { 1, 1, 1, 1, 0, 0, 0, 0 }, target.array());
+		
+		// the result must be identical to encode()
+		ByteBuffer reference = cut.encode(1, 3);
+		reference.rewind();
+		
+		target.clear();
+		cut.encodeInto(target, 1, 3);
+		target.flip();
+		
+		assertEquals(reference, target);
+		
+	} // testEncodeInto()
+	
+
 	/**
 	 * Test method for {@link extension.encoder.Encoder#toString()}.
 	 * 
@@ -0,0 +1,235 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : NcoWaveCycleEncoderTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.encoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verifies the correct function of class NcoWaveCycleEncoder.
+ *
+ * <p>
+ * Collaborators:<br>
+ * Class under test,<br>
+ * WaveCycleEncoder as reference.
+ *
+ * <p>
+ * Description:<br>
+ * For frequencies which divide the sampling rate the samples must be identical to the ones
+ * of WaveCycleEncoder. For all other frequencies the number of samples must match the exact
+ * frequency over time.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class NcoWaveCycleEncoderTest {
+
+	private static Logger LOGGER = null;
+
+	private static final int SAMPLING_RATE = 16000;
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link extension.encoder.NcoWaveCycleEncoder#NcoWaveCycleEncoder(int)}.
+	 * <p>
+	 * Error recognition checking on constructor and encode().
+	 */
+	@Test
+	final void testNcoWaveCycleEncoder() {
+		LOGGER.info("testNcoWaveCycleEncoder()");
+
+		IllegalArgumentException thrown;
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> new NcoWaveCycleEncoder(0));
+		assertEquals("aSamplingRate must be greater than 0", thrown.getMessage());
+
+		NcoWaveCycleEncoder cut = new NcoWaveCycleEncoder(SAMPLING_RATE);
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.encode(4000.5, 1));
+		assertEquals("Given sample rate is not suitable for the requested frequency!", thrown.getMessage());
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.encode(-1.0, 1));
+		assertEquals("aFrequency must be greater than 0!", thrown.getMessage());
+
+		assertEquals(NcoWaveCycleEncoder.SINE_TABLE_SIZE, 1 << NcoWaveCycleEncoder.SINE_TABLE_BITS);
+
+	} // testNcoWaveCycleEncoder()
+
+
+	/**
+	 * Test method for {@link extension.encoder.NcoWaveCycleEncoder#encode(int, int)}.
+	 * <p>
+	 * If the sampling rate is a multiple of the frequency, the cycles have the same length as the ones of 
+	 * WaveCycleEncoder. The samples are the same only if the samples per cycle divide SINE_TABLE_SIZE.
+	 */
+	@Test
+	final void testEncodeIntegerFrequency() {
+		LOGGER.info("testEncodeIntegerFrequency()");
+
+		WaveCycleEncoder reference = new WaveCycleEncoder(SAMPLING_RATE);
+		NcoWaveCycleEncoder cut = new NcoWaveCycleEncoder(SAMPLING_RATE);
+
+		for(int frequency : new int[] { 500, 1000, 2000, 4000 }) {
+
+			assertEquals(reference.encode(frequency, 5), cut.encode(frequency, 5), "frequency = " + frequency);
+			assertEquals(reference.getSampleCount(frequency, 5), cut.getSampleCount(frequency, 5));
+
+		} // rof
+		
+		// 10 samples per cycle, the phase is quantized to the sine table
+		cut.resetPhase();
+		
+		ByteBuffer expected = reference.encode(1600, 5);
+		ByteBuffer result = cut.encode(1600, 5);
+		
+		assertEquals(expected.limit(), result.limit());
+		
+		for(int n = 0; n < expected.limit(); n++) {
+			assertTrue(Math.abs(expected.get(n) - result.get(n)) <= 2, "n = " + n);
+		}
+
+	} // testEncodeIntegerFrequency()
+
+
+	/**
+	 * Test method for {@link extension.encoder.NcoWaveCycleEncoder#encodeInto(ByteBuffer, double, int)}.
+	 * <p>
+	 * A frequency of 1200Hz needs 13.33 samples per cycle. WaveCycleEncoder uses 13 samples and
+	 * so encodes 1230Hz, the NCO has to deliver 40 samples per 3 cycles.
+	 */
+	@Test
+	final void testEncodeFractionalFrequency() {
+		LOGGER.info("testEncodeFractionalFrequency()");
+
+		NcoWaveCycleEncoder cut = new NcoWaveCycleEncoder(SAMPLING_RATE);
+		ByteBuffer target = ByteBuffer.allocate(1000);
+
+		for(int n = 0; n < 3; n++) {
+
+			int expected = cut.getSampleCount(1200, 1);
+			long expectedPhase = cut.getPhaseAfter(1200, 1, cut.getPhase());
+			int position = target.position();
+
+			cut.encodeInto(target, 1200, 1);
+
+			assertEquals(expected, target.position() - position);
+			assertEquals(expectedPhase, cut.getPhase());
+
+		} // rof
+
+		assertEquals(40, target.position());
+
+		// a fractional frequency over a long time
+		cut.resetPhase();
+
+		double frequency = 1234.5;
+		int cycles = 0;
+		int samples = 0;
+
+		for(int n = 0; n < 1000; n++) {
+			samples += cut.encode(frequency, 7).limit();
+			cycles += 7;
+		}
+
+		double exact = cycles * SAMPLING_RATE / frequency;
+		LOGGER.info("samples = {}, exact = {}", samples, exact);
+
+		assertTrue(Math.abs(samples - exact) <= 1.0);
+
+	} // testEncodeFractionalFrequency()
+
+
+	/**
+	 * Test method for {@link extension.encoder.NcoWaveCycleEncoder#encodeInto(ByteBuffer, int, int)}.
+	 * <p>
+	 * Subsequent calls must produce the same continuous wave as a single call.
+	 */
+	@Test
+	final void testPhaseContinuity() {
+		LOGGER.info("testPhaseContinuity()");
+
+		NcoWaveCycleEncoder single = new NcoWaveCycleEncoder(SAMPLING_RATE);
+		NcoWaveCycleEncoder split = new NcoWaveCycleEncoder(SAMPLING_RATE);
+
+		ByteBuffer expected = single.encode(1300.0, 12);
+		ByteBuffer result = ByteBuffer.allocate(expected.limit());
+
+		for(int n = 0; n < 4; n++) {
+			split.encodeInto(result, 1300.0, 3);
+		}
+
+		assertFalse(result.hasRemaining());
+		result.flip();
+
+		assertEquals(expected, result);
+
+		// reset starts at the zero-crossing again
+		split.resetPhase();
+		assertEquals(0, split.encode(1300, 1).get(0));
+
+	} // testPhaseContinuity()
+
+
+	/**
+	 * Verifies the correct behavior of toString()
+	 *
+	 * Test method for {@link #toString()}.
+	 */
+	@Test
+	void testToString() {
+		LOGGER.info("testToString()");
+
+		NcoWaveCycleEncoder cut = new NcoWaveCycleEncoder(SAMPLING_RATE);
+
+		assertEquals("NcoWaveCycleEncoder [samplingRate=16000, phase=0]", cut.toString());
+
+	} // testToString()
+
+
+} // ssalc
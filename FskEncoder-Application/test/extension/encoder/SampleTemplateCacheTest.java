@@ -0,0 +1,205 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : SampleTemplateCacheTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.encoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verifies the correct function of class SampleTemplateCache.
+ *
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ *
+ * <p>
+ * Description:<br>
+ * Covers the creation on demand, the read-only views and the eviction of the least
+ * recently used templates.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class SampleTemplateCacheTest {
+
+	private static Logger LOGGER = null;
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link extension.encoder.SampleTemplateCache#SampleTemplateCache(long)}.
+	 */
+	@Test
+	final void testSampleTemplateCache() {
+		LOGGER.info("testSampleTemplateCache()");
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> new SampleTemplateCache(-1));
+		assertEquals("aMaxSize can't be less than 0!", thrown.getMessage());
+
+		SampleTemplateCache cut = new SampleTemplateCache(100);
+
+		assertEquals(100, cut.getMaxSize());
+		assertEquals(0, cut.getCurrentSize());
+		assertEquals(0, cut.getTemplateCount());
+
+		assertSame(SampleTemplateCache.getInstance(), SampleTemplateCache.getInstance());
+		assertEquals(SampleTemplateCache.DEFAULT_MAX_SIZE, SampleTemplateCache.getInstance().getMaxSize());
+
+	} // testSampleTemplateCache()
+
+
+	/**
+	 * Test method for {@link extension.encoder.SampleTemplateCache#getTemplate(Class, int, int, int, Supplier)}.
+	 * <p>
+	 * The factory is called only once per key, the templates are handed out as independent read-only views.
+	 */
+	@Test
+	final void testGetTemplate() {
+		LOGGER.info("testGetTemplate()");
+
+		SampleTemplateCache cut = new SampleTemplateCache(100);
+		AtomicInteger calls = new AtomicInteger();
+
+		Supplier<ByteBuffer> factory = () -> {
+			calls.incrementAndGet();
+			return ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 });
+		};
+
+		ByteBuffer first = cut.getTemplate(WaveCycleEncoder.class, 8000, 1000, 1, factory);
+		ByteBuffer second = cut.getTemplate(WaveCycleEncoder.class, 8000, 1000, 1, factory);
+
+		assertEquals(1, calls.get());
+		assertNotSame(first, second);
+		assertTrue(first.isReadOnly());
+		assertThrows(ReadOnlyBufferException.class, () -> first.put(0, (byte) 0));
+
+		first.get();
+		assertEquals(1, first.position());
+		assertEquals(0, second.position());
+		assertEquals(4, second.limit());
+
+		// any part of the key makes a difference
+		cut.getTemplate(NcoWaveCycleEncoder.class, 8000, 1000, 1, factory);
+		cut.getTemplate(WaveCycleEncoder.class, 16000, 1000, 1, factory);
+		cut.getTemplate(WaveCycleEncoder.class, 8000, 2000, 1, factory);
+		cut.getTemplate(WaveCycleEncoder.class, 8000, 1000, 2, factory);
+
+		assertEquals(5, calls.get());
+		assertEquals(5, cut.getTemplateCount());
+		assertEquals(20, cut.getCurrentSize());
+
+		cut.clear();
+
+		assertEquals(0, cut.getTemplateCount());
+		assertEquals(0, cut.getCurrentSize());
+
+	} // testGetTemplate()
+
+
+	/**
+	 * Test method for {@link extension.encoder.SampleTemplateCache#getTemplate(Class, int, int, int, Supplier)}.
+	 * <p>
+	 * If the bound is exceeded the least recently used templates are evicted,
+	 * a template larger than the bound isn't stored.
+	 */
+	@Test
+	final void testEviction() {
+		LOGGER.info("testEviction()");
+
+		SampleTemplateCache cut = new SampleTemplateCache(30);
+
+		for(int n = 1; n <= 3; n++) {
+			cut.getTemplate(SilenceEncoder.class, 1000, n, 0, () -> ByteBuffer.allocate(10));
+		}
+
+		assertEquals(30, cut.getCurrentSize());
+
+		// 1 becomes the most recently used, so 2 is evicted
+		cut.getTemplate(SilenceEncoder.class, 1000, 1, 0, () -> fail("must be cached"));
+		cut.getTemplate(SilenceEncoder.class, 1000, 4, 0, () -> ByteBuffer.allocate(10));
+
+		assertEquals(3, cut.getTemplateCount());
+		assertEquals(30, cut.getCurrentSize());
+
+		cut.getTemplate(SilenceEncoder.class, 1000, 1, 0, () -> fail("must be cached"));
+		cut.getTemplate(SilenceEncoder.class, 1000, 3, 0, () -> fail("must be cached"));
+
+		AtomicInteger calls = new AtomicInteger();
+		cut.getTemplate(SilenceEncoder.class, 1000, 2, 0, () -> { calls.incrementAndGet(); return ByteBuffer.allocate(10); });
+		assertEquals(1, calls.get());
+
+		// too large
+		ByteBuffer large = cut.getTemplate(SilenceEncoder.class, 1000, 99, 0, () -> ByteBuffer.allocate(31));
+
+		assertEquals(31, large.limit());
+		assertEquals(3, cut.getTemplateCount());
+		assertEquals(30, cut.getCurrentSize());
+
+	} // testEviction()
+
+
+	/**
+	 * Verifies the correct behavior of toString()
+	 *
+	 * Test method for {@link #toString()}.
+	 */
+	@Test
+	void testToString() {
+		LOGGER.info("testToString()");
+
+		SampleTemplateCache cut = new SampleTemplateCache(42);
+
+		assertEquals("SampleTemplateCache [maxSize=42, currentSize=0, templateCount=0]", cut.toString());
+
+	} // testToString()
+
+
+} // ssalc
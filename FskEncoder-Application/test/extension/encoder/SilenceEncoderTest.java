@@ -163,6 +163,90 @@ class SilenceEncoderTest {
 	} // testEncode()
 
 	
+	/**
+	 * Test method for {@link extension.encoder.SilenceEncoder#encodeInto(ByteBuffer, int)}.
+	 * <br>
+	 * Ensures that existing content of the target buffer is overwritten with silence.
+	 */
+	@Test
+	final void testEncodeInto() {
+		LOGGER.info("testEncodeInto()");
+		
+		IllegalArgumentException thrown;
+		SilenceEncoder cut = new SilenceEncoder(2000);
+		ByteBuffer target = ByteBuffer.allocate(4000);
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.encodeInto(target, 0) );
+		assertTrue(thrown.getMessage().equals("aDuration must be greater than 0!"));
+		
+		for(int n = 0; n < target.capacity(); n++) {
+			target.put(n, (byte) 42);
+		}
+		
+		target.position(1);
+		cut.encodeInto(target, 1000);
+		
+		assertEquals(2001, target.position());
+		assertEquals(42, target.get(0));
+		assertEquals(42, target.get(2001));
+		
+		for(int n = 1; n < 2001; n++) {
+			assertEquals(0, target.get(n));
+		}
+		
+	} // testEncodeInto()
+
+	
+	/**
+	 * Test method for {@link extension.encoder.SilenceEncoder#getTemplate(int)}.
+	 * <br>
+	 * Templates are read-only and shared, long silence is assembled from chunks of TEMPLATE_DURATION.
+	 */
+	@Test
+	final void testGetTemplate() {
+		LOGGER.info("testGetTemplate()");
+		
+		IllegalArgumentException thrown;
+		SilenceEncoder cut = new SilenceEncoder(2000);
+		cut.templateCache = new SampleTemplateCache(SampleTemplateCache.DEFAULT_MAX_SIZE);
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.getTemplate(0) );
+		assertTrue(thrown.getMessage().equals("aDuration must be greater than 0!"));
+		
+		ByteBuffer template = cut.getTemplate(5);
+		
+		assertTrue(template.isReadOnly());
+		assertEquals(0, template.position());
+		assertEquals(10, template.limit());
+		assertEquals(cut.encode(5), template);
+		
+		cut.encodeInto(ByteBuffer.allocate(cut.getSampleCount(250)), 250);
+		
+		// 5ms, 100ms and 50ms
+		assertEquals(3, cut.templateCache.getTemplateCount());
+		assertEquals(10 + 200 + 100, cut.templateCache.getCurrentSize());
+		
+	} // testGetTemplate()
+
+	
+	/**
+	 * Test method for {@link extension.encoder.SilenceEncoder#getSampleCount(int)}.
+	 * <br>
+	 * The sample count must match the size of the buffer returned by encode().
+	 */
+	@Test
+	final void testGetSampleCount() {
+		LOGGER.info("testGetSampleCount()");
+		
+		SilenceEncoder cut = new SilenceEncoder(16000);
+		
+		assertEquals(16, cut.getSampleCount(1));
+		assertEquals(16000, cut.getSampleCount(1000));
+		assertEquals(cut.encode(250).limit(), cut.getSampleCount(250));
+		
+	} // testGetSampleCount()
+
+	
 	/**
 	 * Verifies the correct behavior of toString()
 	 * 
@@ -31,6 +31,11 @@
 package extension.encoder;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.net.MalformedURLException;
 import java.nio.ByteBuffer;
@@ -247,6 +252,140 @@ class WaveCycleEncoderTest {
 	} // testWaveForm()
 	
 	
+	/**
+	 * Test method for {@link extension.encoder.WaveCycleEncoder#encodeInto(ByteBuffer, int, int)}.
+	 * <p>
+	 * The samples written into the target buffer must be equal to the result of encode().
+	 * 
+	 */
+	@Test
+	final void testEncodeInto() {		
+		LOGGER.info("testEncodeInto()");
+		
+		IllegalArgumentException thrown;
+		WaveCycleEncoder cut = new WaveCycleEncoder(16000);
+		ByteBuffer target = ByteBuffer.allocate(100);
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> { cut.encodeInto(target, 4001, 1); });
+		assertTrue(thrown.getMessage().equals("Given sample rate is not suitable for the requested frequency!"));
+		
+		target.position(4);
+		cut.encodeInto(target, 2000, 3);
+		
+		assertEquals(4 + 3 * 8, target.position());
+		
+		ByteBuffer reference = cut.encode(2000, 3);
+		
+		for(int n = 0; n < reference.limit(); n++) {
+			assertEquals(reference.get(n), target.get(4 + n));
+		}
+		
+	} // testEncodeInto()
+	
+	
+	/**
+	 * Test method for {@link extension.encoder.WaveCycleEncoder#getTemplate(int, int)}.
+	 * <p>
+	 * Templates are read-only, calculated once and equal to the result of encode(). 
+	 * Sequences longer than TEMPLATE_CYCLES are assembled from chunks.
+	 * 
+	 */
+	@Test
+	final void testGetTemplate() {		
+		LOGGER.info("testGetTemplate()");
+		
+		IllegalArgumentException thrown;
+		WaveCycleEncoder cut = new WaveCycleEncoder(16000);
+		cut.templateCache = new SampleTemplateCache(SampleTemplateCache.DEFAULT_MAX_SIZE);
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> { cut.getTemplate(4001, 1); });
+		assertTrue(thrown.getMessage().equals("Given sample rate is not suitable for the requested frequency!"));
+		
+		ByteBuffer template = cut.getTemplate(2000, 1);
+		
+		assertTrue(template.isReadOnly());
+		assertEquals(0, template.position());
+		assertEquals(8, template.limit());
+		assertEquals(cut.encode(2000, 1), template);
+		assertEquals(1, cut.templateCache.getTemplateCount());
+		
+		// the view handed out doesn't affect the cached template
+		template.get();
+		assertEquals(0, cut.getTemplate(2000, 1).position());
+		
+		int cycles = 2 * WaveCycleEncoder.TEMPLATE_CYCLES + 3;
+		ByteBuffer target = ByteBuffer.allocate(cut.getSampleCount(1000, cycles));
+		
+		cut.encodeInto(target, 1000, cycles);
+		
+		assertFalse(target.hasRemaining());
+		assertEquals(3, cut.templateCache.getTemplateCount());
+		
+		ByteBuffer cycle = cut.getTemplate(1000, 1);
+		
+		for(int n = 0; n < target.limit(); n++) {
+			assertEquals(cycle.get(n % cycle.limit()), target.get(n));
+		}
+		
+	} // testGetTemplate()
+	
+	
+	/**
+	 * Test method for {@link extension.encoder.WaveCycleEncoder#encodeInto(ByteBuffer, int, int)}.
+	 * <p>
+	 * Repeated requests take the templates kept by the encoder, the SampleTemplateCache is asked
+	 * only if the frequency or the number of cycles changes.
+	 * 
+	 */
+	@Test
+	final void testEncodeIntoKeepsTemplates() {		
+		LOGGER.info("testEncodeIntoKeepsTemplates()");
+		
+		WaveCycleEncoder cut = new WaveCycleEncoder(16000);
+		SampleTemplateCache cache = spy(new SampleTemplateCache(SampleTemplateCache.DEFAULT_MAX_SIZE));
+		cut.templateCache = cache;
+		
+		int cycles = WaveCycleEncoder.TEMPLATE_CYCLES + 3;
+		ByteBuffer target = ByteBuffer.allocate(3 * cut.getSampleCount(2000, cycles));
+		
+		cut.encodeInto(target, 2000, cycles);
+		cut.encodeInto(target, 2000, cycles);
+		
+		verify(cache, times(2)).getTemplate(any(), anyInt(), anyInt(), anyInt(), any());
+		
+		cut.encodeInto(target, 2000, 2);
+		
+		verify(cache, times(3)).getTemplate(any(), anyInt(), anyInt(), anyInt(), any());
+		
+		target.flip();
+		ByteBuffer reference = cut.encode(2000, cycles);
+		
+		for(int n = 0; n < target.limit(); n++) {
+			assertEquals(reference.get(n % reference.limit()), target.get(n));
+		}
+		
+	} // testEncodeIntoKeepsTemplates()
+	
+	
+	/**
+	 * Test method for {@link extension.encoder.WaveCycleEncoder#getSampleCount(int, int)}.
+	 * <p>
+	 * The sample count must match the size of the buffer returned by encode().
+	 * 
+	 */
+	@Test
+	final void testGetSampleCount() {		
+		LOGGER.info("testGetSampleCount()");
+		
+		WaveCycleEncoder cut = new WaveCycleEncoder(16000);
+		
+		assertEquals(8, cut.getSampleCount(2000, 1));
+		assertEquals(3 * 16, cut.getSampleCount(1000, 3));
+		assertEquals(cut.encode(1200, 5).limit(), cut.getSampleCount(1200, 5));
+		
+	} // testGetSampleCount()
+	
+	
 	/**
 	 * Verifies the correct behavior of toString()
 	 * 
@@ -34,6 +34,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.beans.PropertyChangeListener;
+import java.util.concurrent.Executor;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -258,6 +259,49 @@ class BackgroundTaskTest {
 	} // testExecute()
 
 
+	/**
+	 * Test method for {@link extension.execution.BackgroundTask#setExecutor(Executor)}.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Test
+	final void testSetExecutor() {
+		LOGGER.info("testSetExecutor()");
+
+		Executor executorMock = mock(Executor.class);
+		
+		try(
+				
+			MockedConstruction<BackgroundExecutor> mcBackgroundExecutork = mockConstruction(BackgroundExecutor.class);
+				
+		) {
+			
+			TestBackgroudTask<Void, Void> cut = new TestBackgroudTask<Void, Void>();
+			assertNull(cut.getExecutor());
+			
+			cut.setExecutor(executorMock);
+			assertEquals(executorMock, cut.getExecutor());
+			
+			cut.execute();
+			
+			assertEquals(1, mcBackgroundExecutork.constructed().size());
+			BackgroundExecutor<Void, Void> backgroundExecutorMock = mcBackgroundExecutork.constructed().get(0);
+			
+			// the executor runs the BackgroundExecutor instead of SwingWorker.execute()
+			verify(executorMock, times(1)).execute(backgroundExecutorMock);
+			verify(backgroundExecutorMock, never()).execute();
+			
+			cut.setExecutor(null);
+			cut.execute();
+			
+			backgroundExecutorMock = mcBackgroundExecutork.constructed().get(1);
+			verify(backgroundExecutorMock, times(1)).execute();
+			verifyNoMoreInteractions(executorMock);
+			
+		} // yrt
+		
+	} // testSetExecutor()
+
+
 	/**
 	 * Test method for {@link extension.execution.BackgroundTask#getProgress()}.
 	 */
@@ -443,15 +487,67 @@ class BackgroundTaskTest {
 		LOGGER.info("testStop()");
 
 		TestBackgroudTask<Void, Void> cut = new TestBackgroudTask<Void, Void>();
+		
+		// an idle task isn't affected
+		assertFalse(cut.isActive());
+		cut.stop();
+		assertFalse(cut.getCancellationToken().isCancelled());
+		
 		cut.setRunflag(true);
 		assertEquals(true, cut.isRunning());
+		assertTrue(cut.isActive());
 
 		cut.stop();
 		assertEquals(false, cut.isRunning());
+		assertTrue(cut.getCancellationToken().isCancelled());
+		
+		// execute() starts with a fresh token, a stop() till done() terminates the run
+		cut.setExecutor(aRunnable -> { /* the run is driven by the test */ });
+		cut.execute();
+		assertTrue(cut.isActive());
+		assertFalse(cut.getCancellationToken().isCancelled());
+		
+		cut.stop();
+		assertTrue(cut.getCancellationToken().isCancelled());
+		
+		cut.done();
+		assertFalse(cut.isActive());
+		
+		// a stop() after done() doesn't terminate the next run
+		cut.execute();
+		cut.done();
+		cut.stop();
+		
+		cut.execute();
+		assertFalse(cut.getCancellationToken().isCancelled());
 
 	} // testStop()
 
 
+	/**
+	 * Test method for {@link extension.execution.BackgroundTask#setCancellationToken(CancellationToken)}.
+	 */
+	@Test
+	final void testSetCancellationToken() {
+		LOGGER.info("testSetCancellationToken()");
+
+		TestBackgroudTask<Void, Void> cut = new TestBackgroudTask<Void, Void>();
+		assertNotNull(cut.getCancellationToken());
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> cut.setCancellationToken(null));
+		assertEquals("aCancellationToken can't be null!", thrown.getMessage());
+		
+		CancellationToken token = new CancellationToken();
+		cut.setCancellationToken(token);
+		assertSame(token, cut.getCancellationToken());
+		
+		cut.setRunflag(true);
+		cut.stop();
+		assertTrue(token.isCancelled());
+
+	} // testSetCancellationToken()
+
+
 	/**
 	 * Test method for {@link extension.execution.BackgroundTask#toString()}.
 	 */
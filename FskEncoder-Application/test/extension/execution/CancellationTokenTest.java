@@ -0,0 +1,134 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : CancellationTokenTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.execution;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CancellationException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Functional testing of class CancellationToken. 
+ * 
+ * <p>
+ * Collaborators:<br>
+ * None.
+ * 
+ * <p>
+ * Description:<br>
+ * Verifies all methods for correct functionality.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class CancellationTokenTest {
+
+	private static Logger LOGGER = null;
+	
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		
+	    System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+		
+	}
+
+
+	/**
+	 * Test method for {@link extension.execution.CancellationToken#CancellationToken(long)}.
+	 */
+	@Test
+	final void testCancellationToken() {
+		LOGGER.info("testCancellationToken()");
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> new CancellationToken(0));
+		assertEquals("aMaxAbortLatency must be greater than 0!", thrown.getMessage());
+		
+		assertEquals(CancellationToken.DEFAULT_MAX_ABORT_LATENCY, new CancellationToken().getMaxAbortLatency());
+		assertEquals(20, new CancellationToken(20).getMaxAbortLatency());
+		
+		assertFalse(new CancellationToken().isCancelled());
+		
+	} // testCancellationToken()
+
+
+	/**
+	 * Test method for {@link extension.execution.CancellationToken#cancel()} and 
+	 * {@link extension.execution.CancellationToken#reset()}.
+	 */
+	@Test
+	final void testCancelAndReset() {
+		LOGGER.info("testCancelAndReset()");
+
+		CancellationToken cut = new CancellationToken();
+		
+		assertDoesNotThrow(() -> cut.throwIfCancelled());
+		
+		cut.cancel();
+		
+		assertTrue(cut.isCancelled());
+		CancellationException thrown = assertThrows(CancellationException.class, () -> cut.throwIfCancelled());
+		assertEquals("Cancelled by request!", thrown.getMessage());
+		
+		cut.reset();
+		
+		assertFalse(cut.isCancelled());
+		assertDoesNotThrow(() -> cut.throwIfCancelled());
+		
+	} // testCancelAndReset()
+
+
+	/**
+	 * Test method for {@link extension.execution.CancellationToken#toString()}.
+	 */
+	@Test
+	final void testToString() {
+		LOGGER.info("testToString()");
+
+		CancellationToken cut = new CancellationToken();
+		cut.cancel();
+
+		assertEquals("CancellationToken [maxAbortLatency=100, isCancelled=true]", cut.toString());
+		
+	} // testToString()
+
+
+} // ssalc
@@ -0,0 +1,190 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : ProgressAggregatorTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.execution;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Functional testing of class ProgressAggregator. 
+ * 
+ * <p>
+ * Collaborators:<br>
+ * None.
+ * 
+ * <p>
+ * Description:<br>
+ * The aggregator runs with a clock driven by the test and a maximum rate of 10 per second, so 
+ * a value is published at most every 100 ms.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class ProgressAggregatorTest {
+
+	private static Logger LOGGER = null;
+	
+	private static final long MS = 1_000_000L;
+	
+	long now;
+	
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		
+	    System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+		
+	}
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeEach
+	void setUp() throws Exception {
+		
+		now = 1000 * MS;
+		
+	} // setUp()
+
+
+	/**
+	 * Test method for {@link extension.execution.ProgressAggregator#ProgressAggregator(int)}.
+	 */
+	@Test
+	final void testProgressAggregator() {
+		LOGGER.info("testProgressAggregator()");
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> new ProgressAggregator(0));
+		assertEquals("aMaxRate must be greater than 0!", thrown.getMessage());
+		
+		ProgressAggregator cut = new ProgressAggregator();
+		
+		assertEquals(-1, cut.getPublishedProgress());
+		assertEquals(0, cut.getPublishCount());
+		
+	} // testProgressAggregator()
+
+
+	/**
+	 * Test method for {@link extension.execution.ProgressAggregator#update(int)}.
+	 */
+	@Test
+	final void testUpdate() {
+		LOGGER.info("testUpdate()");
+
+		ProgressAggregator cut = new ProgressAggregator(10, () -> now);
+		
+		// the first value is released at once
+		assertEquals(0, cut.update(0));
+		
+		// unchanged and decreasing values are dropped
+		assertEquals(-1, cut.update(0));
+		now += 200 * MS;
+		assertEquals(5, cut.update(5));
+		assertEquals(-1, cut.update(3));
+		
+		// too early
+		now += 50 * MS;
+		assertEquals(-1, cut.update(7));
+		assertEquals(-1, cut.update(8));
+		
+		now += 50 * MS;
+		assertEquals(9, cut.update(9));
+		
+		// 100 percent doesn't wait
+		assertEquals(100, cut.update(120));
+		assertEquals(-1, cut.update(100));
+		
+		assertEquals(100, cut.getPublishedProgress());
+		assertEquals(4, cut.getPublishCount());
+		
+	} // testUpdate()
+
+
+	/**
+	 * Test method for {@link extension.execution.ProgressAggregator#flush()} and 
+	 * {@link extension.execution.ProgressAggregator#reset()}.
+	 */
+	@Test
+	final void testFlushAndReset() {
+		LOGGER.info("testFlushAndReset()");
+
+		ProgressAggregator cut = new ProgressAggregator(10, () -> now);
+		
+		assertEquals(-1, cut.flush());
+		
+		assertEquals(10, cut.update(10));
+		assertEquals(-1, cut.update(20));
+		assertEquals(-1, cut.update(30));
+		
+		assertEquals(30, cut.flush());
+		assertEquals(-1, cut.flush());
+		assertEquals(2, cut.getPublishCount());
+		
+		cut.reset();
+		
+		assertEquals(-1, cut.getPublishedProgress());
+		assertEquals(0, cut.getPublishCount());
+		
+		assertEquals(1, cut.update(1));
+		
+	} // testFlushAndReset()
+
+
+	/**
+	 * Test method for {@link extension.execution.ProgressAggregator#toString()}.
+	 */
+	@Test
+	final void testToString() {
+		LOGGER.info("testToString()");
+
+		ProgressAggregator cut = new ProgressAggregator(10, () -> now);
+		cut.update(42);
+
+		assertEquals("ProgressAggregator [minInterval=100000000, publishedProgress=42, pendingProgress=-1, publishCount=1]", 
+				cut.toString());
+		
+	} // testToString()
+
+
+} // ssalc
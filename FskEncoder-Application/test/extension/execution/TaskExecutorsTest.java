@@ -0,0 +1,163 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : TaskExecutorsTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.execution;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Functional testing of class TaskExecutors. 
+ * 
+ * <p>
+ * Collaborators:<br>
+ * None.
+ * 
+ * <p>
+ * Description:<br>
+ * Runs a task on each executor and verifies the thread it was run on.
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class TaskExecutorsTest {
+
+	private static Logger LOGGER = null;
+	
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		
+	    System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+		
+	}
+
+
+	/**
+	 * Test method for {@link extension.execution.TaskExecutors#getCompileExecutor()}.
+	 */
+	@Test
+	final void testGetCompileExecutor() throws Exception {
+		LOGGER.info("testGetCompileExecutor()");
+
+		Thread thread = runOn(TaskExecutors.getCompileExecutor());
+		
+		assertTrue(thread.getName().startsWith(TaskExecutors.COMPILE_THREAD_NAME), thread.getName());
+		assertTrue(thread.isDaemon());
+		assertEquals(Thread.NORM_PRIORITY, thread.getPriority());
+		
+		assertSame(TaskExecutors.getCompileExecutor(), TaskExecutors.getCompileExecutor());
+		
+	} // testGetCompileExecutor()
+
+
+	/**
+	 * Test method for {@link extension.execution.TaskExecutors#getAudioExecutor()}.
+	 */
+	@Test
+	final void testGetAudioExecutor() throws Exception {
+		LOGGER.info("testGetAudioExecutor()");
+
+		Thread thread = runOn(TaskExecutors.getAudioExecutor());
+		
+		assertEquals(TaskExecutors.AUDIO_THREAD_NAME, thread.getName());
+		assertTrue(thread.isDaemon());
+		assertEquals(Thread.MAX_PRIORITY, thread.getPriority());
+		
+		// always the same thread
+		assertSame(thread, runOn(TaskExecutors.getAudioExecutor()));
+		
+	} // testGetAudioExecutor()
+
+
+	/**
+	 * Test method for {@link extension.execution.TaskExecutors#getStoreExecutor()}.
+	 */
+	@Test
+	final void testGetStoreExecutor() throws Exception {
+		LOGGER.info("testGetStoreExecutor()");
+
+		Thread thread = runOn(TaskExecutors.getStoreExecutor());
+		
+		assertEquals(TaskExecutors.STORE_THREAD_NAME, thread.getName());
+		assertTrue(thread.isDaemon());
+		
+		// always the same thread
+		assertSame(thread, runOn(TaskExecutors.getStoreExecutor()));
+		
+	} // testGetStoreExecutor()
+
+
+	/**
+	 * Test method for {@link extension.execution.TaskExecutors#getVirtualThreadExecutor()}.
+	 * <p>
+	 * Virtual threads are available from JDK 21 on.
+	 */
+	@Test
+	final void testGetVirtualThreadExecutor() throws Exception {
+		LOGGER.info("testGetVirtualThreadExecutor()");
+
+		boolean isSupported = Runtime.version().feature() >= 21;
+		
+		assertEquals(isSupported, TaskExecutors.isVirtualThreadAvailable());
+		assertEquals(isSupported, TaskExecutors.getVirtualThreadExecutor().isPresent());
+		
+		if(isSupported) {
+			assertNotNull(runOn(TaskExecutors.getVirtualThreadExecutor().get()));
+		}
+		
+	} // testGetVirtualThreadExecutor()
+	
+	
+	/**
+	 * Runs a task on aExecutor and returns the thread it was run on.
+	 */
+	private Thread runOn(final Executor aExecutor) throws Exception {
+		
+		return CompletableFuture.supplyAsync(Thread::currentThread, aExecutor).get(5, TimeUnit.SECONDS);
+		
+	} // runOn()
+
+
+} // ssalc
@@ -133,6 +133,27 @@ class MemoryMapTest {
 		assertTrue(thrown.getMessage().equals("aRegion can't be null"));
 		
 		assertDoesNotThrow(() -> cut.addRegion(new MemoryRegion(0)));
+		assertFalse(cut.hasOverlaps());
+		
+		// adjacent regions don't overlap
+		cut.addRegion(createRegion(0, 50));
+		cut.addRegion(createRegion(50, 50));
+		assertFalse(cut.hasOverlaps());
+		
+		// a region with the same start address replaces the previous one
+		MemoryRegion replacement = createRegion(50, 20);
+		cut.addRegion(replacement);
+		
+		assertFalse(cut.hasOverlaps());
+		assertEquals(2, cut.getRegionCount());
+		assertSame(replacement, cut.getMemoryRegion(50));
+		
+		cut.addRegion(createRegion(60, 20));
+		assertTrue(cut.hasOverlaps());
+		assertEquals(3, cut.getRegionCount());
+		
+		cut.clear();
+		assertFalse(cut.hasOverlaps());
 		
 	} // testAddRegion()
 
@@ -176,10 +197,106 @@ class MemoryMapTest {
 		assertTrue(result.get(0).SIZE == region0.getSize());
 		assertTrue(result.get(1).SIZE == region1.getSize());
 		assertTrue(result.get(2).SIZE == region2.getSize());
+		
+		// kept until the next change, ordered without regard to the order of addition
+		assertSame(result, cut.getMemoryLayout());
+		assertThrows(UnsupportedOperationException.class, () -> cut.getMemoryLayout().clear());
+		
+		cut.addRegion(createRegion(-100, 10));
+		
+		result = cut.getMemoryLayout();
+		
+		assertEquals(4, result.size());
+		assertEquals(-100, result.get(0).START_ADDRESS);
+		assertEquals(region0.getStartAddress(), result.get(1).START_ADDRESS);
+		
+		cut.clear();
+		assertTrue(cut.getMemoryLayout().isEmpty());
 
 	} // testGetMemoryLayout()
 
 
+	/**
+	 * Verifies the lookup of the region which covers an address.
+	 * 
+	 * Test method for {@link extension.model.MemoryMap#getRegionAt(long)}.
+	 */
+	@Test
+	final void testGetRegionAt() {
+		LOGGER.info("testGetRegionAt()");
+		
+		MemoryMap cut = new MemoryMap();
+		
+		MemoryRegion region0 = createRegion(0, 50);
+		MemoryRegion region1 = createRegion(100, 50);
+		
+		cut.addRegion(region1);
+		cut.addRegion(region0);
+		cut.addRegion(new MemoryRegion(300));
+		
+		assertNull(cut.getRegionAt(-1));
+		assertSame(region0, cut.getRegionAt(0));
+		assertSame(region0, cut.getRegionAt(49));
+		assertNull(cut.getRegionAt(50));
+		assertSame(region1, cut.getRegionAt(100));
+		assertSame(region1, cut.getRegionAt(149));
+		assertNull(cut.getRegionAt(150));
+		assertNull(cut.getRegionAt(300));
+		
+		// overlapping regions, the one with the highest start address wins
+		MemoryRegion large = createRegion(20, 200);
+		cut.addRegion(large);
+		
+		assertTrue(cut.hasOverlaps());
+		assertSame(large, cut.getRegionAt(30));
+		assertSame(region0, cut.getRegionAt(10));
+		assertSame(large, cut.getRegionAt(50));
+		assertSame(region1, cut.getRegionAt(120));
+		assertSame(large, cut.getRegionAt(150));
+		assertSame(large, cut.getRegionAt(219));
+		assertNull(cut.getRegionAt(220));
+		assertNull(cut.getRegionAt(1000));
+		
+	} // testGetRegionAt()
+
+
+	/**
+	 * Verifies the iteration of an address range.
+	 * 
+	 * Test method for {@link extension.model.MemoryMap#getRegions(long, long)}.
+	 */
+	@Test
+	final void testGetRegions() {
+		LOGGER.info("testGetRegions()");
+		
+		MemoryMap cut = new MemoryMap();
+		
+		MemoryRegion region0 = createRegion(0, 50);
+		MemoryRegion region1 = createRegion(100, 50);
+		MemoryRegion region2 = createRegion(200, 50);
+		
+		cut.addRegion(region2);
+		cut.addRegion(region0);
+		cut.addRegion(region1);
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> cut.getRegions(10, 9));
+		assertEquals("aEndAddress can't be less than aStartAddress", thrown.getMessage());
+		
+		assertEquals(List.of(region0, region1, region2), cut.getRegions(0, 1000));
+		assertEquals(List.of(region0, region1), cut.getRegions(49, 100));
+		assertEquals(List.of(region1), cut.getRegions(120, 120));
+		assertEquals(List.of(), cut.getRegions(50, 99));
+		assertEquals(List.of(), cut.getRegions(-100, -1));
+		
+		MemoryRegion large = createRegion(20, 200);
+		cut.addRegion(large);
+		
+		assertEquals(List.of(large, region1), cut.getRegions(140, 199));
+		assertEquals(List.of(region0, large), cut.getRegions(30, 40));
+		
+	} // testGetRegions()
+
+
 	/**
 	 * Makes sure that on request the right memory region is returned.
 	 * 
@@ -300,6 +417,94 @@ class MemoryMapTest {
 	} // testClear()
 
 
+	/**
+	 * Verifies that only the updating thread sees the new layout till it's published.
+	 * 
+	 * Test method for {@link extension.model.MemoryMap#beginUpdate()}, 
+	 * {@link extension.model.MemoryMap#commitUpdate()} and {@link extension.model.MemoryMap#discardUpdate()}.
+	 */
+	@Test
+	void testUpdate() throws Exception {
+		LOGGER.info("testUpdate()");
+		
+		MemoryMap cut = new MemoryMap();
+		cut.addRegion(createRegion(0, 50));
+		
+		assertFalse(cut.isUpdating());
+		assertFalse(cut.commitUpdate());
+		
+		// the updating thread starts with an empty layout
+		Thread loader = new Thread(() -> {
+			
+			cut.beginUpdate();
+			
+			try {
+				assertEquals(0, cut.getRegionCount());
+				
+				cut.addRegion(createRegion(100, 50));
+				cut.addRegion(createRegion(200, 50));
+				
+				assertEquals(2, cut.getRegionCount());
+			}
+			finally {
+				cut.endUpdate();
+			}
+			
+		});
+		
+		loader.start();
+		loader.join(5000);
+		
+		// all other threads still see the published layout
+		assertTrue(cut.isUpdating());
+		assertEquals(1, cut.getRegionCount());
+		assertNotNull(cut.getRegionAt(10));
+		assertNull(cut.getRegionAt(110));
+		
+		assertTrue(cut.commitUpdate());
+		
+		assertFalse(cut.isUpdating());
+		assertEquals(2, cut.getRegionCount());
+		assertNull(cut.getRegionAt(10));
+		assertNotNull(cut.getRegionAt(110));
+		assertEquals(2, cut.getMemoryLayout().size());
+		
+		// a discarded update keeps the published layout
+		loader = new Thread(() -> {
+			
+			cut.beginUpdate();
+			cut.clear();
+			cut.addRegion(createRegion(300, 50));
+			cut.endUpdate();
+			
+		});
+		
+		loader.start();
+		loader.join(5000);
+		
+		cut.discardUpdate();
+		
+		assertFalse(cut.isUpdating());
+		assertFalse(cut.commitUpdate());
+		assertEquals(2, cut.getRegionCount());
+		assertNull(cut.getRegionAt(310));
+		
+	} // testUpdate()
+
+
+	/**
+	 * Creates a region with aSize bytes of content.
+	 */
+	private MemoryRegion createRegion(final long aStartAddress, final int aSize) {
+		
+		MemoryRegion region = new MemoryRegion(aStartAddress);
+		region.addContent(new byte[aSize]);
+		
+		return region;
+		
+	} // createRegion()
+	
+	
 	/**
 	 * Verifies the correct behavior of toString()
 	 * 
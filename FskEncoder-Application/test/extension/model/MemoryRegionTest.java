@@ -33,6 +33,7 @@ package extension.model;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -106,11 +107,15 @@ class MemoryRegionTest {
 	final void testMemoryRegion() {
 		LOGGER.info("testMemoryRegion()");
 		
-		/*
-		 * Nothing to test here
-		 */
+		MemoryRegion cut = new MemoryRegion(0L);
 		
-		assertTrue(true);
+		assertFalse(cut.isOffHeap());
+		assertEquals(MemoryRegion.DEFAULT_CAPACITY, cut.getCapacity());
+		
+		cut = new MemoryRegion(0L, true);
+		
+		assertTrue(cut.isOffHeap());
+		assertTrue(cut.content.isDirect());
 		
 	} // testMemoryRegion()
 
@@ -133,6 +138,21 @@ class MemoryRegionTest {
 		thrown = assertThrows(IllegalArgumentException.class, () -> cut.addContent(new byte[0]));
 		assertTrue(thrown.getMessage().equals("aContent can't be empty"));
 		
+		// the content buffer grows, the payload is kept
+		byte[] record = new byte[16];
+		
+		for(int i = 0; i < 100; i++) {
+			record[0] = (byte) i;
+			cut.addContent(record);
+		}
+		
+		assertEquals(1600, cut.getSize());
+		assertEquals(2048, cut.getCapacity());
+		
+		ByteBuffer content = cut.getContent();
+		
+		for(int i = 0; i < 100; i++) assertEquals((byte) i, content.get(16 * i));
+		
 	} // testAddContent()
 
 
@@ -182,9 +202,110 @@ class MemoryRegionTest {
 		assertTrue(result != null);
 		assertTrue(result.capacity() == content.length);
 		
+		// a writable copy on the heap, positioned behind the payload
+		assertFalse(result.isReadOnly());
+		assertTrue(result.hasArray());
+		assertEquals(content.length, result.position());
+		assertEquals(content.length, result.limit());
+		
+		result.put(0, (byte) 9);
+		assertEquals(0, cut.getContent().get(0));
+		
+		// off-heap
+		final MemoryRegion offHeap = new MemoryRegion(0L, true);
+		offHeap.addContent(new byte[] { 4, 5, 6 });
+		
+		result = offHeap.getContent();
+		
+		assertFalse(result.isDirect());
+		assertFalse(result.isReadOnly());
+		assertEquals(5, result.get(1));
+		
 	} // testGetContent()
 
 
+	/**
+	 * Verifies the correct behavior of the method getContentView().
+	 * 
+	 * Test method for {@link extension.model.MemoryRegion#getContentView()}.
+	 */
+	@Test
+	final void testGetContentView() {
+		LOGGER.info("testGetContentView()");
+		
+		final MemoryRegion cut = new MemoryRegion(0L);
+		final byte[] content = new byte[16];
+		
+		IllegalAccessError thrown = assertThrows(IllegalAccessError.class, () -> cut.getContentView());
+		assertEquals("No content available", thrown.getMessage());
+		
+		cut.addContent(content);
+		
+		ByteBuffer result = cut.getContentView();
+		
+		assertEquals(content.length, result.capacity());
+		assertTrue(result.isReadOnly());
+		assertEquals(0, result.position());
+		assertEquals(content.length, result.limit());
+		
+		// a view keeps the payload at the time of the call, also if the content buffer grows
+		cut.addContent(new byte[] { 1, 2, 3 });
+		cut.addContent(new byte[MemoryRegion.DEFAULT_CAPACITY]);
+		
+		assertEquals(content.length, result.limit());
+		assertEquals(content.length + 3 + MemoryRegion.DEFAULT_CAPACITY, cut.getContentView().limit());
+		assertEquals(2, cut.getContentView().get(content.length + 1));
+		
+		// off-heap
+		final MemoryRegion offHeap = new MemoryRegion(0L, true);
+		offHeap.addContent(new byte[] { 4, 5, 6 });
+		
+		result = offHeap.getContentView();
+		
+		assertTrue(result.isDirect());
+		assertTrue(result.isReadOnly());
+		assertEquals(5, result.get(1));
+		
+	} // testGetContentView()
+
+
+	/**
+	 * Verifies the correct behavior of the method getContentView(int, int).
+	 * 
+	 * Test method for {@link extension.model.MemoryRegion#getContentView(int, int)}.
+	 */
+	@Test
+	final void testGetContentViewRange() {
+		LOGGER.info("testGetContentViewRange()");
+		
+		final MemoryRegion cut = new MemoryRegion(0x100L);
+		
+		IllegalAccessError error = assertThrows(IllegalAccessError.class, () -> cut.getContentView(0, 0));
+		assertEquals("No content available", error.getMessage());
+		
+		cut.addContent(new byte[] { 0, 1, 2, 3 });
+		cut.addContent(new byte[] { 4, 5, 6, 7 });
+		
+		ByteBuffer result = cut.getContentView(2, 4);
+		
+		assertEquals(0, result.position());
+		assertEquals(4, result.capacity());
+		assertEquals(4, result.limit());
+		assertEquals(2, result.get(0));
+		assertEquals(5, result.get(3));
+		assertThrows(ReadOnlyBufferException.class, () -> result.put((byte) 0));
+		
+		assertEquals(0, cut.getContentView(8, 0).limit());
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> cut.getContentView(5, 4));
+		assertEquals("aOffset and aLength must be located within the content!", thrown.getMessage());
+		
+		assertThrows(IllegalArgumentException.class, () -> cut.getContentView(-1, 2));
+		assertThrows(IllegalArgumentException.class, () -> cut.getContentView(0, -1));
+		
+	} // testGetContentViewRange()
+
+
 	/**
 	 * Asserts that illegal calls to this method are detected and handled with the correct exception.
 	 * 
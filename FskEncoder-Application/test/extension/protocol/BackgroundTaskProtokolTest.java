@@ -33,6 +33,8 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -42,8 +44,18 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import extension.encoder.BitOrder;
+import extension.encoder.BitValue;
+import extension.encoder.ByteOrder;
+import extension.encoder.CompilePlan;
+import extension.encoder.Encoder;
+import extension.encoder.FskBitEncoder;
+import extension.encoder.SilenceEncoder;
+import extension.encoder.WaveCycleEncoder;
 import extension.protocol.BackgroundTaskProtokol;
 import extension.sound.FskAudioFormat;
+import extension.sound.SampleRingBuffer;
+import extension.sound.SymbolStream;
 
 /**
  * Responsibilities:<br>
@@ -161,6 +173,196 @@ class BackgroundTaskProtokolTest {
 	} // testExecute()
 
 
+	/**
+	 * Verifies the streaming compilation.
+	 * 
+	 * Test method for {@link extension.protocol.BackgroundTaskProtokol#compile(ByteBuffer, SampleRingBuffer)}.
+	 */
+	@Test
+	final void testCompileStream() throws InterruptedException {
+		LOGGER.info("testCompileStream()");
+		
+		IllegalArgumentException thrown;
+		
+		ByteBuffer buffer = ByteBuffer.allocate(42);
+		byte[] result = new byte[42];
+		
+		BackgroundTaskProtokolImpl cut = new BackgroundTaskProtokolImpl();
+		
+		
+		// error handling
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.compile(buffer, null) );
+		assertEquals("aSampleStream can't be null!", thrown.getMessage());
+		
+		
+		// direct invocation, the samples of compile(...) are passed into the stream
+		SampleRingBuffer sampleStream = new SampleRingBuffer(42);
+		cut.compile(buffer, sampleStream);
+		
+		assertTrue(sampleStream.isClosed());
+		assertEquals(SQR_25, sampleStream.read(result, 0, result.length));
+		assertEquals(-1, sampleStream.read(result, 0, result.length));
+		
+		
+		// background invocation
+		SampleRingBuffer backgroundStream = new SampleRingBuffer(42);
+		BackgroundTaskProtokolImpl cutSpy = spy(new BackgroundTaskProtokolImpl());
+		cutSpy.setDataBuffer(buffer);
+		cutSpy.setSampleStream(backgroundStream);
+		
+		assertDoesNotThrow(() -> cutSpy.runBackgroundTask() );
+		
+		verify(cutSpy, times(1)).compile(buffer, backgroundStream);
+		assertTrue(backgroundStream.isClosed());
+		assertEquals(SQR_25, backgroundStream.available());
+		
+		
+		// an aborted stream terminates the compilation silently
+		SampleRingBuffer abortedStream = new SampleRingBuffer(42);
+		abortedStream.abort();
+		cutSpy.setSampleStream(abortedStream);
+		
+		assertDoesNotThrow(() -> cutSpy.runBackgroundTask() );
+		
+		// the stream is used once only
+		cutSpy.runBackgroundTask();
+		verify(cutSpy, times(3)).compile(buffer);
+		
+		
+		// samples of the encoder: the stream holds the same samples as the sample buffer, 
+		// the empty buffer returned by compile(...) adds nothing after the final flush
+		class EncodingImpl extends BackgroundTaskProtokolImpl {
+			
+			{
+				encoder = new Encoder(new FskBitEncoder(1000, 2000, new WaveCycleEncoder(16000)), ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB)
+					.withSilenceEncoder(new SilenceEncoder(16000))
+					.withStartBits(1, BitValue.LOW)
+					.withStopBits(2, BitValue.HIGH);
+			}
+			
+			@Override public ByteBuffer compile(ByteBuffer aDataBuffer) { 
+				encoder.setBufferSize(1600 + 3 * 11 * 16);
+				encoder.encodeSilence(100);
+				encoder.encodeByteBuffer(aDataBuffer, true);
+				return encoder.getSampleBuffer();
+			}
+			
+		};
+		
+		ByteBuffer dataBuffer = ByteBuffer.wrap(new byte[] { 0x00, (byte) 0xFF, 0x5A });
+		ByteBuffer expected = new EncodingImpl().compile(dataBuffer);
+		
+		SampleRingBuffer encoderStream = new SampleRingBuffer(4 * expected.limit());
+		new EncodingImpl().compile(dataBuffer, encoderStream);
+		
+		byte[] streamed = new byte[4 * expected.limit()];
+		assertEquals(expected.limit(), encoderStream.read(streamed, 0, streamed.length));
+		assertEquals(-1, encoderStream.read(streamed, 0, streamed.length));
+		assertEquals(expected, ByteBuffer.wrap(streamed, 0, expected.limit()));
+		
+	} // testCompileStream()
+
+
+	/**
+	 * Verifies the compact compilation.
+	 * 
+	 * Test method for {@link extension.protocol.BackgroundTaskProtokol#compileSymbols(ByteBuffer)}.
+	 */
+	@Test
+	final void testCompileSymbols() {
+		LOGGER.info("testCompileSymbols()");
+		
+		ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 0x00, (byte) 0xFF, 0x5A });
+		
+		// samples not produced by an encoder are taken as they are
+		BackgroundTaskProtokolImpl cut = new BackgroundTaskProtokolImpl();
+		SymbolStream symbolStream = cut.compileSymbols(buffer);
+		
+		assertEquals(SQR_25, symbolStream.getSampleCount());
+		assertEquals(1, symbolStream.getEntryCount());
+		
+		// samples of the encoder
+		class EncodingImpl extends BackgroundTaskProtokolImpl {
+			
+			{
+				encoder = new Encoder(new FskBitEncoder(1000, 2000, new WaveCycleEncoder(16000)), ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB)
+					.withSilenceEncoder(new SilenceEncoder(16000))
+					.withStartBits(1, BitValue.LOW)
+					.withStopBits(2, BitValue.HIGH);
+			}
+			
+			@Override public ByteBuffer compile(ByteBuffer aDataBuffer) { 
+				encoder.setBufferSize(1600 + 3 * 11 * 16);
+				encoder.encodeSilence(100);
+				encoder.encodeByteBuffer(aDataBuffer, true);
+				return encoder.getSampleBuffer();
+			}
+			
+		};
+		
+		ByteBuffer expected = new EncodingImpl().compile(buffer);
+		
+		EncodingImpl encodingCut = new EncodingImpl();
+		symbolStream = encodingCut.compileSymbols(buffer);
+		
+		assertEquals(expected, symbolStream.toByteBuffer());
+		assertTrue(symbolStream.getByteSize() < expected.limit());
+		
+		// symbol mode is left after the compilation
+		assertEquals(expected, encodingCut.compile(buffer));
+		
+	} // testCompileSymbols()
+
+
+	/**
+	 * Verifies the sizing of the sample buffer and the progress by a CompilePlan.
+	 * 
+	 * Test method for {@link extension.protocol.BackgroundTaskProtokol#prepareCompile(ByteBuffer)}.
+	 */
+	@Test
+	final void testPrepareCompile() {
+		LOGGER.info("testPrepareCompile()");
+		
+		ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 0x00, (byte) 0xFF, 0x5A });
+		int[] reportedProgress = new int[1];
+		
+		// without a plan nothing is prepared
+		BackgroundTaskProtokolImpl cut = new BackgroundTaskProtokolImpl();
+		
+		assertNull(cut.prepareCompile(buffer));
+		assertEquals(-1, cut.getUploadDuration(buffer));
+		
+		// with a plan
+		BackgroundTaskProtokolImpl planningCut = new BackgroundTaskProtokolImpl() {
+			
+			{
+				encoder = new Encoder(new FskBitEncoder(1000, 2000, new WaveCycleEncoder(16000)), ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB)
+					.withSilenceEncoder(new SilenceEncoder(16000))
+					.withStartBits(1, BitValue.LOW)
+					.withStopBits(2, BitValue.HIGH);
+			}
+			
+			@Override protected CompilePlan createCompilePlan(ByteBuffer aDataBuffer) { 
+				return new CompilePlan(encoder).addSilence(100).addByteBuffer(aDataBuffer, true);
+			}
+			
+			@Override protected void setFullProgress(int aBufferSize) { reportedProgress[0] = aBufferSize; }
+			
+		};
+		
+		CompilePlan plan = planningCut.prepareCompile(buffer);
+		
+		// 1600 silence + 0x00: 1*16 + 8*16 + 2*8, 0xFF: 1*16 + 8*8 + 2*8, 0x5A: 1*16 + 4*16 + 4*8 + 2*8
+		int expected = 1600 + 160 + 96 + 128;
+		
+		assertEquals(expected, plan.getSampleCount());
+		assertEquals(expected, planningCut.soundSampleBufferSize);
+		assertEquals(3, reportedProgress[0]);
+		assertEquals(124, planningCut.getUploadDuration(buffer));
+		
+	} // testPrepareCompile()
+
+
 	/**
 	 * Verifies the correct behavior of setDataBuffer(...)
 	 * 
@@ -327,6 +529,101 @@ class BackgroundTaskProtokolTest {
 	} // testStop()
 	
 
+	/**
+	 * Test method for {@link extension.protocol.BackgroundTaskProtokol#setParallelEncoding(ForkJoinPool)}.
+	 */
+	@Test
+	void testSetParallelEncoding() throws IllegalAccessException {
+		LOGGER.info("testSetParallelEncoding()");
+		
+		BackgroundTaskProtokolImpl cut = new BackgroundTaskProtokolImpl();
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> cut.setParallelEncoding(null));
+		assertEquals("aForkJoinPool can't be null!", thrown.getMessage());
+		
+		// no encoder, nothing to do
+		assertDoesNotThrow(() -> cut.setParallelEncoding(pool));
+		
+		cut.encoder = mock(Encoder.class);
+		cut.setParallelEncoding(pool);
+		
+		verify(cut.encoder).withParallelEncoding(pool);
+		
+		
+		// the compilation of a large buffer runs on the pool
+		class ParallelImpl extends BackgroundTaskProtokolImpl {
+			
+			{
+				encoder = new Encoder(new FskBitEncoder(1000, 2000, new WaveCycleEncoder(16000)), ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB)
+					.withStartBits(1, BitValue.LOW)
+					.withStopBits(2, BitValue.HIGH);
+				checksumCalculator = new DefaultChecksumCalculator(0x0FFFF);
+			}
+			
+			@Override public ByteBuffer compile(ByteBuffer aDataBuffer) { 
+				encoder.setBufferSize(aDataBuffer.limit() * 11 * 16);
+				encodeData(aDataBuffer, true);
+				soundsampleBuffer = encoder.getSampleBuffer();
+				return soundsampleBuffer;
+			}
+			
+		};
+		
+		int[] invocations = new int[1];
+		ForkJoinPool countingPool = new ForkJoinPool(2) {
+			@Override public <T> T invoke(ForkJoinTask<T> aTask) {
+				invocations[0]++;
+				return super.invoke(aTask);
+			}
+		};
+		
+		ByteBuffer dataBuffer = ByteBuffer.allocate(3 * Encoder.PARALLEL_CHUNK_SIZE);
+		for(int n = 0; n < dataBuffer.limit(); n++) dataBuffer.put(n, (byte) (n * 7));
+		
+		ParallelImpl reference = new ParallelImpl();
+		reference.setDataBuffer(dataBuffer);
+		reference.runBackgroundTask();
+		
+		assertEquals(0, invocations[0]);
+		
+		ParallelImpl parallelCut = new ParallelImpl();
+		parallelCut.setParallelEncoding(countingPool);
+		parallelCut.setDataBuffer(dataBuffer);
+		parallelCut.runBackgroundTask();
+		
+		// sizing and encoding of the chunks
+		assertEquals(2, invocations[0]);
+		assertEquals(reference.soundsampleBuffer, parallelCut.soundsampleBuffer);
+		assertEquals(reference.checksumCalculator.getCheckSum(), parallelCut.checksumCalculator.getCheckSum());
+		
+		countingPool.shutdown();
+		
+	} // testSetParallelEncoding()
+	
+
+	/**
+	 * Test method for {@link extension.protocol.BackgroundTaskProtokol#encodeData(ByteBuffer, boolean)}.
+	 * <p>
+	 * The data is encoded together with the checksum calculator of the protocol.
+	 */
+	@Test
+	void testEncodeData() {
+		LOGGER.info("testEncodeData()");
+		
+		BackgroundTaskProtokolImpl cut = new BackgroundTaskProtokolImpl();
+		ByteBuffer data = ByteBuffer.allocate(42);
+		
+		cut.encoder = mock(Encoder.class);
+		cut.checksumCalculator = new Modulo256ChecksumCalculator();
+		
+		cut.encodeData(data, true);
+		
+		verify(cut.encoder).encodeByteBuffer(data, true, cut.checksumCalculator);
+		
+	} // testEncodeData()
+	
+	
 	/**
 	 * Verifies the correct behavior of toString()
 	 * 
@@ -350,4 +647,26 @@ class BackgroundTaskProtokolTest {
 	} // testToString()
 	
 	
+	/**
+	 * Test method for {@link extension.protocol.BackgroundTaskProtokol#getConfigurationKey()}.
+	 */
+	@Test
+	final void testGetConfigurationKey() {
+		LOGGER.info("testGetConfigurationKey()");
+		
+		BackgroundTaskProtokolImpl cut = new BackgroundTaskProtokolImpl();
+		
+		assertEquals(BackgroundTaskProtokolImpl.class.getName() + " [version=unknown, audioFormat=null] [encoder=-, checksumCalculator=-]", 
+				cut.getConfigurationKey());
+		
+		cut.encoder = new Encoder(new FskBitEncoder(1000, 2000, new WaveCycleEncoder(16000)), ByteOrder.LITTLE_ENDIAN, BitOrder.LSB_MSB);
+		cut.checksumCalculator = new DefaultChecksumCalculator(0xFF);
+		
+		assertEquals(BackgroundTaskProtokolImpl.class.getName() + " [version=unknown, audioFormat=null] [encoder=" 
+				+ cut.encoder.getConfigurationKey() + ", checksumCalculator=" + DefaultChecksumCalculator.class.getName() + "]", 
+				cut.getConfigurationKey());
+		
+	} // testGetConfigurationKey()
+	
+	
 } // ssalc
@@ -31,6 +31,8 @@ package extension.protocol;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.ByteBuffer;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.AfterAll;
@@ -201,6 +203,41 @@ class ChecksumCalculatorTest {
 	} // testClear()
 	
 
+	/**
+	 * Test method for {@link extension.protocol.ChecksumCalculator#sumUp(ByteBuffer)} and
+	 * {@link extension.protocol.ChecksumCalculator#combine(ChecksumCalculator)}.
+	 * <br>
+	 * Without partial calculators the buffer is summed up sequentially, bytes count as unsigned values.
+	 */
+	@Test
+	final void testSumUpByteBuffer() throws IllegalAccessException {
+		LOGGER.info("testSumUpByteBuffer()");
+
+		ChecksumCalculator cut = new TestChecksumCalculator(0);
+		ByteBuffer data = ByteBuffer.allocate(2 * ChecksumCalculator.PARALLEL_CHUNK_SIZE);
+		
+		data.put(0, (byte) 0xFF);
+		data.put(1, (byte) 0x01);
+		data.put(data.limit() - 1, (byte) 0x80);
+		data.position(5);
+		
+		cut.sumUp(data);
+		
+		assertEquals(0xFF + 0x01 + 0x80, cut.getCheckSum());
+		assertEquals(5, data.position());
+		
+		ChecksumCalculator partial = new TestChecksumCalculator(0);
+		
+		cut.combine(partial);
+		assertEquals(0x180, cut.getCheckSum());
+		
+		partial.sumUp(0x20);
+		cut.combine(partial);
+		assertEquals(0x1A0, cut.getCheckSum());
+		
+	} // testSumUpByteBuffer()
+	
+
 	/**
 	 * Test method for {@link extension.protocol.ChecksumCalculator#toString()}.
 	 */
@@ -31,6 +31,8 @@ package extension.protocol;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.ByteBuffer;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.AfterAll;
@@ -184,4 +186,34 @@ class DefaultChecksumCalculatorTest {
 	} // testGetCheckSum()
 
 
+
+	/**
+	 * Test method for {@link extension.protocol.ChecksumCalculator#sumUp(ByteBuffer)}.
+	 * <br>
+	 * The parallel calculation over a large buffer must give the same checksum as the sequential one.
+	 */
+	@Test
+	public void testSumUpByteBuffer() throws IllegalAccessException {
+		LOGGER.info("testSumUpByteBuffer()");
+		
+		ByteBuffer data = ByteBuffer.allocate(0x10000 + 17);
+		
+		for(int n = 0; n < data.limit(); n++) {
+			data.put(n, (byte) (n * 31 + 7));
+		}
+		
+		DefaultChecksumCalculator reference = new DefaultChecksumCalculator(0x0FFFF);
+		
+		for(int n = 0; n < data.limit(); n++) {
+			reference.sumUp(data.get(n) & 0x0FF);
+		}
+		
+		DefaultChecksumCalculator cut = new DefaultChecksumCalculator(0x0FFFF);
+		cut.sumUp(data);
+		
+		assertEquals(reference.getCheckSum(), cut.getCheckSum());
+		
+	} // testSumUpByteBuffer()
+
+
 } // sslac
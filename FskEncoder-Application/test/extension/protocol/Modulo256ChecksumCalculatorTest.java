@@ -31,6 +31,8 @@ package extension.protocol;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.ByteBuffer;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.AfterAll;
@@ -145,4 +147,34 @@ class Modulo256ChecksumCalculatorTest {
 		
 	} // testGetCheckSum()
 
+
+	/**
+	 * Test method for {@link extension.protocol.ChecksumCalculator#sumUp(ByteBuffer)}.
+	 * <br>
+	 * The parallel calculation over a large buffer must give the same checksum as the sequential one.
+	 */
+	@Test
+	public void testSumUpByteBuffer() throws IllegalAccessException {
+		LOGGER.info("testSumUpByteBuffer()");
+		
+		ByteBuffer data = ByteBuffer.allocate(0x10000 + 17);
+		
+		for(int n = 0; n < data.limit(); n++) {
+			data.put(n, (byte) (n * 31 + 7));
+		}
+		
+		Modulo256ChecksumCalculator reference = new Modulo256ChecksumCalculator();
+		
+		for(int n = 0; n < data.limit(); n++) {
+			reference.sumUp(data.get(n) & 0x0FF);
+		}
+		
+		Modulo256ChecksumCalculator cut = new Modulo256ChecksumCalculator();
+		cut.sumUp(data);
+		
+		assertEquals(reference.getCheckSum(), cut.getCheckSum());
+		
+	} // testSumUpByteBuffer()
+
+
 } // class
@@ -0,0 +1,265 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : SampleRingBufferTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.sound;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verifies the correct function of class SampleRingBuffer.
+ *
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ *
+ * <p>
+ * Description:<br>
+ * Single threaded tests cover the ring arithmetic, a producer thread is used to
+ * verify the blocking behavior.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class SampleRingBufferTest {
+
+	private static Logger LOGGER = null;
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link extension.sound.SampleRingBuffer#SampleRingBuffer(int)}.
+	 */
+	@Test
+	final void testSampleRingBuffer() {
+		LOGGER.info("testSampleRingBuffer()");
+
+		IllegalArgumentException thrown;
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> new SampleRingBuffer(0));
+		assertEquals("aCapacity must be greater than 0!", thrown.getMessage());
+
+		SampleRingBuffer cut = new SampleRingBuffer(42);
+
+		assertEquals(42, cut.getCapacity());
+		assertEquals(0, cut.available());
+		assertFalse(cut.isClosed());
+		assertFalse(cut.isAborted());
+
+	} // testSampleRingBuffer()
+
+
+	/**
+	 * Test method for {@link extension.sound.SampleRingBuffer#write(ByteBuffer)} and
+	 * {@link extension.sound.SampleRingBuffer#read(byte[], int, int)}.
+	 * <p>
+	 * The samples must be read in the same order as written, also across the end of the ring.
+	 */
+	@Test
+	final void testWriteRead() throws InterruptedException {
+		LOGGER.info("testWriteRead()");
+
+		SampleRingBuffer cut = new SampleRingBuffer(10);
+		byte[] result = new byte[10];
+
+		cut.write(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5, 6, 7 }));
+		assertEquals(7, cut.available());
+
+		assertEquals(5, cut.read(result, 0, 5));
+		assertArrayEquals(new byte[] { 1, 2, 3, 4, 5 }, Arrays.copyOf(result, 5));
+
+		// wraps around the end of the ring
+		ByteBuffer samples = ByteBuffer.wrap(new byte[] { 8, 9, 10, 11, 12, 13 });
+		cut.write(samples);
+
+		assertFalse(samples.hasRemaining());
+		assertEquals(8, cut.available());
+
+		assertEquals(8, cut.read(result, 2, 8));
+		assertArrayEquals(new byte[] { 6, 7, 8, 9, 10, 11, 12, 13 }, Arrays.copyOfRange(result, 2, 10));
+
+		assertEquals(0, cut.available());
+
+	} // testWriteRead()
+
+
+	/**
+	 * Test method for {@link extension.sound.SampleRingBuffer#close()}.
+	 * <p>
+	 * After close the remaining samples are delivered followed by the end of stream.
+	 */
+	@Test
+	final void testClose() throws InterruptedException {
+		LOGGER.info("testClose()");
+
+		SampleRingBuffer cut = new SampleRingBuffer(10);
+		byte[] result = new byte[10];
+
+		cut.write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }));
+		cut.close();
+
+		assertTrue(cut.isClosed());
+		assertEquals(3, cut.read(result, 0, 10));
+		assertEquals(-1, cut.read(result, 0, 10));
+
+		IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> cut.write(ByteBuffer.allocate(1)));
+		assertEquals("Stream already closed!", thrown.getMessage());
+
+	} // testClose()
+
+
+	/**
+	 * Test method for {@link extension.sound.SampleRingBuffer#abort()}.
+	 * <p>
+	 * A producer blocked on a full ring is released with a CancellationException.
+	 */
+	@Test
+	final void testAbort() throws InterruptedException {
+		LOGGER.info("testAbort()");
+
+		SampleRingBuffer cut = new SampleRingBuffer(4);
+		Throwable[] caught = new Throwable[1];
+
+		Thread producer = new Thread(() -> {
+			try { cut.write(ByteBuffer.allocate(10)); }
+			catch (Throwable e) { caught[0] = e; }
+		});
+
+		producer.start();
+
+		while(cut.available() < 4) {
+			Thread.sleep(1);
+		}
+
+		cut.abort();
+		producer.join(5000);
+
+		assertFalse(producer.isAlive());
+		assertTrue(caught[0] instanceof CancellationException);
+		assertTrue(cut.isAborted());
+		assertEquals(-1, cut.read(new byte[4], 0, 4));
+
+	} // testAbort()
+
+
+	/**
+	 * Verifies the transfer of a large amount of samples between a producer and a consumer
+	 * running concurrently on a small ring.
+	 */
+	@Test
+	final void testConcurrentTransfer() throws InterruptedException {
+		LOGGER.info("testConcurrentTransfer()");
+
+		final int NBR_OF_SAMPLES = 100000;
+
+		SampleRingBuffer cut = new SampleRingBuffer(1000);
+
+		Thread producer = new Thread(() -> {
+			try {
+
+				ByteBuffer chunk = ByteBuffer.allocate(333);
+
+				for(int n = 0; n < NBR_OF_SAMPLES; n++) {
+
+					chunk.put((byte) n);
+
+					if(! chunk.hasRemaining()) {
+						chunk.flip();
+						cut.write(chunk);
+						chunk.clear();
+					}
+
+				} // rof
+
+				chunk.flip();
+				cut.write(chunk);
+
+			}
+			catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+			finally { cut.close(); }
+		});
+
+		producer.start();
+
+		byte[] buffer = new byte[256];
+		int expected = 0;
+		int count;
+
+		while((count = cut.read(buffer, 0, buffer.length)) > 0) {
+
+			for(int n = 0; n < count; n++) {
+				assertEquals((byte) expected++, buffer[n]);
+			}
+
+		} // elihw
+
+		producer.join(5000);
+
+		assertEquals(NBR_OF_SAMPLES, expected);
+
+	} // testConcurrentTransfer()
+
+
+	/**
+	 * Verifies the correct behavior of toString()
+	 *
+	 * Test method for {@link #toString()}.
+	 */
+	@Test
+	void testToString() {
+		LOGGER.info("testToString()");
+
+		SampleRingBuffer cut = new SampleRingBuffer(42);
+
+		assertEquals("SampleRingBuffer [capacity=42, fillLevel=0, isClosed=false, isAborted=false]", cut.toString());
+
+	} // testToString()
+
+
+} // ssalc
@@ -0,0 +1,268 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : SoundFileExporterTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.sound;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Responsibilities:<br>
+ * Verifies the correct function of class SoundFileExporter.
+ *
+ * <p>
+ * Collaborators:<br>
+ * Class under test,<br>
+ * AudioSystem as independent WAVE reader.
+ *
+ * <p>
+ * Description:<br>
+ * The exported WAVE files must be readable by AudioSystem and deliver the original samples.
+ * Writing by the channel and by a mapped buffer must produce identical files.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class SoundFileExporterTest {
+
+	private static Logger LOGGER = null;
+	
+	private static final int SAMPLING_RATE = 16000;
+	private static final int NBR_OF_SAMPLES = 200003;
+	
+	@TempDir
+	Path tempDir;
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link extension.sound.SoundFileExporter#SoundFileExporter(FskAudioFormat)}.
+	 */
+	@Test
+	final void testSoundFileExporter() {
+		LOGGER.info("testSoundFileExporter()");
+
+		IllegalArgumentException thrown;
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> new SoundFileExporter(null));
+		assertEquals("aAudioFormat can't be null!", thrown.getMessage());
+
+		SoundFileExporter cut = new SoundFileExporter(new FskAudioFormat(SAMPLING_RATE));
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.withFileType(null));
+		assertEquals("aFileType can't be null!", thrown.getMessage());
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.withMappingThreshold(-1));
+		assertEquals("aMappingThreshold can't be less than 0!", thrown.getMessage());
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.export((ByteBuffer) null, tempDir.resolve("x")));
+		assertEquals("aSoundSamples can't be null!", thrown.getMessage());
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.export(ByteBuffer.allocate(1), null));
+		assertEquals("aFile can't be null!", thrown.getMessage());
+
+		assertEquals(SoundFileExporter.HEADER_SIZE + 10, cut.getFileSize(10));
+		assertEquals(10, cut.withFileType(SoundFileType.RAW).getFileSize(10));
+
+	} // testSoundFileExporter()
+
+
+	/**
+	 * Test method for {@link extension.sound.SoundFileExporter#export(ByteBuffer, Path)}.
+	 * <p>
+	 * A WAVE file written by the channel and one written by a mapped buffer must be identical and 
+	 * deliver the original samples when read by AudioSystem.
+	 */
+	@Test
+	final void testExportWave() throws Exception {
+		LOGGER.info("testExportWave()");
+
+		ByteBuffer samples = createSamples();
+		
+		Path channelFile = tempDir.resolve("channel.wav");
+		Path mappedFile = tempDir.resolve("mapped.wav");
+		
+		new SoundFileExporter(new FskAudioFormat(SAMPLING_RATE)).export(samples, channelFile);
+		new SoundFileExporter(new FskAudioFormat(SAMPLING_RATE)).withMappingThreshold(0).export(samples, mappedFile);
+		
+		assertEquals(0, samples.position());
+		assertEquals(SoundFileExporter.HEADER_SIZE + NBR_OF_SAMPLES, Files.size(channelFile));
+		assertArrayEquals(Files.readAllBytes(channelFile), Files.readAllBytes(mappedFile));
+		
+		AudioFileFormat fileFormat = AudioSystem.getAudioFileFormat(channelFile.toFile());
+		
+		assertEquals(AudioFileFormat.Type.WAVE, fileFormat.getType());
+		assertEquals(SAMPLING_RATE, (int) fileFormat.getFormat().getSampleRate());
+		assertEquals(8, fileFormat.getFormat().getSampleSizeInBits());
+		assertEquals(NBR_OF_SAMPLES, fileFormat.getFrameLength());
+		
+		// AudioSystem converts the unsigned samples back to the signed ones
+		try(AudioInputStream signedStream = AudioSystem.getAudioInputStream(
+				new AudioFormat(SAMPLING_RATE, 8, 1, true, false), 
+				AudioSystem.getAudioInputStream(channelFile.toFile()))) {
+			
+			assertArrayEquals(samples.array(), signedStream.readAllBytes());
+			
+		}
+
+	} // testExportWave()
+
+
+	/**
+	 * Test method for {@link extension.sound.SoundFileExporter#export(ByteBuffer, Path)}.
+	 * <p>
+	 * A RAW file holds the samples as they are, only from position to limit.
+	 */
+	@Test
+	final void testExportRaw() throws IOException {
+		LOGGER.info("testExportRaw()");
+
+		ByteBuffer samples = createSamples();
+		samples.position(3).limit(NBR_OF_SAMPLES - 5);
+		
+		Path channelFile = tempDir.resolve("channel.raw");
+		Path mappedFile = tempDir.resolve("mapped.raw");
+		
+		SoundFileExporter cut = new SoundFileExporter(new FskAudioFormat(SAMPLING_RATE)).withFileType(SoundFileType.RAW);
+		
+		cut.export(samples, channelFile);
+		cut.withMappingThreshold(0).export(samples, mappedFile);
+		
+		byte[] expected = Arrays.copyOfRange(samples.array(), 3, NBR_OF_SAMPLES - 5);
+		
+		assertArrayEquals(expected, Files.readAllBytes(channelFile));
+		assertArrayEquals(expected, Files.readAllBytes(mappedFile));
+		
+		// an existing file is overwritten
+		cut.export(ByteBuffer.wrap(new byte[] { 1, 2, 3 }), mappedFile);
+		assertArrayEquals(new byte[] { 1, 2, 3 }, Files.readAllBytes(mappedFile));
+
+	} // testExportRaw()
+
+
+	/**
+	 * Test method for {@link extension.sound.SoundFileExporter#export(SymbolStream, Path)}.
+	 * <p>
+	 * The expanded SymbolStream must result in the same file as it's samples.
+	 */
+	@Test
+	final void testExportSymbolStream() throws IOException {
+		LOGGER.info("testExportSymbolStream()");
+
+		SymbolStream symbolStream = new SymbolStream();
+		
+		for(int n = 0; n < 5000; n++) {
+			symbolStream.append(ByteBuffer.wrap(new byte[] { 0, 89, 127, 89, 0, -89, -127, -89 }), n % 3 + 1);
+			symbolStream.append(ByteBuffer.wrap(new byte[] { 0, 127, 0, -127 }), n % 5 + 1);
+		}
+		
+		for(SoundFileType fileType : SoundFileType.values()) {
+			
+			for(long mappingThreshold : new long[] { 0, SoundFileExporter.DEFAULT_MAPPING_THRESHOLD }) {
+				
+				SoundFileExporter cut = new SoundFileExporter(new FskAudioFormat(SAMPLING_RATE))
+					.withFileType(fileType)
+					.withMappingThreshold(mappingThreshold);
+				
+				Path expectedFile = tempDir.resolve("expected");
+				Path symbolFile = tempDir.resolve("symbol");
+				
+				cut.export(symbolStream.toByteBuffer(), expectedFile);
+				cut.export(symbolStream, symbolFile);
+				
+				assertArrayEquals(Files.readAllBytes(expectedFile), Files.readAllBytes(symbolFile), 
+						fileType + ", mappingThreshold = " + mappingThreshold);
+				
+			} // rof
+			
+		} // rof
+
+	} // testExportSymbolStream()
+
+
+	/**
+	 * Verifies the correct behavior of toString()
+	 *
+	 * Test method for {@link #toString()}.
+	 */
+	@Test
+	void testToString() {
+		LOGGER.info("testToString()");
+
+		SoundFileExporter cut = new SoundFileExporter(new FskAudioFormat(SAMPLING_RATE));
+
+		assertTrue(cut.toString().startsWith("SoundFileExporter [fileType=WAVE, mappingThreshold=16777216, audioFormat=FskAudioFormat"));
+
+	} // testToString()
+	
+	
+	/*
+	 * Creates a buffer of samples covering the full range of values.
+	 */
+	private ByteBuffer createSamples() {
+		
+		byte[] samples = new byte[NBR_OF_SAMPLES];
+		
+		for(int n = 0; n < NBR_OF_SAMPLES; n++) {
+			samples[n] = (byte) (n * 7 + (n >> 9));
+		}
+		
+		return ByteBuffer.wrap(samples);
+		
+	} // createSamples()
+
+
+} // ssalc
@@ -0,0 +1,236 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : SoundFileImporterTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.sound;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import javax.sound.sampled.AudioFormat;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Responsibilities:<br>
+ * Verifies the correct function of class SoundFileImporter.
+ *
+ * <p>
+ * Collaborators:<br>
+ * Class under test,<br>
+ * SoundFileExporter to create the files.
+ *
+ * <p>
+ * Description:<br>
+ * Files written by SoundFileExporter must be imported with their format and samples.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class SoundFileImporterTest {
+
+	private static Logger LOGGER = null;
+	
+	private static final int SAMPLING_RATE = 16000;
+	
+	private static final byte[] SAMPLES = { 0, 89, 127, 89, 0, -89, -127, -89, 0 };
+	
+	@TempDir
+	Path tempDir;
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link extension.sound.SoundFileImporter#SoundFileImporter(Path)}.
+	 */
+	@Test
+	final void testSoundFileImporter() {
+		LOGGER.info("testSoundFileImporter()");
+
+		IllegalArgumentException thrown;
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> new SoundFileImporter(null));
+		assertEquals("aFile can't be null!", thrown.getMessage());
+
+		SoundFileImporter cut = new SoundFileImporter(tempDir.resolve("missing.wav"));
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.withRawFormat(null));
+		assertEquals("aRawFormat can't be null!", thrown.getMessage());
+
+		IllegalAccessError error = assertThrows(IllegalAccessError.class, () -> cut.getSoundSamples());
+		assertEquals("Nothing has been loaded so far.", error.getMessage());
+		
+		assertNull(cut.getAudioFormat());
+		assertNull(cut.getFileType());
+		
+		assertThrows(IOException.class, () -> cut.load());
+
+	} // testSoundFileImporter()
+
+
+	/**
+	 * Test method for {@link extension.sound.SoundFileImporter#load()}.
+	 * <p>
+	 * The samples of a WAVE file are delivered unsigned with the format of the file.
+	 */
+	@Test
+	final void testLoadWave() throws IOException {
+		LOGGER.info("testLoadWave()");
+
+		Path file = tempDir.resolve("test.wav");
+		new SoundFileExporter(new FskAudioFormat(SAMPLING_RATE)).export(ByteBuffer.wrap(SAMPLES), file);
+		
+		SoundFileImporter cut = new SoundFileImporter(file).load();
+		
+		assertEquals(SoundFileType.WAVE, cut.getFileType());
+		
+		AudioFormat audioFormat = cut.getAudioFormat();
+		
+		assertEquals(AudioFormat.Encoding.PCM_UNSIGNED, audioFormat.getEncoding());
+		assertEquals(SAMPLING_RATE, (int) audioFormat.getSampleRate());
+		assertEquals(8, audioFormat.getSampleSizeInBits());
+		assertEquals(1, audioFormat.getChannels());
+		
+		ByteBuffer samples = cut.getSoundSamples();
+		
+		assertTrue(samples.isReadOnly());
+		assertTrue(samples.isDirect());
+		assertEquals(SAMPLES.length, samples.remaining());
+		
+		for(int n = 0; n < SAMPLES.length; n++) {
+			assertEquals((byte) (SAMPLES[n] ^ 0x80), samples.get(n));
+		}
+		
+		// each call delivers a view of it's own
+		samples.get();
+		assertEquals(0, cut.getSoundSamples().position());
+
+	} // testLoadWave()
+
+
+	/**
+	 * Test method for {@link extension.sound.SoundFileImporter#load()}.
+	 * <p>
+	 * A RAW file can be imported only if it's format is known.
+	 */
+	@Test
+	final void testLoadRaw() throws IOException {
+		LOGGER.info("testLoadRaw()");
+
+		Path file = tempDir.resolve("test.raw");
+		FskAudioFormat rawFormat = new FskAudioFormat(SAMPLING_RATE);
+		
+		new SoundFileExporter(rawFormat).withFileType(SoundFileType.RAW).export(ByteBuffer.wrap(SAMPLES), file);
+		
+		IOException thrown = assertThrows(IOException.class, () -> new SoundFileImporter(file).load());
+		assertEquals("Unknown file format: " + file, thrown.getMessage());
+		
+		SoundFileImporter cut = new SoundFileImporter(file).withRawFormat(rawFormat).load();
+		
+		assertEquals(SoundFileType.RAW, cut.getFileType());
+		assertEquals(rawFormat, cut.getAudioFormat());
+		assertTrue(cut.getSoundSamples() instanceof MappedByteBuffer);
+		assertEquals(ByteBuffer.wrap(SAMPLES), cut.getSoundSamples());
+
+	} // testLoadRaw()
+
+
+	/**
+	 * Test method for {@link extension.sound.SoundFileImporter#load()}.
+	 * <p>
+	 * Unknown chunks are skipped, a missing data chunk is recognized.
+	 */
+	@Test
+	final void testLoadChunks() throws IOException {
+		LOGGER.info("testLoadChunks()");
+
+		Path file = tempDir.resolve("test.wav");
+		new SoundFileExporter(new FskAudioFormat(SAMPLING_RATE)).export(ByteBuffer.wrap(SAMPLES), file);
+		
+		byte[] content = Files.readAllBytes(file);
+		
+		// an odd sized 'LIST' chunk in front of the data chunk
+		byte[] extended = new byte[content.length + 12];
+		System.arraycopy(content, 0, extended, 0, 36);
+		System.arraycopy(new byte[] { 'L', 'I', 'S', 'T', 3, 0, 0, 0, 1, 2, 3, 0 }, 0, extended, 36, 12);
+		System.arraycopy(content, 36, extended, 48, content.length - 36);
+		
+		Files.write(file, extended);
+		
+		SoundFileImporter cut = new SoundFileImporter(file).load();
+		
+		assertEquals(SAMPLES.length, cut.getSoundSamples().remaining());
+		assertEquals((byte) (SAMPLES[2] ^ 0x80), cut.getSoundSamples().get(2));
+		
+		// without data chunk
+		Files.write(file, Arrays.copyOf(content, 36));
+		
+		IOException thrown = assertThrows(IOException.class, () -> new SoundFileImporter(file).load());
+		assertEquals("Incomplete WAVE file: " + file, thrown.getMessage());
+
+	} // testLoadChunks()
+
+
+	/**
+	 * Verifies the correct behavior of toString()
+	 *
+	 * Test method for {@link #toString()}.
+	 */
+	@Test
+	void testToString() {
+		LOGGER.info("testToString()");
+
+		SoundFileImporter cut = new SoundFileImporter(Path.of("test.wav"));
+
+		assertEquals("SoundFileImporter [file=test.wav, fileType=null, audioFormat=null]", cut.toString());
+
+	} // testToString()
+
+
+} // ssalc
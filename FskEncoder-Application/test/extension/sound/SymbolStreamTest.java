@@ -0,0 +1,226 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : SymbolStreamTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.sound;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verifies the correct function of class SymbolStream.
+ *
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ *
+ * <p>
+ * Description:<br>
+ * Covers the template table, the run-length merging of entries and the expansion
+ * of the sound samples.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class SymbolStreamTest {
+
+	private static Logger LOGGER = null;
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * Test method for {@link extension.sound.SymbolStream#append(ByteBuffer, int)}.
+	 * <p>
+	 * Templates are identified by their content, subsequent appends of the same template are merged.
+	 */
+	@Test
+	final void testAppend() {
+		LOGGER.info("testAppend()");
+
+		SymbolStream cut = new SymbolStream();
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> cut.append(ByteBuffer.allocate(1), -1));
+		assertEquals("aCount can't be less than 0!", thrown.getMessage());
+
+		ByteBuffer low = ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 });
+		ByteBuffer high = ByteBuffer.wrap(new byte[] { 5, 6 });
+
+		cut.append(low, 2);
+		cut.append(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4 }), 1);
+		cut.append(high, 1);
+		cut.append(low, 1);
+
+		// nothing to append
+		cut.append(high, 0);
+		cut.append(ByteBuffer.allocate(0), 5);
+
+		assertEquals(0, low.position());
+		assertEquals(2, cut.getTemplateCount());
+		assertEquals(3, cut.getEntryCount());
+		assertEquals(3 * 4 + 2 + 4, cut.getSampleCount());
+		assertEquals(4 + 2 + 3 * 8, cut.getByteSize());
+
+		// a template from position to limit
+		ByteBuffer part = ByteBuffer.wrap(new byte[] { 9, 5, 6 });
+		part.position(1);
+		cut.append(part, 1);
+
+		assertEquals(2, cut.getTemplateCount());
+		assertEquals(4, cut.getEntryCount());
+
+	} // testAppend()
+
+
+	/**
+	 * Test method for {@link extension.sound.SymbolStream#newReader()} and
+	 * {@link extension.sound.SymbolStream#toByteBuffer()}.
+	 * <p>
+	 * The expansion in small chunks must be the same as the one at once.
+	 */
+	@Test
+	final void testReader() {
+		LOGGER.info("testReader()");
+
+		SymbolStream cut = new SymbolStream();
+
+		for(int n = 0; n < 200; n++) {
+			cut.append(ByteBuffer.wrap(new byte[] { 0, 89, 127, 89, 0, -89, -127, -89 }), n % 3 + 1);
+			cut.append(ByteBuffer.wrap(new byte[] { 0, 127, 0, -127 }), n % 5 + 1);
+		}
+
+		ByteBuffer expected = cut.toByteBuffer();
+
+		assertEquals(cut.getSampleCount(), expected.limit());
+		assertEquals(0, expected.position());
+		assertArrayEquals(new byte[] { 0, 89, 127, 89, 0, -89, -127, -89, 0, 127, 0, -127 },
+				Arrays.copyOf(expected.array(), 12));
+
+		SymbolStream.Reader reader = cut.newReader();
+		ByteBuffer result = ByteBuffer.allocate(expected.limit());
+		byte[] chunk = new byte[7];
+		int count;
+
+		while((count = reader.read(chunk, 0, chunk.length)) > 0) {
+			result.put(chunk, 0, count);
+		}
+
+		assertEquals(-1, reader.read(chunk, 0, chunk.length));
+		assertEquals(expected.limit(), reader.getNbrOfSamplesRead());
+
+		result.flip();
+		assertEquals(expected, result);
+
+		// the stream is much smaller than the samples
+		assertTrue(cut.getByteSize() < expected.limit());
+
+	} // testReader()
+
+
+	/**
+	 * Test method for {@link extension.sound.SymbolStream#append(SymbolStream)}.
+	 * <p>
+	 * The entries of the appended stream are taken over, adjacent entries of the same template are merged.
+	 */
+	@Test
+	void testAppendSymbolStream() {
+		LOGGER.info("testAppendSymbolStream()");
+
+		SymbolStream cut = new SymbolStream();
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> cut.append(null));
+		assertEquals("aSymbolStream can't be null!", thrown.getMessage());
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.append(cut));
+		assertEquals("A stream can't be appended to itself!", thrown.getMessage());
+
+		ByteBuffer low = ByteBuffer.wrap(new byte[] { 0, 89, 127, 89, 0, -89, -127, -89 });
+		ByteBuffer high = ByteBuffer.wrap(new byte[] { 0, 127, 0, -127 });
+
+		cut.append(low, 2);
+		cut.append(high, 1);
+
+		SymbolStream other = new SymbolStream();
+		other.append(high, 2);
+		other.append(low, 1);
+
+		cut.append(other);
+		cut.append(new SymbolStream());
+
+		assertEquals(36, cut.getSampleCount());
+		assertEquals(3, cut.getEntryCount());
+		assertEquals(2, cut.getTemplateCount());
+
+		// the appended stream is unchanged
+		assertEquals(16, other.getSampleCount());
+		assertEquals(2, other.getEntryCount());
+
+		ByteBuffer expected = ByteBuffer.allocate(36);
+		expected.put(low.array()).put(low.array()).put(high.array()).put(high.array()).put(high.array()).put(low.array());
+
+		assertArrayEquals(expected.array(), cut.toByteBuffer().array());
+
+	} // testAppendSymbolStream()
+
+
+	/**
+	 * Verifies the correct behavior of toString()
+	 *
+	 * Test method for {@link #toString()}.
+	 */
+	@Test
+	void testToString() {
+		LOGGER.info("testToString()");
+
+		SymbolStream cut = new SymbolStream();
+		cut.append(ByteBuffer.allocate(4), 3);
+
+		assertEquals("SymbolStream [sampleCount=12, entryCount=1, templateCount=1]", cut.toString());
+
+	} // testToString()
+
+
+} // ssalc
@@ -0,0 +1,149 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : HexDecoderTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.source;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Functional testing of class HexDecoder.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * 
+ * 
+ * <p>
+ * Description:<br>
+ * 
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class HexDecoderTest {
+
+	private static Logger LOGGER = null;
+	
+	private static final ByteBuffer LINE = ByteBuffer.wrap(":0300FF00a1B2c3x".getBytes(StandardCharsets.US_ASCII));
+	
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+	/**
+	 * Test method for {@link extension.source.HexDecoder#digit(byte)}.
+	 */
+	@Test
+	final void testDigit() {
+		LOGGER.info("testDigit()");
+		
+		assertEquals(0, HexDecoder.digit((byte) '0'));
+		assertEquals(9, HexDecoder.digit((byte) '9'));
+		assertEquals(10, HexDecoder.digit((byte) 'A'));
+		assertEquals(15, HexDecoder.digit((byte) 'f'));
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> HexDecoder.digit((byte) 'g'));
+		assertEquals("Invalid hex digit: 'g'!", thrown.getMessage());
+		
+		assertThrows(IllegalArgumentException.class, () -> HexDecoder.digit((byte) 0xC0));
+		
+	} // testDigit()
+
+	/**
+	 * Test method for {@link extension.source.HexDecoder#decodeByte(java.nio.ByteBuffer, int)}.
+	 */
+	@Test
+	final void testDecodeByte() {
+		LOGGER.info("testDecodeByte()");
+		
+		assertEquals(0x03, HexDecoder.decodeByte(LINE, 1));
+		assertEquals(0xFF, HexDecoder.decodeByte(LINE, 5));
+		assertEquals(0xA1, HexDecoder.decodeByte(LINE, 9));
+		
+		assertEquals(0, LINE.position());
+		
+		assertThrows(IllegalArgumentException.class, () -> HexDecoder.decodeByte(LINE, 0));
+		assertThrows(IndexOutOfBoundsException.class, () -> HexDecoder.decodeByte(ByteBuffer.wrap(new byte[] { '1' }), 0));
+		
+	} // testDecodeByte()
+
+	/**
+	 * Test method for {@link extension.source.HexDecoder#decodeValue(java.nio.ByteBuffer, int, int)}.
+	 */
+	@Test
+	final void testDecodeValue() {
+		LOGGER.info("testDecodeValue()");
+		
+		assertEquals(0x00FF, HexDecoder.decodeValue(LINE, 3, 4));
+		assertEquals(0x0, HexDecoder.decodeValue(LINE, 1, 1));
+		assertEquals(0xA1B2C3L, HexDecoder.decodeValue(LINE, 9, 6));
+		assertEquals(0xFF00A1B2L, HexDecoder.decodeValue(LINE, 5, 8));
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> HexDecoder.decodeValue(LINE, 1, 0));
+		assertEquals("aDigitCount must be in range 1 .. 8!", thrown.getMessage());
+		
+		assertThrows(IllegalArgumentException.class, () -> HexDecoder.decodeValue(LINE, 1, 9));
+		
+	} // testDecodeValue()
+
+	/**
+	 * Test method for {@link extension.source.HexDecoder#decodeBytes(java.nio.ByteBuffer, int, byte[], int, int)}.
+	 */
+	@Test
+	final void testDecodeBytes() {
+		LOGGER.info("testDecodeBytes()");
+		
+		byte[] target = new byte[5];
+		
+		int sum = HexDecoder.decodeBytes(LINE, 9, target, 1, 3);
+		
+		assertArrayEquals(new byte[] { 0, (byte) 0xA1, (byte) 0xB2, (byte) 0xC3, 0 }, target);
+		assertEquals(0xA1 + 0xB2 + 0xC3, sum);
+		
+		assertThrows(IllegalArgumentException.class, () -> HexDecoder.decodeBytes(LINE, 11, target, 0, 3));
+		
+	} // testDecodeBytes()
+
+}
@@ -32,23 +32,39 @@ package extension.source;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import extension.execution.CancellationToken;
 
 /**
  * Responsibilities:<br>
- * 
+ * Functional testing of class Lexer.
  * 
  * <p>
  * Collaborators:<br>
- * 
+ * LineRecord and a few variants as record types.
  * 
  * <p>
  * Description:<br>
- * 
+ * The source files are written to a temporary directory by the single tests.
  * 
  * <p>
  * @author Stefan
@@ -60,11 +76,97 @@ import org.junit.jupiter.api.Test;
 
 class LexerTest {
 
+	private static Logger LOGGER = null;
+	
+	@TempDir
+	Path tempDir;
+	
+	
+	/**
+	 * Record which keeps the line it was created from.
+	 */
+	public static class LineRecord {
+		
+		final int recordNumber;
+		final String line;
+		
+		public LineRecord(final Integer aRecordNumber, final String aLine) {
+			recordNumber = aRecordNumber;
+			line = aLine;
+		}
+		
+	} // LineRecord
+	
+	
+	/**
+	 * Record with a primitive record number.
+	 */
+	public static class PrimitiveRecord {
+		
+		final int recordNumber;
+		
+		public PrimitiveRecord(final int aRecordNumber, final String aLine) { recordNumber = aRecordNumber; }
+		
+	} // PrimitiveRecord
+	
+	
+	/**
+	 * Record which can't be bound, the record number is missing.
+	 */
+	public static class LineOnlyRecord {
+		
+		public LineOnlyRecord(final String aLine) { }
+		
+	} // LineOnlyRecord
+	
+	
+	/**
+	 * Record which refuses it's content.
+	 */
+	public static class FailingRecord {
+		
+		public FailingRecord(final int aRecordNumber, final String aLine) throws IOException {
+			throw new IOException("invalid record " + aRecordNumber);
+		}
+		
+	} // FailingRecord
+	
+	
+	/**
+	 * Lexer for LineRecords.
+	 */
+	static class LineLexer extends Lexer<LineRecord> {
+		
+		LineLexer() throws NoSuchMethodException { super(LineRecord.class.getConstructor(Integer.class, String.class)); }
+		
+	} // LineLexer
+	
+	
+	/**
+	 * Lexer for LineRecords in byte mode.
+	 */
+	static class ByteLineLexer extends Lexer<LineRecord> {
+		
+		ByteLineLexer() { 
+			super((aRecordNumber, aBuffer, aOffset, aLength) -> {
+				
+				byte[] line = new byte[aLength];
+				aBuffer.duplicate().position(aOffset).get(line);
+				
+				return new LineRecord(aRecordNumber, new String(line, StandardCharsets.US_ASCII));
+			}); 
+		}
+		
+	} // ByteLineLexer
+	
+
 	/**
 	 * @throws java.lang.Exception
 	 */
 	@BeforeAll
 	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
 	}
 
 	/**
@@ -91,26 +193,436 @@ class LexerTest {
 	/**
 	 * Test method for {@link extension.source.Lexer#Lexer(java.lang.reflect.Constructor)}.
 	 */
-//	@Test
+	@Test
 	final void testLexer() {
-		fail("Not yet implemented"); // TODO
-	}
+		LOGGER.info("testLexer()");
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> new Lexer<LineRecord>((Constructor<?>) null) {});
+		assertEquals("aConstructor cant be null!", thrown.getMessage());
+		
+		assertDoesNotThrow(() -> new LineLexer());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new Lexer<LineRecord>((ByteRecordFactory<LineRecord>) null) {});
+		assertEquals("aByteRecordFactory can't be null!", thrown.getMessage());
+		
+		assertNotNull(new ByteLineLexer().byteRecordFactory);
+		
+	} // testLexer()
 
 	/**
 	 * Test method for {@link extension.source.Lexer#setFile(java.lang.String)}.
 	 */
-//	@Test
-	final void testSetFile() {
-		fail("Not yet implemented"); // TODO
-	}
+	@Test
+	final void testSetFile() throws Exception {
+		LOGGER.info("testSetFile()");
+		
+		LineLexer cut = new LineLexer();
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> cut.setFile(null));
+		assertEquals("aFile cant be null!", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.setFile(" "));
+		assertEquals("aFile cant be blank nor empty!", thrown.getMessage());
+		
+		assertThrows(FileNotFoundException.class, () -> cut.setFile(tempDir.resolve("missing.hex").toString()));
+		
+		cut.setFile(writeFile("abc\n").toString());
+		
+		assertEquals(4, cut.getFileSize());
+		assertEquals(0, cut.getBytesRead());
+		
+	} // testSetFile()
 
 	/**
 	 * Test method for {@link extension.source.Lexer#getRecord()}.
+	 * <p>
+	 * Blank lines are skipped, but counted by the record number.
 	 */
-//	@Test
-	final void testGetRecord() {
-		fail("Not yet implemented"); // TODO
-	}
+	@Test
+	final void testGetRecord() throws Exception {
+		LOGGER.info("testGetRecord()");
+		
+		LineLexer cut = new LineLexer();
+		cut.setFile(writeFile("first\n\n  \nsecond\n").toString());
+		
+		LineRecord record = cut.getRecord();
+		assertEquals("first", record.line);
+		assertEquals(2, record.recordNumber);
+		
+		record = cut.getRecord();
+		assertEquals("second", record.line);
+		assertEquals(5, record.recordNumber);
+		
+		assertNull(cut.getRecord());
+		assertEquals(cut.getFileSize(), cut.getBytesRead());
+		
+	} // testGetRecord()
+
+	/**
+	 * Test method for {@link extension.source.Lexer#getRecord()}.
+	 * <p>
+	 * A LoadMonitor attached to the thread receives the progress and cancels the load.
+	 */
+	@Test
+	final void testGetRecordWithLoadMonitor() throws Exception {
+		LOGGER.info("testGetRecordWithLoadMonitor()");
+		
+		CancellationToken token = new CancellationToken();
+		List<Integer> progress = new ArrayList<>();
+		
+		LoadMonitor loadMonitor = new LoadMonitor(token, progress::add);
+		loadMonitor.attach();
+		
+		try {
+			
+			LineLexer cut = new LineLexer();
+			cut.setFile(writeFile("first\nsecond\nthird\n").toString());
+			
+			assertNotNull(cut.getRecord());
+			
+			// the file is read in one block
+			assertEquals(List.of(100), progress);
+			assertEquals(19, loadMonitor.getBytesRead());
+			assertEquals(19, loadMonitor.getTotalBytes());
+			
+			token.cancel();
+			assertThrows(CancellationException.class, () -> cut.getRecord());
+			
+		}
+		finally {
+			loadMonitor.detach();
+		}
+		
+		assertNull(LoadMonitor.current());
+		
+	} // testGetRecordWithLoadMonitor()
+
+	/**
+	 * Test method for {@link extension.source.Lexer#getRecordFactory(java.lang.reflect.Constructor)}.
+	 */
+	@Test
+	final void testGetRecordFactory() throws Exception {
+		LOGGER.info("testGetRecordFactory()");
+		
+		RecordFactory<LineRecord> factory = Lexer.getRecordFactory(LineRecord.class.getConstructor(Integer.class, String.class));
+		
+		assertNotNull(factory);
+		assertSame(factory, Lexer.getRecordFactory(LineRecord.class.getConstructor(Integer.class, String.class)));
+		assertSame(factory, new LineLexer().recordFactory);
+		
+		LineRecord record = factory.create(7, "line");
+		assertEquals(7, record.recordNumber);
+		assertEquals("line", record.line);
+		
+		RecordFactory<PrimitiveRecord> primitiveFactory = Lexer.getRecordFactory(PrimitiveRecord.class.getConstructor(int.class, String.class));
+		assertEquals(8, primitiveFactory.create(8, "line").recordNumber);
+		
+		assertNull(Lexer.getRecordFactory(LineOnlyRecord.class.getConstructor(String.class)));
+		
+	} // testGetRecordFactory()
+
+	/**
+	 * Test method for {@link extension.source.Lexer#getRecord()}.
+	 * <p>
+	 * Without a RecordFactory the record is created by reflection with the same exceptions as before.
+	 */
+	@Test
+	final void testGetRecordByReflection() throws Exception {
+		LOGGER.info("testGetRecordByReflection()");
+		
+		Lexer<LineOnlyRecord> cut = new Lexer<LineOnlyRecord>(LineOnlyRecord.class.getConstructor(String.class)) {};
+		cut.setFile(writeFile("line\n").toString());
+		
+		assertNull(cut.recordFactory);
+		assertThrows(IllegalArgumentException.class, () -> cut.getRecord());
+		
+	} // testGetRecordByReflection()
+
+	/**
+	 * Test method for {@link extension.source.Lexer#getRecord()}.
+	 * <p>
+	 * Exceptions of the record constructor are wrapped like Constructor.newInstance() does.
+	 */
+	@Test
+	final void testGetRecordFailing() throws Exception {
+		LOGGER.info("testGetRecordFailing()");
+		
+		Lexer<FailingRecord> cut = new Lexer<FailingRecord>(FailingRecord.class.getConstructor(int.class, String.class)) {};
+		cut.setFile(writeFile("line\n").toString());
+		
+		assertNotNull(cut.recordFactory);
+		
+		InvocationTargetException thrown = assertThrows(InvocationTargetException.class, () -> cut.getRecord());
+		assertEquals(IOException.class, thrown.getCause().getClass());
+		assertEquals("invalid record 2", thrown.getCause().getMessage());
+		
+	} // testGetRecordFailing()
+
+	/**
+	 * Test method for {@link extension.source.Lexer#getRecord()}.
+	 * <p>
+	 * The byte mode returns the same records as the String mode.
+	 */
+	@Test
+	final void testGetRecordByteMode() throws Exception {
+		LOGGER.info("testGetRecordByteMode()");
+		
+		String content = "first\r\n\r\n \t \nsecond\rthird\n\nlast";
+		
+		LineLexer expected = new LineLexer();
+		expected.setFile(writeFile(content).toString());
+		
+		ByteLineLexer cut = new ByteLineLexer();
+		cut.setFile(writeFile(content).toString());
+		
+		assertEquals(content.length(), cut.getFileSize());
+		assertEquals(0, cut.getBytesRead());
+		
+		List<String> lines = new ArrayList<>();
+		
+		LineRecord record;
+		
+		while((record = cut.getRecord()) != null) {
+			
+			LineRecord expectedRecord = expected.getRecord();
+			
+			assertEquals(expectedRecord.line, record.line);
+			assertEquals(expectedRecord.recordNumber, record.recordNumber);
+			
+			lines.add(record.line);
+			
+		}
+		
+		assertNull(expected.getRecord());
+		assertEquals(List.of("first", "second", "third", "last"), lines);
+		assertEquals(content.length(), cut.getBytesRead());
+		assertFalse(cut.channel.isOpen());
+		
+		// empty file
+		cut.setFile(writeFile("").toString());
+		assertNull(cut.getRecord());
+		
+	} // testGetRecordByteMode()
+
+	/**
+	 * Test method for {@link extension.source.Lexer#getRecord()}.
+	 * <p>
+	 * A line which doesn't fit into the buffer and a "\r\n" split by the buffer boundary.
+	 */
+	@Test
+	final void testGetRecordByteModeBufferBoundary() throws Exception {
+		LOGGER.info("testGetRecordByteModeBufferBoundary()");
+		
+		String longLine = "A".repeat(Lexer.DEFAULT_BUFFER_SIZE + 10);
+		String split = "B".repeat(Lexer.DEFAULT_BUFFER_SIZE - 3);
+		
+		ByteLineLexer cut = new ByteLineLexer();
+		cut.setFile(writeFile("x\n" + split + "\r\n" + longLine + "\n" + "end").toString());
+		
+		assertEquals("x", cut.getRecord().line);
+		
+		// the '\r' is the last byte of the first block
+		assertEquals(split, cut.getRecord().line);
+		assertEquals(Lexer.DEFAULT_BUFFER_SIZE, cut.buffer.capacity());
+		
+		LineRecord record = cut.getRecord();
+		assertEquals(longLine, record.line);
+		assertEquals(4, record.recordNumber);
+		assertTrue(cut.buffer.capacity() > Lexer.DEFAULT_BUFFER_SIZE);
+		
+		assertEquals("end", cut.getRecord().line);
+		assertNull(cut.getRecord());
+		
+	} // testGetRecordByteModeBufferBoundary()
+
+	/**
+	 * Test method for {@link extension.source.Lexer#getRecord()}.
+	 * <p>
+	 * Exceptions of the ByteRecordFactory are wrapped, a cancelled load isn't.
+	 */
+	@Test
+	final void testGetRecordByteModeFailing() throws Exception {
+		LOGGER.info("testGetRecordByteModeFailing()");
+		
+		Lexer<Integer> cut = new Lexer<Integer>((aRecordNumber, aBuffer, aOffset, aLength) -> HexDecoder.decodeByte(aBuffer, aOffset)) {};
+		cut.setFile(writeFile("7f\nXY\n").toString());
+		
+		assertEquals(0x7F, cut.getRecord());
+		
+		InvocationTargetException thrown = assertThrows(InvocationTargetException.class, () -> cut.getRecord());
+		assertEquals(IllegalArgumentException.class, thrown.getCause().getClass());
+		
+		CancellationToken token = new CancellationToken();
+		LoadMonitor loadMonitor = new LoadMonitor(token, aProgress -> { });
+		loadMonitor.attach();
+		
+		try {
+			
+			cut.setFile(writeFile("7f\n").toString());
+			token.cancel();
+			
+			assertThrows(CancellationException.class, () -> cut.getRecord());
+			
+		}
+		finally {
+			loadMonitor.detach();
+		}
+		
+	} // testGetRecordByteModeFailing()
+
+	/**
+	 * Test method for {@link extension.source.Lexer#setParallelParsing(boolean)}.
+	 * <p>
+	 * Files below the threshold are parsed sequentially.
+	 */
+	@Test
+	final void testSetParallelParsing() throws Exception {
+		LOGGER.info("testSetParallelParsing()");
+		
+		LineLexer cut = new LineLexer();
+		
+		assertFalse(cut.isParallelParsing());
+		assertEquals(Lexer.DEFAULT_PARALLEL_THRESHOLD, cut.parallelThreshold);
+		
+		cut.setParallelParsing(true);
+		assertTrue(cut.isParallelParsing());
+		
+		cut.setFile(writeFile("first\nsecond\n").toString());
+		
+		assertEquals("first", cut.getRecord().line);
+		assertNull(cut.parsedRecords);
+		
+	} // testSetParallelParsing()
+
+	/**
+	 * Test method for {@link extension.source.Lexer#getRecord()}.
+	 * <p>
+	 * The parallel parsing returns the same records in the same order as the sequential one, in both modes.
+	 */
+	@Test
+	final void testGetRecordParallel() throws Exception {
+		LOGGER.info("testGetRecordParallel()");
+		
+		StringBuilder content = new StringBuilder();
+		
+		for(int i = 0; i < 5000; i++) {
+			content.append("line ").append(i).append(i % 7 == 0 ? "\r\n\r\n" : "\n");
+		}
+		
+		String fileName = writeFile(content.toString()).toString();
+		
+		for(Lexer<LineRecord> cut : List.of(new LineLexer(), new ByteLineLexer())) {
+			
+			LineLexer expected = new LineLexer();
+			expected.setFile(fileName);
+			
+			int count = 0;
+			LineRecord record;
+			
+			LoadMonitor loadMonitor = new LoadMonitor(new CancellationToken(), aProgress -> { });
+			loadMonitor.attach();
+			
+			try {
+				
+				cut.setParallelParsing(true);
+				cut.parallelThreshold = 0;
+				cut.setFile(fileName);
+				
+				while((record = cut.getRecord()) != null) {
+					
+					LineRecord expectedRecord = expected.getRecord();
+					
+					assertEquals(expectedRecord.line, record.line);
+					assertEquals(expectedRecord.recordNumber, record.recordNumber);
+					assertEquals(expected.recordIndex, cut.recordIndex);
+					
+					count++;
+					
+				}
+				
+				// the progress of the records is reported in both modes
+				assertEquals(content.length(), loadMonitor.getBytesRead(), cut.getClass().getSimpleName());
+				
+			}
+			finally {
+				loadMonitor.detach();
+			}
+			
+			assertNull(expected.getRecord());
+			assertEquals(expected.recordIndex, cut.recordIndex);
+			
+			assertEquals(5000, count);
+			assertEquals(5000, cut.parsedRecords.length);
+			assertEquals(content.length(), cut.getBytesRead());
+			
+		}
+		
+	} // testGetRecordParallel()
+
+	/**
+	 * Test method for {@link extension.source.Lexer#getRecord()}.
+	 * <p>
+	 * The exception of a record creation is thrown when that record is requested.
+	 */
+	@Test
+	final void testGetRecordParallelFailing() throws Exception {
+		LOGGER.info("testGetRecordParallelFailing()");
+		
+		StringBuilder content = new StringBuilder();
+		
+		for(int i = 0; i < 2000; i++) content.append(i == 1500 ? "XY" : "7f").append("\n");
+		
+		Lexer<Integer> cut = new Lexer<Integer>((aRecordNumber, aBuffer, aOffset, aLength) -> HexDecoder.decodeByte(aBuffer, aOffset)) {};
+		cut.setParallelParsing(true);
+		cut.parallelThreshold = 0;
+		cut.setFile(writeFile(content.toString()).toString());
+		
+		for(int i = 0; i < 1500; i++) assertEquals(0x7F, cut.getRecord());
+		
+		InvocationTargetException thrown = assertThrows(InvocationTargetException.class, () -> cut.getRecord());
+		assertEquals(IllegalArgumentException.class, thrown.getCause().getClass());
+		assertEquals(1502, cut.recordIndex);
+		
+		// the reflective fallback keeps it's exceptions
+		Lexer<LineOnlyRecord> reflective = new Lexer<LineOnlyRecord>(LineOnlyRecord.class.getConstructor(String.class)) {};
+		reflective.setParallelParsing(true);
+		reflective.parallelThreshold = 0;
+		reflective.setFile(writeFile("line\n").toString());
+		
+		assertThrows(IllegalArgumentException.class, () -> reflective.getRecord());
+		
+	} // testGetRecordParallelFailing()
+
+	/**
+	 * Test method for {@link extension.source.Lexer#getRecord()}.
+	 * <p>
+	 * A cancelled load stops the parallel parsing.
+	 */
+	@Test
+	final void testGetRecordParallelCancelled() throws Exception {
+		LOGGER.info("testGetRecordParallelCancelled()");
+		
+		CancellationToken token = new CancellationToken();
+		LoadMonitor loadMonitor = new LoadMonitor(token, aProgress -> { });
+		loadMonitor.attach();
+		
+		try {
+			
+			LineLexer cut = new LineLexer();
+			cut.setParallelParsing(true);
+			cut.parallelThreshold = 0;
+			cut.setFile(writeFile("first\nsecond\n").toString());
+			
+			token.cancel();
+			
+			assertThrows(CancellationException.class, () -> cut.getRecord());
+			
+		}
+		finally {
+			loadMonitor.detach();
+		}
+		
+	} // testGetRecordParallelCancelled()
 
 	/**
 	 * Test method for {@link extension.source.Lexer#toString()}.
@@ -119,5 +631,15 @@ class LexerTest {
 	final void testToString() {
 		fail("Not yet implemented"); // TODO
 	}
+	
+	
+	/**
+	 * Writes aContent to a new file in the temporary directory.
+	 */
+	private Path writeFile(final String aContent) throws IOException {
+		
+		return Files.write(tempDir.resolve("source.txt"), aContent.getBytes(StandardCharsets.US_ASCII));
+		
+	} // writeFile()
 
 }
@@ -0,0 +1,190 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : LoadMonitorTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package extension.source;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import extension.execution.CancellationToken;
+
+/**
+ * Responsibilities:<br>
+ * Functional testing of class LoadMonitor.
+ * 
+ * <p>
+ * Collaborators:<br>
+ * CancellationToken.
+ * 
+ * <p>
+ * Description:<br>
+ * 
+ * 
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class LoadMonitorTest {
+
+	private static Logger LOGGER = null;
+	
+	private CancellationToken token;
+	private List<Integer> progress;
+	
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeEach
+	void setUp() throws Exception {
+		token = new CancellationToken();
+		progress = new ArrayList<>();
+	}
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterEach
+	void tearDown() throws Exception {
+		if(LoadMonitor.current() != null) LoadMonitor.current().detach();
+	}
+
+	/**
+	 * Test method for {@link extension.source.LoadMonitor#LoadMonitor(extension.execution.CancellationToken, java.util.function.IntConsumer)}.
+	 */
+	@Test
+	final void testLoadMonitor() {
+		LOGGER.info("testLoadMonitor()");
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> new LoadMonitor(null, progress::add));
+		assertEquals("aCancellationToken can't be null!", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> new LoadMonitor(token, null));
+		assertEquals("aProgressListener can't be null!", thrown.getMessage());
+		
+		LoadMonitor cut = new LoadMonitor(token, progress::add);
+		
+		assertEquals(0, cut.getBytesRead());
+		assertEquals(0, cut.getTotalBytes());
+		
+	} // testLoadMonitor()
+
+	/**
+	 * Test method for {@link extension.source.LoadMonitor#attach()}.
+	 */
+	@Test
+	final void testAttach() throws Exception {
+		LOGGER.info("testAttach()");
+		
+		LoadMonitor cut = new LoadMonitor(token, progress::add);
+		
+		assertNull(LoadMonitor.current());
+		
+		cut.attach();
+		assertSame(cut, LoadMonitor.current());
+		
+		// the monitor is bound to the thread
+		LoadMonitor[] other = new LoadMonitor[] { cut };
+		Thread thread = new Thread(() -> other[0] = LoadMonitor.current());
+		thread.start();
+		thread.join();
+		
+		assertNull(other[0]);
+		
+		cut.detach();
+		assertNull(LoadMonitor.current());
+		
+	} // testAttach()
+
+	/**
+	 * Test method for {@link extension.source.LoadMonitor#update(long, long)}.
+	 */
+	@Test
+	final void testUpdate() {
+		LOGGER.info("testUpdate()");
+		
+		LoadMonitor cut = new LoadMonitor(token, progress::add);
+		
+		cut.update(0, 400);
+		cut.update(100, 400);
+		cut.update(400, 400);
+		
+		// unknown file size
+		cut.update(500, 0);
+		
+		assertEquals(List.of(0, 25, 100), progress);
+		assertEquals(500, cut.getBytesRead());
+		assertEquals(0, cut.getTotalBytes());
+		
+		assertFalse(cut.isCancelled());
+		
+		token.cancel();
+		assertTrue(cut.isCancelled());
+		assertThrows(CancellationException.class, () -> cut.update(600, 1000));
+		
+		assertEquals(3, progress.size());
+		assertEquals(500, cut.getBytesRead());
+		
+	} // testUpdate()
+
+	/**
+	 * Test method for {@link extension.source.LoadMonitor#toString()}.
+	 */
+	@Test
+	final void testToString() {
+		LOGGER.info("testToString()");
+		
+		LoadMonitor cut = new LoadMonitor(token, progress::add);
+		cut.update(10, 20);
+		
+		assertEquals("LoadMonitor [bytesRead=10, totalBytes=20, cancellationToken=" + token + "]", cut.toString());
+		
+	} // testToString()
+
+}
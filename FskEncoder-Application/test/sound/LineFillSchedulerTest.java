@@ -0,0 +1,281 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : LineFillSchedulerTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package sound;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.SourceDataLine;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verifies the correct function of class LineFillScheduler.
+ *
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ *
+ * <p>
+ * Description:<br>
+ * The line is mocked with a buffer of 800 bytes at 8000 frames per second, it's fill level and 
+ * frame position are set by the single tests.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class LineFillSchedulerTest {
+
+	private static Logger LOGGER = null;
+	
+	private static final int BUFFER_SIZE = 800;
+	
+	SourceDataLine lineMock;
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeEach
+	void setUp() throws Exception {
+		
+		lineMock = mock(SourceDataLine.class);
+		
+		doReturn(new AudioFormat(8000, 8, 1, true, false)).when(lineMock).getFormat();
+		doReturn(BUFFER_SIZE).when(lineMock).getBufferSize();
+		doReturn(BUFFER_SIZE).when(lineMock).available();
+		doReturn(0L).when(lineMock).getLongFramePosition();
+		
+	} // setUp()
+
+
+	/**
+	 * Test method for {@link sound.LineFillScheduler#LineFillScheduler(SourceDataLine, double)}.
+	 */
+	@Test
+	void testLineFillScheduler() {
+		LOGGER.info("testLineFillScheduler()");
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> new LineFillScheduler(null, 0.5));
+		assertEquals("aLine can't be null!", thrown.getMessage());
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> new LineFillScheduler(lineMock, 0));
+		assertEquals("aTargetFill must be greater than 0 and less or equal 1!", thrown.getMessage());
+
+		thrown = assertThrows(IllegalArgumentException.class, () -> new LineFillScheduler(lineMock, 1.1));
+		assertEquals("aTargetFill must be greater than 0 and less or equal 1!", thrown.getMessage());
+		
+		assertDoesNotThrow(() -> new LineFillScheduler(lineMock, 1));
+
+	} // testLineFillScheduler()
+
+
+	/**
+	 * Test method for {@link sound.LineFillScheduler#nextChunkSize(int)}.
+	 * <p>
+	 * Without a frame rate the chunks have the size of the buffer.
+	 */
+	@Test
+	void testNextChunkSizeUntimed() throws InterruptedException {
+		LOGGER.info("testNextChunkSizeUntimed()");
+
+		doReturn(new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, AudioSystem.NOT_SPECIFIED, 8, 1, 1, 
+				AudioSystem.NOT_SPECIFIED, false)).when(lineMock).getFormat();
+		doReturn(0).when(lineMock).available();
+		
+		LineFillScheduler cut = new LineFillScheduler(lineMock, 0.5);
+		cut.start();
+		
+		assertFalse(cut.isTimed());
+		assertEquals(BUFFER_SIZE, cut.nextChunkSize(10_000));
+		assertEquals(42, cut.nextChunkSize(42));
+		assertEquals(0, cut.getWaitCount());
+
+	} // testNextChunkSizeUntimed()
+
+
+	/**
+	 * Test method for {@link sound.LineFillScheduler#nextChunkSize(int)}.
+	 * <p>
+	 * The chunks fill the line up to the target level, above it the scheduler waits.
+	 */
+	@Test
+	void testNextChunkSize() throws InterruptedException {
+		LOGGER.info("testNextChunkSize()");
+
+		LineFillScheduler cut = new LineFillScheduler(lineMock, 0.75);
+		cut.start();
+		
+		assertTrue(cut.isTimed());
+		
+		// empty line
+		assertEquals(600, cut.nextChunkSize(10_000));
+		assertEquals(100, cut.nextChunkSize(100));
+		
+		cut.written(600);
+		
+		// 600 bytes queued, nothing played
+		doReturn(200).when(lineMock).available();
+		
+		assertEquals(100, cut.nextChunkSize(10_000));
+		
+		assertEquals(1, cut.getWaitCount());
+		assertEquals(12, cut.getWaitTime());
+		assertEquals(75_000, cut.getMaxLatency());
+		assertEquals(0, cut.getUnderrunCount());
+		
+		// 400 bytes queued, 300 frames played
+		doReturn(400).when(lineMock).available();
+		doReturn(300L).when(lineMock).getLongFramePosition();
+		
+		assertEquals(200, cut.nextChunkSize(10_000));
+		
+		assertEquals(1, cut.getWaitCount());
+		assertEquals(75_000, cut.getMaxLatency());
+		assertEquals(56_250, cut.getMeanLatency());
+
+	} // testNextChunkSize()
+
+
+	/**
+	 * Test method for {@link sound.LineFillScheduler#withMaxChunkDuration(long)}.
+	 * <p>
+	 * A chunk holds at most the samples played within the maximum duration, untimed lines ignore it.
+	 */
+	@Test
+	void testWithMaxChunkDuration() throws InterruptedException {
+		LOGGER.info("testWithMaxChunkDuration()");
+
+		LineFillScheduler cut = new LineFillScheduler(lineMock, 0.75);
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> cut.withMaxChunkDuration(0));
+		assertEquals("aMaxChunkDuration must be greater than 0!", thrown.getMessage());
+		
+		assertSame(cut, cut.withMaxChunkDuration(25));
+		cut.start();
+		
+		// 25 ms at 8000 frames per second
+		assertEquals(200, cut.nextChunkSize(10_000));
+		assertEquals(100, cut.nextChunkSize(100));
+		
+		doReturn(new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, AudioSystem.NOT_SPECIFIED, 8, 1, 1, 
+				AudioSystem.NOT_SPECIFIED, false)).when(lineMock).getFormat();
+		
+		cut.start();
+		
+		assertEquals(BUFFER_SIZE, cut.nextChunkSize(10_000));
+
+	} // testWithMaxChunkDuration()
+
+
+	/**
+	 * Test method for {@link sound.LineFillScheduler#getUnderrunCount()}.
+	 * <p>
+	 * An underrun is recorded if all written frames have been played.
+	 */
+	@Test
+	void testUnderrun() throws InterruptedException {
+		LOGGER.info("testUnderrun()");
+
+		LineFillScheduler cut = new LineFillScheduler(lineMock, 0.75);
+		cut.start();
+		
+		cut.nextChunkSize(10_000);
+		cut.written(600);
+		
+		doReturn(600L).when(lineMock).getLongFramePosition();
+		
+		assertEquals(600, cut.nextChunkSize(10_000));
+		assertEquals(1, cut.getUnderrunCount());
+		
+		// queued samples of an idle line are played before the first chunk
+		doReturn(160).when(lineMock).available();
+		doReturn(1000L).when(lineMock).getLongFramePosition();
+		
+		cut.start();
+		
+		assertEquals(0, cut.getUnderrunCount());
+		
+		cut.nextChunkSize(10_000);
+		cut.written(100);
+		
+		doReturn(1640L).when(lineMock).getLongFramePosition();
+		cut.nextChunkSize(10_000);
+		
+		assertEquals(0, cut.getUnderrunCount());
+		
+		doReturn(1740L).when(lineMock).getLongFramePosition();
+		cut.nextChunkSize(10_000);
+		
+		assertEquals(1, cut.getUnderrunCount());
+		assertEquals(1, cut.getWriteCount());
+
+	} // testUnderrun()
+
+
+	/**
+	 * Verifies the correct behavior of toString()
+	 *
+	 * Test method for {@link #toString()}.
+	 */
+	@Test
+	void testToString() {
+		LOGGER.info("testToString()");
+
+		LineFillScheduler cut = new LineFillScheduler(lineMock, 0.75);
+		cut.start();
+
+		assertEquals("LineFillScheduler [targetFill=0.75, bufferSize=800, isTimed=true, maxChunkDuration=0, writeCount=0, waitCount=0, "
+				+ "waitTime=0, underrunCount=0, maxLatency=0, meanLatency=0]", cut.toString());
+
+	} // testToString()
+
+
+} // ssalc
@@ -29,8 +29,10 @@
 
 package sound;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -38,6 +40,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyFloat;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
@@ -50,8 +53,10 @@ import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 import java.util.ServiceConfigurationError;
 
@@ -73,6 +78,9 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import extension.execution.BackgroundExecutor;
+import extension.execution.TaskExecutors;
+import extension.sound.SampleRingBuffer;
+import extension.sound.SymbolStream;
 
 
 /**
@@ -171,7 +179,7 @@ class SoundPlayerTest {
 		final int   NBR_OF_SAMPLES	= 8000;
 		final int   FULL_CHUNK_SIZE	= 1500;
 		
-		final int NBR_FULL_CHUNKS		= (int)NBR_OF_SAMPLES / FULL_CHUNK_SIZE;
+		final int NBR_FULL_CHUNKS		= NBR_OF_SAMPLES / FULL_CHUNK_SIZE;
 		final int REMAINING_CHUNKSIZE	= NBR_OF_SAMPLES - ( FULL_CHUNK_SIZE * NBR_FULL_CHUNKS);
 		
 		InOrder playSequence = inOrder(sdlMock);
@@ -273,6 +281,226 @@ class SoundPlayerTest {
 	
 	
 	
+	/**
+	 * Test method for {@link sound.SoundPlayer#play(SampleRingBuffer)}.
+	 * 
+	 * Verifies the correct playback of sound samples taken from a stream and the abort of 
+	 * the stream on stop.
+	 */
+	@Test
+	final void testPlayStream() throws Exception {
+		LOGGER.info("testPlayStream()");
+		
+		final int   NBR_OF_SAMPLES	= 8000;
+		final int   FULL_CHUNK_SIZE	= 1500;
+		
+		reset(sdlMock);
+		doReturn(FULL_CHUNK_SIZE).when(sdlMock).getBufferSize();
+		doReturn(afMock).when(sdlMock).getFormat();		
+		
+		InOrder playSequence = inOrder(sdlMock);
+		
+		int[] nbrOfSamplesWritten = new int[1];
+		doAnswer(invocation -> {
+			nbrOfSamplesWritten[0] += (int) invocation.getArgument(2);
+			return invocation.getArgument(2);
+		}).when(sdlMock).write(any(), eq(0), anyInt());
+
+		SampleRingBuffer sampleStream = new SampleRingBuffer(NBR_OF_SAMPLES);
+		sampleStream.write(ByteBuffer.allocate(NBR_OF_SAMPLES));
+		sampleStream.close();
+		
+		SoundPlayer cut = new SoundPlayer(sdlMock, afMock);
+		cut.play(sampleStream);
+		
+		assertEquals(NBR_OF_SAMPLES, nbrOfSamplesWritten[0]);
+		assertTrue(! sampleStream.isAborted());
+		
+		verify(sdlMock, atMost(6)).write(any(), eq(0), anyInt());
+		
+		playSequence.verify(sdlMock, times(1)).start();
+		playSequence.verify(sdlMock).drain();
+		playSequence.verify(sdlMock).stop();
+		playSequence.verify(sdlMock).close();
+		
+		
+		// background execution prefers the stream
+		SampleRingBuffer backgroundStream = new SampleRingBuffer(10);
+		backgroundStream.close();
+		
+		SoundPlayer cutSpy = spy(new SoundPlayer(sdlMock, afMock));
+		cutSpy.setSampleStream(backgroundStream);
+		cutSpy.runBackgroundTask();
+		
+		verify(cutSpy, times(1)).play(backgroundStream);
+		verify(cutSpy, never()).play(any(ByteBuffer.class));
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> cutSpy.setSampleStream(null));
+		assertEquals("aSampleStream can't be null!", thrown.getMessage());
+		
+		
+		// a finished play back ignores stop()
+		cutSpy.stop();
+		assertTrue(! backgroundStream.isAborted());
+		
+		// stop() aborts the stream being played
+		SampleRingBuffer stoppedStream = new SampleRingBuffer(NBR_OF_SAMPLES);
+		stoppedStream.write(ByteBuffer.allocate(NBR_OF_SAMPLES));
+		
+		doAnswer(invocation -> { cut.stop(); return invocation.getArgument(2); }).when(sdlMock).write(any(), eq(0), anyInt());
+		cut.play(stoppedStream);
+		
+		assertTrue(stoppedStream.isAborted());
+		
+	} // testPlayStream()
+	
+	
+	/**
+	 * Test method for {@link sound.SoundPlayer#play(SymbolStream)}.
+	 * 
+	 * The expanded samples of the symbol stream are written chunk by chunk to the line.
+	 */
+	@Test
+	final void testPlaySymbolStream() throws Exception {
+		LOGGER.info("testPlaySymbolStream()");
+		
+		final int   FULL_CHUNK_SIZE	= 1500;
+		
+		reset(sdlMock);
+		doReturn(FULL_CHUNK_SIZE).when(sdlMock).getBufferSize();
+		doReturn(afMock).when(sdlMock).getFormat();		
+		
+		InOrder playSequence = inOrder(sdlMock);
+		
+		ByteArrayOutputStream written = new ByteArrayOutputStream();
+		doAnswer(invocation -> {
+			written.write((byte[]) invocation.getArgument(0), 0, (int) invocation.getArgument(2));
+			return invocation.getArgument(2);
+		}).when(sdlMock).write(any(), eq(0), anyInt());
+
+		SymbolStream symbolStream = new SymbolStream();
+		symbolStream.append(ByteBuffer.wrap(new byte[] { 0, 127, 0, -127 }), 1000);
+		symbolStream.append(ByteBuffer.allocate(16), 100);
+		
+		SoundPlayer cut = new SoundPlayer(sdlMock, afMock);
+		cut.play(symbolStream);
+		
+		assertArrayEquals(symbolStream.toByteBuffer().array(), written.toByteArray());
+		
+		verify(sdlMock, times(4)).write(any(), eq(0), anyInt());
+		
+		playSequence.verify(sdlMock, times(1)).start();
+		playSequence.verify(sdlMock).drain();
+		playSequence.verify(sdlMock).stop();
+		playSequence.verify(sdlMock).close();
+		
+		
+		// background execution
+		SoundPlayer cutSpy = spy(new SoundPlayer(sdlMock, afMock));
+		cutSpy.setSymbolStream(symbolStream);
+		cutSpy.runBackgroundTask();
+		
+		verify(cutSpy, times(1)).play(symbolStream);
+		verify(cutSpy, never()).play(any(ByteBuffer.class));
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> cutSpy.setSymbolStream(null));
+		assertEquals("aSymbolStream can't be null!", thrown.getMessage());
+		
+	} // testPlaySymbolStream()
+	
+	
+	/**
+	 * Test method for {@link sound.SoundPlayer#withLinePool(SourceDataLinePool, javax.sound.sampled.Mixer.Info)}.
+	 * 
+	 * With a line pool the line is acquired for the play back and given back afterwards, it isn't closed.
+	 */
+	@Test
+	final void testWithLinePool() throws Exception {
+		LOGGER.info("testWithLinePool()");
+		
+		SoundPlayer cut = new SoundPlayer(sdlMock, afMock);
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> cut.withLinePool(null, null));
+		assertEquals("aLinePool can't be null!", thrown.getMessage());
+		
+		SourceDataLine pooledLineMock = mock(SourceDataLine.class);
+		doReturn(1500).when(pooledLineMock).getBufferSize();
+		doReturn(afMock).when(pooledLineMock).getFormat();
+		doAnswer(invocation -> invocation.getArgument(2)).when(pooledLineMock).write(any(), eq(0), anyInt());
+		
+		SourceDataLinePool linePoolMock = mock(SourceDataLinePool.class);
+		doReturn(pooledLineMock).when(linePoolMock).acquire(null, afMock);
+		
+		assertEquals(cut, cut.withLinePool(linePoolMock, null));
+		
+		SymbolStream symbolStream = new SymbolStream();
+		symbolStream.append(ByteBuffer.wrap(new byte[] { 0, 127, 0, -127 }), 1000);
+		
+		reset(sdlMock);
+		InOrder playSequence = inOrder(linePoolMock, pooledLineMock);
+		
+		cut.play(symbolStream);
+		
+		playSequence.verify(linePoolMock).acquire(null, afMock);
+		playSequence.verify(pooledLineMock, times(3)).write(any(), eq(0), anyInt());
+		playSequence.verify(pooledLineMock).drain();
+		playSequence.verify(linePoolMock).release(pooledLineMock);
+		
+		verify(pooledLineMock, never()).stop();
+		verify(pooledLineMock, never()).close();
+		verifyNoInteractions(sdlMock);
+		
+		// a stopped play back is flushed
+		doAnswer(invocation -> { cut.stop(); return invocation.getArgument(2); }).when(pooledLineMock).write(any(), eq(0), anyInt());
+		
+		cut.play(symbolStream);
+		
+		verify(pooledLineMock, times(1)).drain();
+		verify(pooledLineMock, atLeastOnce()).flush();
+		verify(linePoolMock, times(2)).release(pooledLineMock);
+		
+	} // testWithLinePool()
+	
+	
+	/**
+	 * Test method for {@link sound.SoundPlayer#withTargetFill(double)} and {@link sound.SoundPlayer#getLineFillScheduler()}.
+	 * 
+	 * The writes of a play back are sized by a LineFillScheduler with the given target fill level.
+	 */
+	@Test
+	final void testWithTargetFill() throws Exception {
+		LOGGER.info("testWithTargetFill()");
+		
+		SoundPlayer cut = new SoundPlayer(sdlMock, afMock);
+		
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> cut.withTargetFill(0));
+		assertEquals("aTargetFill must be greater than 0 and less or equal 1!", thrown.getMessage());
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.withTargetFill(1.5));
+		assertEquals("aTargetFill must be greater than 0 and less or equal 1!", thrown.getMessage());
+		
+		assertNull(cut.getLineFillScheduler());
+		assertEquals(cut, cut.withTargetFill(0.5));
+		
+		reset(sdlMock);
+		doReturn(1000).when(sdlMock).getBufferSize();
+		doReturn(1000).when(sdlMock).available();
+		doReturn(new AudioFormat(8000, 8, 1, true, false)).when(sdlMock).getFormat();
+		doAnswer(invocation -> invocation.getArgument(2)).when(sdlMock).write(any(), eq(0), anyInt());
+		
+		cut.play(ByteBuffer.allocate(1200));
+		
+		// the line is empty before each write, so it's filled up to the half
+		verify(sdlMock, times(2)).write(any(), eq(0), eq(500));
+		verify(sdlMock, times(1)).write(any(), eq(0), eq(200));
+		
+		assertTrue(cut.getLineFillScheduler().isTimed());
+		assertEquals(3, cut.getLineFillScheduler().getWriteCount());
+		assertEquals(0, cut.getLineFillScheduler().getUnderrunCount());
+		
+	} // testWithTargetFill()
+	
+	
 	/**
 	 * Test method for {@link sound.SoundPlayer#runBackgroundTask()}.
 	 * 
@@ -366,6 +594,10 @@ class SoundPlayerTest {
 			SoundPlayer cut = spy(new SoundPlayer(sdlMock, afMock));
 			cut.setSoundBuffer(soundSampleBuffer);
 			
+			// run by SwingWorker.execute() instead of the audio thread
+			assertEquals(TaskExecutors.getAudioExecutor(), cut.getExecutor());
+			cut.setExecutor(null);
+			
 			// execute created the BackgroundExecutor
 			cut.execute();
 
@@ -381,7 +613,9 @@ class SoundPlayerTest {
 			// We MUST trigger cut.runBackgroundTask() to start execution!
 			cut.runBackgroundTask();
 			
-			progressSteps.verify(bgeMock, times(6)).stepOn(anyInt());
+			// the 6 chunks are written at once, the values in between are coalesced
+			progressSteps.verify(bgeMock).stepOn(100);
+			verify(bgeMock, atMost(6)).stepOn(anyInt());
 		
 		} // yrt
 			
@@ -541,7 +775,7 @@ class SoundPlayerTest {
 	 * Test method for {@link sound.SoundPlayer#setSoundBuffer(ByteBuffer)}.
 	 */
 	@Test 
-	final void testSetSoundBuffer() {
+	final void testSetSoundBuffer() throws LineUnavailableException {
 		LOGGER.info("testSetSoundBuffer()");
 		
 		final int   NBR_OF_SAMPLES	= 8000;
@@ -557,6 +791,26 @@ class SoundPlayerTest {
 		cut.setSoundBuffer(soundSampleBuffer);
 		
 		
+		// with an audio format of it's own, e.g. an imported WAVE file
+		AudioFormat fileFormatMock = mock(AudioFormat.class);
+		
+		thrown = assertThrows(IllegalArgumentException.class, () -> cut.setSoundBuffer(soundSampleBuffer, null) );
+		assertEquals("aAudioFormat can't be null!", thrown.getMessage());
+		
+		reset(sdlMock);
+		doReturn(1024).when(sdlMock).getBufferSize();
+		doReturn(afMock).when(sdlMock).getFormat();
+		when(sdlMock.isOpen()).thenReturn(false);
+		
+		cut.setSoundBuffer(ByteBuffer.allocate(10), fileFormatMock);
+		assertDoesNotThrow(() -> cut.runBackgroundTask());
+		verify(sdlMock, times(1)).open(fileFormatMock);
+		
+		// the next buffer is played with the format given in constructor call again
+		cut.setSoundBuffer(ByteBuffer.allocate(10));
+		assertDoesNotThrow(() -> cut.runBackgroundTask());
+		verify(sdlMock, times(1)).open(afMock);
+		
 	} // testSetSoundBuffer()
 	
 	
@@ -566,7 +820,7 @@ class SoundPlayerTest {
 	 * Makes sure that a running playback can be stopped.
 	 */
 	
-	private int syncFlag;
+	private volatile int syncFlag;
 
 	@Test
 	final void testStop() {
@@ -587,6 +841,13 @@ class SoundPlayerTest {
 
 				syncFlag--;
 				
+				// hold the player till stop() has been called, so the test doesn't depend on the scheduling
+				long deadline = System.currentTimeMillis() + 2000;
+				
+				while(syncFlag <= 0 && !cut.getCancellationToken().isCancelled() && System.currentTimeMillis() < deadline) {
+					Thread.onSpinWait();
+				}
+				
 			return null;
 					          
 			} // answer(...)
@@ -630,8 +891,55 @@ class SoundPlayerTest {
 		cut.stop();
 		verify(sdlMock, atMost(7)).write(any(), eq(0), eq(1500));
 		
+		// the queued samples are discarded at once
+		verify(sdlMock, atLeastOnce()).flush();
+		assertTrue(cut.getCancellationToken().isCancelled());
+		
 	} // testStop()
 	
+	
+	/**
+	 * Test method for {@link sound.SoundPlayer#stop()}.
+	 * 
+	 * An abort while the player is idle, e.g. between the uploads of two regions, doesn't cut the 
+	 * next play back.
+	 */
+	@Test
+	final void testStopWhileIdle() throws Exception {
+		LOGGER.info("testStopWhileIdle()");
+		
+		reset(sdlMock);
+		doReturn(1500).when(sdlMock).getBufferSize();
+		doReturn(afMock).when(sdlMock).getFormat();
+		
+		int[] nbrOfSamplesWritten = new int[1];
+		doAnswer(invocation -> {
+			nbrOfSamplesWritten[0] += (int) invocation.getArgument(2);
+			return invocation.getArgument(2);
+		}).when(sdlMock).write(any(), eq(0), anyInt());
+		
+		SymbolStream symbolStream = new SymbolStream();
+		symbolStream.append(ByteBuffer.allocate(100), 50);
+		
+		SoundPlayer cut = new SoundPlayer(sdlMock, afMock);
+		cut.play(symbolStream);
+		
+		assertEquals(5000, nbrOfSamplesWritten[0]);
+		assertTrue(! cut.isActive());
+		
+		cut.stop();
+		
+		assertTrue(! cut.getCancellationToken().isCancelled());
+		verify(sdlMock, never()).flush();
+		
+		nbrOfSamplesWritten[0] = 0;
+		cut.play(symbolStream);
+		
+		assertEquals(5000, nbrOfSamplesWritten[0]);
+		verify(sdlMock, times(2)).drain();
+		
+	} // testStopWhileIdle()
+	
 
 	/**
 	 * Verifies the correct behavior of toString()
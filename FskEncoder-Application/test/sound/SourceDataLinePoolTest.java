@@ -0,0 +1,332 @@
+/**
+ *
+ * **********************************************************************
+ * PROJECT       : FskEncoder-Application
+ * FILENAME      : SourceDataLinePoolTest.java
+ *
+ * More information about this project can be found on Github
+ * http://github.com/kamaso-macha/FskEncoder-Application
+ *
+ * **********************************************************************
+ *
+ * Copyright (C)2025 by Kama So Macha (http://github.com/kamaso-macha)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-3.0.html>.
+ *
+ */
+
+package sound;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.Mixer;
+import javax.sound.sampled.SourceDataLine;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Responsibilities:<br>
+ * Verifies the correct function of class SourceDataLinePool.
+ *
+ * <p>
+ * Collaborators:<br>
+ * Class under test.
+ *
+ * <p>
+ * Description:<br>
+ * The lines are mocked, they are created by an overridden createLine(). A mocked line 
+ * remembers whether it's open.
+ *
+ * <p>
+ * @author Stefan
+ *
+ */
+
+class SourceDataLinePoolTest {
+
+	private static Logger LOGGER = null;
+	
+	private static final AudioFormat SIGNED_FORMAT = new AudioFormat(8000, 8, 1, true, false);
+	private static final AudioFormat UNSIGNED_FORMAT = new AudioFormat(8000, 8, 1, false, false);
+	
+	Mixer.Info mixerInfo1 = mock(Mixer.Info.class);
+	Mixer.Info mixerInfo2 = mock(Mixer.Info.class);
+	
+	List<SourceDataLine> createdLines;
+	SourceDataLinePool cut;
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeAll
+	static void setUpBeforeClass() throws Exception {
+		System.setProperty("log4j.configurationFile","./test-cfg/log4j2.xml");
+		LOGGER = LogManager.getLogger();
+	}
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@BeforeEach
+	void setUp() throws Exception {
+		
+		createdLines = new ArrayList<>();
+		
+		cut = new SourceDataLinePool() {
+			
+			@Override
+			protected SourceDataLine createLine(Mixer.Info aMixerInfo, AudioFormat aAudioFormat) 
+					throws LineUnavailableException {
+				
+				SourceDataLine line = mock(SourceDataLine.class);
+				boolean[] isOpen = new boolean[1];
+				int[] buffered = new int[1];
+				
+				doAnswer(invocation -> isOpen[0]).when(line).isOpen();
+				doAnswer(invocation -> isOpen[0] = true).when(line).open(any());
+				doAnswer(invocation -> isOpen[0] = false).when(line).close();
+				doReturn(8000).when(line).getBufferSize();
+				doAnswer(invocation -> 8000 - buffered[0]).when(line).available();
+				doAnswer(invocation -> buffered[0] = 0).when(line).flush();
+				doAnswer(invocation -> {
+					buffered[0] += (int) invocation.getArgument(2);
+					return invocation.getArgument(2);
+				}).when(line).write(any(), eq(0), anyInt());
+				
+				createdLines.add(line);
+				return line;
+				
+			}
+			
+		};
+		
+	} // setUp()
+
+
+	/**
+	 * @throws java.lang.Exception
+	 */
+	@AfterEach
+	void tearDown() throws Exception {
+		cut.releaseAll();
+	}
+
+
+	/**
+	 * Test method for {@link sound.SourceDataLinePool#getLine(Mixer.Info, AudioFormat)}.
+	 * <p>
+	 * There is one line per device and format, it isn't opened.
+	 */
+	@Test
+	void testGetLine() throws LineUnavailableException {
+		LOGGER.info("testGetLine()");
+
+		IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> cut.getLine(mixerInfo1, null));
+		assertEquals("aAudioFormat can't be null!", thrown.getMessage());
+		
+		SourceDataLine line = cut.getLine(mixerInfo1, SIGNED_FORMAT);
+		
+		assertSame(line, cut.getLine(mixerInfo1, new AudioFormat(8000, 8, 1, true, false)));
+		assertNotSame(line, cut.getLine(mixerInfo2, SIGNED_FORMAT));
+		assertNotSame(line, cut.getLine(mixerInfo1, UNSIGNED_FORMAT));
+		assertNotSame(line, cut.getLine(null, SIGNED_FORMAT));
+		
+		assertEquals(4, cut.getLineCount());
+		assertFalse(line.isOpen());
+		
+	} // testGetLine()
+
+
+	/**
+	 * Test method for {@link sound.SourceDataLinePool#acquire(Mixer.Info, AudioFormat)} and
+	 * {@link sound.SourceDataLinePool#release(SourceDataLine)}.
+	 * <p>
+	 * A line is opened once, fed with silence up to the low-water mark while it's idle and stays open.
+	 * The queued silence isn't flushed when the line is acquired again, a line in use can't be acquired.
+	 */
+	@Test
+	void testAcquireRelease() throws LineUnavailableException {
+		LOGGER.info("testAcquireRelease()");
+
+		SourceDataLine line = cut.acquire(mixerInfo1, SIGNED_FORMAT);
+		
+		verify(line, times(1)).open(SIGNED_FORMAT);
+		verify(line, times(1)).start();
+		assertFalse(cut.isIdle(line));
+		
+		assertThrows(LineUnavailableException.class, () -> cut.acquire(mixerInfo1, SIGNED_FORMAT));
+		verify(line, times(1)).start();
+		
+		cut.release(line);
+		
+		assertTrue(cut.isIdle(line));
+		verify(line, timeout(1000).times(SourceDataLinePool.IDLE_LOW_WATER_MARK)).write(any(), eq(0), eq(160));
+		verify(line, never()).flush();
+		
+		// the buffer isn't drained by the mock, so the feeder must not write more
+		verify(line, after(SourceDataLinePool.IDLE_CHUNK_DURATION * 5L).times(SourceDataLinePool.IDLE_LOW_WATER_MARK)).write(any(), eq(0), eq(160));
+		assertEquals(8000 - 160 * SourceDataLinePool.IDLE_LOW_WATER_MARK, line.available());
+		
+		assertSame(line, cut.acquire(mixerInfo1, SIGNED_FORMAT));
+		
+		// the running line plays the queued silence, no more is written
+		verify(line, never()).flush();
+		verify(line, times(SourceDataLinePool.IDLE_LOW_WATER_MARK)).write(any(), eq(0), eq(160));
+		assertEquals(8000 - 160 * SourceDataLinePool.IDLE_LOW_WATER_MARK, line.available());
+		
+		assertFalse(cut.isIdle(line));
+		verify(line, times(1)).open(any());
+		verify(line, times(2)).start();
+		verify(line, never()).close();
+		
+		// unknown lines are ignored
+		cut.release(mock(SourceDataLine.class));
+		assertFalse(cut.isIdle(line));
+		
+	} // testAcquireRelease()
+
+
+	/**
+	 * Test method for {@link sound.SourceDataLinePool#release(Mixer.Info)} and 
+	 * {@link sound.SourceDataLinePool#releaseAll()}.
+	 */
+	@Test
+	void testReleaseDevice() throws LineUnavailableException {
+		LOGGER.info("testReleaseDevice()");
+
+		SourceDataLine line1 = cut.acquire(mixerInfo1, SIGNED_FORMAT);
+		SourceDataLine line2 = cut.acquire(mixerInfo2, SIGNED_FORMAT);
+		
+		cut.release(line1);
+		cut.release(mixerInfo1);
+		
+		assertEquals(1, cut.getLineCount());
+		assertFalse(cut.isIdle(line1));
+		assertFalse(line1.isOpen());
+		verify(line1, times(1)).close();
+		verify(line2, never()).close();
+		
+		cut.releaseAll();
+		
+		assertEquals(0, cut.getLineCount());
+		verify(line2, times(1)).close();
+		
+	} // testReleaseDevice()
+
+
+	/**
+	 * Test method for {@link sound.SourceDataLinePool#acquire(Mixer.Info, AudioFormat)}.
+	 * <p>
+	 * If a device is acquired in another format, it's idle lines in the former format are closed.
+	 * Lines in use and lines of other devices stay open.
+	 */
+	@Test
+	void testAcquireFormatChange() throws LineUnavailableException {
+		LOGGER.info("testAcquireFormatChange()");
+
+		SourceDataLine signedLine = cut.acquire(mixerInfo1, SIGNED_FORMAT);
+		SourceDataLine otherDeviceLine = cut.acquire(mixerInfo2, SIGNED_FORMAT);
+		
+		cut.release(signedLine);
+		cut.release(otherDeviceLine);
+		
+		SourceDataLine unsignedLine = cut.acquire(mixerInfo1, UNSIGNED_FORMAT);
+		
+		assertNotSame(signedLine, unsignedLine);
+		assertEquals(2, cut.getLineCount());
+		assertFalse(signedLine.isOpen());
+		assertFalse(cut.isIdle(signedLine));
+		verify(signedLine, times(1)).close();
+		
+		assertTrue(otherDeviceLine.isOpen());
+		assertTrue(cut.isIdle(otherDeviceLine));
+		
+		// the line in use isn't closed by a change back
+		SourceDataLine signedLine2 = cut.acquire(mixerInfo1, SIGNED_FORMAT);
+		
+		assertNotSame(signedLine, signedLine2);
+		assertEquals(3, cut.getLineCount());
+		assertTrue(unsignedLine.isOpen());
+		verify(unsignedLine, never()).close();
+		
+	} // testAcquireFormatChange()
+
+
+	/**
+	 * Test method for {@link sound.SourceDataLinePool#createSilence(AudioFormat)}.
+	 */
+	@Test
+	void testCreateSilence() {
+		LOGGER.info("testCreateSilence()");
+
+		byte[] silence = SourceDataLinePool.createSilence(SIGNED_FORMAT);
+		
+		assertEquals(160, silence.length);
+		for(byte sample : silence) assertEquals(0, sample);
+		
+		silence = SourceDataLinePool.createSilence(UNSIGNED_FORMAT);
+		
+		assertEquals(160, silence.length);
+		for(byte sample : silence) assertEquals((byte) 0x80, sample);
+		
+		silence = SourceDataLinePool.createSilence(new AudioFormat(AudioFormat.Encoding.PCM_UNSIGNED, 8000, 16, 1, 2, 8000, false));
+		
+		assertEquals(320, silence.length);
+		assertEquals(0, silence[0]);
+		assertEquals((byte) 0x80, silence[1]);
+		
+	} // testCreateSilence()
+
+
+	/**
+	 * Verifies the correct behavior of toString()
+	 *
+	 * Test method for {@link #toString()}.
+	 */
+	@Test
+	void testToString() throws LineUnavailableException {
+		LOGGER.info("testToString()");
+
+		cut.getLine(mixerInfo1, SIGNED_FORMAT);
+		
+		assertEquals("SourceDataLinePool [lineCount=1]", cut.toString());
+
+	} // testToString()
+
+
+} // ssalc